@@ -4,8 +4,10 @@ import algo.Pools;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.impl.AllShortestPaths;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
@@ -24,6 +26,9 @@ public class AllShortestPathsProc {
     @Context
     public Log log;
 
+    @Context
+    public KernelTransaction transaction;
+
     @Procedure("algo.allShortestPaths.stream")
     @Description("CALL algo.allShortestPaths.stream(propertyName:String" +
             "{nodeQuery:'labelName', relationshipQuery:'relationshipName', defaultValue:1.0}) " +
@@ -43,9 +48,11 @@ public class AllShortestPathsProc {
                         configuration.getPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .load(configuration);
 
         return new AllShortestPaths(graph, Pools.DEFAULT, configuration.getConcurrency())
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
                 .resultStream();
     }
 }
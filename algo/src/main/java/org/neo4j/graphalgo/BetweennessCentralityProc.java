@@ -4,11 +4,14 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.impl.*;
 import org.neo4j.graphalgo.results.BetweennessCentralityProcResult;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
@@ -27,6 +30,9 @@ public class BetweennessCentralityProc {
     @Context
     public Log log;
 
+    @Context
+    public KernelTransaction transaction;
+
     @Procedure(value = "algo.betweenness.exp1.stream")
     @Description("CALL algo.betweenness.exp1.stream(label:String, relationship:String, {scaleFactor:1000000}) YIELD nodeId, centrality - yields centrality for each node")
     public Stream<BetweennessCentrality.Result> betweennessSuccessorBrandesStream(
@@ -41,7 +47,7 @@ public class BetweennessCentralityProc {
                 .withOptionalRelationshipType(relationship)
                 .withoutNodeProperties()
                 .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
 
         return new BetweennessCentralitySuccessorBrandes(graph,
                 configuration.getNumber("scaleFactor", 100_000).intValue(),
@@ -64,13 +70,18 @@ public class BetweennessCentralityProc {
                 .withOptionalRelationshipType(relationship)
                 .withoutNodeProperties()
                 .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
+                .withTerminationFlag(TerminationFlag.wrap(transaction))
+                .load(configuration);
 
         if (configuration.getConcurrency(-1) > 0) {
+            MemoryUsage.assertFits("Betweenness centrality", ParallelBetweennessCentrality.estimateMemoryUsage(
+                    graph.nodeCount(),
+                    configuration.getConcurrency()));
             return new ParallelBetweennessCentrality(graph,
                     configuration.getNumber("scaleFactor", 100_000).intValue(),
                     Pools.DEFAULT,
                     configuration.getConcurrency())
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
                     .compute()
                     .resultStream();
         }
@@ -99,7 +110,7 @@ public class BetweennessCentralityProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutNodeProperties()
                     .withDirection(Direction.OUTGOING)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         }
 
         builder.withNodeCount(graph.nodeCount());
@@ -165,7 +176,7 @@ public class BetweennessCentralityProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutNodeProperties()
                     .withDirection(Direction.OUTGOING)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         }
 
         builder.withNodeCount(graph.nodeCount());
@@ -208,16 +219,21 @@ public class BetweennessCentralityProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutNodeProperties()
                     .withDirection(Direction.OUTGOING)
-                    .load(configuration.getGraphImpl());
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .load(configuration);
         }
 
         builder.withNodeCount(graph.nodeCount());
+        MemoryUsage.assertFits("Betweenness centrality", ParallelBetweennessCentrality.estimateMemoryUsage(
+                graph.nodeCount(),
+                configuration.getConcurrency()));
 
         final ParallelBetweennessCentrality bc = new ParallelBetweennessCentrality(
                 graph,
                 configuration.getNumber("scaleFactor", 100_000).doubleValue(),
                 Pools.DEFAULT,
-                configuration.getConcurrency());
+                configuration.getConcurrency())
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
 
         builder.timeEval(() -> {
             bc.compute();
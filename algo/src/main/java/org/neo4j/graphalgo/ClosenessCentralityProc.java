@@ -42,7 +42,7 @@ public class ClosenessCentralityProc {
                 .withOptionalRelationshipType(relationship)
                 .withoutNodeProperties()
                 .withDirection(Direction.OUTGOING)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
 
         return new MSClosenessCentrality(graph, Pools.DEFAULT)
                 .compute()
@@ -68,7 +68,7 @@ public class ClosenessCentralityProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutNodeProperties()
                     .withDirection(Direction.OUTGOING)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         }
 
         builder.withNodeCount(graph.nodeCount());
@@ -0,0 +1,233 @@
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeOrder;
+import org.neo4j.graphalgo.core.GraphCatalog;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.IncrementalGraph;
+import org.neo4j.graphalgo.core.snapshot.GraphSnapshot;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.results.GraphCatalogResult;
+import org.neo4j.graphalgo.results.GraphSnapshotResult;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Procedures to manage the {@link GraphCatalog}. A graph loaded by name
+ * is used by every algorithm which is called with {@code graph:'name'}.
+ */
+public class GraphCatalogProc {
+
+    /**
+     * directory of the snapshot files, below the store directory
+     */
+    public static final String SNAPSHOT_DIRECTORY = "graph-snapshots";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.graph.load")
+    @Description("CALL algo.graph.load(name:String, label:String, relationship:String, " +
+            "{graph:'heavy', direction:'BOTH|UNDIRECTED', weightProperty:'weight', defaultValue:1.0, " +
+            "incremental:false, compactionThreshold:10000, sorted:false, order:'none|degree|bfs', scan:false}) " +
+            "YIELD name, type, direction, nodes, relationships, bytes, loadMillis - " +
+            "loads a graph and stores it under the given name, an incremental heavy graph follows the changes of the database")
+    public Stream<GraphCatalogResult> load(
+            @Name(value = "name") String name,
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+
+        final String type = configuration.getGraphName(ProcedureConstants.DEFAULT_GRAPH_IMPL);
+        final boolean undirected = configuration.isUndirected();
+        final Direction direction = undirected ? Direction.BOTH : Direction.valueOf(
+                configuration.getDirectionName().toUpperCase(Locale.ROOT));
+        final boolean incremental = configuration.get("incremental", false);
+        if (incremental && configuration.getGraphImpl() != HeavyGraphFactory.class) {
+            throw new IllegalArgumentException("Only heavy graphs can be loaded incrementally");
+        }
+        if (undirected && configuration.getGraphImpl() != HeavyGraphFactory.class) {
+            throw new IllegalArgumentException("Only heavy graphs can be loaded undirected");
+        }
+        if (undirected && incremental) {
+            throw new IllegalArgumentException("Undirected graphs can't be loaded incrementally");
+        }
+
+        final GraphLoader loader = new GraphLoader(api)
+                .withOptionalLabel(configuration.getNodeLabelOrQuery())
+                .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
+                .withOptionalRelationshipWeightsFromProperty(
+                        configuration.getProperty(),
+                        configuration.getPropertyDefaultValue(1.0))
+                .withDirection(direction)
+                .withSort(configuration.get("sorted", false))
+                .withUndirected(undirected)
+                .withNodeOrder(NodeOrder.parse(configuration.get("order", "none")))
+                .withRelationshipScan(configuration.get("scan", false))
+                .withExecutorService(Pools.DEFAULT)
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
+        final MemoryEstimate estimate = loader.estimate(configuration.getGraphImpl());
+        // reject graphs which can't be stored before they are built
+        GraphCatalog.of(api).assertFits(name, estimate != null ? estimate.bytes : 0L);
+        if (estimate != null) {
+            MemoryUsage.assertFits("The graph", estimate.bytes);
+        }
+
+        final long[] loadMillis = {0L};
+        Graph graph;
+        try (ProgressTimer timer = ProgressTimer.start(millis -> loadMillis[0] = millis)) {
+            if (incremental) {
+                // follows the changes from before the load, so commits during the load are not lost
+                graph = IncrementalGraph.load(
+                        api,
+                        () -> (HeavyGraph) loader.load(HeavyGraphFactory.class),
+                        configuration.getNodeLabelOrQuery(),
+                        configuration.getRelationshipOrQuery(),
+                        configuration.getProperty(),
+                        configuration.getPropertyDefaultValue(1.0),
+                        configuration.getInt("compactionThreshold", IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD));
+            } else {
+                graph = loader.load(configuration.getGraphImpl());
+            }
+        }
+
+        final GraphCatalog.Entry entry;
+        try {
+            entry = GraphCatalog.of(api).put(
+                    name,
+                    incremental ? "incremental" : type.toLowerCase(Locale.ROOT),
+                    direction,
+                    undirected,
+                    graph,
+                    configuration.getProperty() != null,
+                    configuration.getPropertyDefaultValue(1.0),
+                    estimate);
+        } catch (RuntimeException e) {
+            if (graph instanceof IncrementalGraph) {
+                ((IncrementalGraph) graph).release();
+            }
+            throw e;
+        }
+        return Stream.of(new GraphCatalogResult(entry, loadMillis[0]));
+    }
+
+    @Procedure(value = "algo.graph.save")
+    @Description("CALL algo.graph.save(name:String, file:String) " +
+            "YIELD name, file, bytes, writeMillis - " +
+            "writes the named graph into a snapshot file in the snapshot directory of the store, " +
+            "existing files are only replaced if they are snapshots")
+    public Stream<GraphSnapshotResult> save(
+            @Name(value = "name") String name,
+            @Name(value = "file") String file) {
+        final GraphCatalog.Entry entry = GraphCatalog.of(api).list()
+                .stream()
+                .filter(e -> e.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No graph named '" + name + "'"));
+
+        final Graph graph = GraphCatalog.of(api).get(name);
+        final Path path = resolve(file);
+        final long[] writeMillis = {0L};
+        final long bytes;
+        try (ProgressTimer timer = ProgressTimer.start(millis -> writeMillis[0] = millis)) {
+            bytes = GraphSnapshot.write(
+                    graph,
+                    entry.direction,
+                    entry.undirected,
+                    entry.weighted,
+                    entry.defaultWeight,
+                    path,
+                    Pools.DEFAULT);
+        }
+        return Stream.of(new GraphSnapshotResult(name, path.toString(), bytes, writeMillis[0]));
+    }
+
+    @Procedure(value = "algo.graph.restore")
+    @Description("CALL algo.graph.restore(name:String, file:String, {verify:true}) " +
+            "YIELD name, type, direction, nodes, relationships, bytes, loadMillis - " +
+            "maps a snapshot file of the snapshot directory and stores the graph under the given name")
+    public Stream<GraphCatalogResult> restore(
+            @Name(value = "name") String name,
+            @Name(value = "file") String file,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        final boolean verify = ProcedureConfiguration.create(config).get("verify", true);
+
+        final long[] loadMillis = {0L};
+        final GraphSnapshot.Snapshot snapshot;
+        try (ProgressTimer timer = ProgressTimer.start(millis -> loadMillis[0] = millis)) {
+            snapshot = GraphSnapshot.read(resolve(file), verify);
+        }
+        final GraphCatalog.Entry entry = GraphCatalog.of(api).put(
+                name,
+                "snapshot",
+                snapshot.direction,
+                snapshot.undirected,
+                snapshot.graph,
+                snapshot.weighted,
+                snapshot.defaultWeight,
+                // the snapshot is memory mapped, only its id mapping is on the heap
+                new MemoryEstimate(
+                        snapshot.graph.nodeCount(),
+                        0L,
+                        IdMap.estimateMemoryUsage(snapshot.graph.nodeCount())));
+        return Stream.of(new GraphCatalogResult(entry, loadMillis[0]));
+    }
+
+    @Procedure(value = "algo.graph.remove")
+    @Description("CALL algo.graph.remove(name:String) " +
+            "YIELD name, type, direction, nodes, relationships, bytes, loadMillis - " +
+            "removes the named graph from the catalog")
+    public Stream<GraphCatalogResult> remove(@Name(value = "name") String name) {
+        final GraphCatalog.Entry entry = GraphCatalog.of(api).remove(name);
+        return entry != null
+                ? Stream.of(new GraphCatalogResult(entry, 0L))
+                : Stream.empty();
+    }
+
+    @Procedure(value = "algo.graph.list")
+    @Description("CALL algo.graph.list() " +
+            "YIELD name, type, direction, nodes, relationships, bytes, loadMillis - " +
+            "lists the graphs in the catalog, least recently used first")
+    public Stream<GraphCatalogResult> list() {
+        return GraphCatalog.of(api)
+                .list()
+                .stream()
+                .map(entry -> new GraphCatalogResult(entry, 0L));
+    }
+
+    /**
+     * resolve the file in the snapshot directory, the file must not leave it
+     */
+    private Path resolve(String file) {
+        return GraphSnapshot.resolve(
+                Paths.get(api.getStoreDir()).resolve(SNAPSHOT_DIRECTORY),
+                file);
+    }
+}
@@ -6,9 +6,11 @@ import com.carrotsearch.hppc.cursors.IntCursor;
 import org.neo4j.collection.primitive.PrimitiveIntIterable;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.graphalgo.api.BatchNodeIterable;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.NodeWeights;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
-import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
@@ -71,9 +73,8 @@ public final class LabelPropagationProc {
                 .partitionProperty(partitionProperty)
                 .weightProperty(weightProperty);
 
-        HeavyGraph graph = load(
-                configuration.getNodeLabelOrQuery(),
-                configuration.getRelationshipOrQuery(),
+        Graph graph = load(
+                configuration,
                 direction,
                 partitionProperty,
                 weightProperty,
@@ -90,24 +91,37 @@ public final class LabelPropagationProc {
         return Stream.of(stats.build());
     }
 
-    private HeavyGraph load(
-            String label,
-            String relationshipType,
+    /**
+     * a named graph is checked for the direction and the weights and its
+     * relationship type layers are selected, any other graph is loaded as a
+     * heavy graph
+     */
+    private Graph load(
+            ProcedureConfiguration configuration,
             Direction direction,
             String partitionKey,
             String weightKey,
             LabelPropagationStats.Builder stats) {
 
         try (ProgressTimer timer = stats.timeLoad()) {
-            return (HeavyGraph) new GraphLoader(dbAPI)
-                    .withOptionalLabel(label)
-                    .withOptionalRelationshipType(relationshipType)
+            final GraphLoader loader = new GraphLoader(dbAPI)
+                    .withOptionalLabel(configuration.getNodeLabelOrQuery())
+                    .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
                     .withOptionalRelationshipWeightsFromProperty(weightKey, 1.0d)
                     .withOptionalNodeWeightsFromProperty(weightKey, 1.0d)
                     .withOptionalNodeProperty(partitionKey, 0.0d)
                     .withDirection(direction)
-                    .withExecutorService(Pools.DEFAULT)
-                    .load(HeavyGraphFactory.class);
+                    .withExecutorService(Pools.DEFAULT);
+            final String graphName = configuration.getGraphName(null);
+            if (graphName == null || ProcedureConfiguration.isGraphImpl(graphName)) {
+                return loader.load(HeavyGraphFactory.class);
+            }
+            final Graph graph = loader.load(configuration);
+            if (!(graph instanceof NodeWeights) || !(graph instanceof NodeProperties)) {
+                throw new IllegalArgumentException(
+                        "Label propagation requires a heavy or incremental graph, but '" + graphName + "' is not");
+            }
+            return graph;
         }
     }
 
@@ -115,11 +129,11 @@ public final class LabelPropagationProc {
             Direction direction,
             int iterations,
             int batchSize,
-            HeavyGraph graph,
+            Graph graph,
             LabelPropagationStats.Builder stats) {
         try (ProgressTimer timer = stats.timeEval()) {
             ExecutorService pool = batchSize > 0 ? Pools.DEFAULT : null;
-            return new LabelPropagation(graph, pool).compute(
+            return new LabelPropagation(graph, (NodeWeights) graph, (NodeProperties) graph, pool).compute(
                     direction,
                     iterations,
                     Math.max(1, batchSize)
@@ -130,7 +144,7 @@ public final class LabelPropagationProc {
     private void write(
             int batchSize,
             String partitionKey,
-            HeavyGraph graph,
+            Graph graph,
             IntDoubleMap labels,
             LabelPropagationStats.Builder stats) {
         stats.write(true);
@@ -1,12 +1,10 @@
 package org.neo4j.graphalgo;
 
 import algo.Pools;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
-import org.neo4j.graphalgo.core.sources.BothRelationshipAdapter;
-import org.neo4j.graphalgo.core.sources.BufferedWeightMap;
-import org.neo4j.graphalgo.core.sources.LazyIdMapper;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
-import org.neo4j.graphalgo.core.utils.container.RelationshipContainer;
 import org.neo4j.graphalgo.impl.MSTPrim;
 import org.neo4j.graphalgo.impl.MSTPrimExporter;
 import org.neo4j.graphalgo.results.MSTPrimResult;
@@ -46,39 +44,21 @@ public class MSTPrimProc {
 
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
-        LazyIdMapper idMapper = LazyIdMapper.importer(api)
-                .withWeightsFromProperty(weightProperty, 1.0)
-                .withOptionalLabel(configuration.getNodeLabelOrQuery())
-                .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                .build();
-
         MSTPrimResult.Builder builder = MSTPrimResult.builder();
 
-        final BufferedWeightMap weightMap;
-        final RelationshipContainer relationshipContainer;
-
-        int startNodeId = idMapper.toMappedNodeId(startNode.getId());
-
-        try(ProgressTimer timer = builder.timeLoad()) {
-            weightMap = BufferedWeightMap.importer(api)
-                    .withIdMapping(idMapper)
-                    .withAnyDirection(true)
-                    .withWeightsFromProperty(weightProperty, 1.0)
+        final Graph graph;
+        try (ProgressTimer timer = builder.timeLoad()) {
+            graph = new GraphLoader(api)
                     .withOptionalLabel(configuration.getNodeLabelOrQuery())
                     .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                    .build();
-            relationshipContainer = RelationshipContainer.importer(api)
-                    .withIdMapping(idMapper)
+                    .withOptionalRelationshipWeightsFromProperty(weightProperty, 1.0)
                     .withDirection(Direction.BOTH)
-                    .withOptionalLabel(configuration.getNodeLabelOrQuery())
-                    .withOptionalRelationshipType(configuration.getRelationshipOrQuery())
-                    .build();
+                    .withExecutorService(Pools.DEFAULT)
+                    .load(configuration);
         }
 
-        final MSTPrim mstPrim = new MSTPrim(
-                idMapper,
-                new BothRelationshipAdapter(relationshipContainer),
-                weightMap);
+        final int startNodeId = graph.toMappedNodeId(startNode.getId());
+        final MSTPrim mstPrim = new MSTPrim(graph, graph);
 
         builder.timeEval(() -> {
             mstPrim.compute(startNodeId);
@@ -95,7 +75,7 @@ public class MSTPrimProc {
         if (configuration.isWriteFlag()) {
             builder.timeWrite(() -> {
                 new MSTPrimExporter(api)
-                        .withIdMapping(idMapper)
+                        .withIdMapping(graph)
                         .withWriteRelationship(configuration.get(CONFIG_WRITE_RELATIONSHIP, CONFIG_WRITE_RELATIONSHIP_DEFAULT))
                         .write(mstPrim.getMinimumSpanningTree());
             });
@@ -0,0 +1,118 @@
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.core.GraphCatalog;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.impl.BetweennessCentrality;
+import org.neo4j.graphalgo.impl.HugePageRank;
+import org.neo4j.graphalgo.impl.PageRank;
+import org.neo4j.graphalgo.impl.ParallelBetweennessCentrality;
+import org.neo4j.graphalgo.results.MemRecResult;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Estimates the heap needed to load a graph and to run an algorithm on it
+ * before anything is loaded. The graph size is derived from the counts
+ * store and the layout of the graph implementation.
+ */
+public class MemRecProc {
+
+    public static final String ALGORITHM_PAGE_RANK = "pageRank";
+    public static final String ALGORITHM_BETWEENNESS = "betweenness";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Procedure(value = "algo.memrec")
+    @Description("CALL algo.memrec(label:String, relationship:String, algorithm:String, " +
+            "{graph:'heavy', direction:'BOTH', weightProperty:'weight', concurrency:4}) " +
+            "YIELD nodes, relationships, graphBytes, algorithmBytes, requiredBytes, freeBytes, requiredMemory, fits - " +
+            "estimates the heap needed by the algorithm ('pageRank', 'betweenness' or '' for the graph only)")
+    public Stream<MemRecResult> memrec(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "algorithm", defaultValue = "") String algorithm,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final String graphName = configuration.getGraphName(ProcedureConstants.DEFAULT_GRAPH_IMPL);
+        final boolean huge = graphName.equalsIgnoreCase("huge");
+
+        final long nodes;
+        final long relationships;
+        final long graphBytes;
+        final GraphCatalog.Entry entry = GraphCatalog.of(api).entry(graphName);
+        if (entry != null) {
+            nodes = entry.nodes;
+            relationships = entry.relationships;
+            graphBytes = 0L;
+        } else {
+            final MemoryEstimate estimate = new GraphLoader(api)
+                    .withOptionalLabel(label)
+                    .withOptionalRelationshipType(relationship)
+                    .withOptionalRelationshipWeightsFromProperty(
+                            configuration.getProperty(),
+                            configuration.getPropertyDefaultValue(1.0))
+                    .withDirection(direction(algorithm, huge, configuration))
+                    .estimate(configuration.getGraphImpl());
+            if (estimate == null) {
+                throw new IllegalArgumentException("Memory estimation is not supported for graph '" + graphName + "'");
+            }
+            nodes = estimate.nodeCount;
+            relationships = estimate.relationshipCount;
+            graphBytes = estimate.bytes;
+        }
+
+        final long algorithmBytes;
+        if (algorithm == null || algorithm.isEmpty()) {
+            algorithmBytes = 0L;
+        } else if (algorithm.equalsIgnoreCase(ALGORITHM_PAGE_RANK)) {
+            // same default as PageRankProc
+            final int concurrency = configuration.getConcurrency(Pools.getNoThreadsInDefaultPool());
+            algorithmBytes = huge
+                    ? HugePageRank.estimateMemoryUsage(nodes)
+                    : PageRank.estimateMemoryUsage(Math.toIntExact(nodes), concurrency);
+        } else if (algorithm.equalsIgnoreCase(ALGORITHM_BETWEENNESS)) {
+            // like BetweennessCentralityProc, which runs in parallel only if a concurrency is given
+            final int concurrency = configuration.getConcurrency(-1);
+            algorithmBytes = concurrency > 0
+                    ? ParallelBetweennessCentrality.estimateMemoryUsage(Math.toIntExact(nodes), concurrency)
+                    : BetweennessCentrality.estimateMemoryUsage(Math.toIntExact(nodes));
+        } else {
+            throw new IllegalArgumentException("Unknown algorithm: " + algorithm);
+        }
+
+        return Stream.of(new MemRecResult(
+                nodes,
+                relationships,
+                graphBytes,
+                algorithmBytes,
+                MemoryUsage.freeHeap()));
+    }
+
+    /**
+     * the direction the procedure of the algorithm loads the graph with
+     */
+    private static Direction direction(String algorithm, boolean huge, ProcedureConfiguration configuration) {
+        if (ALGORITHM_PAGE_RANK.equalsIgnoreCase(algorithm)) {
+            return huge ? Direction.BOTH : Direction.OUTGOING;
+        }
+        if (ALGORITHM_BETWEENNESS.equalsIgnoreCase(algorithm)) {
+            return Direction.OUTGOING;
+        }
+        return Direction.valueOf(configuration.getDirectionName().toUpperCase(Locale.ROOT));
+    }
+}
@@ -1,15 +1,22 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphalgo.impl.HugePageRank;
+import org.neo4j.graphalgo.impl.HugePageRankExporter;
 import org.neo4j.graphalgo.impl.PageRank;
 import org.neo4j.graphalgo.impl.PageRankExporter;
 import org.neo4j.graphalgo.results.PageRankScore;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.Context;
@@ -20,6 +27,7 @@ import org.neo4j.procedure.Procedure;
 
 import java.util.Map;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 public final class PageRankProc {
@@ -36,6 +44,9 @@ public final class PageRankProc {
     @Context
     public Log log;
 
+    @Context
+    public KernelTransaction transaction;
+
     @Procedure(value = "algo.pageRank", mode = Mode.WRITE)
     @Description("CALL algo.pageRank(label:String, relationship:String, " +
             "{iterations:5, dampingFactor:0.85, write: true, writeProperty:'pagerank'}) " +
@@ -49,9 +60,15 @@ public final class PageRankProc {
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
         PageRankScore.Stats.Builder statsBuilder = new PageRankScore.Stats.Builder();
-        final Graph graph = load(label, relationship, configuration.getGraphImpl(), statsBuilder);
-        double[] scores = evaluate(graph, configuration, statsBuilder);
-        write(graph, scores, configuration, statsBuilder);
+        final Graph graph = load(label, relationship, configuration, statsBuilder);
+        if (graph instanceof HugeGraph) {
+            HugeGraph hugeGraph = (HugeGraph) graph;
+            HugeDoubleArray scores = evaluate(hugeGraph, configuration, statsBuilder);
+            write(hugeGraph, scores, configuration, statsBuilder);
+        } else {
+            double[] scores = evaluate(graph, configuration, statsBuilder);
+            write(graph, scores, configuration, statsBuilder);
+        }
 
         return Stream.of(statsBuilder.build());
     }
@@ -68,7 +85,16 @@ public final class PageRankProc {
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
         PageRankScore.Stats.Builder statsBuilder = new PageRankScore.Stats.Builder();
-        final Graph graph = load(label, relationship, configuration.getGraphImpl(), statsBuilder);
+        final Graph graph = load(label, relationship, configuration, statsBuilder);
+        if (graph instanceof HugeGraph) {
+            HugeGraph hugeGraph = (HugeGraph) graph;
+            HugeDoubleArray scores = evaluate(hugeGraph, configuration, statsBuilder);
+            return LongStream.range(0, hugeGraph.hugeNodeCount())
+                    .mapToObj(i -> new PageRankScore(
+                            api.getNodeById(hugeGraph.toOriginalNodeId(i)),
+                            scores.get(i)
+                    ));
+        }
         double[] scores = evaluate(graph, configuration, statsBuilder);
 
         return IntStream.range(0, scores.length)
@@ -81,19 +107,32 @@ public final class PageRankProc {
     private Graph load(
             String label,
             String relationship,
-            Class<? extends GraphFactory> graphFactory,
+            ProcedureConfiguration configuration,
             PageRankScore.Stats.Builder statsBuilder) {
 
+        // the HugePageRank pulls the scores over the incoming relationships
+        final String name = configuration.getGraphName(null);
+        final boolean loadsHuge = (name == null || ProcedureConfiguration.isGraphImpl(name))
+                && configuration.getGraphImpl() == HugeGraphFactory.class;
         GraphLoader graphLoader = new GraphLoader(api)
                 .withOptionalLabel(label)
                 .withOptionalRelationshipType(relationship)
-                .withDirection(Direction.OUTGOING)
+                .withDirection(loadsHuge ? Direction.BOTH : Direction.OUTGOING)
                 .withoutRelationshipWeights()
-                .withExecutorService(Pools.DEFAULT);
+                .withExecutorService(Pools.DEFAULT)
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
 
         try (ProgressTimer timer = statsBuilder.timeLoad()) {
-            Graph graph = graphLoader.load(graphFactory);
-            statsBuilder.withNodes(graph.nodeCount());
+            Graph graph = graphLoader.load(configuration);
+            if (graph instanceof HugeGraph && !loadsHuge) {
+                // a huge graph of the catalog, which must hold both directions
+                graph = graphLoader
+                        .withDirection(Direction.BOTH)
+                        .load(configuration);
+            }
+            statsBuilder.withNodes(graph instanceof HugeGraph
+                    ? ((HugeGraph) graph).hugeNodeCount()
+                    : graph.nodeCount());
             return graph;
         }
     }
@@ -108,6 +147,7 @@ public final class PageRankProc {
         final int batchSize = configuration.getBatchSize();
         final int concurrency = configuration.getConcurrency(Pools.getNoThreadsInDefaultPool());
         log.debug("Computing page rank with damping of " + dampingFactor + " and " + iterations + " iterations.");
+        MemoryUsage.assertFits("PageRank", PageRank.estimateMemoryUsage(graph.nodeCount(), concurrency));
 
         PageRank algo = new PageRank(
                 Pools.DEFAULT,
@@ -117,7 +157,37 @@ public final class PageRankProc {
                 graph,
                 graph,
                 graph,
-                dampingFactor);
+                dampingFactor)
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+        statsBuilder.timeEval(() -> algo.compute(iterations));
+
+        statsBuilder
+                .withIterations(iterations)
+                .withDampingFactor(dampingFactor);
+
+        return algo.getPageRank();
+    }
+
+    private HugeDoubleArray evaluate(
+            HugeGraph graph,
+            ProcedureConfiguration configuration,
+            PageRankScore.Stats.Builder statsBuilder) {
+
+        double dampingFactor = configuration.get(CONFIG_DAMPING, DEFAULT_DAMPING);
+        int iterations = configuration.getIterations(DEFAULT_ITERATIONS);
+        final int batchSize = configuration.getBatchSize();
+        final int concurrency = configuration.getConcurrency(Pools.getNoThreadsInDefaultPool());
+        log.debug("Computing huge page rank with damping of " + dampingFactor + " and " + iterations + " iterations.");
+        MemoryUsage.assertFits("PageRank", HugePageRank.estimateMemoryUsage(graph.hugeNodeCount()));
+
+        HugePageRank algo = new HugePageRank(
+                Pools.DEFAULT,
+                concurrency,
+                batchSize,
+                graph,
+                dampingFactor)
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
 
         statsBuilder.timeEval(() -> algo.compute(iterations));
 
@@ -152,4 +222,28 @@ public final class PageRankProc {
             statsBuilder.withWrite(false);
         }
     }
+
+    private void write(
+            HugeGraph graph,
+            HugeDoubleArray scores,
+            ProcedureConfiguration configuration,
+            final PageRankScore.Stats.Builder statsBuilder) {
+        if (configuration.isWriteFlag(true)) {
+            log.debug("Writing results");
+            String propertyName = configuration.getWriteProperty(DEFAULT_SCORE_PROPERTY);
+            int batchSize = configuration.getBatchSize();
+            statsBuilder.timeWrite(() -> new HugePageRankExporter(
+                    batchSize,
+                    api,
+                    graph,
+                    propertyName,
+                    Pools.DEFAULT)
+                    .write(scores));
+            statsBuilder
+                    .withWrite(true)
+                    .withProperty(propertyName);
+        } else {
+            statsBuilder.withWrite(false);
+        }
+    }
 }
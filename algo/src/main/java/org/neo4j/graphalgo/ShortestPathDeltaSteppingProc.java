@@ -68,7 +68,7 @@ public class ShortestPathDeltaSteppingProc {
                         configuration.getPropertyDefaultValue(Double.MAX_VALUE))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
 
         return new ShortestPathDeltaStepping(graph, delta)
                 .withExecutorService(Executors.newFixedThreadPool(
@@ -102,7 +102,7 @@ public class ShortestPathDeltaSteppingProc {
                             configuration.getPropertyDefaultValue(Double.MAX_VALUE))
                     .withDirection(Direction.OUTGOING)
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         }
 
         final ShortestPathDeltaStepping algorithm = new ShortestPathDeltaStepping(graph, delta)
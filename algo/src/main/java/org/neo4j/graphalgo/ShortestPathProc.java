@@ -48,7 +48,7 @@ public class ShortestPathProc {
                         configuration.getPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
 
         return new ShortestPathDijkstra(graph)
                 .compute(startNode.getId(), endNode.getId())
@@ -82,7 +82,7 @@ public class ShortestPathProc {
                             configuration.getPropertyDefaultValue(1.0))
                     .withDirection(Direction.OUTGOING)
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         };
 
         try (ProgressTimer timer = builder.timeEval()) {
@@ -56,7 +56,7 @@ public class ShortestPathsProc {
                         configuration.getPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
 
         return new ShortestPaths(graph)
                 .compute(startNode.getId())
@@ -86,7 +86,7 @@ public class ShortestPathsProc {
                         configuration.getPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
         load.stop();
 
         final ShortestPaths algorithm = new ShortestPaths(graph);
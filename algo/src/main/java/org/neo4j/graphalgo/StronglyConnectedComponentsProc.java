@@ -63,7 +63,7 @@ public class StronglyConnectedComponentsProc {
                 .withoutRelationshipWeights()
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
         loadTimer.stop();
 
         SCCTarjan tarjan = new SCCTarjan(graph);
@@ -106,7 +106,7 @@ public class StronglyConnectedComponentsProc {
                 .withoutRelationshipWeights()
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
         loadTimer.stop();
 
         SCCTunedTarjan tarjan = new SCCTunedTarjan(graph);
@@ -150,7 +150,7 @@ public class StronglyConnectedComponentsProc {
                 .withoutRelationshipWeights()
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(configuration.getGraphImpl());
+                .load(configuration);
 
         return new SCCTunedTarjan(graph)
                 .compute()
@@ -177,7 +177,7 @@ public class StronglyConnectedComponentsProc {
                     .withoutRelationshipWeights()
                     .withDirection(Direction.OUTGOING)
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         loadTimer.stop();
 
         SCCIterativeTarjan tarjan = new SCCIterativeTarjan(graph);
@@ -221,7 +221,7 @@ public class StronglyConnectedComponentsProc {
                     .withoutRelationshipWeights()
                     .withDirection(Direction.OUTGOING)
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
 
         return new SCCIterativeTarjan(graph)
                 .compute()
@@ -248,7 +248,7 @@ public class StronglyConnectedComponentsProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutRelationshipWeights()
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
         loadTimer.stop();
 
         final MultistepSCC multistep = new MultistepSCC(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
@@ -294,7 +294,7 @@ public class StronglyConnectedComponentsProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutRelationshipWeights()
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
 
         final MultistepSCC multistep = new MultistepSCC(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
                 configuration.getNumber("concurrency", 1).intValue(),
@@ -322,7 +322,7 @@ public class StronglyConnectedComponentsProc {
                     .withOptionalRelationshipType(relationship)
                     .withoutRelationshipWeights()
                     .withExecutorService(Pools.DEFAULT)
-                    .load(configuration.getGraphImpl());
+                    .load(configuration);
 
         return new ForwardBackwardScc(graph, org.neo4j.graphalgo.core.utils.Pools.DEFAULT,
                 configuration.getConcurrency(1))
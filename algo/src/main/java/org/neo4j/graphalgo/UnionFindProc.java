@@ -2,6 +2,7 @@ package org.neo4j.graphalgo;
 
 import algo.Pools;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.ProcedureConstants;
@@ -9,6 +10,9 @@ import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.impl.UnionFindExporter;
 import org.neo4j.graphalgo.results.UnionFindResult;
 import org.neo4j.graphalgo.core.utils.dss.DisjointSetStruct;
+import org.neo4j.graphalgo.core.utils.dss.HugeDisjointSetStruct;
+import org.neo4j.graphalgo.impl.HugeGraphUnionFind;
+import org.neo4j.graphalgo.impl.HugeUnionFindExporter;
 import org.neo4j.graphalgo.impl.GraphUnionFind;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -54,6 +58,10 @@ public class UnionFindProc {
             graph = load(configuration);
         };
 
+        if (graph instanceof HugeGraph) {
+            return hugeUnionFind((HugeGraph) graph, configuration, builder);
+        }
+
         // evaluation
         final DisjointSetStruct struct;
         try (ProgressTimer timer = builder.timeEval()) {
@@ -72,6 +80,33 @@ public class UnionFindProc {
                 .build());
     }
 
+    private Stream<UnionFindResult> hugeUnionFind(
+            HugeGraph graph,
+            ProcedureConfiguration configuration,
+            UnionFindResult.Builder builder) {
+
+        // evaluation
+        final HugeDisjointSetStruct struct;
+        try (ProgressTimer timer = builder.timeEval()) {
+            struct = evaluate(graph, configuration);
+        };
+
+        if (configuration.isWriteFlag()) {
+            // write back
+            builder.timeWrite(() -> new HugeUnionFindExporter(
+                    configuration.getBatchSize(),
+                    api,
+                    graph,
+                    configuration.get(CONFIG_CLUSTER_PROPERTY, DEFAULT_CLUSTER_PROPERTY),
+                    Pools.DEFAULT).write(struct));
+        }
+
+        return Stream.of(builder
+                .withNodeCount(graph.hugeNodeCount())
+                .withSetCount(struct.getSetCount())
+                .build());
+    }
+
     @Procedure(value = "algo.unionFind.stream")
     @Description("CALL algo.unionFind.stream(label:String, relationship:String, " +
             "{weightProperty:'propertyName', threshold:0.42, defaultValue:1.0) " +
@@ -89,6 +124,10 @@ public class UnionFindProc {
         final Graph graph = load(configuration);
 
         // evaluation
+        if (graph instanceof HugeGraph) {
+            return evaluate((HugeGraph) graph, configuration)
+                    .resultStream((HugeGraph) graph);
+        }
         return evaluate(graph, configuration)
                 .resultStream(graph);
     }
@@ -102,7 +141,7 @@ public class UnionFindProc {
                         config.getPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(config.getGraphImpl());
+                .load(config);
     }
 
     private DisjointSetStruct evaluate(Graph graph, ProcedureConfiguration config) {
@@ -119,6 +158,14 @@ public class UnionFindProc {
         return struct;
     }
 
+    private HugeDisjointSetStruct evaluate(HugeGraph graph, ProcedureConfiguration config) {
+        if (config.containsKeys(ProcedureConstants.PROPERTY_PARAM, CONFIG_THRESHOLD)) {
+            throw new IllegalArgumentException("The huge graph does not support a threshold");
+        }
+        log.debug("Computing huge union find without threshold");
+        return new HugeGraphUnionFind(graph).compute();
+    }
+
     private void write(Graph graph, DisjointSetStruct struct, ProcedureConfiguration configuration) {
         log.debug("Writing results");
         new UnionFindExporter(
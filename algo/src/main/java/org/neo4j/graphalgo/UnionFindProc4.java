@@ -105,7 +105,7 @@ public class UnionFindProc4 {
                         config.getPropertyDefaultValue(1.0))
                 .withDirection(Direction.OUTGOING)
                 .withExecutorService(Pools.DEFAULT)
-                .load(config.getGraphImpl());
+                .load(config);
     }
 
     private DisjointSetStruct evaluate(Graph graph, ProcedureConfiguration config) {
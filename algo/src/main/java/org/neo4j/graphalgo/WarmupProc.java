@@ -0,0 +1,73 @@
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.PageCacheWarmup;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.results.WarmupResult;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Loads the store files into the page cache before the first graph load
+ * after a restart, which otherwise reads the stores from disk in random order.
+ */
+public class WarmupProc {
+
+    /**
+     * pages or node ids per parallel range
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.warmup")
+    @Description("CALL algo.warmup(label:String, relationship:String, {properties:true, batchSize:10000}) " +
+            "YIELD nodePages, relationshipPages, propertyPages, pages, pageSize, bytes, loadMillis, throughput - " +
+            "loads the node, relationship and property stores into the page cache, " +
+            "only the pages of the label and relationship types if given")
+    public Stream<WarmupResult> warmup(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        final boolean properties = configuration.get("properties", true);
+        final PageCacheWarmup warmup = new PageCacheWarmup(
+                api,
+                Pools.DEFAULT,
+                configuration.getBatchSize(DEFAULT_BATCH_SIZE),
+                TerminationFlag.wrap(transaction));
+
+        final long[] loadMillis = {0L};
+        final PageCacheWarmup.Pages pages;
+        try (ProgressTimer timer = ProgressTimer.start(millis -> loadMillis[0] = millis)) {
+            if (isEmpty(label) && isEmpty(relationship)) {
+                pages = warmup.warmupStores(properties);
+            } else {
+                pages = warmup.warmupProjection(
+                        isEmpty(label) ? null : label,
+                        GraphSetup.relationshipTypes(isEmpty(relationship) ? null : relationship),
+                        properties);
+            }
+        }
+        return Stream.of(new WarmupResult(pages, warmup.pageSize(), loadMillis[0]));
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+}
@@ -1,6 +1,7 @@
 package org.neo4j.graphalgo.impl;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.queue.IntMinPriorityQueue;
 import org.neo4j.graphdb.Direction;
 
@@ -32,6 +33,12 @@ import java.util.stream.Stream;
  */
 public class AllShortestPaths {
 
+    /**
+     * milliseconds the result stream waits for a result before
+     * checking the termination flag again
+     */
+    private static final long POLL_INTERVAL = 100;
+
     private final Graph graph;
     private final int nodeCount;
 
@@ -48,6 +55,7 @@ public class AllShortestPaths {
     private final BlockingQueue<Result> resultQueue;
 
     private volatile boolean running;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
 
     public AllShortestPaths(Graph graph, ExecutorService executorService, int concurrency) {
         this.graph = graph;
@@ -61,6 +69,17 @@ public class AllShortestPaths {
         this.resultQueue = new LinkedBlockingQueue<>(); // TODO limit size?
     }
 
+    /**
+     * stop the workers once the flag is terminated, the result
+     * stream fails then instead of waiting for further results
+     * @param terminationFlag the flag
+     * @return itself for method chaining
+     */
+    public AllShortestPaths withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
     /**
      * the resultStream(..) method starts the computation and
      * returns a Stream of SP-Tuples (source, target, minDist)
@@ -81,7 +100,11 @@ public class AllShortestPaths {
                 .onClose(() -> running = false)
                 .mapToObj(i -> {
                     try {
-                        return resultQueue.take();
+                        Result result;
+                        while ((result = resultQueue.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS)) == null) {
+                            terminationFlag.assertRunning();
+                        }
+                        return result;
                     } catch (InterruptedException e) {
                         throw new RuntimeException(e);
                     }
@@ -106,7 +129,7 @@ public class AllShortestPaths {
         @Override
         public void run() {
             int startNode;
-            while (running && (startNode = counter.getAndIncrement()) < nodeCount) {
+            while (running && terminationFlag.running() && (startNode = counter.getAndIncrement()) < nodeCount) {
                 compute(startNode);
                 for (int i = 0; i < nodeCount; i++) {
                     final Result result = new Result(
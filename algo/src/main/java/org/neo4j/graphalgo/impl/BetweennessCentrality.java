@@ -4,6 +4,7 @@ import com.carrotsearch.hppc.IntArrayDeque;
 import com.carrotsearch.hppc.IntStack;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.utils.Exporter;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.container.Path;
 import org.neo4j.graphalgo.results.BetweennessCentralityProcResult;
 import org.neo4j.graphdb.Direction;
@@ -48,6 +49,22 @@ public class BetweennessCentrality {
         delta = new double[graph.nodeCount()];
     }
 
+    /**
+     * estimated heap used by the computation, the centrality, delta, sigma
+     * and distance arrays. The paths, stack and queue grow up to one entry
+     * per node.
+     *
+     * @param nodeCount the node count
+     * @return estimated bytes
+     */
+    public static long estimateMemoryUsage(int nodeCount) {
+        return 2L * MemoryUsage.sizeOfDoubleArray(nodeCount)
+                + 4L * MemoryUsage.sizeOfIntArray(nodeCount)
+                + MemoryUsage.sizeOfObjectArray(nodeCount)
+                // a path starts with room for 10 nodes
+                + nodeCount * (MemoryUsage.BYTES_OBJECT_HEADER + MemoryUsage.sizeOfIntArray(10));
+    }
+
     /**
      * compute centrality
      * @return itself for method chaining
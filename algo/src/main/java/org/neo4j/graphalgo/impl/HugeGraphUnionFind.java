@@ -0,0 +1,38 @@
+package org.neo4j.graphalgo.impl;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.dss.HugeDisjointSetStruct;
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Sequential UnionFind for a {@link HugeGraph}, see {@link GraphUnionFind}.
+ * Relationship weights are not supported by the HugeGraph, therefore
+ * there is no threshold based variant.
+ */
+public class HugeGraphUnionFind {
+
+    private final HugeGraph graph;
+
+    private final HugeDisjointSetStruct dss;
+
+    public HugeGraphUnionFind(HugeGraph graph) {
+        this.graph = graph;
+        this.dss = new HugeDisjointSetStruct(graph.hugeNodeCount());
+    }
+
+    /**
+     * compute unions of connected nodes
+     * @return a DSS
+     */
+    public HugeDisjointSetStruct compute() {
+        dss.reset();
+        graph.forEachNode((long node) -> {
+            graph.forEachRelationship(node, Direction.OUTGOING, (source, target) -> {
+                dss.union(source, target);
+                return true;
+            });
+            return true;
+        });
+        return dss;
+    }
+}
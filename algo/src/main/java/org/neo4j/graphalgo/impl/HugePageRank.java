@@ -0,0 +1,126 @@
+package org.neo4j.graphalgo.impl;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * PageRank for a {@link HugeGraph} with long node ids.
+ * <p>
+ * Other than the partition based {@link PageRank}, the scores are pulled
+ * over the incoming relationships, so that every partition only writes
+ * the scores of its own nodes and no synchronization between partitions
+ * is needed. The graph must therefore be loaded with incoming and
+ * outgoing relationships. Every iteration runs in two parallel steps:
+ * <ol>
+ * <li>every node computes its contribution {@code rank / outDegree}</li>
+ * <li>every node sums up the contributions of its incoming neighbours</li>
+ * </ol>
+ * Scores are kept in {@link HugeDoubleArray}s and use the same formula
+ * as {@link PageRank}: {@code (1 - dampingFactor) + dampingFactor * sum}.
+ */
+public class HugePageRank {
+
+    private final ExecutorService executor;
+    private final HugeGraph graph;
+    private final double dampingFactor;
+    private final HugeDoubleArray pageRank;
+    private final HugeDoubleArray contributions;
+    private final List<Runnable> contributionSteps;
+    private final List<Runnable> rankSteps;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
+
+    /**
+     * Whether the algorithm actually runs in parallel depends on the given
+     * executor and batchSize.
+     */
+    public HugePageRank(
+            ExecutorService executor,
+            int concurrency,
+            int batchSize,
+            HugeGraph graph,
+            double dampingFactor) {
+        this.executor = ParallelUtil.canRunInParallel(executor) ? executor : null;
+        this.graph = graph;
+        this.dampingFactor = dampingFactor;
+
+        final long nodeCount = graph.hugeNodeCount();
+        pageRank = HugeDoubleArray.newArray(nodeCount);
+        contributions = HugeDoubleArray.newArray(nodeCount);
+        pageRank.fill(1.0 / nodeCount);
+
+        final long partitionSize = this.executor == null
+                ? nodeCount
+                : Math.max(batchSize, (nodeCount + concurrency - 1) / Math.max(1, concurrency));
+        contributionSteps = new ArrayList<>();
+        rankSteps = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += partitionSize) {
+            final long from = start;
+            final long to = Math.min(nodeCount, start + partitionSize);
+            contributionSteps.add(() -> computeContributions(from, to));
+            rankSteps.add(() -> computeRanks(from, to));
+        }
+    }
+
+    /**
+     * Estimated heap used by the computation: the scores and the
+     * contributions of every node.
+     */
+    public static long estimateMemoryUsage(long nodeCount) {
+        return 2L * HugeDoubleArray.estimateMemoryUsage(nodeCount);
+    }
+
+    /**
+     * compute pageRank for n iterations
+     */
+    public HugePageRank compute(int iterations) {
+        assert iterations >= 1;
+        for (int i = 0; i < iterations; i++) {
+            terminationFlag.assertRunning();
+            ParallelUtil.run(contributionSteps, executor);
+            ParallelUtil.run(rankSteps, executor);
+        }
+        return this;
+    }
+
+    /**
+     * stop the computation between two iterations once the flag is terminated
+     */
+    public HugePageRank withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
+    /**
+     * Return the result of the last computation.
+     */
+    public HugeDoubleArray getPageRank() {
+        return pageRank;
+    }
+
+    private void computeContributions(long from, long to) {
+        for (long node = from; node < to; node++) {
+            final int degree = graph.degree(node, Direction.OUTGOING);
+            contributions.set(node, degree == 0 ? 0.0 : pageRank.get(node) / degree);
+        }
+    }
+
+    private void computeRanks(long from, long to) {
+        final double alpha = 1.0 - dampingFactor;
+        final double[] sum = new double[1];
+        for (long node = from; node < to; node++) {
+            sum[0] = 0.0;
+            graph.forEachRelationship(node, Direction.INCOMING, (source, target) -> {
+                sum[0] += contributions.get(target);
+                return true;
+            });
+            pageRank.set(node, alpha + dampingFactor * sum[0]);
+        }
+    }
+}
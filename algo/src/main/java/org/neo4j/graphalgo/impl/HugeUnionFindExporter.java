@@ -0,0 +1,39 @@
+package org.neo4j.graphalgo.impl;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.HugeParallelExporter;
+import org.neo4j.graphalgo.core.utils.dss.HugeDisjointSetStruct;
+import org.neo4j.kernel.api.DataWriteOperations;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.api.properties.DefinedProperty;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.concurrent.ExecutorService;
+
+public final class HugeUnionFindExporter extends HugeParallelExporter<HugeDisjointSetStruct> {
+
+    private final HugeGraph graph;
+    private final int propertyId;
+
+    public HugeUnionFindExporter(
+            int batchSize,
+            GraphDatabaseAPI api,
+            HugeGraph graph,
+            String targetProperty,
+            ExecutorService executor) {
+        super(batchSize, api, graph, executor);
+        this.graph = graph;
+        propertyId = getOrCreatePropertyId(targetProperty);
+    }
+
+    @Override
+    protected void write(
+            DataWriteOperations ops,
+            long nodeId,
+            HugeDisjointSetStruct data) throws KernelException {
+        ops.nodeSetProperty(
+                graph.toOriginalNodeId(nodeId),
+                DefinedProperty.doubleProperty(propertyId, data.find(nodeId))
+        );
+    }
+}
@@ -6,7 +6,10 @@ import com.carrotsearch.hppc.IntDoubleMap;
 import com.carrotsearch.hppc.cursors.DoubleDoubleCursor;
 import org.neo4j.collection.primitive.PrimitiveIntIterable;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
-import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.NodeWeights;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphdb.Direction;
@@ -19,14 +22,30 @@ public final class LabelPropagation {
     private static final double[] EMPTY_DOUBLES = new double[0];
     private static final int[] EMPTY_INTS = new int[0];
 
-    private final HeavyGraph graph;
+    private final Graph graph;
+    private final NodeWeights nodeWeights;
+    private final NodeProperties nodeProperties;
     private final ExecutorService executor;
     private Direction direction;
 
     public LabelPropagation(
             HeavyGraph graph,
             ExecutorService executor) {
+        this(graph, graph, graph, executor);
+    }
+
+    /**
+     * @param nodeWeights the weights the votes of the neighbours are scaled with
+     * @param nodeProperties the initial partition of each node
+     */
+    public LabelPropagation(
+            Graph graph,
+            NodeWeights nodeWeights,
+            NodeProperties nodeProperties,
+            ExecutorService executor) {
         this.graph = graph;
+        this.nodeWeights = nodeWeights;
+        this.nodeProperties = nodeProperties;
         this.executor = executor;
     }
 
@@ -57,7 +76,7 @@ public final class LabelPropagation {
         return labels;
     }
 
-    private final class ComputeStep implements Runnable, RelationshipConsumer {
+    private final class ComputeStep implements Runnable, WeightedRelationshipConsumer {
         private final PrimitiveIntIterable nodes;
         private final DoubleDoubleHashMap votes;
         private final IntDoubleHashMap labels;
@@ -99,16 +118,16 @@ public final class LabelPropagation {
         public boolean accept(
                 final int sourceNodeId,
                 final int targetNodeId,
-                final long relationId) {
+                final long relationId,
+                final double weight) {
             double partition = partition(targetNodeId);
-            double weight = graph.weightOf(sourceNodeId, targetNodeId) * graph.weightOf(targetNodeId);
-            votes.addTo(partition, weight);
+            votes.addTo(partition, weight * nodeWeights.weightOf(targetNodeId));
             return true;
         }
 
         private double partition(int node) {
             double partition = labels.getOrDefault(node, Double.NEGATIVE_INFINITY);
-            return partition == Double.NEGATIVE_INFINITY ? graph.valueOf(node, node) : partition;
+            return partition == Double.NEGATIVE_INFINITY ? nodeProperties.valueOf(node, node) : partition;
         }
 
         private void release() {
@@ -4,6 +4,7 @@ import com.carrotsearch.hppc.*;
 import org.neo4j.graphalgo.api.*;
 import org.neo4j.graphalgo.core.utils.container.UndirectedTree;
 import org.neo4j.graphalgo.core.utils.queue.LongMinPriorityQueue;
+import org.neo4j.graphdb.Direction;
 
 import static org.neo4j.graphalgo.core.utils.RawValues.*;
 
@@ -17,21 +18,20 @@ import static org.neo4j.graphalgo.core.utils.RawValues.*;
  * cheapest transition and adding it to a specialized form of {@link UndirectedTree}.
  *
  * The algorithm also computes the minimum, maximum and sum of all
- * weights in the MST.
+ * weights in the MST. The weights are taken from the relationships
+ * as they are iterated, no lookup by node pair is needed.
  *
  * @author mknblch
  */
 public class MSTPrim {
 
     private final IdMapping idMapping;
-    private final BothRelationshipIterator iterator;
-    private final RelationshipWeights weights;
+    private final WeightedRelationshipIterator iterator;
     private MinimumSpanningTree minimumSpanningTree;
 
-    public MSTPrim(IdMapping idMapping, BothRelationshipIterator iterator, RelationshipWeights weights) {
+    public MSTPrim(IdMapping idMapping, WeightedRelationshipIterator iterator) {
         this.idMapping = idMapping;
         this.iterator = iterator;
-        this.weights = weights;
     }
 
     /**
@@ -43,15 +43,16 @@ public class MSTPrim {
     public MSTPrim compute(int startNode) {
         final LongMinPriorityQueue queue = new LongMinPriorityQueue();
         final BitSet visited = new BitSet(idMapping.nodeCount());
-        minimumSpanningTree = new MinimumSpanningTree(idMapping.nodeCount(), startNode, weights);
+        minimumSpanningTree = new MinimumSpanningTree(idMapping.nodeCount(), startNode);
         // initially add all relations from startNode to the priority queue
         visited.set(startNode);
-        iterator.forEachRelationship(startNode, (sourceNodeId, targetNodeId, relationId) -> {
-            queue.add(combineIntInt(startNode, targetNodeId), weights.weightOf(sourceNodeId, targetNodeId));
+        iterator.forEachRelationship(startNode, Direction.BOTH, (sourceNodeId, targetNodeId, relationId, weight) -> {
+            queue.add(combineIntInt(startNode, targetNodeId), weight);
             return true;
         });
         while (!queue.isEmpty()) {
             // retrieve cheapest transition
+            final double weight = queue.topCost();
             final long transition = queue.pop();
             final int nodeId = getTail(transition);
             if (visited.get(nodeId)) {
@@ -59,10 +60,10 @@ public class MSTPrim {
             }
             visited.set(nodeId);
             // add to mst
-            minimumSpanningTree.addRelationship(getHead(transition), nodeId);
+            minimumSpanningTree.addRelationship(getHead(transition), nodeId, weight);
             // add new candidates
-            iterator.forEachRelationship(nodeId, (sourceNodeId, targetNodeId, relationId) -> {
-                queue.add(combineIntInt(nodeId, targetNodeId), weights.weightOf(sourceNodeId, targetNodeId));
+            iterator.forEachRelationship(nodeId, Direction.BOTH, (sourceNodeId, targetNodeId, relationId, w) -> {
+                queue.add(combineIntInt(nodeId, targetNodeId), w);
                 return true;
             });
         }
@@ -76,24 +77,41 @@ public class MSTPrim {
     public static class MinimumSpanningTree extends UndirectedTree {
 
         private final int startNodeId;
-        private final RelationshipWeights weights;
+        private double sum = 0.0;
+        private double min = Double.MAX_VALUE;
+        private double max = Double.MIN_VALUE;
+        private int count;
 
         /**
          * Creates a new Tree that can hold up to {@code capacity} nodes.
          *
          * @param capacity
-         * @param weights
+         * @param startNodeId
          */
-        public MinimumSpanningTree(int capacity, int startNodeId, RelationshipWeights weights) {
+        public MinimumSpanningTree(int capacity, int startNodeId) {
             super(capacity);
             this.startNodeId = startNodeId;
-            this.weights = weights;
         }
 
         public int getStartNodeId() {
             return startNodeId;
         }
 
+        /**
+         * adds a transition of the tree and aggregates its weight
+         */
+        public void addRelationship(int node1, int node2, double weight) {
+            addRelationship(node1, node2);
+            if (weight < min) {
+                min = weight;
+            }
+            if (weight > max) {
+                max = weight;
+            }
+            count++;
+            sum += weight;
+        }
+
         public void forEachBFS(RelationshipConsumer consumer) {
             super.forEachBFS(startNodeId, consumer);
         }
@@ -103,36 +121,21 @@ public class MSTPrim {
         }
 
         public Aggregator aggregate() {
-            final Aggregator aggregator = new Aggregator(weights);
-            forEachBFS(aggregator);
-            return aggregator;
+            return new Aggregator(sum, min, max, count);
         }
 
-        public static class Aggregator implements RelationshipConsumer {
-
-            private final RelationshipWeights relationshipWeights;
-            private double sum = 0.0;
-            private double min = Double.MAX_VALUE;
-            private double max = Double.MIN_VALUE;
-            private int count;
+        public static class Aggregator {
 
+            private final double sum;
+            private final double min;
+            private final double max;
+            private final int count;
 
-            private Aggregator(RelationshipWeights relationshipWeights) {
-                this.relationshipWeights = relationshipWeights;
-            }
-
-            @Override
-            public boolean accept(int sourceNodeId, int targetNodeId, long relationId) {
-                double weight = relationshipWeights.weightOf(sourceNodeId, targetNodeId);
-                if (weight < min) {
-                    min = weight;
-                }
-                if (weight > max) {
-                    max = weight;
-                }
-                count++;
-                sum += weight;
-                return true;
+            private Aggregator(double sum, double min, double max, int count) {
+                this.sum = sum;
+                this.min = min;
+                this.max = max;
+                this.count = count;
             }
 
             public double getSum() {
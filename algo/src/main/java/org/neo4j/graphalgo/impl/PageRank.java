@@ -7,7 +7,9 @@ import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.api.NodeIterator;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphdb.Direction;
 
 import java.util.ArrayList;
@@ -73,6 +75,7 @@ import java.util.concurrent.Future;
 public class PageRank {
 
     private final ComputeSteps computeSteps;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
 
     /**
      * Forces sequential use. If you want parallelism, prefer
@@ -132,12 +135,31 @@ public class PageRank {
                 executor);
     }
 
+    /**
+     * Estimated heap used by the computation: the scores of every node, one
+     * {@code int[][]} score buffer per compute step that covers all nodes
+     * and the copy of the scores that is returned as result.
+     */
+    public static long estimateMemoryUsage(int nodeCount, int concurrency) {
+        final int steps = Math.max(1, concurrency);
+        return 2L * MemoryUsage.sizeOfDoubleArray(nodeCount)
+                + steps * (MemoryUsage.sizeOfObjectArray(steps) + MemoryUsage.sizeOfIntArray(nodeCount));
+    }
+
     /**
      * compute pageRank for n iterations
      */
     public PageRank compute(int iterations) {
         assert iterations >= 1;
-        computeSteps.run(iterations);
+        computeSteps.run(iterations, terminationFlag);
+        return this;
+    }
+
+    /**
+     * stop the computation between two iterations once the flag is terminated
+     */
+    public PageRank withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
         return this;
     }
 
@@ -347,8 +369,9 @@ public class PageRank {
             }
         }
 
-        private void run(int iterations) {
+        private void run(int iterations, TerminationFlag terminationFlag) {
             for (int i = 0; i < iterations; i++) {
+                terminationFlag.assertRunning();
                 // calculate scores
                 ParallelUtil.run(steps, last, pool, futures);
                 synchronizeScores();
@@ -4,7 +4,9 @@ import com.carrotsearch.hppc.IntArrayDeque;
 import com.carrotsearch.hppc.IntStack;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.utils.AtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.container.Paths;
 import org.neo4j.graphdb.Direction;
 
@@ -37,6 +39,8 @@ public class ParallelBetweennessCentrality {
     private final ExecutorService executorService;
     // number of threads to spawn
     private final int concurrency;
+    // polled before each start node
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
 
     /**
      * constructs a parallel centrality solver
@@ -54,6 +58,33 @@ public class ParallelBetweennessCentrality {
         this.centrality = new AtomicDoubleArray(graph.nodeCount(), scaleFactor);
     }
 
+    /**
+     * estimated heap used by the computation, the centrality plus the
+     * sigma, delta and distance arrays of every thread. The paths, stack
+     * and queue of a thread grow up to one entry per node.
+     *
+     * @param nodeCount the node count
+     * @param concurrency number of threads
+     * @return estimated bytes
+     */
+    public static long estimateMemoryUsage(int nodeCount, int concurrency) {
+        final long perThread = 2L * MemoryUsage.sizeOfIntArray(nodeCount)
+                + MemoryUsage.sizeOfDoubleArray(nodeCount)
+                + 2L * MemoryUsage.sizeOfIntArray(nodeCount)
+                + nodeCount * (MemoryUsage.BYTES_OBJECT_HEADER + MemoryUsage.sizeOfIntArray(Paths.INITIAL_PATH_CAPACITY));
+        return MemoryUsage.sizeOfIntArray(nodeCount) + Math.max(1, concurrency) * perThread;
+    }
+
+    /**
+     * stop the computation once the flag is terminated
+     * @param terminationFlag the flag
+     * @return itself for method chaining
+     */
+    public ParallelBetweennessCentrality withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = terminationFlag;
+        return this;
+    }
+
     /**
      * compute centrality
      * @return itself for method chaining
@@ -132,6 +163,7 @@ public class ParallelBetweennessCentrality {
                 if (startNodeId >= nodeCount) {
                     return;
                 }
+                terminationFlag.assertRunning();
                 sigma[startNodeId] = 1;
                 distance[startNodeId] = 0;
                 queue.addLast(startNodeId);
@@ -68,7 +68,10 @@ public class ShortestPathDijkstra {
         goal = graph.toMappedNodeId(goalNode);
         costs.put(node, 0);
         queue.add(node, 0);
-        run(goal);
+        // one transaction for all expansions of a view instead of one per call
+        try (ReadBinding.Context context = graph.bind()) {
+            run(goal);
+        }
         int last = goal;
         finalPath.clear();
         totalCost = 0.0;
@@ -0,0 +1,45 @@
+package org.neo4j.graphalgo.results;
+
+import org.neo4j.graphalgo.core.GraphCatalog;
+
+/**
+ * a graph in the {@link GraphCatalog}
+ */
+public class GraphCatalogResult {
+
+    /**
+     * the name of the graph
+     */
+    public final String name;
+
+    /**
+     * the graph implementation
+     */
+    public final String type;
+
+    /**
+     * the loaded direction or UNDIRECTED
+     */
+    public final String direction;
+
+    public final long nodes;
+
+    public final long relationships;
+
+    /**
+     * estimated heap usage of the graph
+     */
+    public final long bytes;
+
+    public final long loadMillis;
+
+    public GraphCatalogResult(GraphCatalog.Entry entry, long loadMillis) {
+        this.name = entry.name;
+        this.type = entry.type;
+        this.direction = entry.undirected ? "UNDIRECTED" : entry.direction.name();
+        this.nodes = entry.nodes;
+        this.relationships = entry.relationships;
+        this.bytes = entry.bytes;
+        this.loadMillis = loadMillis;
+    }
+}
@@ -0,0 +1,31 @@
+package org.neo4j.graphalgo.results;
+
+/**
+ * a graph snapshot that has been written
+ */
+public class GraphSnapshotResult {
+
+    /**
+     * the name of the graph
+     */
+    public final String name;
+
+    /**
+     * the absolute path of the snapshot file
+     */
+    public final String file;
+
+    /**
+     * size of the snapshot file
+     */
+    public final long bytes;
+
+    public final long writeMillis;
+
+    public GraphSnapshotResult(String name, String file, long bytes, long writeMillis) {
+        this.name = name;
+        this.file = file;
+        this.bytes = bytes;
+        this.writeMillis = writeMillis;
+    }
+}
@@ -0,0 +1,62 @@
+package org.neo4j.graphalgo.results;
+
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+
+/**
+ * expected heap usage of loading a graph and running an algorithm on it
+ */
+public class MemRecResult {
+
+    /**
+     * expected node count
+     */
+    public final long nodes;
+
+    /**
+     * expected relationship count, an upper bound if a label is given
+     */
+    public final long relationships;
+
+    /**
+     * bytes needed to load the graph, 0 for a graph from the catalog
+     */
+    public final long graphBytes;
+
+    /**
+     * bytes needed for the working state of the algorithm
+     */
+    public final long algorithmBytes;
+
+    public final long requiredBytes;
+
+    /**
+     * bytes which are currently available on the heap
+     */
+    public final long freeBytes;
+
+    /**
+     * requiredBytes in a human readable form
+     */
+    public final String requiredMemory;
+
+    /**
+     * whether the run is expected to fit into the free heap
+     */
+    public final boolean fits;
+
+    public MemRecResult(
+            long nodes,
+            long relationships,
+            long graphBytes,
+            long algorithmBytes,
+            long freeBytes) {
+        this.nodes = nodes;
+        this.relationships = relationships;
+        this.graphBytes = graphBytes;
+        this.algorithmBytes = algorithmBytes;
+        this.requiredBytes = graphBytes + algorithmBytes;
+        this.freeBytes = freeBytes;
+        this.requiredMemory = MemoryUsage.humanReadable(requiredBytes);
+        this.fits = requiredBytes <= freeBytes;
+    }
+}
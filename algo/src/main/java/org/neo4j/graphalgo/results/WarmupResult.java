@@ -0,0 +1,48 @@
+package org.neo4j.graphalgo.results;
+
+import org.neo4j.graphalgo.core.utils.PageCacheWarmup;
+
+/**
+ * pages loaded into the page cache by a warmup
+ */
+public class WarmupResult {
+
+    public final long nodePages;
+
+    /**
+     * pages of the relationship store and, for a full warmup, of the relationship group store
+     */
+    public final long relationshipPages;
+
+    /**
+     * pages of the property stores, only counted by a full warmup
+     */
+    public final long propertyPages;
+
+    public final long pages;
+
+    /**
+     * the size of a page cache page
+     */
+    public final long pageSize;
+
+    public final long bytes;
+
+    public final long loadMillis;
+
+    /**
+     * loaded megabytes per second
+     */
+    public final double throughput;
+
+    public WarmupResult(PageCacheWarmup.Pages pages, long pageSize, long loadMillis) {
+        this.nodePages = pages.nodePages;
+        this.relationshipPages = pages.relationshipPages;
+        this.propertyPages = pages.propertyPages;
+        this.pages = pages.total();
+        this.pageSize = pageSize;
+        this.bytes = this.pages * pageSize;
+        this.loadMillis = loadMillis;
+        this.throughput = bytes / (1024.0 * 1024.0) / (Math.max(1L, loadMillis) / 1000.0);
+    }
+}
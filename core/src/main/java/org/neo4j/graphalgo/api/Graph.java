@@ -5,6 +5,6 @@ package org.neo4j.graphalgo.api;
  * @author mknblch
  *         added 02.03.2017.
  */
-public interface Graph extends IdMapping, Degrees, NodeIterator, BatchNodeIterable, RelationshipIterator, WeightedRelationshipIterator {
+public interface Graph extends IdMapping, Degrees, NodeIterator, BatchNodeIterable, RelationshipIterator, WeightedRelationshipIterator, ReadBinding {
 
 }
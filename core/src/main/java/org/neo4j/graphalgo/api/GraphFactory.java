@@ -1,11 +1,16 @@
 package org.neo4j.graphalgo.api;
 
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.api.ReadOperations;
 import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
@@ -30,6 +35,120 @@ public abstract class GraphFactory {
 
     public abstract Graph build();
 
+    /**
+     * build the graph and hand each partition of nodes to the consumer as soon
+     * as its relationships are imported, so computations on a partition can
+     * overlap with the import of the others. The consumer may be called
+     * concurrently by the importing threads.
+     * <p>
+     * A partition may share its arrays with the graph, which can still rewrite
+     * them after the import. It can only be queried until the consumer returns,
+     * afterwards it throws an {@link IllegalStateException}.
+     * <p>
+     * Implementations which can't publish partitions early hand out a single
+     * partition of all nodes once the graph is built.
+     *
+     * @param partitions consumer of the imported partitions
+     * @return the graph
+     */
+    public Graph build(Consumer<GraphPartition> partitions) {
+        final Graph graph = build();
+        final AtomicBoolean released = new AtomicBoolean();
+        final GraphPartition partition = new GraphPartition() {
+            @Override
+            public int startNode() {
+                return 0;
+            }
+
+            @Override
+            public int nodeCount() {
+                return graph.nodeCount();
+            }
+
+            @Override
+            public int degree(int nodeId, Direction direction) {
+                checkReleased();
+                return graph.degree(nodeId, direction);
+            }
+
+            @Override
+            public void forEachRelationship(int nodeId, Direction direction, RelationshipConsumer consumer) {
+                checkReleased();
+                graph.forEachRelationship(nodeId, direction, consumer);
+            }
+
+            private void checkReleased() {
+                if (released.get()) {
+                    throw new IllegalStateException(
+                            "The partition can only be queried while it is handed to the consumer");
+                }
+            }
+        };
+        try {
+            partitions.accept(partition);
+        } finally {
+            released.set(true);
+        }
+        return graph;
+    }
+
+    /**
+     * estimates the heap needed by the graph before it is built, based on
+     * the counts store and the layout of the implementation
+     *
+     * @return the estimate or null if the implementation cannot tell
+     */
+    public MemoryEstimate estimateMemoryUsage() {
+        return null;
+    }
+
+    /**
+     * count the relationships of the given type that start (outgoing)
+     * or end (incoming) at a node with the given label, using the counts
+     * store. Directions which are not loaded count as 0.
+     *
+     * @param labelId the label id or {@link ReadOperations#ANY_LABEL}
+     * @param relationId the relationship types or null for any type, the
+     *                   loaders load every type if the given ones don't exist
+     * @return incoming and outgoing count
+     */
+    protected final long[] relationshipCounts(int labelId, int[] relationId) {
+        final long[] counts = new long[2];
+        final int[] typeIds = relationId == null
+                ? new int[]{ReadOperations.ANY_RELATIONSHIP_TYPE}
+                : relationId;
+        withReadOps(readOp -> {
+            for (int typeId : typeIds) {
+                if (setup.loadIncoming) {
+                    counts[0] += readOp.countsForRelationship(ReadOperations.ANY_LABEL, typeId, labelId);
+                }
+                if (setup.loadOutgoing) {
+                    counts[1] += readOp.countsForRelationship(labelId, typeId, ReadOperations.ANY_LABEL);
+                }
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * resolve the ids of the types of a relationship type selector like
+     * {@code KNOWS|FOLLOWS}, types which do not exist are skipped
+     *
+     * @return the type ids or null if any type should be loaded or none of the types exists
+     */
+    public static int[] relationshipTypeIds(ReadOperations readOp, String relationshipType) {
+        final String[] types = GraphSetup.relationshipTypes(relationshipType);
+        final int[] ids = new int[types.length];
+        int count = 0;
+        for (String type : types) {
+            final int id = readOp.relationshipTypeGetForName(type);
+            if (id != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
+                ids[count++] = id;
+            }
+        }
+        return count > 0 ? Arrays.copyOf(ids, count) : null;
+    }
+
     /**
      * executes a consumer within its own transaction
      *
@@ -0,0 +1,24 @@
+package org.neo4j.graphalgo.api;
+
+import java.util.function.Consumer;
+
+/**
+ * The relationships of a consecutive range of mapped node ids, published by
+ * {@link GraphFactory#build(Consumer)} as soon as the range has been imported.
+ * Only nodes of the range can be queried, and only until the consumer
+ * returns: the arrays of a partition may be shared with the graph, which
+ * sorts or merges them after the import. Results which are needed later
+ * have to be computed or copied within the consumer.
+ */
+public interface GraphPartition extends Degrees, RelationshipIterator {
+
+    /**
+     * @return the first mapped node id of the partition
+     */
+    int startNode();
+
+    /**
+     * @return the number of nodes of the partition
+     */
+    int nodeCount();
+}
@@ -1,7 +1,9 @@
 package org.neo4j.graphalgo.api;
 
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphdb.Direction;
 
+import java.util.Arrays;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -44,6 +46,36 @@ public class GraphSetup {
     public final int batchSize;
     // TODO
     public final boolean accumulateWeights;
+    /**
+     * sort the relationships of each node by node id after loading
+     */
+    public final boolean sort;
+    /**
+     * merge the incoming and outgoing relationships of each node into one
+     * sorted list of distinct neighbours after loading
+     */
+    public final boolean undirected;
+    /**
+     * property keys of the node properties which are loaded as columns
+     */
+    public final String[] nodePropertyKeys;
+    /**
+     * default value of each node property column
+     */
+    public final double[] nodePropertyDefaults;
+    /**
+     * order of the mapped node ids after loading
+     */
+    public final NodeOrder nodeOrder;
+    /**
+     * polled by the loaders between batches to stop loading a terminated transaction
+     */
+    public final TerminationFlag terminationFlag;
+    /**
+     * read the relationships by a sequential scan of the relationship store
+     * instead of following the relationship chain of every node
+     */
+    public final boolean relationshipScan;
 
     /**
      * main ctor
@@ -62,6 +94,7 @@ public class GraphSetup {
      * @param executor the executor. null means single threaded evaluation
      * @param batchSize batch size for parallel loading
      * @param accumulateWeights true if relationship-weights should be summed within the loader
+     * @see #builder() for the other options
      */
     public GraphSetup(
             String startLabel,
@@ -76,40 +109,24 @@ public class GraphSetup {
             double nodeDefaultPropertyValue,
             ExecutorService executor,
             int batchSize, boolean accumulateWeights) {
-
-        this.startLabel = startLabel;
-        this.endLabel = endLabel;
-        this.relationshipType = relationshipType;
-        this.loadIncoming = direction == Direction.INCOMING || direction == Direction.BOTH;
-        this.loadOutgoing = direction == Direction.OUTGOING || direction == Direction.BOTH;
-        this.relationWeightPropertyName = relationWeightPropertyName;
-        this.relationDefaultWeight = relationDefaultWeight;
-        this.nodeWeightPropertyName = nodeWeightPropertyName;
-        this.nodeDefaultWeight = nodeDefaultWeight;
-        this.nodePropertyName = nodePropertyName;
-        this.nodeDefaultPropertyValue = nodeDefaultPropertyValue;
-        this.executor = executor;
-        this.batchSize = batchSize;
-        this.accumulateWeights = accumulateWeights;
+        this(builder()
+                .withLabel(startLabel)
+                .withEndLabel(endLabel)
+                .withRelationshipType(relationshipType)
+                .withDirection(direction)
+                .withRelationshipWeightsFromProperty(relationWeightPropertyName, relationDefaultWeight)
+                .withNodeWeightsFromProperty(nodeWeightPropertyName, nodeDefaultWeight)
+                .withNodeProperty(nodePropertyName, nodeDefaultPropertyValue)
+                .withExecutorService(executor)
+                .withBatchSize(batchSize)
+                .withAccumulateWeights(accumulateWeights));
     }
 
     /**
      * Setup Graph to load any label, any relationship, no property in single threaded mode
      */
     public GraphSetup() {
-        this.startLabel = null;
-        this.endLabel = null;
-        this.relationshipType = null;
-        this.loadIncoming = this.loadOutgoing = true;
-        this.relationWeightPropertyName = null;
-        this.relationDefaultWeight = 1.0;
-        this.nodeWeightPropertyName = null;
-        this.nodeDefaultWeight = 1.0;
-        this.nodePropertyName = null;
-        this.nodeDefaultPropertyValue = 1.0;
-        this.executor = null;
-        this.batchSize = -1;
-        this.accumulateWeights = false;
+        this(builder());
     }
 
     /**
@@ -119,19 +136,42 @@ public class GraphSetup {
      * @param executor executor service
      */
     public GraphSetup(ExecutorService executor) {
-        this.startLabel = null;
-        this.endLabel = null;
-        this.relationshipType = null;
-        this.loadIncoming = this.loadOutgoing = true;
-        this.relationWeightPropertyName = null;
-        this.relationDefaultWeight = 1.0;
-        this.nodeWeightPropertyName = null;
-        this.nodeDefaultWeight = 1.0;
-        this.nodePropertyName = null;
-        this.nodeDefaultPropertyValue = 1.0;
-        this.executor = executor;
-        this.batchSize = -1;
-        this.accumulateWeights = false;
+        this(builder().withExecutorService(executor));
+    }
+
+    private GraphSetup(Builder builder) {
+        this.startLabel = builder.startLabel;
+        this.endLabel = builder.endLabel;
+        this.relationshipType = builder.relationshipType;
+        this.loadIncoming = builder.undirected
+                || builder.direction == Direction.INCOMING
+                || builder.direction == Direction.BOTH;
+        this.loadOutgoing = builder.undirected
+                || builder.direction == Direction.OUTGOING
+                || builder.direction == Direction.BOTH;
+        this.relationWeightPropertyName = builder.relationWeightPropertyName;
+        this.relationDefaultWeight = builder.relationDefaultWeight;
+        this.nodeWeightPropertyName = builder.nodeWeightPropertyName;
+        this.nodeDefaultWeight = builder.nodeDefaultWeight;
+        this.nodePropertyName = builder.nodePropertyName;
+        this.nodeDefaultPropertyValue = builder.nodeDefaultPropertyValue;
+        this.executor = builder.executor;
+        this.batchSize = builder.batchSize;
+        this.accumulateWeights = builder.accumulateWeights;
+        this.sort = builder.sort;
+        this.undirected = builder.undirected;
+        this.nodePropertyKeys = builder.nodePropertyKeys;
+        this.nodePropertyDefaults = builder.nodePropertyDefaults;
+        this.nodeOrder = builder.nodeOrder;
+        this.terminationFlag = builder.terminationFlag;
+        this.relationshipScan = builder.relationshipScan;
+    }
+
+    /**
+     * a builder which starts with the options of {@link #GraphSetup()}
+     */
+    public static Builder builder() {
+        return new Builder();
     }
 
     public boolean loadConcurrent() {
@@ -164,4 +204,151 @@ public class GraphSetup {
     public boolean loadAnyRelationshipType() {
         return relationshipType == null;
     }
+
+    /**
+     * the relationship types to load, several types are separated by '|' like
+     * in a cypher pattern, e.g. {@code KNOWS|FOLLOWS}
+     *
+     * @return the type names or an empty array if any type should be loaded
+     */
+    public String[] relationshipTypes() {
+        return relationshipTypes(relationshipType);
+    }
+
+    /**
+     * split a relationship type selector like {@code :KNOWS|FOLLOWS} into its type names
+     */
+    public static String[] relationshipTypes(String relationshipType) {
+        if (relationshipType == null) {
+            return new String[0];
+        }
+        return Arrays.stream(relationshipType.split("\\|"))
+                .map(String::trim)
+                .map(type -> type.startsWith(":") ? type.substring(1) : type)
+                .filter(type -> !type.isEmpty())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Collects the options of a {@link GraphSetup}, see the fields for their meaning.
+     */
+    public static final class Builder {
+
+        private String startLabel;
+        private String endLabel;
+        private String relationshipType;
+        private Direction direction = Direction.BOTH;
+        private String relationWeightPropertyName;
+        private double relationDefaultWeight = 1.0;
+        private String nodeWeightPropertyName;
+        private double nodeDefaultWeight = 1.0;
+        private String nodePropertyName;
+        private double nodeDefaultPropertyValue = 1.0;
+        private ExecutorService executor;
+        private int batchSize = -1;
+        private boolean accumulateWeights;
+        private boolean sort;
+        private boolean undirected;
+        private String[] nodePropertyKeys = new String[0];
+        private double[] nodePropertyDefaults = new double[0];
+        private NodeOrder nodeOrder = NodeOrder.NONE;
+        private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
+        private boolean relationshipScan;
+
+        private Builder() {
+        }
+
+        public Builder withLabel(String startLabel) {
+            this.startLabel = startLabel;
+            return this;
+        }
+
+        public Builder withEndLabel(String endLabel) {
+            this.endLabel = endLabel;
+            return this;
+        }
+
+        public Builder withRelationshipType(String relationshipType) {
+            this.relationshipType = relationshipType;
+            return this;
+        }
+
+        public Builder withDirection(Direction direction) {
+            this.direction = direction;
+            return this;
+        }
+
+        public Builder withRelationshipWeightsFromProperty(String propertyName, double defaultWeight) {
+            this.relationWeightPropertyName = propertyName;
+            this.relationDefaultWeight = defaultWeight;
+            return this;
+        }
+
+        public Builder withNodeWeightsFromProperty(String propertyName, double defaultWeight) {
+            this.nodeWeightPropertyName = propertyName;
+            this.nodeDefaultWeight = defaultWeight;
+            return this;
+        }
+
+        public Builder withNodeProperty(String propertyName, double defaultValue) {
+            this.nodePropertyName = propertyName;
+            this.nodeDefaultPropertyValue = defaultValue;
+            return this;
+        }
+
+        public Builder withExecutorService(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder withBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder withAccumulateWeights(boolean accumulateWeights) {
+            this.accumulateWeights = accumulateWeights;
+            return this;
+        }
+
+        public Builder withSort(boolean sort) {
+            this.sort = sort;
+            return this;
+        }
+
+        public Builder withUndirected(boolean undirected) {
+            this.undirected = undirected;
+            return this;
+        }
+
+        /**
+         * @param propertyKeys the keys of the node property columns
+         * @param defaults     the default value of each column
+         */
+        public Builder withNodePropertyColumns(String[] propertyKeys, double[] defaults) {
+            this.nodePropertyKeys = propertyKeys;
+            this.nodePropertyDefaults = defaults;
+            return this;
+        }
+
+        public Builder withNodeOrder(NodeOrder nodeOrder) {
+            this.nodeOrder = nodeOrder;
+            return this;
+        }
+
+        public Builder withTerminationFlag(TerminationFlag terminationFlag) {
+            this.terminationFlag = terminationFlag;
+            return this;
+        }
+
+        public Builder withRelationshipScan(boolean relationshipScan) {
+            this.relationshipScan = relationshipScan;
+            return this;
+        }
+
+        public GraphSetup build() {
+            return new GraphSetup(this);
+        }
+    }
 }
@@ -0,0 +1,12 @@
+package org.neo4j.graphalgo.api;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Returns the degree of a given node and direction,
+ * counterpart of {@link Degrees} for long node ids.
+ */
+public interface HugeDegrees {
+
+    int degree(long nodeId, Direction direction);
+}
@@ -0,0 +1,12 @@
+package org.neo4j.graphalgo.api;
+
+/**
+ * A graph that is addressed by long node ids and can contain more than
+ * 2B nodes and relationships.
+ * <p>
+ * A HugeGraph is also a {@link Graph}, so that it can be used with
+ * every algorithm as long as its node count fits into an int.
+ * Algorithms that are aware of HugeGraphs use the long based methods.
+ */
+public interface HugeGraph extends HugeIdMapping, HugeDegrees, HugeNodeIterator, HugeBatchNodeIterable, HugeRelationshipIterator, Graph {
+}
@@ -0,0 +1,29 @@
+package org.neo4j.graphalgo.api;
+
+/**
+ * bidirectional mapping between long neo4j-nodeId and
+ * temporary long graph-nodeId. Counterpart of {@link IdMapping}
+ * for graphs with more than 2B nodes.
+ */
+public interface HugeIdMapping {
+
+    /**
+     * Map neo4j nodeId to inner nodeId, -1 if the node is not mapped
+     */
+    long toHugeMappedNodeId(long nodeId);
+
+    /**
+     * Map inner nodeId back to original nodeId
+     */
+    long toOriginalNodeId(long nodeId);
+
+    /**
+     * Returns true iff the nodeId is mapped, otherwise false
+     */
+    boolean contains(long nodeId);
+
+    /**
+     * count of nodes
+     */
+    long hugeNodeCount();
+}
@@ -0,0 +1,11 @@
+package org.neo4j.graphalgo.api;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Iterates the relationships of a long node id.
+ */
+public interface HugeRelationshipIterator {
+
+    void forEachRelationship(long nodeId, Direction direction, HugeRelationshipConsumer consumer);
+}
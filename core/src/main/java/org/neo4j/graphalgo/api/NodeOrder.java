@@ -0,0 +1,38 @@
+package org.neo4j.graphalgo.api;
+
+import java.util.Locale;
+
+/**
+ * Order of the mapped node ids. Loaders assign the ids in the order the
+ * nodes are scanned, reordering them after the load places neighbours
+ * close to each other in arrays indexed by node id.
+ */
+public enum NodeOrder {
+
+    /**
+     * keep the order of the scan
+     */
+    NONE,
+
+    /**
+     * nodes by descending degree, so the hubs share a few cache lines
+     */
+    DEGREE,
+
+    /**
+     * breadth first search order starting at the nodes of highest degree,
+     * neighbours get consecutive ids
+     */
+    BFS;
+
+    /**
+     * @param name name of the order, case insensitive, null for {@link #NONE}
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static NodeOrder parse(String name) {
+        if (name == null || name.isEmpty()) {
+            return NONE;
+        }
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+}
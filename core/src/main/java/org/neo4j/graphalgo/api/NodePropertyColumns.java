@@ -0,0 +1,29 @@
+package org.neo4j.graphalgo.api;
+
+/**
+ * Getter interface for several numeric node properties which are loaded
+ * as dense columns indexed by the mapped node id. Algorithms look up the
+ * column of a property key once and read the values by column.
+ */
+public interface NodePropertyColumns {
+
+    /**
+     * @return the property keys of the loaded columns in column order
+     */
+    String[] propertyKeys();
+
+    /**
+     * @param propertyKey the property key
+     * @return the column of the property or -1 if it has not been loaded
+     */
+    int column(String propertyKey);
+
+    /**
+     * return the property value of a node, or the default value of the
+     * column if the node has no such property
+     * @param column the column as returned by {@link #column(String)}
+     * @param nodeId the mapped node id
+     * @return the property value
+     */
+    double columnValue(int column, int nodeId);
+}
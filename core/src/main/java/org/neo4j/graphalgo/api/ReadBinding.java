@@ -0,0 +1,32 @@
+package org.neo4j.graphalgo.api;
+
+/**
+ * Binds the resources a graph reads with, like the transaction and
+ * statement of a view on the store, to the calling thread. Graphs which
+ * are held in memory need no binding and keep the default.
+ */
+public interface ReadBinding {
+
+    /**
+     * a context which has nothing to release
+     */
+    Context UNBOUND = () -> {};
+
+    /**
+     * bind the read resources to the current thread until the returned
+     * context is closed, so that a traversal of many short calls opens
+     * them only once
+     */
+    default Context bind() {
+        return UNBOUND;
+    }
+
+    /**
+     * releases the bound resources when closed
+     */
+    interface Context extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,23 @@
+package org.neo4j.graphalgo.api;
+
+/**
+ * Implemented by graphs which can hold the relationships of several
+ * relationship types as separate layers over the same nodes, so that
+ * an algorithm can run on some of the types only.
+ */
+public interface RelationshipTypeLayers {
+
+    /**
+     * the relationship types which have been loaded as separate layers,
+     * empty if all relationships are in a single layer
+     */
+    String[] relationshipTypes();
+
+    /**
+     * a graph of the same nodes containing only the relationships of the
+     * given types. Returns this graph if all layers are selected.
+     *
+     * @throws IllegalArgumentException if a type has not been loaded as a layer
+     */
+    Graph withRelationshipTypes(String... relationshipTypes);
+}
@@ -0,0 +1,23 @@
+package org.neo4j.graphalgo.api;
+
+import org.neo4j.graphdb.Direction;
+
+/**
+ * Implemented by graphs which can keep the relationships of each node
+ * sorted by the mapped id of the other node, e.g. to intersect the
+ * neighbours of two nodes in a single pass.
+ */
+public interface SortedAdjacency {
+
+    /**
+     * whether the relationships of a node are iterated in ascending order of
+     * the other node. With {@link Direction#BOTH} each direction is sorted on its own.
+     */
+    boolean isSorted();
+
+    /**
+     * check if there is a relationship between source and target node in the
+     * given direction, O(log d) if sorted and O(d) otherwise
+     */
+    boolean exists(int sourceNodeId, int targetNodeId, Direction direction);
+}
@@ -0,0 +1,401 @@
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.StatementConstants;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.Direction;
+import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.PropertyItem;
+import org.neo4j.storageengine.api.RelationshipItem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Base of the factories which import the relationships of the mapped nodes
+ * in parallel batches of {@link GraphSetup#batchSize} nodes through the kernel.
+ * <p>
+ * Implementations with offset based adjacency arrays import in three phases,
+ * each of them running the {@link Batch}es in parallel:
+ * <ol>
+ * <li>the degree of every node is read into its offset slot</li>
+ * <li>the degrees are turned into offsets by a parallel prefix sum</li>
+ * <li>every batch fills its disjoint region of the adjacency arrays</li>
+ * </ol>
+ * The arrays of the last phase are allocated by the implementation once
+ * the total degrees are known.
+ * <p>
+ * The degrees of the first phase are upper bounds: relationships to nodes
+ * which are not mapped, or which are deleted before the last phase, are
+ * counted but not written. Every batch therefore writes the relationships
+ * of its nodes back to back and leaves the unused slots at the end of its
+ * region. Afterwards the regions are moved down to close these gaps and
+ * the offsets are corrected.
+ */
+public abstract class BatchImportGraphFactory extends GraphFactory {
+
+    /**
+     * number of nodes per batch if the setup doesn't specify one
+     */
+    public static final int BATCH_SIZE = 100_000;
+
+    protected final ExecutorService threadPool;
+    protected int labelId;
+    protected int[] relationId;
+    protected int weightId;
+    protected long nodeCount;
+
+    public BatchImportGraphFactory(
+            GraphDatabaseAPI api,
+            GraphSetup setup) {
+        super(api, setup);
+        this.threadPool = setup.executor;
+        withReadOps(readOp -> {
+            labelId = setup.loadAnyLabel()
+                    ? ReadOperations.ANY_LABEL
+                    : readOp.labelGetForName(setup.startLabel);
+            relationId = relationshipTypeIds(readOp, setup.relationshipType);
+            weightId = setup.loadDefaultRelationshipWeight()
+                    ? StatementConstants.NO_SUCH_PROPERTY_KEY
+                    : readOp.propertyKeyGetForName(setup.relationWeightPropertyName);
+            nodeCount = readOp.countsForNode(labelId);
+        });
+    }
+
+    @Override
+    public Graph build() {
+        return build(setup.batchSize > 0 ? setup.batchSize : BATCH_SIZE);
+    }
+
+    /**
+     * build the graph with the given number of nodes per batch
+     */
+    protected abstract Graph build(int batchSize);
+
+    protected final boolean loadsWeights() {
+        return weightId != StatementConstants.NO_SUCH_PROPERTY_KEY;
+    }
+
+    /**
+     * run a phase for every task in parallel, every task checks
+     * the termination flag before it starts
+     */
+    protected final <T> void run(Collection<? extends T> tasks, Consumer<T> phase) {
+        final List<Runnable> runnables = new ArrayList<>(tasks.size());
+        for (T task : tasks) {
+            runnables.add(() -> {
+                setup.terminationFlag.assertRunning();
+                phase.accept(task);
+            });
+        }
+        ParallelUtil.run(runnables, threadPool);
+    }
+
+    /**
+     * run the degree and offset phases of the batches
+     *
+     * @return the total incoming and outgoing degree
+     */
+    protected final long[] computeOffsets(List<? extends Batch> batches) {
+        this.<Batch>run(batches, batch -> withReadOps(batch::readDegrees));
+        long inTotal = 0L;
+        long outTotal = 0L;
+        for (Batch batch : batches) {
+            batch.inBase = inTotal;
+            batch.outBase = outTotal;
+            inTotal += batch.inDegrees;
+            outTotal += batch.outDegrees;
+        }
+        this.<Batch>run(batches, Batch::computeOffsets);
+        return new long[]{inTotal, outTotal};
+    }
+
+    /**
+     * run the last phase of the batches and move their regions down to
+     * close the gaps of relationships which were counted but not written
+     *
+     * @return the total incoming and outgoing number of written relationships
+     */
+    protected final long[] readRelationships(List<? extends Batch> batches) {
+        this.<Batch>run(batches, batch -> withReadOps(batch::readRelationships));
+        // sequentially in ascending order, a region may be moved onto
+        // the unused slots of the preceding one
+        long inTotal = 0L;
+        long outTotal = 0L;
+        for (Batch batch : batches) {
+            batch.moveTo(inTotal, outTotal);
+            inTotal += batch.inDegrees;
+            outTotal += batch.outDegrees;
+        }
+        if (!batches.isEmpty()) {
+            batches.get(batches.size() - 1).setEnd(inTotal, outTotal);
+        }
+        return new long[]{inTotal, outTotal};
+    }
+
+    protected final Cursor<RelationshipItem> relationships(NodeItem node, Direction direction) {
+        return relationId == null
+                ? node.relationships(direction)
+                : node.relationships(direction, relationId);
+    }
+
+    /**
+     * @return the weight of the relationship or the default weight
+     */
+    protected final double weightOf(RelationshipItem rel) {
+        try (Cursor<PropertyItem> weight = rel.property(weightId)) {
+            if (weight.next()) {
+                return RawValues.extractValue(weight.get().value(), setup.relationDefaultWeight);
+            }
+        }
+        return setup.relationDefaultWeight;
+    }
+
+    /**
+     * offsets of the nodes into an adjacency array
+     */
+    protected interface Offsets {
+        long get(long nodeId);
+
+        void set(long nodeId, long offset);
+    }
+
+    /**
+     * a range of mapped node ids which is imported by a single thread
+     */
+    protected abstract class Batch {
+        protected final long startNode;
+        protected final long endNode;
+        private final Offsets inOffsets;
+        private final Offsets outOffsets;
+        private long inDegrees;
+        private long outDegrees;
+        private long inBase;
+        private long outBase;
+
+        /**
+         * @param inOffsets  the offsets of incoming relationships or null if they aren't loaded
+         * @param outOffsets the offsets of outgoing relationships or null if they aren't loaded
+         */
+        protected Batch(long startNode, long endNode, Offsets inOffsets, Offsets outOffsets) {
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.inOffsets = inOffsets;
+            this.outOffsets = outOffsets;
+        }
+
+        /**
+         * @return the neo4j id of a mapped node
+         */
+        protected abstract long toOriginalNodeId(long nodeId);
+
+        /**
+         * @return true iff the neo4j node is mapped
+         */
+        protected abstract boolean contains(long originalNodeId);
+
+        /**
+         * phase 3: write the relationships of the node in the given direction
+         * starting at the offset
+         *
+         * @param degree the number of free slots, at most that many relationships may be written
+         * @return the number of written relationships
+         */
+        protected abstract long readRelationships(
+                long nodeId,
+                NodeItem node,
+                Direction direction,
+                long offset,
+                long degree);
+
+        /**
+         * move written relationships of the given direction down to a lower offset
+         */
+        protected abstract void moveRelationships(
+                Direction direction,
+                long from,
+                long to,
+                long length);
+
+        /**
+         * call the consumer with each mapped node of the batch which still exists
+         */
+        protected final void forEachNode(ReadOperations readOp, NodeConsumer consumer) {
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                try (Cursor<NodeItem> cursor = readOp.nodeCursor(toOriginalNodeId(nodeId))) {
+                    if (cursor.next()) {
+                        consumer.accept(nodeId, cursor.get());
+                    }
+                }
+            }
+        }
+
+        /**
+         * phase 1: store the degree of each node in its offset slot
+         */
+        private void readDegrees(ReadOperations readOp) {
+            forEachNode(readOp, (nodeId, node) -> {
+                if (outOffsets != null) {
+                    int degree = degree(node, Direction.OUTGOING);
+                    outOffsets.set(nodeId, degree);
+                    outDegrees += degree;
+                }
+                if (inOffsets != null) {
+                    int degree = degree(node, Direction.INCOMING);
+                    inOffsets.set(nodeId, degree);
+                    inDegrees += degree;
+                }
+            });
+        }
+
+        /**
+         * phase 2: turn the degrees of this batch into offsets, starting at
+         * the sum of all degrees of the previous batches
+         */
+        private void computeOffsets() {
+            if (outOffsets != null) {
+                toOffsets(outOffsets, outBase);
+            }
+            if (inOffsets != null) {
+                toOffsets(inOffsets, inBase);
+            }
+        }
+
+        /**
+         * phase 3: fill the region node by node. Every node starts right
+         * after the relationships written for the previous one, nodes which
+         * no longer exist get none. The written degrees replace the ones
+         * of phase 1.
+         */
+        private void readRelationships(ReadOperations readOp) {
+            long inEnd = inBase;
+            long outEnd = outBase;
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                try (Cursor<NodeItem> cursor = readOp.nodeCursor(toOriginalNodeId(nodeId))) {
+                    final NodeItem node = cursor.next() ? cursor.get() : null;
+                    if (outOffsets != null) {
+                        outEnd = readRelationships(
+                                nodeId, node, Direction.OUTGOING,
+                                outOffsets, outBase + outDegrees, outEnd);
+                    }
+                    if (inOffsets != null) {
+                        inEnd = readRelationships(
+                                nodeId, node, Direction.INCOMING,
+                                inOffsets, inBase + inDegrees, inEnd);
+                    }
+                }
+            }
+            inDegrees = inEnd - inBase;
+            outDegrees = outEnd - outBase;
+        }
+
+        /**
+         * @param regionEnd the end of the region of this batch
+         * @param end       the end of the relationships written so far
+         * @return the end after the relationships of the node
+         */
+        private long readRelationships(
+                long nodeId,
+                NodeItem node,
+                Direction direction,
+                Offsets offsets,
+                long regionEnd,
+                long end) {
+            // the offset of the next batch's first node may be rewritten concurrently
+            final long next = nodeId + 1 < endNode ? offsets.get(nodeId + 1) : regionEnd;
+            final long degree = next - offsets.get(nodeId);
+            offsets.set(nodeId, end);
+            if (node == null || degree <= 0) {
+                return end;
+            }
+            return end + readRelationships(nodeId, node, direction, end, degree);
+        }
+
+        /**
+         * move the written relationships down to the new bases
+         */
+        private void moveTo(long inBase, long outBase) {
+            if (inOffsets != null) {
+                move(Direction.INCOMING, inOffsets, this.inBase, inBase, inDegrees);
+            }
+            if (outOffsets != null) {
+                move(Direction.OUTGOING, outOffsets, this.outBase, outBase, outDegrees);
+            }
+            this.inBase = inBase;
+            this.outBase = outBase;
+        }
+
+        private void move(Direction direction, Offsets offsets, long from, long to, long length) {
+            if (from == to) {
+                return;
+            }
+            if (length > 0) {
+                moveRelationships(direction, from, to, length);
+            }
+            final long shift = from - to;
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                offsets.set(nodeId, offsets.get(nodeId) - shift);
+            }
+        }
+
+        /**
+         * set the offset behind the last node, to be called on the last batch
+         */
+        private void setEnd(long inTotal, long outTotal) {
+            if (inOffsets != null) {
+                inOffsets.set(endNode, inTotal);
+            }
+            if (outOffsets != null) {
+                outOffsets.set(endNode, outTotal);
+            }
+        }
+
+        private void toOffsets(Offsets offsets, long base) {
+            long offset = base;
+            for (long nodeId = startNode; nodeId < endNode; nodeId++) {
+                long degree = offsets.get(nodeId);
+                offsets.set(nodeId, offset);
+                offset += degree;
+            }
+        }
+
+        /**
+         * If every node is loaded, the degree of the store can be used
+         * directly. Otherwise only relationships to loaded nodes are counted.
+         */
+        private int degree(NodeItem node, Direction direction) {
+            if (labelId == ReadOperations.ANY_LABEL) {
+                if (relationId == null) {
+                    return node.degree(direction);
+                }
+                int degree = 0;
+                for (int typeId : relationId) {
+                    degree += node.degree(direction, typeId);
+                }
+                return degree;
+            }
+            int degree = 0;
+            try (Cursor<RelationshipItem> rels = relationships(node, direction)) {
+                while (rels.next()) {
+                    if (contains(rels.get().otherNode(node.id()))) {
+                        degree++;
+                    }
+                }
+            }
+            return degree;
+        }
+    }
+
+    protected interface NodeConsumer {
+        void accept(long nodeId, NodeItem node);
+    }
+}
@@ -0,0 +1,318 @@
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.IncrementalGraph;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.configuration.Settings;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps loaded graphs by name, so that several procedure calls can
+ * share one projection instead of loading it again.
+ * <p>
+ * There is one catalog per database, it is dropped with all of its graphs
+ * when the database shuts down (see {@link GraphCatalogExtension}). Graphs are held in least recently
+ * used order and the oldest ones are evicted as soon as the estimated
+ * size of all graphs exceeds the budget, which is configured with
+ * {@code algo.graph.catalog.budget} (e.g. {@code 4g}) and defaults to
+ * half of the maximum heap.
+ * <p>
+ * The size of a graph is the heap estimated by its {@link GraphFactory}
+ * (see {@link GraphFactory#estimateMemoryUsage()}), memory mapped parts
+ * of off-heap and snapshot graphs don't count. Graphs without an estimate
+ * are charged like a heavy graph of their size.
+ * <p>
+ * Names of graph implementations (heavy, light, ...) are reserved
+ * because the {@code graph} option selects either of them.
+ * <p>
+ * For an {@link IncrementalGraph} the current snapshot is returned and it
+ * stops following the database once it is removed or evicted.
+ */
+public final class GraphCatalog {
+
+    public static final Setting<Long> BUDGET = Settings.setting(
+            "algo.graph.catalog.budget",
+            Settings.BYTES,
+            Settings.NO_DEFAULT);
+
+    private static final Map<GraphDatabaseAPI, GraphCatalog> CATALOGS = new HashMap<>();
+
+    /**
+     * return the catalog of the given database
+     */
+    public static GraphCatalog of(GraphDatabaseAPI api) {
+        synchronized (CATALOGS) {
+            return CATALOGS.computeIfAbsent(api, GraphCatalog::new);
+        }
+    }
+
+    /**
+     * drop the catalog of the given database and release its graphs,
+     * called when the database shuts down
+     */
+    static void close(GraphDatabaseAPI api) {
+        final GraphCatalog catalog;
+        synchronized (CATALOGS) {
+            catalog = CATALOGS.remove(api);
+        }
+        if (catalog != null) {
+            catalog.clear();
+        }
+    }
+
+    private final LinkedHashMap<String, Entry> graphs = new LinkedHashMap<>(16, 0.75f, true);
+    private long budget;
+    private long usedBytes;
+
+    private GraphCatalog(GraphDatabaseAPI api) {
+        final Long configured = api.getDependencyResolver()
+                .resolveDependency(Config.class)
+                .get(BUDGET);
+        this.budget = configured != null ? configured : Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    /**
+     * store the graph under the given name, replacing a graph with the
+     * same name and evicting the least recently used graphs if the budget
+     * is exceeded.
+     *
+     * @param direction the loaded direction(s), {@link Direction#BOTH} for undirected graphs
+     * @param undirected whether the graph holds a single list of neighbours for every direction
+     * @param weighted whether relationship weights are loaded
+     * @param defaultWeight the weight of relationships without one
+     * @param estimate the heap estimated for the graph or null if there is none
+     * @throws IllegalArgumentException if the name is reserved or the graph alone exceeds the budget
+     */
+    public synchronized Entry put(
+            String name,
+            String type,
+            Direction direction,
+            boolean undirected,
+            Graph graph,
+            boolean weighted,
+            double defaultWeight,
+            MemoryEstimate estimate) {
+        // every direction of an undirected graph yields the same neighbours, they are counted once
+        final boolean incoming = !undirected && direction != Direction.OUTGOING;
+        final boolean outgoing = undirected || direction != Direction.INCOMING;
+        final long incomingRelationships = incoming ? relationshipCount(graph, Direction.INCOMING) : 0L;
+        final long outgoingRelationships = outgoing ? relationshipCount(graph, Direction.OUTGOING) : 0L;
+        final long relationships = incomingRelationships + outgoingRelationships;
+        final long bytes = estimate != null
+                ? estimate.bytes
+                : HeavyGraphFactory.estimateMemoryUsage(
+                        graph.nodeCount(),
+                        incomingRelationships,
+                        outgoingRelationships,
+                        incoming,
+                        outgoing,
+                        weighted);
+        final Entry entry = new Entry(
+                name,
+                type,
+                direction,
+                undirected,
+                graph,
+                weighted,
+                defaultWeight,
+                graph.nodeCount(),
+                relationships,
+                bytes);
+        assertFits(name, entry.bytes);
+        remove(name);
+        graphs.put(name, entry);
+        usedBytes += entry.bytes;
+        evict();
+        return entry;
+    }
+
+    /**
+     * check that a graph of the given size can be stored under the name,
+     * before it is loaded
+     *
+     * @throws IllegalArgumentException if the name is reserved or the graph alone exceeds the budget
+     */
+    public synchronized void assertFits(String name, long bytes) {
+        if (ProcedureConfiguration.isGraphImpl(name)) {
+            throw new IllegalArgumentException("The name '" + name + "' is reserved for a graph implementation");
+        }
+        if (bytes > budget) {
+            throw new IllegalArgumentException(String.format(
+                    "Graph '%s' needs about %d bytes which exceeds the catalog budget of %d bytes",
+                    name,
+                    bytes,
+                    budget));
+        }
+    }
+
+    /**
+     * return the graph stored under the given name or null
+     */
+    public synchronized Graph get(String name) {
+        final Entry entry = graphs.get(name);
+        if (entry == null) {
+            return null;
+        }
+        return entry.graph instanceof IncrementalGraph
+                ? ((IncrementalGraph) entry.graph).snapshot()
+                : entry.graph;
+    }
+
+    /**
+     * return the graph stored under the given name or null, after checking
+     * that it holds the relationships the caller is going to read
+     *
+     * @param direction the direction the caller traverses
+     * @param weighted whether the caller reads relationship weights
+     * @throws IllegalArgumentException if the graph has been loaded without that direction or without weights
+     */
+    public synchronized Graph get(String name, Direction direction, boolean weighted) {
+        final Entry entry = graphs.get(name);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.direction != Direction.BOTH && entry.direction != direction) {
+            throw new IllegalArgumentException(String.format(
+                    "Graph '%s' has been loaded with direction %s, but %s is required",
+                    name,
+                    entry.direction,
+                    direction));
+        }
+        if (weighted && !entry.weighted) {
+            throw new IllegalArgumentException(String.format(
+                    "Graph '%s' has been loaded without relationship weights",
+                    name));
+        }
+        return get(name);
+    }
+
+    /**
+     * return the entry stored under the given name or null,
+     * like {@link #get(String)} this counts as a use of the graph
+     */
+    public synchronized Entry entry(String name) {
+        return graphs.get(name);
+    }
+
+    /**
+     * remove the graph stored under the given name
+     * @return the removed entry or null if there was none
+     */
+    public synchronized Entry remove(String name) {
+        final Entry entry = graphs.remove(name);
+        if (entry != null) {
+            usedBytes -= entry.bytes;
+            release(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * return all entries, least recently used first
+     */
+    public synchronized List<Entry> list() {
+        return new ArrayList<>(graphs.values());
+    }
+
+    /**
+     * remove all graphs
+     */
+    public synchronized void clear() {
+        for (Entry entry : graphs.values()) {
+            release(entry);
+        }
+        graphs.clear();
+        usedBytes = 0L;
+    }
+
+    public synchronized long budget() {
+        return budget;
+    }
+
+    /**
+     * change the budget, evicting graphs if necessary
+     */
+    public synchronized void budget(long budget) {
+        this.budget = budget;
+        evict();
+    }
+
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    private void evict() {
+        final Iterator<Entry> entries = graphs.values().iterator();
+        while (usedBytes > budget && entries.hasNext()) {
+            final Entry entry = entries.next();
+            usedBytes -= entry.bytes;
+            entries.remove();
+            release(entry);
+        }
+    }
+
+    private static void release(Entry entry) {
+        if (entry.graph instanceof IncrementalGraph) {
+            ((IncrementalGraph) entry.graph).release();
+        }
+    }
+
+    private static long relationshipCount(Graph graph, Direction direction) {
+        final long[] count = {0L};
+        graph.forEachNode(node -> {
+            count[0] += graph.degree(node, direction);
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * a named graph and its statistics
+     */
+    public static final class Entry {
+        public final String name;
+        public final String type;
+        public final Direction direction;
+        public final boolean undirected;
+        public final Graph graph;
+        public final boolean weighted;
+        public final double defaultWeight;
+        public final long nodes;
+        public final long relationships;
+        public final long bytes;
+
+        private Entry(
+                String name,
+                String type,
+                Direction direction,
+                boolean undirected,
+                Graph graph,
+                boolean weighted,
+                double defaultWeight,
+                long nodes,
+                long relationships,
+                long bytes) {
+            this.name = name;
+            this.type = type;
+            this.direction = direction;
+            this.undirected = undirected;
+            this.graph = graph;
+            this.weighted = weighted;
+            this.defaultWeight = defaultWeight;
+            this.nodes = nodes;
+            this.relationships = relationships;
+            this.bytes = bytes;
+        }
+    }
+}
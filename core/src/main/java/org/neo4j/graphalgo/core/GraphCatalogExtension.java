@@ -0,0 +1,32 @@
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.kernel.extension.KernelExtensionFactory;
+import org.neo4j.kernel.impl.spi.KernelContext;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.lifecycle.Lifecycle;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+/**
+ * Drops the {@link GraphCatalog} of a database, and releases its graphs,
+ * when the database shuts down.
+ */
+public final class GraphCatalogExtension extends KernelExtensionFactory<GraphCatalogExtension.Dependencies> {
+
+    public interface Dependencies {
+        GraphDatabaseAPI graphDatabaseAPI();
+    }
+
+    public GraphCatalogExtension() {
+        super("algo.graph.catalog");
+    }
+
+    @Override
+    public Lifecycle newInstance(KernelContext context, Dependencies dependencies) {
+        return new LifecycleAdapter() {
+            @Override
+            public void shutdown() {
+                GraphCatalog.close(dependencies.graphDatabaseAPI());
+            }
+        };
+    }
+}
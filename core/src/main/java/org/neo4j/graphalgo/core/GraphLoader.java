@@ -1,8 +1,15 @@
 package org.neo4j.graphalgo.core;
 
+import com.carrotsearch.hppc.DoubleArrayList;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.GraphPartition;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.NodeOrder;
+import org.neo4j.graphalgo.api.RelationshipTypeLayers;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.RelationshipType;
@@ -12,8 +19,11 @@ import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
 
 /**
  * The GraphLoader provides a fluent interface and default values to configure
@@ -47,6 +57,13 @@ public class GraphLoader {
     private double nodePropDefault = 0.0;
     private int batchSize;
     private boolean accumulateWeights;
+    private boolean sort;
+    private boolean undirected;
+    private final List<String> nodePropertyKeys = new ArrayList<>();
+    private final DoubleArrayList nodePropertyDefaults = new DoubleArrayList();
+    private NodeOrder nodeOrder = NodeOrder.NONE;
+    private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
+    private boolean relationshipScan;
 
     /**
      * Creates a new serial GraphLoader.
@@ -358,6 +375,77 @@ public class GraphLoader {
         return invokeConstructor(constructor).build();
     }
 
+    /**
+     * Loads the graph using the given GraphFactory and hands each partition
+     * of nodes to the consumer as soon as it is imported, see
+     * {@link GraphFactory#build(Consumer)}. The consumer may be called
+     * concurrently and must be done with a partition when it returns.
+     *
+     * @param factoryType the factory type
+     * @param partitions consumer of the imported partitions
+     * @return the freshly loaded graph
+     */
+    public Graph load(Class<? extends GraphFactory> factoryType, Consumer<GraphPartition> partitions) {
+        final MethodHandle constructor = findConstructor(factoryType);
+        return invokeConstructor(constructor).build(partitions);
+    }
+
+    /**
+     * Estimates the heap the graph would take if it were loaded with
+     * the given GraphFactory, without loading it.
+     *
+     * @return the estimate or null if the implementation cannot tell
+     */
+    public MemoryEstimate estimate(Class<? extends GraphFactory> factoryType) {
+        final MethodHandle constructor = findConstructor(factoryType);
+        return invokeConstructor(constructor).estimateMemoryUsage();
+    }
+
+    /**
+     * Returns the graph that is stored in the {@link GraphCatalog} under the
+     * name given by the {@code graph} option. Otherwise the graph is loaded
+     * using the implementation selected by that option.
+     * <p>
+     * A graph from the catalog has been loaded with its own configuration,
+     * the settings of this loader are ignored in that case. It must however
+     * hold the direction of this loader and, if this loader reads weights,
+     * relationship weights. Only if the graph holds several relationship
+     * types as layers, the relationship types of the configuration select
+     * the layers the algorithm runs on.
+     * <p>
+     * A graph that is expected to exceed the free heap is not loaded.
+     *
+     * @return the named or the freshly loaded graph
+     * @throws IllegalStateException if the graph does not fit into the heap
+     * @throws IllegalArgumentException if the named graph lacks the direction or the weights
+     */
+    public Graph load(ProcedureConfiguration config) {
+        final String name = config.getGraphName(null);
+        if (name != null) {
+            final Graph graph = GraphCatalog.of(api).get(name, direction, relWeightProp != null);
+            if (graph != null) {
+                return selectRelationshipTypes(graph, config.getRelationshipOrQuery());
+            }
+        }
+        final GraphFactory factory = invokeConstructor(findConstructor(config.getGraphImpl()));
+        final MemoryEstimate estimate = factory.estimateMemoryUsage();
+        if (estimate != null) {
+            MemoryUsage.assertFits("The graph", estimate.bytes);
+        }
+        return factory.build();
+    }
+
+    private static Graph selectRelationshipTypes(Graph graph, String relationshipType) {
+        if (!(graph instanceof RelationshipTypeLayers) || relationshipType == null || relationshipType.isEmpty()) {
+            return graph;
+        }
+        final RelationshipTypeLayers layers = (RelationshipTypeLayers) graph;
+        if (layers.relationshipTypes().length == 0) {
+            return graph;
+        }
+        return layers.withRelationshipTypes(GraphSetup.relationshipTypes(relationshipType));
+    }
+
     private MethodHandle findConstructor(Class<?> factoryType) {
         try {
             return LOOKUP.findConstructor(factoryType, CTOR_METHOD);
@@ -368,20 +456,25 @@ public class GraphLoader {
 
     private GraphFactory invokeConstructor(MethodHandle constructor) {
 
-        final GraphSetup setup = new GraphSetup(
-                label,
-                null,
-                relation,
-                direction,
-                relWeightProp,
-                relWeightDefault,
-                nodeWeightProp,
-                nodeWeightDefault,
-                nodeProp,
-                nodePropDefault,
-                executorService,
-                batchSize,
-                accumulateWeights);
+        final GraphSetup setup = GraphSetup.builder()
+                .withLabel(label)
+                .withRelationshipType(relation)
+                .withDirection(direction)
+                .withRelationshipWeightsFromProperty(relWeightProp, relWeightDefault)
+                .withNodeWeightsFromProperty(nodeWeightProp, nodeWeightDefault)
+                .withNodeProperty(nodeProp, nodePropDefault)
+                .withExecutorService(executorService)
+                .withBatchSize(batchSize)
+                .withAccumulateWeights(accumulateWeights)
+                .withSort(sort)
+                .withUndirected(undirected)
+                .withNodePropertyColumns(
+                        nodePropertyKeys.toArray(new String[nodePropertyKeys.size()]),
+                        nodePropertyDefaults.toArray())
+                .withNodeOrder(nodeOrder)
+                .withTerminationFlag(terminationFlag)
+                .withRelationshipScan(relationshipScan)
+                .build();
 
         try {
             return (GraphFactory) constructor.invoke(api, setup);
@@ -429,4 +522,89 @@ public class GraphLoader {
         this.accumulateWeights = accumulateWeights;
         return this;
     }
+
+    /**
+     * Sort the relationships of each node by node id after loading, in parallel
+     * if an executor is set. Currently supported by the heavy graph.
+     *
+     * @param sort true if the relationships should be sorted
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withSort(boolean sort) {
+        this.sort = sort;
+        return this;
+    }
+
+    /**
+     * Load both directions and merge them into one sorted list of distinct
+     * neighbours per node, which is returned for every direction. Reciprocal
+     * relationships are kept once, with the weight of the outgoing one.
+     * Currently supported by the heavy graph loaded from labels and types.
+     *
+     * @param undirected true if the graph should be undirected
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withUndirected(boolean undirected) {
+        this.undirected = undirected;
+        return this;
+    }
+
+    /**
+     * Load an additional node property into a dense column, any number of
+     * properties can be added and are read in the same pass over the nodes.
+     * The graph gives access to them by {@link org.neo4j.graphalgo.api.NodePropertyColumns}.
+     * Currently supported by the heavy graph.
+     *
+     * @param propertyKey the property key
+     * @param defaultValue the value of nodes without the property
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withNodePropertyColumn(String propertyKey, double defaultValue) {
+        if (!nodePropertyKeys.contains(propertyKey)) {
+            nodePropertyKeys.add(propertyKey);
+            nodePropertyDefaults.add(defaultValue);
+        }
+        return this;
+    }
+
+    /**
+     * Renumber the nodes after loading so that neighbours get close ids, which
+     * improves the cache locality of arrays indexed by node id. Original node ids
+     * are still translated by the graph. Currently supported by the heavy graph.
+     *
+     * @param nodeOrder the order of the mapped node ids
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withNodeOrder(NodeOrder nodeOrder) {
+        this.nodeOrder = Objects.requireNonNull(nodeOrder);
+        return this;
+    }
+
+    /**
+     * Stop loading with a {@link org.neo4j.graphdb.TransactionTerminatedException}
+     * once the flag is no longer running. The flag is polled between batches of
+     * nodes. Currently supported by the heavy graph.
+     *
+     * @param terminationFlag the flag, usually wrapping the transaction of the procedure
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withTerminationFlag(TerminationFlag terminationFlag) {
+        this.terminationFlag = Objects.requireNonNull(terminationFlag);
+        return this;
+    }
+
+    /**
+     * Read the relationships by scanning the relationship store sequentially
+     * in parallel id ranges instead of following the relationship chain of
+     * every node. Pays off for projections of most of the graph. The order of
+     * the relationships of a node is arbitrary unless they are sorted.
+     * Currently supported by the heavy graph with at most one relationship type.
+     *
+     * @param relationshipScan true if the relationship store should be scanned
+     * @return itself to enable fluent interface
+     */
+    public GraphLoader withRelationshipScan(boolean relationshipScan) {
+        this.relationshipScan = relationshipScan;
+        return this;
+    }
 }
@@ -8,6 +8,7 @@ import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.graphalgo.api.BatchNodeIterable;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.api.NodeIterator;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 
 import java.util.Arrays;
@@ -18,19 +19,64 @@ import java.util.function.IntPredicate;
 /**
  * This is basically a long to int mapper. It sorts the id's in ascending order so its
  * guaranteed that there is no ID greater then nextGraphId / capacity
+ * <p>
+ * Maps which are built by {@link #add(long)} or {@link #mapOrGet(long)} look up the
+ * mapped id in a hash map. Maps of ascending neo4j ids, as created by
+ * {@link #ofSortedIds(long[])}, need no hash map: if the ids are dense the neo4j id
+ * is the mapped id, otherwise the mapped id is found by a binary search over the
+ * neo4j ids. Those maps are immutable. Reordering them keeps the sorted ids and
+ * stores the permutation of the mapped ids next to them.
  */
 public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
 
     private final IdIterator iter;
     private int nextGraphId;
+    // null for the identity mapping
     private long[] graphIds;
+    // null if the mapped ids are found in graphIds
     private LongIntMap nodeToGraphIds;
+    // null unless a map of sorted ids has been reordered: the mapped id
+    // by index into the sorted ids and the index by mapped id
+    private final int[] permutation;
+    private final int[] inversePermutation;
+    // views of maps of sorted ids, created once on demand
+    private volatile long[] mappedIds;
+    private volatile LongIntMap mappedNodeToGraphIds;
+
+    /**
+     * estimated heap usage of a map with the given capacity, the hash map
+     * from neo4j id to mapped id plus the array of neo4j ids. This is an
+     * upper bound, maps of sorted ids take only the array or nothing at all.
+     */
+    public static long estimateMemoryUsage(long capacity) {
+        return MemoryUsage.sizeOfHashMap(
+                (long) Math.ceil(capacity / 0.99),
+                0.99,
+                Long.BYTES,
+                Integer.BYTES)
+                + MemoryUsage.sizeOfLongArray(capacity);
+    }
+
+    /**
+     * create an immutable map of strictly ascending neo4j ids. The identity
+     * mapping is used if the ids are {@code 0..n-1}, otherwise the mapped ids
+     * are found by binary search in the given array.
+     */
+    public static IdMap ofSortedIds(long[] graphIds) {
+        final int nodeCount = graphIds.length;
+        if (nodeCount == 0 || graphIds[nodeCount - 1] == nodeCount - 1) {
+            return new IdMap(nodeCount, null, null);
+        }
+        return new IdMap(nodeCount, graphIds, null);
+    }
 
     /**
      * initialize the map with maximum node capacity
      */
     public IdMap(final int capacity) {
         nodeToGraphIds = new LongIntHashMap((int) Math.ceil(capacity / 0.99), 0.99);
+        permutation = null;
+        inversePermutation = null;
         iter = new IdIterator();
     }
 
@@ -40,9 +86,27 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     public IdMap(
             long[] graphIds,
             LongIntMap nodeToGraphIds) {
-        this.nextGraphId = graphIds.length;
+        this(graphIds.length, graphIds, nodeToGraphIds);
+    }
+
+    private IdMap(
+            int nodeCount,
+            long[] graphIds,
+            LongIntMap nodeToGraphIds) {
+        this(nodeCount, graphIds, nodeToGraphIds, null, null);
+    }
+
+    private IdMap(
+            int nodeCount,
+            long[] graphIds,
+            LongIntMap nodeToGraphIds,
+            int[] permutation,
+            int[] inversePermutation) {
+        this.nextGraphId = nodeCount;
         this.graphIds = graphIds;
         this.nodeToGraphIds = nodeToGraphIds;
+        this.permutation = permutation;
+        this.inversePermutation = inversePermutation;
         iter = new IdIterator();
     }
 
@@ -51,6 +115,9 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     }
 
     public int mapOrGet(long longValue) {
+        if (nodeToGraphIds == null) {
+            return get(longValue);
+        }
         int intValue = nodeToGraphIds.getOrDefault(longValue, -1);
         if (intValue == -1) {
             intValue = nextGraphId++;
@@ -60,12 +127,30 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     }
 
     public void add(long longValue) {
+        if (nodeToGraphIds == null) {
+            throw new UnsupportedOperationException("a map of sorted ids is immutable");
+        }
         int intValue = nextGraphId++;
         nodeToGraphIds.put(longValue, intValue);
     }
 
     public int get(long longValue) {
-        return nodeToGraphIds.getOrDefault(longValue, -1);
+        if (nodeToGraphIds != null) {
+            return nodeToGraphIds.getOrDefault(longValue, -1);
+        }
+        final int index = sortedIndex(longValue);
+        return index == -1 || permutation == null ? index : permutation[index];
+    }
+
+    /**
+     * @return the index of the neo4j id in the sorted ids or -1
+     */
+    private int sortedIndex(long longValue) {
+        if (graphIds == null) {
+            return longValue >= 0 && longValue < nextGraphId ? (int) longValue : -1;
+        }
+        final int index = Arrays.binarySearch(graphIds, 0, nextGraphId, longValue);
+        return index >= 0 ? index : -1;
     }
 
     public void buildMappedIds() {
@@ -75,16 +160,75 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
         }
     }
 
+    /**
+     * create a map with renumbered nodes, node {@code i} becomes {@code newIds[i]}.
+     * The original ids are kept, so the new mapped ids translate back transparently.
+     * Maps of sorted ids keep their sorted ids and only store the permutation.
+     */
+    public IdMap reorder(int[] newIds) {
+        if (nodeToGraphIds == null) {
+            final int[] reordered = new int[size()];
+            final int[] inverse = new int[reordered.length];
+            for (int index = 0; index < reordered.length; index++) {
+                final int newId = newIds[permutation != null ? permutation[index] : index];
+                reordered[index] = newId;
+                inverse[newId] = index;
+            }
+            return new IdMap(reordered.length, graphIds, null, reordered, inverse);
+        }
+        final long[] ids = new long[size()];
+        final LongIntMap map = new LongIntHashMap((int) Math.ceil(ids.length / 0.99), 0.99);
+        for (int i = 0; i < ids.length; i++) {
+            final long nodeId = toOriginalNodeId(i);
+            ids[newIds[i]] = nodeId;
+            map.put(nodeId, newIds[i]);
+        }
+        return new IdMap(ids, map);
+    }
+
     public int size() {
         return nextGraphId;
     }
 
+    /**
+     * the neo4j ids by mapped id, created once on demand for the identity
+     * mapping and reordered maps of sorted ids
+     */
     public long[] mappedIds() {
-        return graphIds;
+        if (graphIds != null && permutation == null) {
+            return graphIds;
+        }
+        if (nodeToGraphIds != null) {
+            final long[] ids = new long[nextGraphId];
+            Arrays.setAll(ids, i -> i);
+            return ids;
+        }
+        long[] ids = mappedIds;
+        if (ids == null) {
+            ids = new long[nextGraphId];
+            Arrays.setAll(ids, this::toOriginalNodeId);
+            mappedIds = ids;
+        }
+        return ids;
     }
 
+    /**
+     * the hash map from neo4j id to mapped id, created once on demand for
+     * maps of sorted ids. Prefer {@link #get(long)} for single lookups.
+     */
     public LongIntMap nodeToGraphIds() {
-        return nodeToGraphIds;
+        if (nodeToGraphIds != null) {
+            return nodeToGraphIds;
+        }
+        LongIntMap map = mappedNodeToGraphIds;
+        if (map == null) {
+            map = new LongIntHashMap((int) Math.ceil(nextGraphId / 0.99), 0.99);
+            for (int i = 0; i < nextGraphId; i++) {
+                map.put(toOriginalNodeId(i), i);
+            }
+            mappedNodeToGraphIds = map;
+        }
+        return map;
     }
 
     public void forEach(IntPredicate consumer) {
@@ -103,17 +247,18 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
 
     @Override
     public long toOriginalNodeId(int nodeId) {
-        return graphIds[nodeId];
+        final int index = inversePermutation != null ? inversePermutation[nodeId] : nodeId;
+        return graphIds != null ? graphIds[index] : index;
     }
 
     @Override
     public boolean contains(final long nodeId) {
-        return nodeToGraphIds.containsKey(nodeId);
+        return get(nodeId) != -1;
     }
 
     @Override
     public int nodeCount() {
-        return graphIds.length;
+        return graphIds != null ? graphIds.length : nextGraphId;
     }
 
     @Override
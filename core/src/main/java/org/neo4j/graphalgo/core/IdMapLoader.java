@@ -0,0 +1,82 @@
+package org.neo4j.graphalgo.core;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongIntMap;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
+import org.neo4j.kernel.impl.store.id.IdType;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds the {@link IdMap} of all nodes with a given label.
+ * <p>
+ * The node ids are read by a {@link NodeIdScan}, from the label scan store
+ * or in parallel ranges of the node store, and copied into the mapping at
+ * the offsets of their batches. Mapped ids are thereby assigned in the same
+ * order as a sequential scan would do.
+ * <p>
+ * The collected ids are ascending, so no hash map has to be built: if all
+ * ids up to the node count are used, like for an all-node load of a store
+ * without holes, the neo4j ids are used as mapped ids directly, otherwise
+ * they are looked up by binary search (see {@link IdMap#ofSortedIds(long[])}).
+ * Only if the store returns the ids out of order, the mapping falls back
+ * to a hash map.
+ */
+public final class IdMapLoader {
+
+    private IdMapLoader() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    /**
+     * load the id mapping for all nodes with the given label
+     *
+     * @param api        the db api
+     * @param labelId    the label or {@link ReadOperations#ANY_LABEL}
+     * @param batchSize  number of node ids per parallel range
+     * @param executor   the executor, null means single threaded evaluation
+     * @return the fully built IdMap
+     */
+    public static IdMap load(
+            GraphDatabaseAPI api,
+            int labelId,
+            int batchSize,
+            ExecutorService executor) {
+        final NodeIdScan scan = NodeIdScan.scan(api, labelId, batchSize, executor);
+        final long[] graphIds = new long[Math.toIntExact(scan.nodeCount)];
+        scan.forEachBatch(executor, batch -> System.arraycopy(
+                batch.ids.buffer,
+                0,
+                graphIds,
+                (int) batch.offset(),
+                batch.ids.size()));
+        for (int i = 1; i < graphIds.length; i++) {
+            if (graphIds[i - 1] >= graphIds[i]) {
+                return hashed(graphIds);
+            }
+        }
+        return IdMap.ofSortedIds(graphIds);
+    }
+
+    /**
+     * return the exclusive upper bound of node ids in the store
+     */
+    public static long highestNodeId(GraphDatabaseAPI api) {
+        return api.getDependencyResolver()
+                .resolveDependency(IdGeneratorFactory.class)
+                .get(IdType.NODE)
+                .getHighId();
+    }
+
+    private static IdMap hashed(long[] graphIds) {
+        final LongIntMap nodeToGraphIds = new LongIntHashMap(
+                (int) Math.ceil(graphIds.length / 0.99),
+                0.99);
+        for (int graphId = 0; graphId < graphIds.length; graphId++) {
+            nodeToGraphIds.put(graphIds[graphId], graphId);
+        }
+        return new IdMap(graphIds, nodeToGraphIds);
+    }
+}
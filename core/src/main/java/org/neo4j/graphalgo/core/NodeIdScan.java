@@ -0,0 +1,176 @@
+package org.neo4j.graphalgo.core;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.NodeItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Reads the ids of all nodes with a given label in batches, which are the
+ * building blocks of the id mappings.
+ * <p>
+ * The nodes of a label are read from the label scan store, which returns
+ * only their ids. Scans of all nodes have to visit every id of the node
+ * store instead: if an executor is available, the node id space is split
+ * into ranges of {@code batchSize} ids which are scanned in parallel. Every
+ * range collects the ids of its nodes in ascending order.
+ * <p>
+ * The batches are ordered like a sequential scan, a prefix sum over their
+ * sizes yields the offset of every batch in the final mapping.
+ */
+public final class NodeIdScan {
+
+    /**
+     * the batches in scan order
+     */
+    public final List<Batch> batches;
+
+    /**
+     * the number of scanned nodes
+     */
+    public final long nodeCount;
+
+    /**
+     * the exclusive upper bound of the scanned node ids, the store's high id
+     * may have grown since the scan
+     */
+    public final long highId;
+
+    private NodeIdScan(List<Batch> batches) {
+        long nodeCount = 0L;
+        long highId = 0L;
+        for (Batch batch : batches) {
+            batch.offset = nodeCount;
+            nodeCount += batch.ids.size();
+            highId = Math.max(highId, batch.highId);
+        }
+        this.batches = batches;
+        this.nodeCount = nodeCount;
+        this.highId = highId;
+    }
+
+    /**
+     * scan the ids of all nodes with the given label
+     *
+     * @param api       the db api
+     * @param labelId   the label or {@link ReadOperations#ANY_LABEL}
+     * @param batchSize number of node ids per batch or parallel range
+     * @param executor  the executor, null means single threaded evaluation
+     * @return the scanned batches
+     */
+    public static NodeIdScan scan(
+            GraphDatabaseAPI api,
+            int labelId,
+            int batchSize,
+            ExecutorService executor) {
+        final ThreadToStatementContextBridge contextBridge = api
+                .getDependencyResolver()
+                .resolveDependency(ThreadToStatementContextBridge.class);
+        if (labelId == ReadOperations.ANY_LABEL && ParallelUtil.canRunInParallel(executor)) {
+            final long highId = IdMapLoader.highestNodeId(api);
+            if (highId > batchSize) {
+                return scanRanges(api, contextBridge, highId, batchSize, executor);
+            }
+        }
+        final List<Batch> batches = new ArrayList<>();
+        withReadOps(api, contextBridge, readOp -> {
+            final PrimitiveLongIterator nodeIds = labelId == ReadOperations.ANY_LABEL
+                    ? readOp.nodesGetAll()
+                    : readOp.nodesGetForLabel(labelId);
+            Batch batch = null;
+            while (nodeIds.hasNext()) {
+                if (batch == null || batch.ids.size() == batchSize) {
+                    batch = new Batch();
+                    batches.add(batch);
+                }
+                batch.add(nodeIds.next());
+            }
+        });
+        return new NodeIdScan(batches);
+    }
+
+    private static NodeIdScan scanRanges(
+            GraphDatabaseAPI api,
+            ThreadToStatementContextBridge contextBridge,
+            long highId,
+            int batchSize,
+            ExecutorService executor) {
+        final List<Batch> batches = new ArrayList<>();
+        final List<Runnable> scans = new ArrayList<>();
+        for (long start = 0L; start < highId; start += batchSize) {
+            final long from = start;
+            final long to = Math.min(highId, start + batchSize);
+            final Batch batch = new Batch();
+            batches.add(batch);
+            scans.add(() -> withReadOps(api, contextBridge, readOp -> {
+                for (long nodeId = from; nodeId < to; nodeId++) {
+                    try (Cursor<NodeItem> cursor = readOp.nodeCursor(nodeId)) {
+                        if (cursor.next()) {
+                            batch.add(nodeId);
+                        }
+                    }
+                }
+            }));
+        }
+        ParallelUtil.run(scans, executor);
+        return new NodeIdScan(batches);
+    }
+
+    /**
+     * hand every batch to the consumer in parallel, e.g. to copy the ids
+     * into the mapping
+     *
+     * @param executor the executor, null means single threaded evaluation
+     * @param copy     called with each batch, may be called concurrently
+     */
+    public void forEachBatch(ExecutorService executor, Consumer<Batch> copy) {
+        final List<Runnable> copies = new ArrayList<>(batches.size());
+        for (Batch batch : batches) {
+            copies.add(() -> copy.accept(batch));
+        }
+        ParallelUtil.run(copies, executor);
+    }
+
+    private static void withReadOps(
+            GraphDatabaseAPI api,
+            ThreadToStatementContextBridge contextBridge,
+            Consumer<ReadOperations> block) {
+        try (Transaction tx = api.beginTx();
+             Statement statement = contextBridge.get()) {
+            block.accept(statement.readOperations());
+            tx.success();
+        }
+    }
+
+    /**
+     * node ids of a batch and the mapped id of the first of them
+     */
+    public static final class Batch {
+        public final LongArrayList ids = new LongArrayList();
+        private long offset;
+        private long highId;
+
+        private Batch() {
+        }
+
+        private void add(long nodeId) {
+            ids.add(nodeId);
+            highId = Math.max(highId, nodeId + 1);
+        }
+
+        public long offset() {
+            return offset;
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package org.neo4j.graphalgo.core;
 
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.compressed.CompressedGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
 import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
 import org.neo4j.graphalgo.core.neo4jview.GraphViewFactory;
+import org.neo4j.graphalgo.core.offheap.OffHeapGraphFactory;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 
 import java.util.HashMap;
@@ -207,14 +210,45 @@ public class ProcedureConfiguration {
         return get(ProcedureConstants.DIRECTION, ProcedureConstants.DIRECTION_DEFAULT);
     }
 
+    /**
+     * @return true if the direction option is 'undirected', the graph is then
+     * loaded with both directions merged into one list per node
+     */
+    public boolean isUndirected() {
+        return "undirected".equalsIgnoreCase(getDirectionName());
+    }
+
+    /**
+     * return the value of the graph option, which is either the name of a
+     * graph implementation or of a graph in the {@link GraphCatalog}
+     * @param defaultValue default value if the option is not set
+     * @return the graph name
+     */
+    public String getGraphName(String defaultValue) {
+        return getStringOrNull(ProcedureConstants.GRAPH_IMPL_PARAM, defaultValue);
+    }
+
     /**
      * return the Graph-Implementation Factory class
      * @return
      */
     public Class<? extends GraphFactory> getGraphImpl() {
-        final String graphImpl = getStringOrNull(
-                ProcedureConstants.GRAPH_IMPL_PARAM,
-                ProcedureConstants.DEFAULT_GRAPH_IMPL);
+        final String graphImpl = getGraphName(ProcedureConstants.DEFAULT_GRAPH_IMPL);
+        final Class<? extends GraphFactory> factory = findGraphImpl(graphImpl);
+        if (factory == null) {
+            throw new IllegalArgumentException("Unknown impl: " + graphImpl);
+        }
+        return factory;
+    }
+
+    /**
+     * check whether the name selects a graph implementation
+     */
+    public static boolean isGraphImpl(String name) {
+        return findGraphImpl(name) != null;
+    }
+
+    private static Class<? extends GraphFactory> findGraphImpl(String graphImpl) {
         switch (graphImpl.toLowerCase(Locale.ROOT)) {
             case "heavy":
                 return HeavyGraphFactory.class;
@@ -222,10 +256,16 @@ public class ProcedureConfiguration {
                 return HeavyCypherGraphFactory.class;
             case "light":
                 return LightGraphFactory.class;
+            case "compressed":
+                return CompressedGraphFactory.class;
+            case "offheap":
+                return OffHeapGraphFactory.class;
+            case "huge":
+                return HugeGraphFactory.class;
             case "kernel":
                 return GraphViewFactory.class;
             default:
-                throw new IllegalArgumentException("Unknown impl: " + graphImpl);
+                return null;
         }
     }
 
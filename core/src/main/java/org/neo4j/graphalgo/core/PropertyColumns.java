@@ -0,0 +1,115 @@
+package org.neo4j.graphalgo.core;
+
+import org.neo4j.graphalgo.api.NodePropertyColumns;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.RawValues;
+
+import java.util.Arrays;
+
+/**
+ * Dense double columns of node properties indexed by mapped node id.
+ * Unlike a {@link WeightMap} every node has a slot in every column, so
+ * loaders can set the values of distinct nodes concurrently.
+ */
+public final class PropertyColumns implements NodePropertyColumns {
+
+    private static final PropertyColumns EMPTY = new PropertyColumns(0, new String[0], new double[0]);
+
+    private final String[] propertyKeys;
+    private final double[] defaultValues;
+    private final double[][] columns;
+
+    /**
+     * estimated heap usage of the given number of columns
+     */
+    public static long estimateMemoryUsage(long nodeCount, int columns) {
+        return MemoryUsage.sizeOfObjectArray(columns) + columns * MemoryUsage.sizeOfDoubleArray(nodeCount);
+    }
+
+    /**
+     * columns without properties
+     */
+    public static PropertyColumns empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param nodeCount the number of nodes
+     * @param propertyKeys the property key of each column
+     * @param defaultValues the default value of each column
+     */
+    public PropertyColumns(int nodeCount, String[] propertyKeys, double[] defaultValues) {
+        if (propertyKeys.length != defaultValues.length) {
+            throw new IllegalArgumentException("every property column needs a default value");
+        }
+        this.propertyKeys = propertyKeys.clone();
+        this.defaultValues = defaultValues.clone();
+        this.columns = new double[propertyKeys.length][nodeCount];
+        for (int column = 0; column < columns.length; column++) {
+            Arrays.fill(columns[column], defaultValues[column]);
+        }
+    }
+
+    /**
+     * create columns with renumbered nodes, node {@code i} becomes {@code newIds[i]}
+     */
+    public PropertyColumns reorder(int[] newIds) {
+        return reorder(newIds, newIds.length);
+    }
+
+    /**
+     * create columns for the given number of nodes with renumbered nodes, node
+     * {@code i} becomes {@code newIds[i]} and is dropped if that is -1. Nodes
+     * beyond these columns get the default values.
+     */
+    public PropertyColumns reorder(int[] newIds, int nodeCount) {
+        if (columns.length == 0) {
+            return this;
+        }
+        final PropertyColumns reordered = new PropertyColumns(nodeCount, propertyKeys, defaultValues);
+        for (int column = 0; column < columns.length; column++) {
+            final int length = Math.min(newIds.length, columns[column].length);
+            for (int node = 0; node < length; node++) {
+                if (newIds[node] != -1) {
+                    reordered.columns[column][newIds[node]] = columns[column][node];
+                }
+            }
+        }
+        return reordered;
+    }
+
+    /**
+     * @return the number of columns
+     */
+    public int size() {
+        return columns.length;
+    }
+
+    @Override
+    public String[] propertyKeys() {
+        return propertyKeys.clone();
+    }
+
+    @Override
+    public int column(String propertyKey) {
+        for (int column = 0; column < propertyKeys.length; column++) {
+            if (propertyKeys[column].equals(propertyKey)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public double columnValue(int column, int nodeId) {
+        return columns[column][nodeId];
+    }
+
+    /**
+     * set the property value of a node, values which can't be
+     * converted to a number are replaced by the default value
+     */
+    public void set(int column, int nodeId, Object value) {
+        columns[column][nodeId] = RawValues.extractValue(value, defaultValues[column]);
+    }
+}
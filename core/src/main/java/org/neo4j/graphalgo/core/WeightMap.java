@@ -2,7 +2,10 @@ package org.neo4j.graphalgo.core;
 
 import com.carrotsearch.hppc.LongDoubleHashMap;
 import com.carrotsearch.hppc.LongDoubleMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
 import org.neo4j.graphalgo.api.WeightMapping;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.RawValues;
 
 /**
  * single weight cache
@@ -13,6 +16,14 @@ public final class WeightMap implements WeightMapping {
     private LongDoubleMap weights;
     private final double defaultValue;
 
+    /**
+     * estimated heap usage of a map which holds a weight for every
+     * one of capacity ids
+     */
+    public static long estimateMemoryUsage(long capacity) {
+        return MemoryUsage.sizeOfHashMap(capacity, 0.75, Long.BYTES, Double.BYTES);
+    }
+
     public WeightMap(final int capacity, double defaultValue) {
         this.capacity = capacity;
         this.defaultValue = defaultValue;
@@ -68,10 +79,32 @@ public final class WeightMap implements WeightMapping {
         return defaultValue;
     }
 
+    /**
+     * add all weights of the other map, replacing existing weights
+     */
+    public void putAll(WeightMap other) {
+        weights.putAll(other.weights);
+    }
+
     private void put(long key, double value) {
         weights.put(key, value);
     }
 
+    /**
+     * create a map of node weights with renumbered nodes,
+     * node {@code i} becomes {@code newIds[i]} and is dropped if that is -1
+     */
+    public WeightMap reorder(int[] newIds) {
+        final LongDoubleMap reordered = new LongDoubleHashMap(weights.size());
+        for (LongDoubleCursor cursor : weights) {
+            final int newId = newIds[RawValues.getHead(cursor.key)];
+            if (newId != -1) {
+                reordered.put(RawValues.combineIntInt(newId, -1), cursor.value);
+            }
+        }
+        return new WeightMap(capacity, reordered, defaultValue);
+    }
+
     /**
      * return the capacity
      */
@@ -0,0 +1,261 @@
+package org.neo4j.graphalgo.core.compressed;
+
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.IdCombiner;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Adjacency lists of all nodes for one direction, stored as delta encoded
+ * variable-length values in paged byte arrays.
+ * <p>
+ * The list of a node starts with its degree, followed by the ids of its
+ * neighbours in ascending order. Every id is stored as the difference to
+ * its predecessor, so that dense neighbourhoods need only one or two bytes
+ * per relationship. A value is written in groups of 7 bits, the highest bit
+ * of a byte signals that more bytes follow.
+ * <p>
+ * Lists are written back to back and may span page boundaries.
+ * Nodes without relationships don't occupy any bytes.
+ * <p>
+ * Relationship weights are stored uncompressed in a {@link HugeDoubleArray},
+ * in the same order as the targets. The weights of a node start at its
+ * weight offset, they are {@code null} if no weights have been loaded.
+ */
+final class CompressedAdjacency {
+
+    /**
+     * Page size in bytes: 64KB
+     */
+    static final int PAGE_SHIFT = 16;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final long EMPTY = -1L;
+
+    private final byte[][] pages;
+    private final long[] offsets;
+    private final HugeDoubleArray weights;
+    private final long[] weightOffsets;
+
+    CompressedAdjacency(byte[][] pages, long[] offsets) {
+        this(pages, offsets, null, null);
+    }
+
+    CompressedAdjacency(
+            byte[][] pages,
+            long[] offsets,
+            HugeDoubleArray weights,
+            long[] weightOffsets) {
+        this.pages = pages;
+        this.offsets = offsets;
+        this.weights = weights;
+        this.weightOffsets = weightOffsets;
+    }
+
+    /**
+     * @return offsets for the given number of nodes without any relationships
+     */
+    static long[] emptyOffsets(int nodeCount) {
+        final long[] offsets = new long[nodeCount];
+        Arrays.fill(offsets, EMPTY);
+        return offsets;
+    }
+
+    int degree(int node) {
+        final long offset = offsets[node];
+        if (offset == EMPTY) {
+            return 0;
+        }
+        return (int) new Decoder(pages, offset).next();
+    }
+
+    void forEach(
+            int node,
+            IdCombiner relId,
+            RelationshipConsumer consumer) {
+        final long offset = offsets[node];
+        if (offset == EMPTY) {
+            return;
+        }
+        final Decoder decoder = new Decoder(pages, offset);
+        int degree = (int) decoder.next();
+        int target = 0;
+        while (degree-- > 0) {
+            target += (int) decoder.next();
+            consumer.accept(node, target, relId.apply(node, target));
+        }
+    }
+
+    void forEach(
+            int node,
+            IdCombiner relId,
+            double defaultWeight,
+            WeightedRelationshipConsumer consumer) {
+        final long offset = offsets[node];
+        if (offset == EMPTY) {
+            return;
+        }
+        final HugeDoubleArray weights = this.weights;
+        long weightIndex = weights != null ? weightOffsets[node] : 0L;
+        final Decoder decoder = new Decoder(pages, offset);
+        int degree = (int) decoder.next();
+        int target = 0;
+        while (degree-- > 0) {
+            target += (int) decoder.next();
+            consumer.accept(
+                    node,
+                    target,
+                    relId.apply(node, target),
+                    weights != null ? weights.get(weightIndex++) : defaultWeight);
+        }
+    }
+
+    /**
+     * number of bytes used by the adjacency lists, without the weights
+     */
+    long bytes() {
+        long bytes = 0L;
+        for (byte[] page : pages) {
+            bytes += page.length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Sequential reader of variable-length values, starting at a given offset.
+     */
+    private static final class Decoder {
+        private final byte[][] pages;
+        private byte[] page;
+        private int pageIndex;
+        private int index;
+
+        private Decoder(byte[][] pages, long offset) {
+            this.pages = pages;
+            this.pageIndex = (int) (offset >>> PAGE_SHIFT);
+            this.index = (int) (offset & PAGE_MASK);
+            this.page = pages[pageIndex];
+        }
+
+        long next() {
+            long value = 0L;
+            int shift = 0;
+            byte b;
+            do {
+                if (index == page.length) {
+                    page = pages[++pageIndex];
+                    index = 0;
+                }
+                b = page[index++];
+                value |= (b & 0x7FL) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    /**
+     * Writes the adjacency lists of a contiguous batch of nodes into its own
+     * pages. The offsets are relative to the first page of the batch until
+     * they are moved to their final position by {@link #relocate(int, int, int)}.
+     * A builder is not thread safe, but different builders can be used
+     * concurrently if they write disjoint nodes.
+     */
+    static final class Builder {
+        private final long[] offsets;
+        private final List<byte[]> pages;
+        private byte[] page;
+        private int index;
+        private long position;
+        private int[] sorted;
+
+        Builder(long[] offsets) {
+            this.offsets = offsets;
+            this.pages = new ArrayList<>();
+            this.index = PAGE_SIZE;
+            this.sorted = new int[0];
+        }
+
+        /**
+         * sort and write the first {@code degree} targets of the given node
+         */
+        void add(int node, int[] targets, int degree) {
+            if (degree == 0) {
+                offsets[node] = EMPTY;
+                return;
+            }
+            if (sorted.length < degree) {
+                sorted = new int[ArrayUtil.oversize(degree, Integer.BYTES)];
+            }
+            System.arraycopy(targets, 0, sorted, 0, degree);
+            Arrays.sort(sorted, 0, degree);
+
+            offsets[node] = position;
+            write(degree);
+            int previous = 0;
+            for (int i = 0; i < degree; i++) {
+                final int target = sorted[i];
+                write(target - previous);
+                previous = target;
+            }
+        }
+
+        /**
+         * number of pages written by this builder
+         */
+        int pageCount() {
+            return pages.size();
+        }
+
+        /**
+         * move the given nodes to the final position of this builder's pages
+         * and trim the last page to its used size
+         */
+        void relocate(int firstNode, int nodeCount, int firstPage) {
+            final long base = (long) firstPage << PAGE_SHIFT;
+            final int end = firstNode + nodeCount;
+            for (int node = firstNode; node < end; node++) {
+                if (offsets[node] != EMPTY) {
+                    offsets[node] += base;
+                }
+            }
+            if (!pages.isEmpty() && index < PAGE_SIZE) {
+                pages.set(pages.size() - 1, Arrays.copyOf(page, index));
+            }
+        }
+
+        /**
+         * copy the pages of this builder into their final position
+         */
+        void transferPages(byte[][] target, int firstPage) {
+            for (int i = 0; i < pages.size(); i++) {
+                target[firstPage + i] = pages.get(i);
+            }
+            pages.clear();
+        }
+
+        private void write(long value) {
+            while ((value & ~0x7FL) != 0L) {
+                writeByte((byte) ((value & 0x7FL) | 0x80L));
+                value >>>= 7;
+            }
+            writeByte((byte) value);
+        }
+
+        private void writeByte(byte b) {
+            if (index == PAGE_SIZE) {
+                page = new byte[PAGE_SIZE];
+                pages.add(page);
+                index = 0;
+            }
+            page[index++] = b;
+            position++;
+        }
+    }
+}
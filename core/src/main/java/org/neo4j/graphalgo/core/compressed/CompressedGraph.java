@@ -0,0 +1,143 @@
+package org.neo4j.graphalgo.core.compressed;
+
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * Graph with delta and variable-length encoded adjacency lists.
+ * <p>
+ * Trades some CPU time during iteration for a considerably smaller memory
+ * footprint than {@link org.neo4j.graphalgo.core.leightweight.LightGraph},
+ * which stores 4 bytes per relationship and direction.
+ * Neighbours are always iterated in ascending order of their mapped id.
+ * Relationship weights are stored in arrays aligned to that order.
+ */
+public class CompressedGraph implements Graph {
+
+    private final IdMap idMapping;
+    private final double defaultWeight;
+    private final CompressedAdjacency inAdjacency;
+    private final CompressedAdjacency outAdjacency;
+
+    CompressedGraph(
+            final IdMap idMapping,
+            final double defaultWeight,
+            final CompressedAdjacency inAdjacency,
+            final CompressedAdjacency outAdjacency) {
+        this.idMapping = idMapping;
+        this.defaultWeight = defaultWeight;
+        this.inAdjacency = inAdjacency;
+        this.outAdjacency = outAdjacency;
+    }
+
+    @Override
+    public int nodeCount() {
+        return idMapping.size();
+    }
+
+    @Override
+    public PrimitiveIntIterator nodeIterator() {
+        return idMapping.iterator();
+    }
+
+    @Override
+    public Collection<PrimitiveIntIterable> batchIterables(final int batchSize) {
+        return idMapping.batchIterables(batchSize);
+    }
+
+    @Override
+    public void forEachNode(IntPredicate consumer) {
+        idMapping.forEach(consumer);
+    }
+
+    @Override
+    public void forEachRelationship(
+            int vertexId,
+            Direction direction,
+            RelationshipConsumer consumer) {
+        switch (direction) {
+            case INCOMING:
+                inAdjacency.forEach(vertexId, RawValues.INCOMING, consumer);
+                return;
+
+            case OUTGOING:
+                outAdjacency.forEach(vertexId, RawValues.OUTGOING, consumer);
+                return;
+
+            case BOTH:
+                inAdjacency.forEach(vertexId, RawValues.INCOMING, consumer);
+                outAdjacency.forEach(vertexId, RawValues.OUTGOING, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            int vertexId,
+            Direction direction,
+            WeightedRelationshipConsumer consumer) {
+        switch (direction) {
+            case INCOMING:
+                inAdjacency.forEach(vertexId, RawValues.INCOMING, defaultWeight, consumer);
+                return;
+
+            case OUTGOING:
+                outAdjacency.forEach(vertexId, RawValues.OUTGOING, defaultWeight, consumer);
+                return;
+
+            case BOTH:
+                inAdjacency.forEach(vertexId, RawValues.INCOMING, defaultWeight, consumer);
+                outAdjacency.forEach(vertexId, RawValues.OUTGOING, defaultWeight, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public int degree(
+            final int node,
+            final Direction direction) {
+        switch (direction) {
+            case INCOMING:
+                return inAdjacency.degree(node);
+
+            case OUTGOING:
+                return outAdjacency.degree(node);
+
+            case BOTH:
+                return inAdjacency.degree(node) + outAdjacency.degree(node);
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public int toMappedNodeId(long nodeId) {
+        return idMapping.get(nodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(int vertexId) {
+        return idMapping.toOriginalNodeId(vertexId);
+    }
+
+    @Override
+    public boolean contains(final long nodeId) {
+        return idMapping.contains(nodeId);
+    }
+}
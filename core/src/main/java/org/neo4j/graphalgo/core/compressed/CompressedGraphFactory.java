@@ -0,0 +1,242 @@
+package org.neo4j.graphalgo.core.compressed;
+
+import com.carrotsearch.hppc.sorting.IndirectComparator;
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.BatchImportGraphFactory;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.IdMapLoader;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.Direction;
+import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.RelationshipItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a {@link CompressedGraph} in the phases of the {@link BatchImportGraphFactory}.
+ * <p>
+ * The degrees and offsets of the first two phases index the relationships
+ * of every node, the relationship weights are written into arrays aligned
+ * to them during the last phase. The targets themselves are encoded by
+ * every batch into its own pages, so that batches can run in parallel
+ * without knowing the encoded sizes of each other upfront. Afterwards the
+ * pages of all batches are concatenated and the byte offsets are moved by
+ * the number of pages written by the preceding batches.
+ */
+public final class CompressedGraphFactory extends BatchImportGraphFactory {
+
+    public CompressedGraphFactory(
+            GraphDatabaseAPI api,
+            GraphSetup setup) {
+        super(api, setup);
+    }
+
+    @Override
+    protected Graph build(int batchSize) {
+        final IdMap mapping = IdMapLoader.load(
+                api,
+                labelId,
+                batchSize,
+                threadPool);
+        final int nodeCount = mapping.size();
+
+        // byte offsets of the encoded adjacency lists
+        // nodes which are skipped by the last phase don't have any relationships
+        final long[] inOffsets = setup.loadIncoming ? CompressedAdjacency.emptyOffsets(nodeCount) : null;
+        final long[] outOffsets = setup.loadOutgoing ? CompressedAdjacency.emptyOffsets(nodeCount) : null;
+        // offsets of the relationships, one more for the end of the last node
+        final long[] inWeightOffsets = setup.loadIncoming ? new long[nodeCount + 1] : null;
+        final long[] outWeightOffsets = setup.loadOutgoing ? new long[nodeCount + 1] : null;
+        final boolean loadWeights = loadsWeights();
+
+        final List<ImportTask> tasks = new ArrayList<>();
+        for (int start = 0; start < nodeCount; start += batchSize) {
+            tasks.add(new ImportTask(
+                    mapping,
+                    start,
+                    Math.min(nodeCount, start + batchSize),
+                    inWeightOffsets,
+                    outWeightOffsets,
+                    inOffsets != null ? new CompressedAdjacency.Builder(inOffsets) : null,
+                    outOffsets != null ? new CompressedAdjacency.Builder(outOffsets) : null));
+        }
+
+        final long[] totals = computeOffsets(tasks);
+        final HugeDoubleArray inWeights = loadWeights && inOffsets != null
+                ? HugeDoubleArray.newArray(totals[0])
+                : null;
+        final HugeDoubleArray outWeights = loadWeights && outOffsets != null
+                ? HugeDoubleArray.newArray(totals[1])
+                : null;
+        for (ImportTask task : tasks) {
+            task.inWeights = inWeights;
+            task.outWeights = outWeights;
+        }
+        readRelationships(tasks);
+
+        int inPages = 0;
+        int outPages = 0;
+        for (ImportTask task : tasks) {
+            task.inPageBase = inPages;
+            task.outPageBase = outPages;
+            if (task.in != null) {
+                inPages += task.in.pageCount();
+            }
+            if (task.out != null) {
+                outPages += task.out.pageCount();
+            }
+        }
+
+        final byte[][] inPageArray = inOffsets != null ? new byte[inPages][] : null;
+        final byte[][] outPageArray = outOffsets != null ? new byte[outPages][] : null;
+        run(tasks, task -> task.relocate(inPageArray, outPageArray));
+
+        return new CompressedGraph(
+                mapping,
+                setup.relationDefaultWeight,
+                inOffsets != null
+                        ? new CompressedAdjacency(inPageArray, inOffsets, inWeights, loadWeights ? inWeightOffsets : null)
+                        : null,
+                outOffsets != null
+                        ? new CompressedAdjacency(outPageArray, outOffsets, outWeights, loadWeights ? outWeightOffsets : null)
+                        : null
+        );
+    }
+
+    private static Offsets offsets(long[] offsets) {
+        return offsets == null ? null : new Offsets() {
+            @Override
+            public long get(long nodeId) {
+                return offsets[(int) nodeId];
+            }
+
+            @Override
+            public void set(long nodeId, long offset) {
+                offsets[(int) nodeId] = offset;
+            }
+        };
+    }
+
+    private final class ImportTask extends Batch {
+        private final IdMap mapping;
+        private final CompressedAdjacency.Builder in;
+        private final CompressedAdjacency.Builder out;
+        private HugeDoubleArray inWeights;
+        private HugeDoubleArray outWeights;
+        private int[] targets;
+        private double[] weights;
+        private int inPageBase;
+        private int outPageBase;
+
+        private ImportTask(
+                IdMap mapping,
+                int startNode,
+                int endNode,
+                long[] inWeightOffsets,
+                long[] outWeightOffsets,
+                CompressedAdjacency.Builder in,
+                CompressedAdjacency.Builder out) {
+            super(startNode, endNode, offsets(inWeightOffsets), offsets(outWeightOffsets));
+            this.mapping = mapping;
+            this.in = in;
+            this.out = out;
+            this.targets = new int[0];
+            this.weights = new double[0];
+        }
+
+        @Override
+        protected long toOriginalNodeId(long nodeId) {
+            return mapping.toOriginalNodeId((int) nodeId);
+        }
+
+        @Override
+        protected boolean contains(long originalNodeId) {
+            return mapping.contains(originalNodeId);
+        }
+
+        /**
+         * phase 3: encode the targets of the node into the batch local pages
+         * and write their weights, in the same ascending order, into its region
+         */
+        @Override
+        protected long readRelationships(
+                long nodeId,
+                NodeItem node,
+                Direction direction,
+                long offset,
+                long degree) {
+            final CompressedAdjacency.Builder builder = direction == Direction.OUTGOING ? out : in;
+            final HugeDoubleArray weightArray = direction == Direction.OUTGOING ? outWeights : inWeights;
+            int added = 0;
+            try (Cursor<RelationshipItem> rels = relationships(node, direction)) {
+                while (added < degree && rels.next()) {
+                    RelationshipItem rel = rels.get();
+
+                    long targetNodeId = rel.otherNode(node.id());
+                    int targetGraphId = mapping.get(targetNodeId);
+                    if (targetGraphId == -1) {
+                        continue;
+                    }
+
+                    if (added == targets.length) {
+                        targets = ArrayUtil.grow(targets, added + 1);
+                    }
+                    if (weightArray != null) {
+                        if (added == weights.length) {
+                            weights = ArrayUtil.grow(weights, added + 1);
+                        }
+                        weights[added] = weightOf(rel);
+                    }
+                    targets[added++] = targetGraphId;
+                }
+            }
+            if (weightArray != null && added > 0) {
+                final int[] order = IndirectSort.mergesort(
+                        0,
+                        added,
+                        new IndirectComparator.AscendingIntComparator(targets));
+                for (int i = 0; i < added; i++) {
+                    weightArray.set(offset + i, weights[order[i]]);
+                }
+            }
+            builder.add((int) nodeId, targets, added);
+            return added;
+        }
+
+        @Override
+        protected void moveRelationships(
+                Direction direction,
+                long from,
+                long to,
+                long length) {
+            final HugeDoubleArray weightArray = direction == Direction.OUTGOING ? outWeights : inWeights;
+            if (weightArray == null) {
+                return;
+            }
+            for (long i = 0L; i < length; i++) {
+                weightArray.set(to + i, weightArray.get(from + i));
+            }
+        }
+
+        /**
+         * move the byte offsets and pages of this batch to their final position
+         */
+        void relocate(byte[][] inPages, byte[][] outPages) {
+            final int nodeCount = (int) (endNode - startNode);
+            if (out != null) {
+                out.relocate((int) startNode, nodeCount, outPageBase);
+                out.transferPages(outPages, outPageBase);
+            }
+            if (in != null) {
+                in.relocate((int) startNode, nodeCount, inPageBase);
+                in.transferPages(inPages, inPageBase);
+            }
+        }
+    }
+}
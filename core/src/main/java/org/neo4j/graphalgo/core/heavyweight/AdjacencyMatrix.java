@@ -1,24 +1,48 @@
 package org.neo4j.graphalgo.core.heavyweight;
 
+import com.carrotsearch.hppc.sorting.IndirectComparator;
+import com.carrotsearch.hppc.sorting.IndirectSort;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.graphalgo.api.*;
 import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
 import org.neo4j.graphdb.Direction;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.IntPredicate;
 
 /**
  * Relation Container built of multiple arrays. The node capacity must be constant and the node IDs have to be
  * smaller then the capacity. The number of relations per node is limited only to the maximum array size of the VM
  * and connections can be added dynamically.
+ * <p>
+ * Relationship weights are optional and stored in arrays aligned to the adjacency arrays,
+ * so that the weight of the n-th relationship of a node is found at the same index.
+ * <p>
+ * Once all relations have been added the adjacency arrays can be sorted by {@link #sort(ExecutorService, int)},
+ * lookups of a relation are then binary searches instead of linear scans. Adding a relation
+ * afterwards voids the order.
+ * <p>
+ * The relations of several relationship types can be stored as layers: each row holds the
+ * relations of the first type followed by those of the next one and so on, and the end of every
+ * layer is recorded by {@link #finishLayer(int, int, Direction)}. The layers can be iterated on
+ * their own and are sorted separately.
+ * <p>
+ * An undirected matrix, created by {@link #toUndirected(ExecutorService, int)}, holds a single sorted
+ * list of distinct neighbours per node which is used for every direction.
  *
  * @author mknblch
  */
 class AdjacencyMatrix {
 
     private static final int[] EMPTY_INTS = new int[0];
+    private static final double[] EMPTY_DOUBLES = new double[0];
 
     /**
      * mapping from nodeId to outgoing degree
@@ -36,22 +60,139 @@ class AdjacencyMatrix {
      * matrix nodeId x [incoming edge-relationIds..]
      */
     final int[][] incoming;
+    /**
+     * matrix nodeId x [outgoing edge-weights..], aligned to outgoing
+     * or null if no weights are loaded
+     */
+    final double[][] outWeights;
+    /**
+     * matrix nodeId x [incoming edge-weights..], aligned to incoming
+     * or null if no weights are loaded
+     */
+    final double[][] inWeights;
+    /**
+     * number of layers each row is split into
+     */
+    final int layers;
+    /**
+     * nodeId * layers + layer to the end of the layer within the outgoing row,
+     * null if there is a single layer
+     */
+    final int[] outLayerEnds;
+    /**
+     * nodeId * layers + layer to the end of the layer within the incoming row,
+     * null if there is a single layer
+     */
+    final int[] inLayerEnds;
+    /**
+     * whether the outgoing arrays hold the neighbours of both directions
+     */
+    final boolean undirected;
+    /**
+     * whether the adjacency arrays are sorted by node id
+     */
+    private boolean sorted;
+
+    /**
+     * estimated heap usage of a matrix whose arrays are armed with the
+     * exact degree of every node, for one or both directions
+     */
+    static long estimateMemoryUsage(
+            long nodeCount,
+            long incomingRelationships,
+            long outgoingRelationships,
+            boolean withIncoming,
+            boolean withOutgoing,
+            boolean withWeights) {
+        return estimateMemoryUsage(
+                nodeCount,
+                incomingRelationships,
+                outgoingRelationships,
+                withIncoming,
+                withOutgoing,
+                withWeights,
+                1);
+    }
+
+    /**
+     * estimated heap usage of a matrix with the given number of layers
+     */
+    static long estimateMemoryUsage(
+            long nodeCount,
+            long incomingRelationships,
+            long outgoingRelationships,
+            boolean withIncoming,
+            boolean withOutgoing,
+            boolean withWeights,
+            int layers) {
+        final long layerEnds = layers > 1 ? MemoryUsage.sizeOfIntArray(nodeCount * layers) : 0L;
+        long bytes = 0L;
+        if (withIncoming) {
+            bytes += estimateMemoryUsage(nodeCount, incomingRelationships, withWeights) + layerEnds;
+        }
+        if (withOutgoing) {
+            bytes += estimateMemoryUsage(nodeCount, outgoingRelationships, withWeights) + layerEnds;
+        }
+        return bytes;
+    }
+
+    private static long estimateMemoryUsage(long nodeCount, long relationships, boolean withWeights) {
+        final long arrays = MemoryUsage.sizeOfObjectArray(nodeCount)
+                + nodeCount * MemoryUsage.BYTES_ARRAY_HEADER;
+        long bytes = MemoryUsage.sizeOfIntArray(nodeCount)
+                + arrays
+                + relationships * Integer.BYTES;
+        if (withWeights) {
+            bytes += arrays + relationships * Double.BYTES;
+        }
+        return bytes;
+    }
 
     AdjacencyMatrix(int nodeCount) {
-        this(nodeCount, true, true);
+        this(nodeCount, true, true, false);
     }
 
     AdjacencyMatrix(int nodeCount, boolean withIncoming, boolean withOutgoing) {
+        this(nodeCount, withIncoming, withOutgoing, false);
+    }
+
+    AdjacencyMatrix(int nodeCount, boolean withIncoming, boolean withOutgoing, boolean withWeights) {
+        this(nodeCount, withIncoming, withOutgoing, withWeights, 1);
+    }
+
+    AdjacencyMatrix(int nodeCount, boolean withIncoming, boolean withOutgoing, boolean withWeights, int layers) {
+        this(nodeCount, withIncoming, withOutgoing, withWeights, layers, false);
+    }
+
+    private AdjacencyMatrix(
+            int nodeCount,
+            boolean withIncoming,
+            boolean withOutgoing,
+            boolean withWeights,
+            int layers,
+            boolean undirected) {
+        this.undirected = undirected;
+        this.layers = layers;
+        this.outLayerEnds = withOutgoing && layers > 1 ? new int[nodeCount * layers] : null;
+        this.inLayerEnds = withIncoming && layers > 1 ? new int[nodeCount * layers] : null;
         this.outOffsets = withOutgoing ? new int[nodeCount] : null;
         this.inOffsets = withIncoming ? new int[nodeCount] : null;
         this.outgoing = withOutgoing ? new int[nodeCount][] : null;
         this.incoming = withIncoming ? new int[nodeCount][] : null;
+        this.outWeights = withOutgoing && withWeights ? new double[nodeCount][] : null;
+        this.inWeights = withIncoming && withWeights ? new double[nodeCount][] : null;
         if (outgoing != null) {
             Arrays.fill(outgoing, EMPTY_INTS);
         }
         if (incoming != null) {
             Arrays.fill(incoming, EMPTY_INTS);
         }
+        if (outWeights != null) {
+            Arrays.fill(outWeights, EMPTY_DOUBLES);
+        }
+        if (inWeights != null) {
+            Arrays.fill(inWeights, EMPTY_DOUBLES);
+        }
     }
 
     AdjacencyMatrix(
@@ -59,10 +200,378 @@ class AdjacencyMatrix {
             final int[] inOffsets,
             final int[][] outgoing,
             final int[][] incoming) {
+        this(outOffsets, inOffsets, outgoing, incoming, null, null);
+    }
+
+    AdjacencyMatrix(
+            final int[] outOffsets,
+            final int[] inOffsets,
+            final int[][] outgoing,
+            final int[][] incoming,
+            final double[][] outWeights,
+            final double[][] inWeights) {
         this.outOffsets = outOffsets;
         this.inOffsets = inOffsets;
         this.outgoing = outgoing;
         this.incoming = incoming;
+        this.outWeights = outWeights;
+        this.inWeights = inWeights;
+        this.layers = 1;
+        this.outLayerEnds = null;
+        this.inLayerEnds = null;
+        this.undirected = false;
+    }
+
+    /**
+     * whether relationship weights are stored in this matrix
+     */
+    public boolean hasWeights() {
+        return outWeights != null || inWeights != null;
+    }
+
+    /**
+     * whether the relations of each node and direction are sorted by node id
+     */
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * sort the relations of each node and layer by node id, the weights are kept aligned.
+     * The nodes are split into ranges which are sorted in parallel if an executor is given.
+     */
+    public void sort(ExecutorService executor, int concurrency) {
+        final int nodeCount = capacity();
+        if (ParallelUtil.canRunInParallel(executor) && concurrency > 1 && nodeCount > concurrency) {
+            ParallelUtil.iterateParallel(executor, nodeCount, concurrency, this::sort);
+        } else {
+            for (int node = 0; node < nodeCount; node++) {
+                sort(node);
+            }
+        }
+        sorted = true;
+    }
+
+    private void sort(int nodeId) {
+        for (int layer = 0; layer < layers; layer++) {
+            if (outgoing != null) {
+                sort(outgoing[nodeId], outWeights != null ? outWeights[nodeId] : null,
+                        layerStart(outLayerEnds, nodeId, layer),
+                        layerEnd(outLayerEnds, outOffsets, nodeId, layer));
+            }
+            if (incoming != null) {
+                sort(incoming[nodeId], inWeights != null ? inWeights[nodeId] : null,
+                        layerStart(inLayerEnds, nodeId, layer),
+                        layerEnd(inLayerEnds, inOffsets, nodeId, layer));
+            }
+        }
+    }
+
+    private static void sort(int[] targets, double[] nodeWeights, int from, int to) {
+        final int length = to - from;
+        if (length < 2) {
+            return;
+        }
+        if (nodeWeights == null) {
+            Arrays.sort(targets, from, to);
+            return;
+        }
+        final int[] order = IndirectSort.mergesort(from, length, new IndirectComparator.AscendingIntComparator(targets));
+        final int[] sortedTargets = new int[length];
+        final double[] sortedWeights = new double[length];
+        for (int i = 0; i < length; i++) {
+            sortedTargets[i] = targets[order[i]];
+            sortedWeights[i] = nodeWeights[order[i]];
+        }
+        System.arraycopy(sortedTargets, 0, targets, from, length);
+        System.arraycopy(sortedWeights, 0, nodeWeights, from, length);
+    }
+
+    /**
+     * create a matrix with renumbered nodes, node {@code i} becomes {@code newIds[i]}.
+     * The rows are moved into the new matrix and their targets rewritten in place,
+     * so this matrix must not be used afterwards. Nodes are moved in parallel if
+     * an executor is given, the relations are not sorted anymore.
+     */
+    public AdjacencyMatrix reorder(int[] newIds, ExecutorService executor, int concurrency) {
+        final int nodeCount = capacity();
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(
+                nodeCount,
+                incoming != null,
+                outgoing != null,
+                hasWeights(),
+                layers,
+                undirected);
+        if (ParallelUtil.canRunInParallel(executor) && concurrency > 1 && nodeCount > concurrency) {
+            ParallelUtil.iterateParallel(executor, nodeCount, concurrency, node -> matrix.move(this, node, newIds));
+        } else {
+            for (int node = 0; node < nodeCount; node++) {
+                matrix.move(this, node, newIds);
+            }
+        }
+        return matrix;
+    }
+
+    private void move(AdjacencyMatrix other, int nodeId, int[] newIds) {
+        final int newId = newIds[nodeId];
+        if (outgoing != null) {
+            outOffsets[newId] = other.outOffsets[nodeId];
+            outgoing[newId] = renumber(other.outgoing[nodeId], other.outOffsets[nodeId], newIds);
+            if (outWeights != null) {
+                outWeights[newId] = other.outWeights[nodeId];
+            }
+            if (outLayerEnds != null) {
+                System.arraycopy(other.outLayerEnds, nodeId * layers, outLayerEnds, newId * layers, layers);
+            }
+        }
+        if (incoming != null) {
+            inOffsets[newId] = other.inOffsets[nodeId];
+            incoming[newId] = renumber(other.incoming[nodeId], other.inOffsets[nodeId], newIds);
+            if (inWeights != null) {
+                inWeights[newId] = other.inWeights[nodeId];
+            }
+            if (inLayerEnds != null) {
+                System.arraycopy(other.inLayerEnds, nodeId * layers, inLayerEnds, newId * layers, layers);
+            }
+        }
+    }
+
+    private static int[] renumber(int[] targets, int length, int[] newIds) {
+        for (int i = 0; i < length; i++) {
+            targets[i] = newIds[targets[i]];
+        }
+        return targets;
+    }
+
+    /**
+     * build the incoming relations of every node and layer from the outgoing
+     * ones, replacing the incoming relations added so far. The nodes are split
+     * into ranges, one task per range, which share a single array of counts:
+     * <ol>
+     * <li>every range of sources counts its relations per target and layer</li>
+     * <li>every range of targets allocates its incoming rows</li>
+     * <li>every range of sources scatters its relations into the rows, the
+     * counts are taken down to find the positions within each layer</li>
+     * <li>every range of targets sorts the layers of its rows by node id</li>
+     * </ol>
+     * The counts take an int per node and layer, independent of the concurrency,
+     * until the transpose is done.
+     */
+    public void transpose(ExecutorService executor, int concurrency) {
+        if (incoming == null || outgoing == null) {
+            throw new IllegalStateException("transpose needs a matrix with both directions");
+        }
+        final int nodeCount = capacity();
+        final int taskCount = ParallelUtil.canRunInParallel(executor)
+                ? Math.max(1, Math.min(concurrency, nodeCount))
+                : 1;
+        final int rangeSize = Math.max(1, (int) Math.ceil(nodeCount / (double) taskCount));
+        final int rangeCount = ParallelUtil.threadSize(rangeSize, nodeCount);
+        final AtomicIntegerArray counts = new AtomicIntegerArray(Math.multiplyExact(nodeCount, layers));
+
+        final List<Runnable> tasks = new ArrayList<>(rangeCount);
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> countTargets(from, to, counts));
+        }
+        ParallelUtil.run(tasks, executor);
+
+        tasks.clear();
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> allocateIncoming(from, to, counts));
+        }
+        ParallelUtil.run(tasks, executor);
+
+        tasks.clear();
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> scatterIncoming(from, to, counts));
+        }
+        ParallelUtil.run(tasks, executor);
+
+        tasks.clear();
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> {
+                for (int target = from; target < to; target++) {
+                    sortIncoming(target);
+                }
+            });
+        }
+        ParallelUtil.run(tasks, executor);
+    }
+
+    /**
+     * count the outgoing relations of the sources per target and layer
+     */
+    private void countTargets(int start, int end, AtomicIntegerArray counts) {
+        for (int source = start; source < end; source++) {
+            final int[] targets = outgoing[source];
+            for (int layer = 0; layer < layers; layer++) {
+                final int to = layerEnd(outLayerEnds, outOffsets, source, layer);
+                for (int i = layerStart(outLayerEnds, source, layer); i < to; i++) {
+                    counts.incrementAndGet(targets[i] * layers + layer);
+                }
+            }
+        }
+    }
+
+    /**
+     * allocate the incoming rows of the targets and the ends of their layers
+     */
+    private void allocateIncoming(int start, int end, AtomicIntegerArray counts) {
+        for (int target = start; target < end; target++) {
+            int degree = 0;
+            for (int layer = 0; layer < layers; layer++) {
+                final int index = target * layers + layer;
+                degree += counts.get(index);
+                if (inLayerEnds != null) {
+                    inLayerEnds[index] = degree;
+                }
+            }
+            incoming[target] = degree > 0 ? new int[degree] : EMPTY_INTS;
+            if (inWeights != null) {
+                inWeights[target] = degree > 0 ? new double[degree] : EMPTY_DOUBLES;
+            }
+            inOffsets[target] = degree;
+        }
+    }
+
+    /**
+     * write the relations of the sources into the incoming rows, each one
+     * takes the next free position from the end of its layer
+     */
+    private void scatterIncoming(int start, int end, AtomicIntegerArray counts) {
+        for (int source = start; source < end; source++) {
+            final int[] targets = outgoing[source];
+            for (int layer = 0; layer < layers; layer++) {
+                final int to = layerEnd(outLayerEnds, outOffsets, source, layer);
+                for (int i = layerStart(outLayerEnds, source, layer); i < to; i++) {
+                    final int target = targets[i];
+                    final int position = layerStart(inLayerEnds, target, layer)
+                            + counts.decrementAndGet(target * layers + layer);
+                    incoming[target][position] = source;
+                    if (inWeights != null) {
+                        inWeights[target][position] = outWeights[source][i];
+                    }
+                }
+            }
+        }
+    }
+
+    private void sortIncoming(int target) {
+        for (int layer = 0; layer < layers; layer++) {
+            sort(incoming[target], inWeights != null ? inWeights[target] : null,
+                    layerStart(inLayerEnds, target, layer),
+                    layerEnd(inLayerEnds, inOffsets, target, layer));
+        }
+    }
+
+    /**
+     * create an undirected matrix which holds the outgoing and incoming relations
+     * of each node and layer as one sorted list without duplicates. Of several
+     * relations to the same node the weight of an outgoing one is kept. The nodes
+     * are merged in parallel if an executor is given.
+     */
+    public AdjacencyMatrix toUndirected(ExecutorService executor, int concurrency) {
+        final int nodeCount = capacity();
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount, false, true, hasWeights(), layers, true);
+        if (ParallelUtil.canRunInParallel(executor) && concurrency > 1 && nodeCount > concurrency) {
+            ParallelUtil.iterateParallel(executor, nodeCount, concurrency, node -> matrix.merge(this, node));
+        } else {
+            for (int node = 0; node < nodeCount; node++) {
+                matrix.merge(this, node);
+            }
+        }
+        matrix.sorted = true;
+        return matrix;
+    }
+
+    private void merge(AdjacencyMatrix directed, int nodeId) {
+        final int outDegree = directed.outgoing != null ? directed.outOffsets[nodeId] : 0;
+        final int inDegree = directed.incoming != null ? directed.inOffsets[nodeId] : 0;
+        final int[] targets = new int[outDegree + inDegree];
+        final double[] weights = outWeights != null ? new double[targets.length] : null;
+        int length = 0;
+        for (int layer = 0; layer < layers; layer++) {
+            final int start = length;
+            if (outDegree > 0) {
+                length = copy(directed.outgoing, directed.outWeights, nodeId,
+                        directed.layerStart(directed.outLayerEnds, nodeId, layer),
+                        directed.layerEnd(directed.outLayerEnds, directed.outOffsets, nodeId, layer),
+                        targets, weights, length);
+            }
+            if (inDegree > 0) {
+                length = copy(directed.incoming, directed.inWeights, nodeId,
+                        directed.layerStart(directed.inLayerEnds, nodeId, layer),
+                        directed.layerEnd(directed.inLayerEnds, directed.inOffsets, nodeId, layer),
+                        targets, weights, length);
+            }
+            sort(targets, weights, start, length);
+            int distinct = start;
+            for (int i = start; i < length; i++) {
+                if (distinct == start || targets[distinct - 1] != targets[i]) {
+                    targets[distinct] = targets[i];
+                    if (weights != null) {
+                        weights[distinct] = weights[i];
+                    }
+                    distinct++;
+                }
+            }
+            length = distinct;
+            if (outLayerEnds != null) {
+                outLayerEnds[nodeId * layers + layer] = length;
+            }
+        }
+        outgoing[nodeId] = length == targets.length ? targets : Arrays.copyOf(targets, length);
+        if (weights != null) {
+            outWeights[nodeId] = length == weights.length ? weights : Arrays.copyOf(weights, length);
+        }
+        outOffsets[nodeId] = length;
+    }
+
+    private static int copy(
+            int[][] adjacency,
+            double[][] adjacencyWeights,
+            int nodeId,
+            int from,
+            int to,
+            int[] targets,
+            double[] weights,
+            int offset) {
+        final int length = to - from;
+        System.arraycopy(adjacency[nodeId], from, targets, offset, length);
+        if (weights != null) {
+            if (adjacencyWeights != null) {
+                System.arraycopy(adjacencyWeights[nodeId], from, weights, offset, length);
+            }
+        }
+        return offset + length;
+    }
+
+    /**
+     * mark the relations added to the node so far as the end of the given layer,
+     * the relations of the layers have to be added in ascending order
+     */
+    public void finishLayer(int nodeId, int layer, Direction direction) {
+        if (direction == Direction.OUTGOING) {
+            outLayerEnds[nodeId * layers + layer] = outOffsets[nodeId];
+        } else {
+            inLayerEnds[nodeId * layers + layer] = inOffsets[nodeId];
+        }
+    }
+
+    int layerStart(int[] layerEnds, int nodeId, int layer) {
+        return layer == 0 ? 0 : layerEnds[nodeId * layers + layer - 1];
+    }
+
+    int layerEnd(int[] layerEnds, int[] offsets, int nodeId, int layer) {
+        return layerEnds == null ? offsets[nodeId] : layerEnds[nodeId * layers + layer];
     }
 
     /**
@@ -71,6 +580,9 @@ class AdjacencyMatrix {
     public void armOut(int sourceNodeId, int degree) {
         if (degree > 0) {
             outgoing[sourceNodeId] = Arrays.copyOf(outgoing[sourceNodeId], degree);
+            if (outWeights != null) {
+                outWeights[sourceNodeId] = Arrays.copyOf(outWeights[sourceNodeId], degree);
+            }
         }
     }
 
@@ -80,6 +592,9 @@ class AdjacencyMatrix {
     public void armIn(int targetNodeId, int degree) {
         if (degree > 0) {
             incoming[targetNodeId] = Arrays.copyOf(incoming[targetNodeId], degree);
+            if (inWeights != null) {
+                inWeights[targetNodeId] = Arrays.copyOf(inWeights[targetNodeId], degree);
+            }
         }
     }
 
@@ -88,6 +603,11 @@ class AdjacencyMatrix {
      */
     public void growOut(int sourceNodeId, int length) {
         outgoing[sourceNodeId] = ArrayUtil.grow(outgoing[sourceNodeId], length);
+        if (outWeights != null) {
+            outWeights[sourceNodeId] = Arrays.copyOf(
+                    outWeights[sourceNodeId],
+                    outgoing[sourceNodeId].length);
+        }
     }
 
     /**
@@ -95,60 +615,206 @@ class AdjacencyMatrix {
      */
     public void growIn(int targetNodeId, int length) {
         incoming[targetNodeId] = ArrayUtil.grow(incoming[targetNodeId], length);
+        if (inWeights != null) {
+            inWeights[targetNodeId] = Arrays.copyOf(
+                    inWeights[targetNodeId],
+                    incoming[targetNodeId].length);
+        }
     }
 
     /**
      * add outgoing relation
      */
     public void addOutgoing(int sourceNodeId, int targetNodeId) {
+        addOutgoing(sourceNodeId, targetNodeId, 0d);
+    }
+
+    /**
+     * add outgoing relation with its weight, the weight is
+     * ignored if the matrix has been created without weights
+     */
+    public void addOutgoing(int sourceNodeId, int targetNodeId, double weight) {
         final int degree = outOffsets[sourceNodeId];
         final int nextDegree = degree + 1;
         if (outgoing[sourceNodeId].length < nextDegree) {
             growOut(sourceNodeId, nextDegree);
         }
         outgoing[sourceNodeId][degree] = targetNodeId;
+        if (outWeights != null) {
+            outWeights[sourceNodeId][degree] = weight;
+        }
         outOffsets[sourceNodeId] = nextDegree;
+        sorted = false;
     }
 
     /**
-     * checks for outgoing target node, currently O(n)
+     * checks for outgoing target node, O(log n) if sorted, O(n) otherwise
      */
     public boolean hasOutgoing(int sourceNodeId, int targetNodeId) {
-        final int degree = outOffsets[sourceNodeId];
-        int[] rels = outgoing[sourceNodeId];
-        for (int offset = degree-1; offset >= 0; offset--) {
-            if (rels[offset]==targetNodeId) {
-                return true;
+        return outgoingIndex(sourceNodeId, targetNodeId) != -1;
+    }
+
+    /**
+     * find the position of an outgoing relation to the target node or -1
+     * if there is none. The last one if there are several and the matrix is
+     * not sorted. O(log n) if sorted, O(n) otherwise
+     */
+    public int outgoingIndex(int sourceNodeId, int targetNodeId) {
+        return indexOf(outgoing[sourceNodeId], outLayerEnds, outOffsets, sourceNodeId, targetNodeId, false, 0, layers);
+    }
+
+    /**
+     * find the position of a relation to the target node within the layers
+     * {@code [fromLayer, toLayer)} of the row or -1 if there is none
+     *
+     * @param first whether the first relation is required if there are several
+     */
+    private int indexOf(
+            int[] rels,
+            int[] layerEnds,
+            int[] offsets,
+            int nodeId,
+            int targetNodeId,
+            boolean first,
+            int fromLayer,
+            int toLayer) {
+        final int from = layerStart(layerEnds, nodeId, fromLayer);
+        final int to = layerEnd(layerEnds, offsets, nodeId, toLayer - 1);
+        if (!sorted) {
+            if (first) {
+                for (int offset = from; offset < to; offset++) {
+                    if (rels[offset] == targetNodeId) {
+                        return offset;
+                    }
+                }
+            } else {
+                for (int offset = to - 1; offset >= from; offset--) {
+                    if (rels[offset] == targetNodeId) {
+                        return offset;
+                    }
+                }
+            }
+            return -1;
+        }
+        for (int layer = fromLayer; layer < toLayer; layer++) {
+            final int start = layerStart(layerEnds, nodeId, layer);
+            final int end = layerEnd(layerEnds, offsets, nodeId, layer);
+            int index = Arrays.binarySearch(rels, start, end, targetNodeId);
+            if (index >= 0) {
+                while (first && index > start && rels[index - 1] == targetNodeId) {
+                    index--;
+                }
+                return index;
             }
         }
-        return false;
+        return -1;
+    }
+
+    /**
+     * add the given weight to the weight of the outgoing relation at the
+     * position returned by {@link #outgoingIndex(int, int)}
+     */
+    public void addOutgoingWeight(int sourceNodeId, int index, double weight) {
+        outWeights[sourceNodeId][index] += weight;
     }
 
     /**
      * add incoming relation
      */
     public void addIncoming(int sourceNodeId, int targetNodeId) {
+        addIncoming(sourceNodeId, targetNodeId, 0d);
+    }
+
+    /**
+     * add incoming relation with its weight, the weight is
+     * ignored if the matrix has been created without weights
+     */
+    public void addIncoming(int sourceNodeId, int targetNodeId, double weight) {
         final int degree = inOffsets[targetNodeId];
         final int nextDegree = degree + 1;
         if (incoming[targetNodeId].length < nextDegree) {
             growIn(targetNodeId, nextDegree);
         }
         incoming[targetNodeId][degree] = sourceNodeId;
+        if (inWeights != null) {
+            inWeights[targetNodeId][degree] = weight;
+        }
         inOffsets[targetNodeId] = nextDegree;
+        sorted = false;
     }
 
     /**
-     * checks for incoming target node, currently O(n)
+     * checks for incoming target node, O(log n) if sorted, O(n) otherwise
      */
     public boolean hasIncoming(int sourceNodeId, int targetNodeId) {
-        final int degree = inOffsets[sourceNodeId];
-        int[] rels = incoming[sourceNodeId];
-        for (int offset = degree-1; offset >= 0; offset--) {
-            if (rels[offset]==targetNodeId) {
-                return true;
+        if (undirected) {
+            return hasOutgoing(sourceNodeId, targetNodeId);
+        }
+        return indexOf(incoming[sourceNodeId], inLayerEnds, inOffsets, sourceNodeId, targetNodeId, false, 0, layers) != -1;
+    }
+
+    /**
+     * checks for a relation between source and target node in the given
+     * direction, using the other direction if the requested one isn't loaded
+     */
+    public boolean exists(int sourceNodeId, int targetNodeId, Direction direction) {
+        switch (direction) {
+            case OUTGOING:
+                return outgoing != null
+                        ? hasOutgoing(sourceNodeId, targetNodeId)
+                        : hasIncoming(targetNodeId, sourceNodeId);
+            case INCOMING:
+                return incoming != null
+                        ? hasIncoming(sourceNodeId, targetNodeId)
+                        : hasOutgoing(targetNodeId, sourceNodeId);
+            default:
+                return exists(sourceNodeId, targetNodeId, Direction.OUTGOING)
+                        || exists(sourceNodeId, targetNodeId, Direction.INCOMING);
+        }
+    }
+
+    /**
+     * get the weight of the first relation from source to target node or the
+     * default weight if there is none or no weights have been loaded,
+     * O(log n) if sorted, O(n) otherwise
+     */
+    public double weightOf(int sourceNodeId, int targetNodeId, double defaultWeight) {
+        return weightOf(sourceNodeId, targetNodeId, 0, layers, defaultWeight);
+    }
+
+    /**
+     * get the weight of the first relation from source to target node within
+     * the given layer, see {@link #weightOf(int, int, double)}
+     */
+    public double weightOf(int sourceNodeId, int targetNodeId, int layer, double defaultWeight) {
+        return weightOf(sourceNodeId, targetNodeId, layer, layer + 1, defaultWeight);
+    }
+
+    private double weightOf(int sourceNodeId, int targetNodeId, int fromLayer, int toLayer, double defaultWeight) {
+        if (outWeights != null) {
+            final int offset = indexOf(outgoing[sourceNodeId], outLayerEnds, outOffsets,
+                    sourceNodeId, targetNodeId, true, fromLayer, toLayer);
+            if (offset != -1) {
+                return outWeights[sourceNodeId][offset];
             }
+        } else if (inWeights != null) {
+            final int offset = indexOf(incoming[targetNodeId], inLayerEnds, inOffsets,
+                    targetNodeId, sourceNodeId, true, fromLayer, toLayer);
+            if (offset != -1) {
+                return inWeights[targetNodeId][offset];
+            }
+        }
+        return defaultWeight;
+    }
+
+    /**
+     * the loaded direction(s), OUTGOING for an undirected matrix
+     */
+    Direction loadedDirection() {
+        if (outgoing != null && incoming != null) {
+            return Direction.BOTH;
         }
-        return false;
+        return outgoing != null ? Direction.OUTGOING : Direction.INCOMING;
     }
 
     /**
@@ -156,6 +822,9 @@ class AdjacencyMatrix {
      * @throws NullPointerException if the direction hasn't been loaded.
      */
     public int degree(int nodeId, Direction direction) {
+        if (undirected) {
+            direction = Direction.OUTGOING;
+        }
         switch (direction) {
             case OUTGOING: {
                 return outOffsets[nodeId];
@@ -169,42 +838,117 @@ class AdjacencyMatrix {
         }
     }
 
+    /**
+     * get the degree for node / direction within the given layer
+     */
+    public int degree(int nodeId, Direction direction, int layer) {
+        if (undirected) {
+            direction = Direction.OUTGOING;
+        }
+        switch (direction) {
+            case OUTGOING: {
+                return layerEnd(outLayerEnds, outOffsets, nodeId, layer) - layerStart(outLayerEnds, nodeId, layer);
+            }
+            case INCOMING: {
+                return layerEnd(inLayerEnds, inOffsets, nodeId, layer) - layerStart(inLayerEnds, nodeId, layer);
+            }
+            default: {
+                return degree(nodeId, Direction.OUTGOING, layer) + degree(nodeId, Direction.INCOMING, layer);
+            }
+        }
+    }
+
     /**
      * iterate over each edge at the given node using an unweighted consumer
      */
     public void forEach(int nodeId, Direction direction, RelationshipConsumer consumer) {
+        if (undirected) {
+            direction = Direction.OUTGOING;
+        }
         switch (direction) {
             case OUTGOING:
-                forEachOutgoing(nodeId, consumer);
+                forEachOutgoing(nodeId, 0, outOffsets[nodeId], consumer);
                 break;
             case INCOMING:
-                forEachIncoming(nodeId, consumer);
+                forEachIncoming(nodeId, 0, inOffsets[nodeId], consumer);
                 break;
             default:
-                forEachIncoming(nodeId, consumer);
-                forEachOutgoing(nodeId, consumer);
+                forEachIncoming(nodeId, 0, inOffsets[nodeId], consumer);
+                forEachOutgoing(nodeId, 0, outOffsets[nodeId], consumer);
                 break;
         }
     }
 
+    /**
+     * iterate over each edge of the given layer at the node using an unweighted consumer
+     */
+    public void forEach(int nodeId, Direction direction, int layer, RelationshipConsumer consumer) {
+        if (undirected) {
+            direction = Direction.OUTGOING;
+        }
+        if (direction != Direction.OUTGOING) {
+            forEachIncoming(nodeId,
+                    layerStart(inLayerEnds, nodeId, layer),
+                    layerEnd(inLayerEnds, inOffsets, nodeId, layer),
+                    consumer);
+        }
+        if (direction != Direction.INCOMING) {
+            forEachOutgoing(nodeId,
+                    layerStart(outLayerEnds, nodeId, layer),
+                    layerEnd(outLayerEnds, outOffsets, nodeId, layer),
+                    consumer);
+        }
+    }
+
     /**
      * iterate over each edge at the given node using a weighted consumer
      */
-    public void forEach(int nodeId, Direction direction, WeightMapping weights, WeightedRelationshipConsumer consumer) {
+    public void forEach(int nodeId, Direction direction, double defaultWeight, WeightedRelationshipConsumer consumer) {
+        if (undirected) {
+            direction = Direction.OUTGOING;
+        }
         switch (direction) {
             case OUTGOING:
-                forEachOutgoing(nodeId, weights, consumer);
+                forEachOutgoing(nodeId, 0, outOffsets[nodeId], defaultWeight, consumer);
                 break;
             case INCOMING:
-                forEachIncoming(nodeId, weights, consumer);
+                forEachIncoming(nodeId, 0, inOffsets[nodeId], defaultWeight, consumer);
                 break;
             default:
-                forEachIncoming(nodeId, weights, consumer);
-                forEachOutgoing(nodeId, weights, consumer);
+                forEachIncoming(nodeId, 0, inOffsets[nodeId], defaultWeight, consumer);
+                forEachOutgoing(nodeId, 0, outOffsets[nodeId], defaultWeight, consumer);
                 break;
         }
     }
 
+    /**
+     * iterate over each edge of the given layer at the node using a weighted consumer
+     */
+    public void forEach(
+            int nodeId,
+            Direction direction,
+            int layer,
+            double defaultWeight,
+            WeightedRelationshipConsumer consumer) {
+        if (undirected) {
+            direction = Direction.OUTGOING;
+        }
+        if (direction != Direction.OUTGOING) {
+            forEachIncoming(nodeId,
+                    layerStart(inLayerEnds, nodeId, layer),
+                    layerEnd(inLayerEnds, inOffsets, nodeId, layer),
+                    defaultWeight,
+                    consumer);
+        }
+        if (direction != Direction.INCOMING) {
+            forEachOutgoing(nodeId,
+                    layerStart(outLayerEnds, nodeId, layer),
+                    layerEnd(outLayerEnds, outOffsets, nodeId, layer),
+                    defaultWeight,
+                    consumer);
+        }
+    }
+
     public int capacity() {
         return outOffsets != null
                 ? outOffsets.length
@@ -214,52 +958,73 @@ class AdjacencyMatrix {
     }
 
     public void addMatrix(AdjacencyMatrix other, int offset, int length) {
+        sorted = false;
         if (other.outgoing != null) {
             System.arraycopy(other.outgoing, 0, outgoing, offset, length);
             System.arraycopy(other.outOffsets, 0, outOffsets, offset, length);
+            if (other.outLayerEnds != null) {
+                System.arraycopy(other.outLayerEnds, 0, outLayerEnds, offset * layers, length * layers);
+            }
+            if (other.outWeights != null) {
+                System.arraycopy(other.outWeights, 0, outWeights, offset, length);
+            }
         }
         if (other.incoming != null) {
             System.arraycopy(other.incoming, 0, incoming, offset, length);
             System.arraycopy(other.inOffsets, 0, inOffsets, offset, length);
+            if (other.inLayerEnds != null) {
+                System.arraycopy(other.inLayerEnds, 0, inLayerEnds, offset * layers, length * layers);
+            }
+            if (other.inWeights != null) {
+                System.arraycopy(other.inWeights, 0, inWeights, offset, length);
+            }
         }
     }
 
-    private void forEachOutgoing(int nodeId, RelationshipConsumer consumer) {
-        final int degree = outOffsets[nodeId];
+    private void forEachOutgoing(int nodeId, int from, int to, RelationshipConsumer consumer) {
         final int[] outs = outgoing[nodeId];
-        for (int i = 0; i < degree; i++) {
+        for (int i = from; i < to; i++) {
             consumer.accept(nodeId, outs[i], RawValues.combineIntInt(nodeId, outs[i]));
         }
     }
 
-    private void forEachIncoming(int nodeId, RelationshipConsumer consumer) {
-        final int degree = inOffsets[nodeId];
+    private void forEachIncoming(int nodeId, int from, int to, RelationshipConsumer consumer) {
         final int[] ins = incoming[nodeId];
-        for (int i = 0; i < degree; i++) {
+        for (int i = from; i < to; i++) {
             consumer.accept(nodeId, ins[i], RawValues.combineIntInt(ins[i], nodeId));
         }
     }
 
-    private void forEachOutgoing(int nodeId, WeightMapping weights, WeightedRelationshipConsumer consumer) {
-        final int degree = outOffsets[nodeId];
+    private void forEachOutgoing(
+            int nodeId,
+            int from,
+            int to,
+            double defaultWeight,
+            WeightedRelationshipConsumer consumer) {
         final int[] outs = outgoing[nodeId];
-        for (int i = 0; i < degree; i++) {
+        final double[] weights = outWeights != null ? outWeights[nodeId] : null;
+        for (int i = from; i < to; i++) {
             final long relationId = RawValues.combineIntInt(nodeId, outs[i]);
-            consumer.accept(nodeId, outs[i], relationId, weights.get(relationId));
+            consumer.accept(nodeId, outs[i], relationId, weights != null ? weights[i] : defaultWeight);
         }
     }
 
-    private void forEachIncoming(int nodeId, WeightMapping weights, WeightedRelationshipConsumer consumer) {
-        final int degree = inOffsets[nodeId];
+    private void forEachIncoming(
+            int nodeId,
+            int from,
+            int to,
+            double defaultWeight,
+            WeightedRelationshipConsumer consumer) {
         final int[] ins = incoming[nodeId];
-        for (int i = 0; i < degree; i++) {
+        final double[] weights = inWeights != null ? inWeights[nodeId] : null;
+        for (int i = from; i < to; i++) {
             final long relationId = RawValues.combineIntInt(ins[i], nodeId);
-            consumer.accept(nodeId, ins[i], relationId, weights.get(relationId));
+            consumer.accept(nodeId, ins[i], relationId, weights != null ? weights[i] : defaultWeight);
         }
     }
 
     public NodeIterator nodesWithRelationships(Direction direction) {
-        if (direction == Direction.OUTGOING) {
+        if (direction == Direction.OUTGOING || undirected) {
             return new DegreeCheckingNodeIterator(outOffsets);
         } else {
             return new DegreeCheckingNodeIterator(inOffsets);
@@ -0,0 +1,813 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import org.neo4j.collection.primitive.PrimitiveIntCollections;
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeProperties;
+import org.neo4j.graphalgo.api.NodeWeights;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipTypeLayers;
+import org.neo4j.graphalgo.api.RelationshipWeights;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable view of a {@link HeavyGraph} together with the changes applied
+ * since it has been loaded.
+ * <p>
+ * The changes are kept as overlays next to the {@link AdjacencyMatrix} of the
+ * base graph: the relationships added per node and the relationships of the
+ * matrix which are hidden per node. New nodes get the ids following the nodes
+ * of the base graph. The overlays are split into chunks of node ids and are
+ * copied on write: applying changes copies only the chunks which are touched,
+ * so a view which has been handed out to an algorithm never changes and the
+ * cost of an apply doesn't grow with the changes of earlier applies.
+ * <p>
+ * Every overlay costs a lookup during the iteration, therefore they are merged
+ * into a new matrix by {@link #compact(IntHashSet)} once they grow.
+ * <p>
+ * Added and hidden relationships remember the relationship type layer they
+ * belong to, so the layers of the base graph survive the changes and the
+ * compaction and can be selected by {@link #withRelationshipTypes(String...)}.
+ * Node weights and properties are read from the base graph, added nodes
+ * get the default values.
+ */
+final class DeltaGraph implements Graph, RelationshipWeights, NodeWeights, NodeProperties, RelationshipTypeLayers {
+
+    private static final long[] EMPTY_LONGS = new long[0];
+    // node ids per overlay chunk
+    private static final int CHUNK_SHIFT = 12;
+    // added nodes per page
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int ID_BUCKETS = 64;
+
+    private final HeavyGraph base;
+    private final AdjacencyMatrix matrix;
+    private final double defaultWeight;
+    private final int baseNodeCount;
+    private final String[] relationshipTypes;
+    /**
+     * the layers which are visible by layer index, null if all of them are
+     */
+    private final boolean[] selectedLayers;
+    /**
+     * pages of the neo4j ids of the nodes added after the base graph has been loaded
+     */
+    private long[][] addedNodes;
+    private int addedNodeCount;
+    /**
+     * neo4j id to mapped id of the added nodes, split into buckets by neo4j id
+     */
+    private LongIntHashMap[] addedNodeIds;
+    /**
+     * the overlays by chunk of node ids, null for chunks without changes
+     */
+    private Overlay[] overlays;
+    private int changes;
+    /**
+     * the chunks, buckets and the last page which have been copied by the
+     * apply which builds this view, null once the view is complete
+     */
+    private boolean[] ownedOverlays;
+    private boolean[] ownedBuckets;
+    private boolean ownsLastPage;
+
+    DeltaGraph(HeavyGraph base) {
+        this.base = base;
+        this.matrix = base.container();
+        this.defaultWeight = base.relationshipDefaultWeight();
+        this.baseNodeCount = base.nodeCount();
+        this.relationshipTypes = base.relationshipTypes();
+        this.selectedLayers = null;
+        this.addedNodes = new long[0][];
+        this.addedNodeIds = new LongIntHashMap[ID_BUCKETS];
+        this.overlays = new Overlay[0];
+    }
+
+    /**
+     * a view which shares the chunks of the other one until they are written
+     */
+    private DeltaGraph(DeltaGraph other) {
+        this.base = other.base;
+        this.matrix = other.matrix;
+        this.defaultWeight = other.defaultWeight;
+        this.baseNodeCount = other.baseNodeCount;
+        this.relationshipTypes = other.relationshipTypes;
+        this.selectedLayers = other.selectedLayers;
+        this.addedNodes = other.addedNodes.clone();
+        this.addedNodeCount = other.addedNodeCount;
+        this.addedNodeIds = other.addedNodeIds.clone();
+        this.overlays = other.overlays.clone();
+        this.changes = other.changes;
+        this.ownedOverlays = new boolean[overlays.length];
+        this.ownedBuckets = new boolean[ID_BUCKETS];
+    }
+
+    /**
+     * a view of the other one which shows only the given layers, it must not be applied to
+     */
+    private DeltaGraph(DeltaGraph other, boolean[] selectedLayers) {
+        this.base = other.base;
+        this.matrix = other.matrix;
+        this.defaultWeight = other.defaultWeight;
+        this.baseNodeCount = other.baseNodeCount;
+        this.relationshipTypes = other.relationshipTypes;
+        this.selectedLayers = selectedLayers;
+        this.addedNodes = other.addedNodes;
+        this.addedNodeCount = other.addedNodeCount;
+        this.addedNodeIds = other.addedNodeIds;
+        this.overlays = other.overlays;
+        this.changes = other.changes;
+    }
+
+    /**
+     * whether the relationships of the direction have been loaded
+     */
+    boolean loaded(Direction direction) {
+        switch (direction) {
+            case OUTGOING:
+                return matrix.outgoing != null;
+            case INCOMING:
+                return matrix.incoming != null;
+            default:
+                return matrix.outgoing != null && matrix.incoming != null;
+        }
+    }
+
+    /**
+     * number of changes held in the overlays
+     */
+    int changes() {
+        return changes;
+    }
+
+    /**
+     * create a new view with the changes applied. Removed nodes can not
+     * be expressed as an overlay, their mapped ids are added to
+     * {@code removedNodes} instead and the view has to be compacted.
+     */
+    DeltaGraph apply(GraphChanges changes, IntHashSet removedNodes) {
+        final DeltaGraph next = new DeltaGraph(this);
+        for (LongCursor cursor : changes.addedNodes) {
+            if (next.toMappedNodeId(cursor.value) == -1) {
+                next.addNode(cursor.value);
+            }
+        }
+        final long[] removed = changes.removedRelationships.buffer;
+        for (int i = 0; i < changes.removedRelationships.size(); i += 2) {
+            next.removeRelationship(
+                    next.toMappedNodeId(removed[i]),
+                    next.toMappedNodeId(removed[i + 1]),
+                    changes.removedLayers.get(i >> 1),
+                    changes.removedSides.get(i >> 1));
+        }
+        final long[] added = changes.addedRelationships.buffer;
+        for (int i = 0; i < changes.addedRelationships.size(); i += 2) {
+            next.addRelationship(
+                    next.toMappedNodeId(added[i]),
+                    next.toMappedNodeId(added[i + 1]),
+                    changes.addedLayers.get(i >> 1),
+                    changes.addedWeights.get(i >> 1),
+                    changes.addedSides.get(i >> 1));
+        }
+        for (LongCursor cursor : changes.removedNodes) {
+            final int nodeId = next.toMappedNodeId(cursor.value);
+            if (nodeId != -1) {
+                removedNodes.add(nodeId);
+            }
+        }
+        next.ownedOverlays = null;
+        next.ownedBuckets = null;
+        next.ownsLastPage = false;
+        return next;
+    }
+
+    /**
+     * merge the overlays into a new heavy graph without the given nodes
+     * and their relationships. The remaining nodes keep their order, their
+     * weights and properties, and the relationships keep their layer.
+     */
+    HeavyGraph compact(IntHashSet removedNodes) {
+        final int nodeCount = nodeCount();
+        final int[] newIds = new int[nodeCount];
+        final long[] originalIds = new long[nodeCount - removedNodes.size()];
+        final LongIntHashMap mapping = new LongIntHashMap((int) Math.ceil(originalIds.length / 0.99), 0.99);
+        int next = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (removedNodes.contains(node)) {
+                newIds[node] = -1;
+            } else {
+                newIds[node] = next;
+                originalIds[next] = toOriginalNodeId(node);
+                mapping.put(originalIds[next], next);
+                next++;
+            }
+        }
+
+        final int layers = matrix.layers;
+        final AdjacencyMatrix compacted = new AdjacencyMatrix(
+                next,
+                matrix.incoming != null,
+                matrix.outgoing != null,
+                matrix.hasWeights(),
+                layers);
+        final boolean[][] singleLayers = new boolean[layers][layers];
+        for (int layer = 0; layer < layers; layer++) {
+            singleLayers[layer][layer] = true;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            final int source = newIds[node];
+            if (source == -1) {
+                continue;
+            }
+            if (matrix.outgoing != null) {
+                compacted.armOut(source, degree(node, true, null));
+                for (int layer = 0; layer < layers; layer++) {
+                    forEach(node, true, singleLayers[layer], (s, t, relationId, weight) -> {
+                        if (newIds[t] != -1) {
+                            compacted.addOutgoing(source, newIds[t], weight);
+                        }
+                        return true;
+                    });
+                    if (layers > 1) {
+                        compacted.finishLayer(source, layer, Direction.OUTGOING);
+                    }
+                }
+            }
+            if (matrix.incoming != null) {
+                compacted.armIn(source, degree(node, false, null));
+                for (int layer = 0; layer < layers; layer++) {
+                    forEach(node, false, singleLayers[layer], (s, t, relationId, weight) -> {
+                        if (newIds[t] != -1) {
+                            compacted.addIncoming(newIds[t], source, weight);
+                        }
+                        return true;
+                    });
+                    if (layers > 1) {
+                        compacted.finishLayer(source, layer, Direction.INCOMING);
+                    }
+                }
+            }
+        }
+
+        if (matrix.isSorted()) {
+            compacted.sort(null, 1);
+        }
+
+        return new HeavyGraph(
+                new IdMap(originalIds, mapping),
+                compacted,
+                defaultWeight,
+                HeavyGraphFactory.reorder(base.nodeWeights(), newIds),
+                HeavyGraphFactory.reorder(base.nodeProperties(), newIds),
+                base.nodeColumns().reorder(newIds, next),
+                relationshipTypes.length > 0 ? relationshipTypes : null);
+    }
+
+    @Override
+    public int nodeCount() {
+        return baseNodeCount + addedNodeCount;
+    }
+
+    @Override
+    public void forEachNode(IntPredicate consumer) {
+        final int nodeCount = nodeCount();
+        for (int node = 0; node < nodeCount; node++) {
+            if (!consumer.test(node)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveIntIterator nodeIterator() {
+        return PrimitiveIntCollections.range(0, nodeCount() - 1);
+    }
+
+    @Override
+    public Collection<PrimitiveIntIterable> batchIterables(int batchSize) {
+        final int nodeCount = nodeCount();
+        final int numberOfBatches = ParallelUtil.threadSize(batchSize, nodeCount);
+        if (numberOfBatches == 1) {
+            return Collections.singleton(this::nodeIterator);
+        }
+        final PrimitiveIntIterable[] iterables = new PrimitiveIntIterable[numberOfBatches];
+        Arrays.setAll(iterables, i -> {
+            final int start = i * batchSize;
+            final int end = Math.min(start + batchSize, nodeCount) - 1;
+            return () -> PrimitiveIntCollections.range(start, end);
+        });
+        return Arrays.asList(iterables);
+    }
+
+    @Override
+    public int degree(int nodeId, Direction direction) {
+        switch (direction) {
+            case OUTGOING:
+                return degree(nodeId, true, selectedLayers);
+            case INCOMING:
+                return degree(nodeId, false, selectedLayers);
+            default:
+                return degree(nodeId, false, selectedLayers)
+                        + degree(nodeId, true, selectedLayers);
+        }
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, RelationshipConsumer consumer) {
+        forEachRelationship(
+                nodeId,
+                direction,
+                (WeightedRelationshipConsumer) (sourceNodeId, targetNodeId, relationId, weight) ->
+                        consumer.accept(sourceNodeId, targetNodeId, relationId));
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, WeightedRelationshipConsumer consumer) {
+        switch (direction) {
+            case OUTGOING:
+                forEach(nodeId, true, selectedLayers, consumer);
+                break;
+            case INCOMING:
+                forEach(nodeId, false, selectedLayers, consumer);
+                break;
+            default:
+                forEach(nodeId, false, selectedLayers, consumer);
+                forEach(nodeId, true, selectedLayers, consumer);
+                break;
+        }
+    }
+
+    @Override
+    public int toMappedNodeId(long originalNodeId) {
+        final int nodeId = base.toMappedNodeId(originalNodeId);
+        if (nodeId != -1) {
+            return nodeId;
+        }
+        final LongIntHashMap ids = addedNodeIds[bucket(originalNodeId)];
+        return ids != null ? ids.getOrDefault(originalNodeId, -1) : -1;
+    }
+
+    @Override
+    public long toOriginalNodeId(int mappedNodeId) {
+        return mappedNodeId < baseNodeCount
+                ? base.toOriginalNodeId(mappedNodeId)
+                : addedNode(mappedNodeId - baseNodeCount);
+    }
+
+    @Override
+    public boolean contains(long nodeId) {
+        return toMappedNodeId(nodeId) != -1;
+    }
+
+    @Override
+    public double weightOf(int sourceNodeId, int targetNodeId) {
+        final boolean outgoing = matrix.outgoing != null;
+        final Overlay overlay = overlay(outgoing ? sourceNodeId : targetNodeId);
+        final Relationships relationships = overlay == null
+                ? null
+                : overlay.added(outgoing).get(outgoing ? sourceNodeId : targetNodeId);
+        if (relationships != null) {
+            final int index = relationships.lastIndexOf(outgoing ? targetNodeId : sourceNodeId, selectedLayers);
+            if (index != -1) {
+                return matrix.hasWeights() ? relationships.weights[index] : defaultWeight;
+            }
+        }
+        if (sourceNodeId >= baseNodeCount || targetNodeId >= baseNodeCount) {
+            return defaultWeight;
+        }
+        if (selectedLayers == null) {
+            return matrix.weightOf(sourceNodeId, targetNodeId, defaultWeight);
+        }
+        for (int layer = 0; layer < selectedLayers.length; layer++) {
+            if (selectedLayers[layer]) {
+                final double weight = matrix.weightOf(sourceNodeId, targetNodeId, layer, Double.NaN);
+                if (!Double.isNaN(weight)) {
+                    return weight;
+                }
+            }
+        }
+        return defaultWeight;
+    }
+
+    @Override
+    public double weightOf(int nodeId) {
+        return base.weightOf(nodeId);
+    }
+
+    @Override
+    public double valueOf(int nodeId, double defaultValue) {
+        return base.valueOf(nodeId, defaultValue);
+    }
+
+    @Override
+    public String[] relationshipTypes() {
+        return relationshipTypes.clone();
+    }
+
+    @Override
+    public Graph withRelationshipTypes(String... relationshipTypes) {
+        final boolean[] layers = new boolean[matrix.layers];
+        int selected = 0;
+        for (String relationshipType : relationshipTypes) {
+            final int layer = base.layer(relationshipType);
+            if (!layers[layer]) {
+                layers[layer] = true;
+                selected++;
+            }
+        }
+        if (selected == matrix.layers) {
+            return this;
+        }
+        return new DeltaGraph(this, layers);
+    }
+
+    private long addedNode(int index) {
+        return addedNodes[index >>> PAGE_SHIFT][index & PAGE_MASK];
+    }
+
+    private void addNode(long originalNodeId) {
+        final int index = addedNodeCount;
+        final int page = index >>> PAGE_SHIFT;
+        if (page == addedNodes.length) {
+            addedNodes = Arrays.copyOf(addedNodes, page + 1);
+            addedNodes[page] = new long[PAGE_SIZE];
+            ownsLastPage = true;
+        } else if (!ownsLastPage) {
+            addedNodes[page] = addedNodes[page].clone();
+            ownsLastPage = true;
+        }
+        addedNodes[page][index & PAGE_MASK] = originalNodeId;
+
+        final int bucket = bucket(originalNodeId);
+        if (!ownedBuckets[bucket]) {
+            addedNodeIds[bucket] = addedNodeIds[bucket] == null
+                    ? new LongIntHashMap()
+                    : addedNodeIds[bucket].clone();
+            ownedBuckets[bucket] = true;
+        }
+        addedNodeIds[bucket].put(originalNodeId, baseNodeCount + index);
+        addedNodeCount++;
+        changes++;
+    }
+
+    private static int bucket(long originalNodeId) {
+        return (int) (originalNodeId & (ID_BUCKETS - 1));
+    }
+
+    private Overlay overlay(int nodeId) {
+        final int chunk = nodeId >>> CHUNK_SHIFT;
+        return chunk < overlays.length ? overlays[chunk] : null;
+    }
+
+    /**
+     * the overlay of the node, copied if it is still shared with the previous view
+     */
+    private Overlay writableOverlay(int nodeId) {
+        final int chunk = nodeId >>> CHUNK_SHIFT;
+        if (chunk >= overlays.length) {
+            overlays = Arrays.copyOf(overlays, chunk + 1);
+            ownedOverlays = Arrays.copyOf(ownedOverlays, chunk + 1);
+        }
+        if (!ownedOverlays[chunk]) {
+            overlays[chunk] = overlays[chunk] == null ? new Overlay() : new Overlay(overlays[chunk]);
+            ownedOverlays[chunk] = true;
+        }
+        return overlays[chunk];
+    }
+
+    private void addRelationship(int sourceNodeId, int targetNodeId, int layer, double weight, int sides) {
+        if (sourceNodeId == -1 || targetNodeId == -1) {
+            return;
+        }
+        if (matrix.outgoing != null && (sides & GraphChanges.OUTGOING) != 0) {
+            final IntObjectHashMap<Relationships> addedOut = writableOverlay(sourceNodeId).addedOut;
+            addedOut.put(sourceNodeId, Relationships.add(addedOut.get(sourceNodeId), targetNodeId, layer, weight));
+        }
+        if (matrix.incoming != null && (sides & GraphChanges.INCOMING) != 0) {
+            final IntObjectHashMap<Relationships> addedIn = writableOverlay(targetNodeId).addedIn;
+            addedIn.put(targetNodeId, Relationships.add(addedIn.get(targetNodeId), sourceNodeId, layer, weight));
+        }
+        changes++;
+    }
+
+    private void removeRelationship(int sourceNodeId, int targetNodeId, int layer, int sides) {
+        if (sourceNodeId == -1 || targetNodeId == -1) {
+            return;
+        }
+        if (matrix.outgoing != null && (sides & GraphChanges.OUTGOING) != 0) {
+            remove(sourceNodeId, targetNodeId, layer, true);
+        }
+        if (matrix.incoming != null && (sides & GraphChanges.INCOMING) != 0) {
+            remove(targetNodeId, sourceNodeId, layer, false);
+        }
+        changes++;
+    }
+
+    /**
+     * remove one relationship of the layer from node to other, preferably one
+     * of the added relationships, otherwise hide one of the matrix if there
+     * is one which is not hidden yet
+     */
+    private void remove(
+            int nodeId,
+            int otherNodeId,
+            int layer,
+            boolean outgoing) {
+        final Overlay overlay = writableOverlay(nodeId);
+        final IntObjectHashMap<Relationships> added = overlay.added(outgoing);
+        final IntObjectHashMap<long[]> hidden = overlay.hidden(outgoing);
+        final Relationships relationships = added.get(nodeId);
+        final int index = relationships != null ? relationships.lastIndexOf(otherNodeId, layer) : -1;
+        if (index != -1) {
+            final Relationships remaining = relationships.remove(index);
+            if (remaining == null) {
+                added.remove(nodeId);
+            } else {
+                added.put(nodeId, remaining);
+            }
+            return;
+        }
+        if (nodeId >= baseNodeCount) {
+            return;
+        }
+        final long[] hiddenNodes = hidden.getOrDefault(nodeId, EMPTY_LONGS);
+        final long hiddenNode = RawValues.combineIntInt(layer, otherNodeId);
+        final int[] layerEnds = outgoing ? matrix.outLayerEnds : matrix.inLayerEnds;
+        final int[] offsets = outgoing ? matrix.outOffsets : matrix.inOffsets;
+        final int[] others = (outgoing ? matrix.outgoing : matrix.incoming)[nodeId];
+        final int count = count(
+                others,
+                matrix.layerStart(layerEnds, nodeId, layer),
+                matrix.layerEnd(layerEnds, offsets, nodeId, layer),
+                otherNodeId);
+        if (count > count(hiddenNodes, hiddenNode)) {
+            final long[] nextHidden = Arrays.copyOf(hiddenNodes, hiddenNodes.length + 1);
+            nextHidden[hiddenNodes.length] = hiddenNode;
+            hidden.put(nodeId, nextHidden);
+        }
+    }
+
+    /**
+     * degree of the node in the given layers or in all layers if they are null
+     */
+    private int degree(int nodeId, boolean outgoing, boolean[] layers) {
+        final int[] layerEnds = outgoing ? matrix.outLayerEnds : matrix.inLayerEnds;
+        final int[] offsets = outgoing ? matrix.outOffsets : matrix.inOffsets;
+        int degree = 0;
+        if (nodeId < baseNodeCount) {
+            if (layers == null) {
+                degree = offsets[nodeId];
+            } else {
+                for (int layer = 0; layer < layers.length; layer++) {
+                    if (layers[layer]) {
+                        degree += matrix.layerEnd(layerEnds, offsets, nodeId, layer)
+                                - matrix.layerStart(layerEnds, nodeId, layer);
+                    }
+                }
+            }
+        }
+        final Overlay overlay = overlay(nodeId);
+        if (overlay == null) {
+            return degree;
+        }
+        if (nodeId < baseNodeCount) {
+            for (long hiddenNode : overlay.hidden(outgoing).getOrDefault(nodeId, EMPTY_LONGS)) {
+                if (isSelected(layers, RawValues.getHead(hiddenNode))) {
+                    degree--;
+                }
+            }
+        }
+        final Relationships relationships = overlay.added(outgoing).get(nodeId);
+        if (relationships != null) {
+            for (int layer : relationships.layers) {
+                if (isSelected(layers, layer)) {
+                    degree++;
+                }
+            }
+        }
+        return degree;
+    }
+
+    /**
+     * iterate over the relationships of the node in the given layers
+     * or in all layers if they are null
+     */
+    private void forEach(
+            int nodeId,
+            boolean outgoing,
+            boolean[] layers,
+            WeightedRelationshipConsumer consumer) {
+        final Overlay overlay = overlay(nodeId);
+        if (nodeId < baseNodeCount) {
+            final int[] layerEnds = outgoing ? matrix.outLayerEnds : matrix.inLayerEnds;
+            final int[] offsets = outgoing ? matrix.outOffsets : matrix.inOffsets;
+            final int[] others = (outgoing ? matrix.outgoing : matrix.incoming)[nodeId];
+            final double[][] weights = outgoing ? matrix.outWeights : matrix.inWeights;
+            final double[] nodeWeights = weights != null ? weights[nodeId] : null;
+            final long[] hiddenNodes = overlay != null ? overlay.hidden(outgoing).get(nodeId) : null;
+            final boolean[] skipped = hiddenNodes != null ? new boolean[hiddenNodes.length] : null;
+            for (int layer = 0; layer < matrix.layers; layer++) {
+                if (!isSelected(layers, layer)) {
+                    continue;
+                }
+                final int end = matrix.layerEnd(layerEnds, offsets, nodeId, layer);
+                for (int i = matrix.layerStart(layerEnds, nodeId, layer); i < end; i++) {
+                    final int other = others[i];
+                    if (hiddenNodes != null && skip(hiddenNodes, skipped, RawValues.combineIntInt(layer, other))) {
+                        continue;
+                    }
+                    consumer.accept(
+                            nodeId,
+                            other,
+                            relationId(nodeId, other, outgoing),
+                            nodeWeights != null ? nodeWeights[i] : defaultWeight);
+                }
+            }
+        }
+        final Relationships relationships = overlay != null ? overlay.added(outgoing).get(nodeId) : null;
+        if (relationships != null) {
+            final boolean weighted = matrix.hasWeights();
+            for (int i = 0; i < relationships.targets.length; i++) {
+                if (!isSelected(layers, relationships.layers[i])) {
+                    continue;
+                }
+                final int other = relationships.targets[i];
+                consumer.accept(
+                        nodeId,
+                        other,
+                        relationId(nodeId, other, outgoing),
+                        weighted ? relationships.weights[i] : defaultWeight);
+            }
+        }
+    }
+
+    private static boolean isSelected(boolean[] layers, int layer) {
+        return layers == null || layers[layer];
+    }
+
+    /**
+     * check if the relationship to other is hidden and
+     * mark the matching hidden entry as consumed
+     */
+    private static boolean skip(long[] hiddenNodes, boolean[] skipped, long hiddenNode) {
+        for (int i = 0; i < hiddenNodes.length; i++) {
+            if (!skipped[i] && hiddenNodes[i] == hiddenNode) {
+                skipped[i] = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int count(int[] nodes, int from, int to, int nodeId) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (nodes[i] == nodeId) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int count(long[] hiddenNodes, long hiddenNode) {
+        int count = 0;
+        for (long node : hiddenNodes) {
+            if (node == hiddenNode) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long relationId(int nodeId, int otherNodeId, boolean outgoing) {
+        return outgoing
+                ? RawValues.combineIntInt(nodeId, otherNodeId)
+                : RawValues.combineIntInt(otherNodeId, nodeId);
+    }
+
+    /**
+     * the added and hidden relationships of the nodes of one chunk
+     */
+    private static final class Overlay {
+        /**
+         * nodeId to relationships added since the base graph has been loaded
+         */
+        private final IntObjectHashMap<Relationships> addedOut;
+        private final IntObjectHashMap<Relationships> addedIn;
+        /**
+         * nodeId to the layer and other node, combined into one long, of the
+         * relationships in the matrix which have been deleted
+         */
+        private final IntObjectHashMap<long[]> hiddenOut;
+        private final IntObjectHashMap<long[]> hiddenIn;
+
+        private Overlay() {
+            addedOut = new IntObjectHashMap<>();
+            addedIn = new IntObjectHashMap<>();
+            hiddenOut = new IntObjectHashMap<>();
+            hiddenIn = new IntObjectHashMap<>();
+        }
+
+        private Overlay(Overlay other) {
+            addedOut = other.addedOut.clone();
+            addedIn = other.addedIn.clone();
+            hiddenOut = other.hiddenOut.clone();
+            hiddenIn = other.hiddenIn.clone();
+        }
+
+        IntObjectHashMap<Relationships> added(boolean outgoing) {
+            return outgoing ? addedOut : addedIn;
+        }
+
+        IntObjectHashMap<long[]> hidden(boolean outgoing) {
+            return outgoing ? hiddenOut : hiddenIn;
+        }
+    }
+
+    /**
+     * immutable list of relationships of a node, their layers and weights
+     */
+    private static final class Relationships {
+
+        private final int[] targets;
+        private final int[] layers;
+        private final double[] weights;
+
+        private Relationships(int[] targets, int[] layers, double[] weights) {
+            this.targets = targets;
+            this.layers = layers;
+            this.weights = weights;
+        }
+
+        static Relationships add(Relationships relationships, int targetNodeId, int layer, double weight) {
+            if (relationships == null) {
+                return new Relationships(new int[]{targetNodeId}, new int[]{layer}, new double[]{weight});
+            }
+            final int length = relationships.targets.length;
+            final int[] targets = Arrays.copyOf(relationships.targets, length + 1);
+            final int[] layers = Arrays.copyOf(relationships.layers, length + 1);
+            final double[] weights = Arrays.copyOf(relationships.weights, length + 1);
+            targets[length] = targetNodeId;
+            layers[length] = layer;
+            weights[length] = weight;
+            return new Relationships(targets, layers, weights);
+        }
+
+        int lastIndexOf(int targetNodeId, int layer) {
+            for (int i = targets.length - 1; i >= 0; i--) {
+                if (targets[i] == targetNodeId && layers[i] == layer) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * last relationship to the target in one of the given layers or in any layer if they are null
+         */
+        int lastIndexOf(int targetNodeId, boolean[] selectedLayers) {
+            for (int i = targets.length - 1; i >= 0; i--) {
+                if (targets[i] == targetNodeId && isSelected(selectedLayers, layers[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the remaining relationships or null if there are none
+         */
+        Relationships remove(int index) {
+            final int length = targets.length - 1;
+            if (length == 0) {
+                return null;
+            }
+            final int[] remainingTargets = new int[length];
+            final int[] remainingLayers = new int[length];
+            final double[] remainingWeights = new double[length];
+            System.arraycopy(targets, 0, remainingTargets, 0, index);
+            System.arraycopy(targets, index + 1, remainingTargets, index, length - index);
+            System.arraycopy(layers, 0, remainingLayers, 0, index);
+            System.arraycopy(layers, index + 1, remainingLayers, index, length - index);
+            System.arraycopy(weights, 0, remainingWeights, 0, index);
+            System.arraycopy(weights, index + 1, remainingWeights, index, length - index);
+            return new Relationships(remainingTargets, remainingLayers, remainingWeights);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongHashSet;
+
+/**
+ * The changes of a transaction which are relevant for an {@link IncrementalGraph}.
+ * They are collected from the transaction state before the commit and applied
+ * to the graph after the commit succeeded. Nodes and relationships are given by
+ * their neo4j ids, relationships as pairs of start and end node together with
+ * the layer of their relationship type, see {@link HeavyGraph#relationshipTypes()}.
+ * A relationship change applies to both the outgoing and the incoming side of
+ * the adjacency unless it is restricted to one of them.
+ */
+final class GraphChanges {
+
+    static final int OUTGOING = 1;
+    static final int INCOMING = 2;
+    static final int BOTH = OUTGOING | INCOMING;
+
+    final LongArrayList addedNodes = new LongArrayList();
+    final LongArrayList removedNodes = new LongArrayList();
+    final LongArrayList addedRelationships = new LongArrayList();
+    final DoubleArrayList addedWeights = new DoubleArrayList();
+    final IntArrayList addedLayers = new IntArrayList();
+    final IntArrayList addedSides = new IntArrayList();
+    final LongArrayList removedRelationships = new LongArrayList();
+    final IntArrayList removedLayers = new IntArrayList();
+    final IntArrayList removedSides = new IntArrayList();
+    /**
+     * whether the transaction started to commit while the base graph was loading
+     */
+    boolean whileLoading;
+
+    void addNode(long nodeId) {
+        addedNodes.add(nodeId);
+    }
+
+    void removeNode(long nodeId) {
+        removedNodes.add(nodeId);
+    }
+
+    void addRelationship(long startNodeId, long endNodeId, int layer, double weight) {
+        addRelationship(startNodeId, endNodeId, layer, weight, BOTH);
+    }
+
+    void addRelationship(long startNodeId, long endNodeId, int layer, double weight, int sides) {
+        addedRelationships.add(startNodeId, endNodeId);
+        addedLayers.add(layer);
+        addedWeights.add(weight);
+        addedSides.add(sides);
+    }
+
+    void removeRelationship(long startNodeId, long endNodeId, int layer) {
+        removeRelationship(startNodeId, endNodeId, layer, BOTH);
+    }
+
+    void removeRelationship(long startNodeId, long endNodeId, int layer, int sides) {
+        removedRelationships.add(startNodeId, endNodeId);
+        removedLayers.add(layer);
+        removedSides.add(sides);
+    }
+
+    /**
+     * add the ids of every node which is touched by the changes
+     */
+    void nodes(LongHashSet nodes) {
+        nodes.addAll(addedNodes);
+        nodes.addAll(removedNodes);
+        nodes.addAll(addedRelationships);
+        nodes.addAll(removedRelationships);
+    }
+
+    boolean isEmpty() {
+        return addedNodes.isEmpty()
+                && removedNodes.isEmpty()
+                && addedRelationships.isEmpty()
+                && removedRelationships.isEmpty();
+    }
+}
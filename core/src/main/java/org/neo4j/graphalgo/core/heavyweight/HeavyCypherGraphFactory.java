@@ -6,8 +6,10 @@ import com.carrotsearch.hppc.cursors.LongIntCursor;
 import com.carrotsearch.hppc.procedures.LongIntProcedure;
 import org.neo4j.graphalgo.api.*;
 import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.IdMapLoader;
 import org.neo4j.graphalgo.core.NullWeightMap;
 import org.neo4j.graphalgo.core.WeightMap;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Result;
@@ -20,6 +22,7 @@ import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
 
 /**
  * @author mknblch
@@ -28,9 +31,10 @@ public class HeavyCypherGraphFactory extends GraphFactory {
 
     private static final int NO_BATCH = -1;
     private static final int INITIAL_NODE_COUNT = 1_000_000;
-    private static final int ESTIMATED_DEGREE = 3;
     private static final String LIMIT = "limit";
     private static final String SKIP = "skip";
+    private static final String LOW_ID = "lowId";
+    private static final String HIGH_ID = "highId";
 
     public HeavyCypherGraphFactory(
             GraphDatabaseAPI api,
@@ -59,30 +63,60 @@ public class HeavyCypherGraphFactory extends GraphFactory {
         private final long offset;
         private final long rows;
         private final AdjacencyMatrix matrix;
-        private final WeightMapping relWeights;
+        private final RelationshipAggregation aggregation;
+        private final RelationshipBuffer buffer;
 
-        Relationships(long offset, long rows, AdjacencyMatrix matrix, WeightMapping relWeights) {
+        Relationships(long offset, long rows, AdjacencyMatrix matrix) {
+            this(offset, rows, matrix, null, null);
+        }
+
+        Relationships(
+                long offset,
+                long rows,
+                AdjacencyMatrix matrix,
+                RelationshipAggregation aggregation,
+                RelationshipBuffer buffer) {
             this.offset = offset;
             this.rows = rows;
             this.matrix = matrix;
-            this.relWeights = relWeights;
+            this.aggregation = aggregation;
+            this.buffer = buffer;
         }
     }
     @SuppressWarnings("WeakerAccess")
     public Graph build() {
         int batchSize = setup.batchSize;
 
+        setup.terminationFlag.assertRunning();
         Nodes nodes = canBatchLoad(batchSize, setup.startLabel) ?
                 batchLoadNodes(batchSize) :
                 loadNodes(0, NO_BATCH);
         Relationships relationships;
+        setup.terminationFlag.assertRunning();
         relationships = canBatchLoad(batchSize, setup.relationshipType) ?
                 batchLoadRelationships(batchSize, nodes) :
-                loadRelationships(0, NO_BATCH, nodes);
+                loadRelationships(0, NO_BATCH, nodes, 1);
+        AdjacencyMatrix matrix = relationships.matrix;
+        if (relationships.aggregation != null) {
+            matrix = newMatrix(nodes.idMap.size());
+            RelationshipAggregation aggregation = relationships.aggregation;
+            for (int range = 0; range < aggregation.rangeCount(); range++) {
+                aggregation.writeTo(matrix, range);
+            }
+        }
+        if (setup.sort) {
+            matrix.sort(setup.executor, setup.concurrency());
+        }
 
-        return new HeavyGraph(nodes.idMap, relationships.matrix, relationships.relWeights, nodes.nodeWeights, nodes.nodeProps);
+        return new HeavyGraph(nodes.idMap, matrix, setup.relationDefaultWeight, nodes.nodeWeights, nodes.nodeProps);
     }
 
+    /**
+     * Each batch is loaded by a worker into a {@link RelationshipBuffer} sized by
+     * the batch or, when weights are accumulated, into a {@link RelationshipAggregation}
+     * which sums up parallel relationships. After every round of workers their
+     * results are reduced in parallel, one task per range of source nodes.
+     */
     private Relationships batchLoadRelationships(int batchSize, Nodes nodes) {
         ExecutorService pool = setup.executor;
         int threads = setup.concurrency();
@@ -90,59 +124,111 @@ public class HeavyCypherGraphFactory extends GraphFactory {
 
         // data structures for merged information
         int nodeCount = nodes.idMap.size();
-        AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount);
-        boolean hasRelationshipWeights = !setup.loadDefaultRelationshipWeight();
-        final WeightMapping relWeights = newWeightMapping(hasRelationshipWeights, setup.relationDefaultWeight, nodeCount*ESTIMATED_DEGREE);
+        AdjacencyMatrix matrix = newMatrix(nodeCount);
+        RelationshipAggregation aggregation = accumulateWeights
+                ? new RelationshipAggregation(nodeCount, threads)
+                : null;
 
+        long highId = highId(setup.relationshipType);
         long offset = 0;
         long lastOffset = 0;
         long total = 0;
         List<Future<Relationships>> futures = new ArrayList<>(threads);
+        List<Relationships> results = new ArrayList<>(threads);
         boolean working = true;
         do {
+            setup.terminationFlag.assertRunning();
             long skip = offset;
-            // suboptimal, each sub-call allocates a AdjacencyMatrix of nodeCount size, would be better with a sparse variant
-            futures.add(pool.submit(() -> loadRelationships(skip, batchSize,nodes)));
+            futures.add(pool.submit(() -> loadRelationships(skip, batchSize, nodes, threads)));
             offset += batchSize;
-            if (futures.size() >= threads) {
+            if (futures.size() >= threads || offset >= highId) {
                 for (Future<Relationships> future : futures) {
                     Relationships result = get("Error during loading relationships offset: "+(lastOffset+batchSize),future);
                     lastOffset = result.offset;
                     total += result.rows;
                     working = result.rows > 0;
                     if (working) {
-                        WeightMapping resultWeights = hasRelationshipWeights && result.relWeights.size() > 0 ? result.relWeights : null;
-                        result.matrix.nodesWithRelationships(Direction.OUTGOING).forEachNode(
-                                node -> {
-                                    result.matrix.forEach(node, Direction.OUTGOING,
-                                            (source, target, relationship) -> {
-                                                if (accumulateWeights) {
-                                                    // suboptimial, O(n) per node
-                                                    if (!matrix.hasOutgoing(source, target)) {
-                                                        matrix.addOutgoing(source, target);
-                                                    }
-                                                    if (resultWeights != null) {
-                                                        relWeights.set(relationship,
-                                                                resultWeights.get(relationship) +
-                                                                        relWeights.get(relationship, 0d));
-                                                    }
-                                                } else {
-                                                    matrix.addOutgoing(source, target);
-                                                    if (resultWeights != null) {
-                                                        relWeights.set(relationship, resultWeights.get(relationship));
-                                                    }
-                                                }
-                                                return true;
-                                            });
-                                    return true;
-                                });
+                        results.add(result);
                     }
                 }
+                if (highId != Long.MAX_VALUE) {
+                    // an empty id range does not mean that the following ones are empty
+                    working = offset < highId;
+                }
+                if (accumulateWeights) {
+                    reduce(pool, aggregation, results);
+                } else {
+                    reduce(pool, matrix, results);
+                }
                 futures.clear();
+                results.clear();
             }
         } while (working);
 
-        return new Relationships(0, total, matrix,relWeights);
+        if (accumulateWeights) {
+            final RelationshipAggregation merged = aggregation;
+            ParallelUtil.run(ranges(merged.rangeCount(), range -> merged.writeTo(matrix, range)), pool);
+        }
+        return new Relationships(0, total, matrix);
+    }
+
+    private void reduce(ExecutorService pool, RelationshipAggregation aggregation, List<Relationships> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        ParallelUtil.run(ranges(aggregation.rangeCount(), range -> {
+            for (Relationships result : results) {
+                aggregation.merge(result.aggregation, range);
+            }
+        }), pool);
+    }
+
+    /**
+     * bulk insert the sorted buffers, each task finds the relationships of its
+     * range of source nodes by binary search and grows the rows only once
+     */
+    private void reduce(ExecutorService pool, AdjacencyMatrix matrix, List<Relationships> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        int nodeCount = matrix.capacity();
+        int rangeCount = Math.min(nodeCount, setup.concurrency());
+        if (rangeCount == 0) {
+            return;
+        }
+        int rangeSize = (int) Math.ceil(nodeCount / (double) rangeCount);
+        ParallelUtil.run(ranges(rangeCount, range -> {
+            int start = range * rangeSize;
+            int end = Math.min(nodeCount, start + rangeSize);
+            int[] from = new int[results.size()];
+            int[] to = new int[results.size()];
+            int[] degrees = new int[Math.max(0, end - start)];
+            for (int i = 0; i < results.size(); i++) {
+                RelationshipBuffer buffer = results.get(i).buffer;
+                from[i] = buffer.indexOf(start);
+                to[i] = buffer.indexOf(end);
+                buffer.countDegrees(from[i], to[i], start, degrees);
+            }
+            for (int node = start; node < end; node++) {
+                matrix.armOut(node, matrix.degree(node, Direction.OUTGOING) + degrees[node - start]);
+            }
+            for (int i = 0; i < results.size(); i++) {
+                results.get(i).buffer.writeTo(matrix, from[i], to[i]);
+            }
+        }), pool);
+    }
+
+    private static List<Runnable> ranges(int rangeCount, IntConsumer task) {
+        List<Runnable> tasks = new ArrayList<>(rangeCount);
+        for (int range = 0; range < rangeCount; range++) {
+            int current = range;
+            tasks.add(() -> task.accept(current));
+        }
+        return tasks;
+    }
+
+    private AdjacencyMatrix newMatrix(int nodeCount) {
+        return new AdjacencyMatrix(nodeCount, true, true, !setup.loadDefaultRelationshipWeight());
     }
 
     private Nodes batchLoadNodes(int batchSize) {
@@ -159,16 +245,18 @@ public class HeavyCypherGraphFactory extends GraphFactory {
         boolean hasNodeProperty = !setup.loadDefaultNodeProperty();
         final WeightMapping nodeProps = newWeightMapping(hasNodeProperty, setup.nodeDefaultPropertyValue, capacity);
 
+        long highId = highId(setup.startLabel);
         long offset = 0;
         long total = 0;
         long lastOffset = 0;
         List<Future<Nodes>> futures = new ArrayList<>(threads);
         boolean working = true;
         do {
+            setup.terminationFlag.assertRunning();
             long skip = offset;
             futures.add(pool.submit(() -> loadNodes(skip, batchSize)));
             offset += batchSize;
-            if (futures.size() >= threads) {
+            if (futures.size() >= threads || offset >= highId) {
                 for (Future<Nodes> future : futures) {
                     Nodes result = get("Error during loading nodes offset: "+(lastOffset+batchSize),future);
                     lastOffset = result.offset;
@@ -191,6 +279,9 @@ public class HeavyCypherGraphFactory extends GraphFactory {
                                 });
                     }
                 }
+                if (highId != Long.MAX_VALUE) {
+                    working = offset < highId;
+                }
                 futures.clear();
             }
         } while (working);
@@ -214,21 +305,51 @@ public class HeavyCypherGraphFactory extends GraphFactory {
 
     private boolean canBatchLoad(int batchSize, String statement) {
         return setup.loadConcurrent() && batchSize > 0 &&
-                (statement.contains("{" + LIMIT + "}") || statement.contains("$" + LIMIT)) &&
-                (statement.contains("{" + SKIP + "}") || statement.contains("$" + SKIP));
+                (isIdRangeLoad(statement) ||
+                        hasParameter(statement, LIMIT) && hasParameter(statement, SKIP));
+    }
+
+    /**
+     * a statement with {@code $lowId} and {@code $highId} parameters is executed
+     * once per range of batchSize node ids up to the highest id in the store,
+     * instead of paging through its result with SKIP and LIMIT
+     */
+    private static boolean isIdRangeLoad(String statement) {
+        return hasParameter(statement, LOW_ID) && hasParameter(statement, HIGH_ID);
     }
 
-    private Relationships loadRelationships(long offset, int batchSize, Nodes nodes) {
+    private static boolean hasParameter(String statement, String name) {
+        return statement.contains("{" + name + "}") || statement.contains("$" + name);
+    }
 
-        IdMap idMap = nodes.idMap;
+    /**
+     * the end of the id ranges or {@link Long#MAX_VALUE} if the
+     * statement is paged until it returns no more rows
+     */
+    private long highId(String statement) {
+        return isIdRangeLoad(statement) ? IdMapLoader.highestNodeId(api) : Long.MAX_VALUE;
+    }
 
-        int nodeCount = idMap.size();
-        int capacity = batchSize == NO_BATCH ? nodeCount : batchSize;
+    /**
+     * load the rows into an aggregation with the given number of ranges if
+     * weights are accumulated, otherwise the rows of a batch into a sorted
+     * buffer and all rows into a matrix
+     */
+    private Relationships loadRelationships(long offset, int batchSize, Nodes nodes, int rangeCount) {
 
-        final AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount);
+        IdMap idMap = nodes.idMap;
 
+        int nodeCount = idMap.size();
         boolean hasRelationshipWeights = !setup.loadDefaultRelationshipWeight();
-        final WeightMapping relWeigths = newWeightMapping(hasRelationshipWeights, setup.relationDefaultWeight, capacity);
+        final RelationshipAggregation aggregation = setup.accumulateWeights
+                ? new RelationshipAggregation(nodeCount, rangeCount)
+                : null;
+        final RelationshipBuffer buffer = aggregation == null && batchSize != NO_BATCH
+                ? new RelationshipBuffer(batchSize, hasRelationshipWeights)
+                : null;
+        final AdjacencyMatrix matrix = aggregation == null && buffer == null
+                ? newMatrix(nodeCount)
+                : null;
 
         class RelationshipRowVisitor implements Result.ResultVisitor<RuntimeException> {
             private long lastSourceId = -1, lastTargetId = -1;
@@ -254,17 +375,28 @@ public class HeavyCypherGraphFactory extends GraphFactory {
                 if (target == -1) {
                     return true;
                 }
-                if (hasRelationshipWeights) {
-                    long relId = RawValues.combineIntInt(source, target);
-                    relWeigths.set(relId, row.get("weight"));
+                if (aggregation != null) {
+                    aggregation.add(source, target, hasRelationshipWeights
+                            ? RawValues.extractValue(row.get("weight"), setup.relationDefaultWeight)
+                            : setup.relationDefaultWeight);
+                } else if (buffer != null) {
+                    buffer.add(source, target, hasRelationshipWeights
+                            ? RawValues.extractValue(row.get("weight"), setup.relationDefaultWeight)
+                            : setup.relationDefaultWeight);
+                } else if (hasRelationshipWeights) {
+                    matrix.addOutgoing(source, target, RawValues.extractValue(row.get("weight"), setup.relationDefaultWeight));
+                } else {
+                    matrix.addOutgoing(source, target);
                 }
-                matrix.addOutgoing(source, target);
                 return true;
             }
         }
         RelationshipRowVisitor visitor = new RelationshipRowVisitor();
-        api.execute(setup.relationshipType, params(offset, batchSize)).accept(visitor);
-        return new Relationships(offset, visitor.rows, matrix, relWeigths);
+        api.execute(setup.relationshipType, params(setup.relationshipType, offset, batchSize)).accept(visitor);
+        if (buffer != null) {
+            buffer.sort();
+        }
+        return new Relationships(offset, visitor.rows, matrix, aggregation, buffer);
     }
 
     private Nodes loadNodes(long offset, int batchSize) {
@@ -295,7 +427,7 @@ public class HeavyCypherGraphFactory extends GraphFactory {
         }
 
         NodeRowVisitor visitor = new NodeRowVisitor();
-        api.execute(setup.startLabel, params(offset, batchSize)).accept(visitor);
+        api.execute(setup.startLabel, params(setup.startLabel, offset, batchSize)).accept(visitor);
         idMap.buildMappedIds();
         return new Nodes(offset, visitor.rows, idMap, nodeWeights, nodeProps);
     }
@@ -306,7 +438,12 @@ public class HeavyCypherGraphFactory extends GraphFactory {
                 new NullWeightMap(defaultValue);
     }
 
-    private Map<String, Object> params(long offset, int batchSize) {
+    private Map<String, Object> params(String statement, long offset, int batchSize) {
+        if (isIdRangeLoad(statement)) {
+            return batchSize > 0
+                    ? MapUtil.map(LOW_ID, offset, HIGH_ID, offset + batchSize)
+                    : MapUtil.map(LOW_ID, offset, HIGH_ID, IdMapLoader.highestNodeId(api));
+        }
         return batchSize > 0 ? MapUtil.map(SKIP, offset, LIMIT, batchSize) : MapUtil.map(SKIP, offset);
     }
 }
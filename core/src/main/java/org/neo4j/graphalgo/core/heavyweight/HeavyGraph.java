@@ -2,10 +2,12 @@ package org.neo4j.graphalgo.core.heavyweight;
 
 import org.neo4j.collection.primitive.PrimitiveIntIterable;
 import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.PropertyColumns;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.graphalgo.api.*;
 import org.neo4j.graphdb.Direction;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.function.IntPredicate;
 
@@ -19,25 +21,48 @@ import java.util.function.IntPredicate;
  * Cons:
  *  - has a higher memory consumption // TODO evaluate
  *
+ * Several relationship types can be loaded in one pass as layers of the
+ * matrix, which share the node mapping and can be iterated on their own or
+ * selected by {@link #withRelationshipTypes(String...)}.
+ *
  * @author mknblch
  */
-public class HeavyGraph implements Graph, RelationshipWeights, NodeWeights, NodeProperties {
+public class HeavyGraph implements Graph, RelationshipWeights, NodeWeights, NodeProperties, NodePropertyColumns, SortedAdjacency, RelationshipTypeLayers {
 
     private final IdMap nodeIdMap;
     private final AdjacencyMatrix container;
-    private final WeightMapping relationshipWeights;
+    private final double relationshipDefaultWeight;
     private final WeightMapping nodeWeights;
     private final WeightMapping nodeProperties;
+    private final PropertyColumns nodeColumns;
+    private final String[] relationshipTypes;
 
     HeavyGraph(
             IdMap nodeIdMap,
             AdjacencyMatrix container,
-            final WeightMapping relationshipWeights,
+            final double relationshipDefaultWeight,
             final WeightMapping nodeWeights,
             final WeightMapping nodeProperties) {
+        this(nodeIdMap, container, relationshipDefaultWeight, nodeWeights, nodeProperties, PropertyColumns.empty(), null);
+    }
+
+    /**
+     * @param nodeColumns additional node properties
+     * @param relationshipTypes the type of each layer of the container or null for a single layer
+     */
+    HeavyGraph(
+            IdMap nodeIdMap,
+            AdjacencyMatrix container,
+            final double relationshipDefaultWeight,
+            final WeightMapping nodeWeights,
+            final WeightMapping nodeProperties,
+            final PropertyColumns nodeColumns,
+            final String[] relationshipTypes) {
+        this.nodeColumns = nodeColumns;
+        this.relationshipTypes = relationshipTypes != null ? relationshipTypes : new String[0];
         this.nodeIdMap = nodeIdMap;
         this.container = container;
-        this.relationshipWeights = relationshipWeights;
+        this.relationshipDefaultWeight = relationshipDefaultWeight;
         this.nodeWeights = nodeWeights;
         this.nodeProperties = nodeProperties;
     }
@@ -77,7 +102,7 @@ public class HeavyGraph implements Graph, RelationshipWeights, NodeWeights, Node
             final int nodeId,
             final Direction direction,
             final WeightedRelationshipConsumer consumer) {
-        container.forEach(nodeId, direction, relationshipWeights, consumer);
+        container.forEach(nodeId, direction, relationshipDefaultWeight, consumer);
     }
 
     @Override
@@ -97,7 +122,7 @@ public class HeavyGraph implements Graph, RelationshipWeights, NodeWeights, Node
 
     @Override
     public double weightOf(final int sourceNodeId, final int targetNodeId) {
-        return relationshipWeights.get(sourceNodeId, targetNodeId);
+        return container.weightOf(sourceNodeId, targetNodeId, relationshipDefaultWeight);
     }
 
     @Override
@@ -109,4 +134,117 @@ public class HeavyGraph implements Graph, RelationshipWeights, NodeWeights, Node
     public double valueOf(final int nodeId, final double defaultValue) {
         return nodeProperties.get(nodeId, defaultValue);
     }
+
+    @Override
+    public String[] propertyKeys() {
+        return nodeColumns.propertyKeys();
+    }
+
+    @Override
+    public int column(String propertyKey) {
+        return nodeColumns.column(propertyKey);
+    }
+
+    @Override
+    public double columnValue(int column, int nodeId) {
+        return nodeColumns.columnValue(column, nodeId);
+    }
+
+    @Override
+    public boolean isSorted() {
+        return container.isSorted();
+    }
+
+    @Override
+    public boolean exists(int sourceNodeId, int targetNodeId, Direction direction) {
+        return container.exists(sourceNodeId, targetNodeId, direction);
+    }
+
+    @Override
+    public String[] relationshipTypes() {
+        return relationshipTypes.clone();
+    }
+
+    /**
+     * degree of the node counting only relationships of the given type
+     *
+     * @throws IllegalArgumentException if the type has not been loaded as a layer
+     */
+    public int degree(int nodeId, Direction direction, String relationshipType) {
+        return container.degree(nodeId, direction, layer(relationshipType));
+    }
+
+    /**
+     * iterate over the relationships of the given type only
+     *
+     * @throws IllegalArgumentException if the type has not been loaded as a layer
+     */
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            String relationshipType,
+            RelationshipConsumer consumer) {
+        container.forEach(nodeId, direction, layer(relationshipType), consumer);
+    }
+
+    /**
+     * iterate over the relationships of the given type only
+     *
+     * @throws IllegalArgumentException if the type has not been loaded as a layer
+     */
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            String relationshipType,
+            WeightedRelationshipConsumer consumer) {
+        container.forEach(nodeId, direction, layer(relationshipType), relationshipDefaultWeight, consumer);
+    }
+
+    @Override
+    public Graph withRelationshipTypes(String... relationshipTypes) {
+        final int[] layers = Arrays.stream(relationshipTypes)
+                .mapToInt(this::layer)
+                .distinct()
+                .sorted()
+                .toArray();
+        if (layers.length == Math.max(1, this.relationshipTypes.length)) {
+            return this;
+        }
+        return new RelationshipTypeView(this, layers);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the type has not been loaded as a layer
+     */
+    int layer(String relationshipType) {
+        for (int layer = 0; layer < relationshipTypes.length; layer++) {
+            if (relationshipTypes[layer].equals(relationshipType)) {
+                return layer;
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Relationship type '%s' has not been loaded as a layer, available are %s",
+                relationshipType,
+                Arrays.toString(relationshipTypes)));
+    }
+
+    AdjacencyMatrix container() {
+        return container;
+    }
+
+    double relationshipDefaultWeight() {
+        return relationshipDefaultWeight;
+    }
+
+    WeightMapping nodeWeights() {
+        return nodeWeights;
+    }
+
+    WeightMapping nodeProperties() {
+        return nodeProperties;
+    }
+
+    PropertyColumns nodeColumns() {
+        return nodeColumns;
+    }
 }
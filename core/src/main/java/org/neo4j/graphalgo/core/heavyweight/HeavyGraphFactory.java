@@ -1,16 +1,21 @@
 package org.neo4j.graphalgo.core.heavyweight;
 
+import com.carrotsearch.hppc.IntArrayList;
 import org.neo4j.collection.primitive.PrimitiveIntIterable;
 import org.neo4j.collection.primitive.PrimitiveIntIterator;
-import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.GraphPartition;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.NodeOrder;
 import org.neo4j.graphalgo.api.WeightMapping;
 import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.IdMapLoader;
 import org.neo4j.graphalgo.core.NullWeightMap;
+import org.neo4j.graphalgo.core.PropertyColumns;
 import org.neo4j.graphalgo.core.WeightMap;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
 import org.neo4j.kernel.api.ReadOperations;
@@ -21,7 +26,10 @@ import org.neo4j.storageengine.api.NodeItem;
 import org.neo4j.storageengine.api.PropertyItem;
 import org.neo4j.storageengine.api.RelationshipItem;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 
@@ -36,8 +44,10 @@ public class HeavyGraphFactory extends GraphFactory {
     private int relWeightId;
     private int nodeWeightId;
     private int nodePropId;
+    private int[] nodeColumnIds;
     private int labelId;
     private int[] relationId;
+    private String[] relationshipTypes;
     private int nodeCount;
 
     public HeavyGraphFactory(
@@ -50,9 +60,18 @@ public class HeavyGraphFactory extends GraphFactory {
                     ? ReadOperations.ANY_LABEL
                     : readOp.labelGetForName(setup.startLabel);
             if (!setup.loadAnyRelationshipType()) {
-                int relId = readOp.relationshipTypeGetForName(setup.relationshipType);
-                if (relId != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
-                    relationId = new int[]{relId};
+                final List<String> types = new ArrayList<>();
+                final IntArrayList ids = new IntArrayList();
+                for (String type : setup.relationshipTypes()) {
+                    int relId = readOp.relationshipTypeGetForName(type);
+                    if (relId != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
+                        types.add(type);
+                        ids.add(relId);
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    relationId = ids.toArray();
+                    relationshipTypes = types.toArray(new String[types.size()]);
                 }
             }
             nodeCount = Math.toIntExact(readOp.countsForNode(labelId));
@@ -65,6 +84,10 @@ public class HeavyGraphFactory extends GraphFactory {
             nodePropId = setup.loadDefaultNodeProperty()
                     ? StatementConstants.NO_SUCH_PROPERTY_KEY
                     : readOp.propertyKeyGetForName(setup.nodePropertyName);
+            nodeColumnIds = new int[setup.nodePropertyKeys.length];
+            for (int column = 0; column < nodeColumnIds.length; column++) {
+                nodeColumnIds[column] = readOp.propertyKeyGetForName(setup.nodePropertyKeys[column]);
+            }
         });
     }
 
@@ -73,12 +96,79 @@ public class HeavyGraphFactory extends GraphFactory {
         return build(BATCH_SIZE);
     }
 
+    /**
+     * every import batch is published as a partition by its importing thread
+     * once all of its nodes are read. Partitions hold the relationships as
+     * read from the store: when both directions are loaded the incoming ones
+     * are built after the import and only the outgoing ones can be queried.
+     * When the relationship store is scanned or the node ids are reordered
+     * after the import the whole graph is published as a single partition instead.
+     */
+    @Override
+    public Graph build(Consumer<GraphPartition> partitions) {
+        if (setup.relationshipScan || setup.nodeOrder != NodeOrder.NONE) {
+            return super.build(partitions);
+        }
+        return build(BATCH_SIZE, partitions);
+    }
+
+    @Override
+    public MemoryEstimate estimateMemoryUsage() {
+        final long[] relationships = relationshipCounts(labelId, relationId);
+        long bytes = IdMap.estimateMemoryUsage(nodeCount) + AdjacencyMatrix.estimateMemoryUsage(
+                nodeCount,
+                relationships[0],
+                relationships[1],
+                setup.loadIncoming,
+                setup.loadOutgoing,
+                relWeightId != StatementConstants.NO_SUCH_PROPERTY_KEY,
+                layers());
+        if (nodeWeightId != StatementConstants.NO_SUCH_PROPERTY_KEY) {
+            bytes += WeightMap.estimateMemoryUsage(nodeCount);
+        }
+        if (nodePropId != StatementConstants.NO_SUCH_PROPERTY_KEY) {
+            bytes += WeightMap.estimateMemoryUsage(nodeCount);
+        }
+        if (nodeColumnIds.length > 0) {
+            bytes += PropertyColumns.estimateMemoryUsage(nodeCount, nodeColumnIds.length);
+        }
+        return new MemoryEstimate(nodeCount, relationships[0] + relationships[1], bytes);
+    }
+
+    /**
+     * estimated heap usage of a heavy graph with the given number of nodes
+     * and relationships, for graphs which have been loaded without an estimate
+     */
+    public static long estimateMemoryUsage(
+            long nodeCount,
+            long incomingRelationships,
+            long outgoingRelationships,
+            boolean withIncoming,
+            boolean withOutgoing,
+            boolean withWeights) {
+        return IdMap.estimateMemoryUsage(nodeCount) + AdjacencyMatrix.estimateMemoryUsage(
+                nodeCount,
+                incomingRelationships,
+                outgoingRelationships,
+                withIncoming,
+                withOutgoing,
+                withWeights);
+    }
+
     /* test-private */ Graph build(int batchSize) {
-        final IdMap idMap = new IdMap(nodeCount);
+        return build(batchSize, null);
+    }
 
-        final WeightMapping relWeigths = relWeightId == StatementConstants.NO_SUCH_PROPERTY_KEY
-                ? new NullWeightMap(setup.relationDefaultWeight)
-                : new WeightMap(nodeCount, setup.relationDefaultWeight);
+    /* test-private */ Graph build(int batchSize, Consumer<GraphPartition> partitions) {
+        if (setup.relationshipScan && layers() > 1) {
+            throw new IllegalArgumentException(
+                    "The relationship store can only be scanned for a single relationship type");
+        }
+        final IdMap idMap = IdMapLoader.load(
+                api,
+                labelId,
+                batchSize,
+                threadPool);
 
         final WeightMapping nodeWeights = nodeWeightId == StatementConstants.NO_SUCH_PROPERTY_KEY
                 ? new NullWeightMap(setup.nodeDefaultWeight)
@@ -88,38 +178,105 @@ public class HeavyGraphFactory extends GraphFactory {
                 ? new NullWeightMap(setup.nodeDefaultPropertyValue)
                 : new WeightMap(nodeCount, setup.nodeDefaultPropertyValue);
 
-        withReadOps(read -> {
-            final PrimitiveLongIterator nodeIds = labelId == ReadOperations.ANY_LABEL
-                    ? read.nodesGetAll()
-                    : read.nodesGetForLabel(labelId);
-            while (nodeIds.hasNext()) {
-                final long nextId = nodeIds.next();
-                idMap.add(nextId);
-            }
-            idMap.buildMappedIds();
-        });
+        final PropertyColumns nodeColumns = nodeColumnIds.length == 0
+                ? PropertyColumns.empty()
+                : new PropertyColumns(idMap.size(), setup.nodePropertyKeys, setup.nodePropertyDefaults);
 
-        Collection<ImportTask> tasks = ParallelUtil.readParallel(
-                batchSize,
-                idMap,
-                (offset, nodeIds) -> new ImportTask(
+        // a scan of the relationship store visits the nodes only for their properties
+        final Collection<ImportTask> tasks = setup.relationshipScan && !readsNodeProperties()
+                ? Collections.emptyList()
+                : ParallelUtil.readParallel(
                         batchSize,
-                        offset,
                         idMap,
-                        nodeIds,
-                        relWeigths,
-                        nodeWeights,
-                        nodeProps,
-                        relationId
-                ),
-                threadPool);
+                        (offset, nodeIds) -> new ImportTask(
+                                batchSize,
+                                offset,
+                                idMap,
+                                nodeIds,
+                                nodeWeights,
+                                nodeProps,
+                                nodeColumns,
+                                !setup.relationshipScan,
+                                partitions,
+                                relationId
+                        ),
+                        threadPool);
 
+        setup.terminationFlag.assertRunning();
+        AdjacencyMatrix matrix;
+        if (setup.relationshipScan) {
+            matrix = new RelationshipScanLoader(
+                    api,
+                    idMap,
+                    relationId == null ? ReadOperations.ANY_RELATIONSHIP_TYPE : relationId[0],
+                    relWeightId,
+                    setup.relationDefaultWeight,
+                    setup.loadIncoming,
+                    setup.loadOutgoing,
+                    setup.terminationFlag).load(batchSize, threadPool);
+        } else {
+            matrix = buildAdjacencyMatrix(tasks);
+            if (transposeIncoming()) {
+                matrix.transpose(threadPool, setup.concurrency());
+            }
+        }
+
+        final int[] newIds = NodeReordering.newIds(matrix, setup.nodeOrder);
+        if (newIds != null) {
+            return newGraph(
+                    idMap.reorder(newIds),
+                    matrix.reorder(newIds, threadPool, setup.concurrency()),
+                    reorder(nodeWeights, newIds),
+                    reorder(nodeProps, newIds),
+                    nodeColumns.reorder(newIds));
+        }
+        return newGraph(idMap, matrix, nodeWeights, nodeProps, nodeColumns);
+    }
+
+    private Graph newGraph(
+            IdMap idMap,
+            AdjacencyMatrix matrix,
+            WeightMapping nodeWeights,
+            WeightMapping nodeProps,
+            PropertyColumns nodeColumns) {
+        if (setup.undirected) {
+            matrix = matrix.toUndirected(threadPool, setup.concurrency());
+        } else if (setup.sort) {
+            matrix.sort(threadPool, setup.concurrency());
+        }
         return new HeavyGraph(
                 idMap,
-                buildAdjacencyMatrix(tasks),
-                relWeigths,
+                matrix,
+                setup.relationDefaultWeight,
                 nodeWeights,
-                nodeProps);
+                nodeProps,
+                nodeColumns,
+                layers() > 1 ? relationshipTypes : null);
+    }
+
+    static WeightMapping reorder(WeightMapping weights, int[] newIds) {
+        return weights instanceof WeightMap ? ((WeightMap) weights).reorder(newIds) : weights;
+    }
+
+    /**
+     * if both directions are loaded only the outgoing relationships are read
+     * from the store, the incoming ones are built from them in memory
+     */
+    private boolean transposeIncoming() {
+        return setup.loadIncoming && setup.loadOutgoing;
+    }
+
+    private boolean readsNodeProperties() {
+        return nodeWeightId != StatementConstants.NO_SUCH_PROPERTY_KEY
+                || nodePropId != StatementConstants.NO_SUCH_PROPERTY_KEY
+                || nodeColumnIds.length > 0;
+    }
+
+    /**
+     * each relationship type is loaded into its own layer of the matrix
+     */
+    private int layers() {
+        return relationId != null ? relationId.length : 1;
     }
 
     private AdjacencyMatrix buildAdjacencyMatrix(Collection<ImportTask> tasks) {
@@ -129,7 +286,12 @@ public class HeavyGraphFactory extends GraphFactory {
                 return task.matrix;
             }
         }
-        AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount);
+        AdjacencyMatrix matrix = new AdjacencyMatrix(
+                nodeCount,
+                true,
+                true,
+                relWeightId != StatementConstants.NO_SUCH_PROPERTY_KEY,
+                layers());
         for (ImportTask task : tasks) {
             matrix.addMatrix(task.matrix, task.nodeOffset, task.nodeCount);
         }
@@ -144,12 +306,12 @@ public class HeavyGraphFactory extends GraphFactory {
             boolean loadIncoming,
             boolean loadOutgoing,
             int relWeightId,
-            WeightMapping relWeights,
-            int nodeWeightId,
-            WeightMapping nodeWeights,
-            int nodePropId,
-            WeightMapping nodeProps,
+            double relDefaultWeight,
             int... relationType) {
+        if (relationType != null && relationType.length > 1) {
+            readNodeLayers(node, nodeId, idMap, matrix, loadIncoming, loadOutgoing, relWeightId, relDefaultWeight, relationType);
+            return;
+        }
         final int outDegree;
         final int inDegree;
         final Cursor<RelationshipItem> outCursor;
@@ -165,6 +327,83 @@ public class HeavyGraphFactory extends GraphFactory {
             outCursor = loadOutgoing ? node.relationships(Direction.OUTGOING, relationType) : NO_RELS;
             inCursor = loadIncoming ? node.relationships(Direction.INCOMING, relationType) : NO_RELS;
         }
+        matrix.armOut(nodeId, outDegree);
+        readOutgoing(outCursor, nodeId, idMap, matrix, relWeightId, relDefaultWeight);
+        matrix.armIn(nodeId, inDegree);
+        readIncoming(inCursor, nodeId, idMap, matrix, relWeightId, relDefaultWeight);
+    }
+
+    /**
+     * read the relationships of every type into its own layer
+     */
+    private static void readNodeLayers(
+            NodeItem node,
+            int nodeId,
+            IdMap idMap,
+            AdjacencyMatrix matrix,
+            boolean loadIncoming,
+            boolean loadOutgoing,
+            int relWeightId,
+            double relDefaultWeight,
+            int[] relationType) {
+        if (loadOutgoing) {
+            int outDegree = 0;
+            for (int type : relationType) {
+                outDegree += node.degree(Direction.OUTGOING, type);
+            }
+            matrix.armOut(nodeId, outDegree);
+            for (int layer = 0; layer < relationType.length; layer++) {
+                readOutgoing(
+                        node.relationships(Direction.OUTGOING, relationType[layer]),
+                        nodeId, idMap, matrix, relWeightId, relDefaultWeight);
+                matrix.finishLayer(nodeId, layer, org.neo4j.graphdb.Direction.OUTGOING);
+            }
+        }
+        if (loadIncoming) {
+            int inDegree = 0;
+            for (int type : relationType) {
+                inDegree += node.degree(Direction.INCOMING, type);
+            }
+            matrix.armIn(nodeId, inDegree);
+            for (int layer = 0; layer < relationType.length; layer++) {
+                readIncoming(
+                        node.relationships(Direction.INCOMING, relationType[layer]),
+                        nodeId, idMap, matrix, relWeightId, relDefaultWeight);
+                matrix.finishLayer(nodeId, layer, org.neo4j.graphdb.Direction.INCOMING);
+            }
+        }
+    }
+
+    private static void readNodeProperties(
+            NodeItem node,
+            int nodeId,
+            int nodeWeightId,
+            WeightMapping nodeWeights,
+            int nodePropId,
+            WeightMapping nodeProps,
+            int[] nodeColumnIds,
+            PropertyColumns nodeColumns) {
+        if (nodeColumnIds.length > 0) {
+            // a single pass over the property chain for all columns
+            try (Cursor<PropertyItem> properties = node.properties()) {
+                while (properties.next()) {
+                    final PropertyItem property = properties.get();
+                    final int keyId = property.propertyKeyId();
+                    for (int column = 0; column < nodeColumnIds.length; column++) {
+                        if (nodeColumnIds[column] == keyId) {
+                            nodeColumns.set(column, nodeId, property.value());
+                        }
+                    }
+                    if (keyId == nodeWeightId) {
+                        nodeWeights.set(nodeId, property.value());
+                    }
+                    if (keyId == nodePropId) {
+                        nodeProps.set(nodeId, property.value());
+                    }
+                }
+            }
+            return;
+        }
         try (Cursor<PropertyItem> weights = node.property(nodeWeightId)) {
             if (weights.next()) {
                 nodeWeights.set(nodeId, weights.get().value());
@@ -175,8 +414,15 @@ public class HeavyGraphFactory extends GraphFactory {
                 nodeProps.set(nodeId, props.get().value());
             }
         }
+    }
 
-        matrix.armOut(nodeId, outDegree);
+    private static void readOutgoing(
+            Cursor<RelationshipItem> outCursor,
+            int nodeId,
+            IdMap idMap,
+            AdjacencyMatrix matrix,
+            int relWeightId,
+            double relDefaultWeight) {
         try (Cursor<RelationshipItem> rels = outCursor) {
             while (rels.next()) {
                 final RelationshipItem rel = rels.get();
@@ -185,18 +431,21 @@ public class HeavyGraphFactory extends GraphFactory {
                 if (targetNodeId == -1) {
                     continue;
                 }
-                final long relationId = RawValues.combineIntInt(nodeId, targetNodeId);
-
-                try (Cursor<PropertyItem> weights = rel.property(relWeightId)) {
-                    if (weights.next()) {
-                        relWeights.set(relationId, weights.get().value());
-                    }
-                }
-
-                matrix.addOutgoing(nodeId, targetNodeId);
+                matrix.addOutgoing(
+                        nodeId,
+                        targetNodeId,
+                        readWeight(rel, relWeightId, relDefaultWeight));
             }
         }
-        matrix.armIn(nodeId, inDegree);
+    }
+
+    private static void readIncoming(
+            Cursor<RelationshipItem> inCursor,
+            int nodeId,
+            IdMap idMap,
+            AdjacencyMatrix matrix,
+            int relWeightId,
+            double relDefaultWeight) {
         try (Cursor<RelationshipItem> rels = inCursor) {
             while (rels.next()) {
                 final RelationshipItem rel = rels.get();
@@ -205,20 +454,37 @@ public class HeavyGraphFactory extends GraphFactory {
                 if (targetNodeId == -1) {
                     continue;
                 }
-                matrix.addIncoming(targetNodeId, nodeId);
+                matrix.addIncoming(
+                        targetNodeId,
+                        nodeId,
+                        readWeight(rel, relWeightId, relDefaultWeight));
             }
         }
     }
 
+    static double readWeight(RelationshipItem rel, int relWeightId, double defaultWeight) {
+        if (relWeightId == StatementConstants.NO_SUCH_PROPERTY_KEY) {
+            return defaultWeight;
+        }
+        try (Cursor<PropertyItem> weights = rel.property(relWeightId)) {
+            if (weights.next()) {
+                return RawValues.extractValue(weights.get().value(), defaultWeight);
+            }
+        }
+        return defaultWeight;
+    }
+
     private final class ImportTask implements Runnable, Consumer<ReadOperations> {
         private final AdjacencyMatrix matrix;
         private final int nodeOffset;
         private int nodeCount;
         private final IdMap idMap;
         private final PrimitiveIntIterable nodes;
-        private final WeightMapping relWeights;
         private final WeightMapping nodeWeights;
         private final WeightMapping nodeProps;
+        private final PropertyColumns nodeColumns;
+        private final boolean readRelationships;
+        private final Consumer<GraphPartition> partitions;
         private final int[] relationId;
 
         ImportTask(
@@ -226,25 +492,48 @@ public class HeavyGraphFactory extends GraphFactory {
                 int nodeOffset,
                 IdMap idMap,
                 PrimitiveIntIterable nodes,
-                WeightMapping relWeights,
                 WeightMapping nodeWeights,
                 WeightMapping nodeProps,
+                PropertyColumns nodeColumns,
+                boolean readRelationships,
+                Consumer<GraphPartition> partitions,
                 int... relationId) {
             int nodeSize = Math.min(batchSize, idMap.size() - nodeOffset);
             this.nodeOffset = nodeOffset;
             this.idMap = idMap;
             this.nodes = nodes;
-            this.relWeights = relWeights;
             this.nodeWeights = nodeWeights;
             this.nodeProps = nodeProps;
+            this.nodeColumns = nodeColumns;
+            this.readRelationships = readRelationships;
+            this.partitions = partitions;
             this.relationId = relationId;
-            this.matrix = new AdjacencyMatrix(nodeSize, setup.loadIncoming, setup.loadOutgoing);
+            // without relationships only the node properties are read
+            this.matrix = new AdjacencyMatrix(
+                    nodeSize,
+                    readRelationships && setup.loadIncoming,
+                    readRelationships && setup.loadOutgoing,
+                    relWeightId != StatementConstants.NO_SUCH_PROPERTY_KEY,
+                    layers());
             this.nodeCount = 0;
         }
 
         @Override
         public void run() {
+            setup.terminationFlag.assertRunning();
             withReadOps(this);
+            // published outside of the import transaction
+            if (partitions != null) {
+                final HeavyPartition partition = new HeavyPartition(
+                        matrix,
+                        nodeOffset,
+                        setup.loadIncoming && !transposeIncoming());
+                try {
+                    partitions.accept(partition);
+                } finally {
+                    partition.release();
+                }
+            }
         }
 
         @Override
@@ -252,27 +541,35 @@ public class HeavyGraphFactory extends GraphFactory {
             int nodeOffset = this.nodeOffset;
             int nodeCount = 0;
             PrimitiveIntIterator iterator = nodes.iterator();
-            boolean loadIncoming = setup.loadIncoming;
+            boolean loadIncoming = setup.loadIncoming && !transposeIncoming();
             boolean loadOutgoing = setup.loadOutgoing;
             while (iterator.hasNext()) {
                 int nodeId = iterator.next();
                 try (Cursor<NodeItem> cursor = readOp.nodeCursor(idMap.toOriginalNodeId(nodeId))) {
                     if (cursor.next()) {
                         nodeCount++;
-                        HeavyGraphFactory.readNode(
+                        if (readRelationships) {
+                            HeavyGraphFactory.readNode(
+                                    cursor.get(),
+                                    nodeId - nodeOffset,
+                                    idMap,
+                                    matrix,
+                                    loadIncoming,
+                                    loadOutgoing,
+                                    relWeightId,
+                                    setup.relationDefaultWeight,
+                                    relationId);
+                        }
+                        // properties are stored by mapped node id, the matrix of the task by its offset
+                        HeavyGraphFactory.readNodeProperties(
                                 cursor.get(),
-                                nodeId - nodeOffset,
-                                idMap,
-                                matrix,
-                                loadIncoming,
-                                loadOutgoing,
-                                relWeightId,
-                                relWeights,
+                                nodeId,
                                 nodeWeightId,
                                 nodeWeights,
                                 nodePropId,
                                 nodeProps,
-                                relationId);
+                                nodeColumnIds,
+                                nodeColumns);
                     }
                 }
             }
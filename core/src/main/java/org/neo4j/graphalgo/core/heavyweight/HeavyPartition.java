@@ -0,0 +1,88 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.neo4j.graphalgo.api.GraphPartition;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphdb.Direction;
+
+/**
+ * A partition over the matrix of a single import task. The matrix is
+ * indexed relative to the first node of the partition while the targets
+ * are already global mapped node ids.
+ * <p>
+ * The rows are shared with the final matrix, which may sort or merge them
+ * in place after the import. The task releases the partition once the
+ * consumer returns, later queries fail.
+ */
+final class HeavyPartition implements GraphPartition {
+
+    private final AdjacencyMatrix matrix;
+    private final int startNode;
+    private final boolean hasIncoming;
+    private volatile boolean released;
+
+    /**
+     * @param matrix the matrix of the import task
+     * @param startNode the first mapped node id of the task
+     * @param hasIncoming whether incoming relationships have been read, they are
+     *                    missing if they are transposed after the import
+     */
+    HeavyPartition(AdjacencyMatrix matrix, int startNode, boolean hasIncoming) {
+        this.matrix = matrix;
+        this.startNode = startNode;
+        this.hasIncoming = hasIncoming;
+    }
+
+    @Override
+    public int startNode() {
+        return startNode;
+    }
+
+    @Override
+    public int nodeCount() {
+        return matrix.capacity();
+    }
+
+    @Override
+    public int degree(int nodeId, Direction direction) {
+        checkReleased();
+        checkDirection(direction);
+        return matrix.degree(nodeId - startNode, direction);
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, RelationshipConsumer consumer) {
+        checkReleased();
+        checkDirection(direction);
+        final int localId = nodeId - startNode;
+        if (direction != Direction.OUTGOING) {
+            matrix.forEach(localId, Direction.INCOMING, (s, t, r) ->
+                    consumer.accept(nodeId, t, RawValues.combineIntInt(t, nodeId)));
+        }
+        if (direction != Direction.INCOMING) {
+            matrix.forEach(localId, Direction.OUTGOING, (s, t, r) ->
+                    consumer.accept(nodeId, t, RawValues.combineIntInt(nodeId, t)));
+        }
+    }
+
+    /**
+     * called by the import task once the consumer returned
+     */
+    void release() {
+        released = true;
+    }
+
+    private void checkReleased() {
+        if (released) {
+            throw new IllegalStateException(
+                    "The partition can only be queried while it is handed to the consumer");
+        }
+    }
+
+    private void checkDirection(Direction direction) {
+        if (direction != Direction.OUTGOING && !hasIncoming) {
+            throw new UnsupportedOperationException(
+                    "Incoming relationships are built after the import and are not available in partitions");
+        }
+    }
+}
@@ -0,0 +1,538 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.LongHashSet;
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.cursors.LongIntCursor;
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipTypeLayers;
+import org.neo4j.graphalgo.api.RelationshipWeights;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.LabelEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventHandler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link HeavyGraph} which follows the changes of the database instead of
+ * going stale after it has been loaded.
+ * <p>
+ * A {@link TransactionEventHandler} collects the created and deleted nodes and
+ * relationships which match the label and relationship type of the projection.
+ * After the commit they are only queued, the committing thread doesn't wait for
+ * the graph. The queued changes are applied as overlays on the adjacency matrix
+ * by the next reader which asks for a {@link #snapshot()}. The overlays are
+ * merged into a new matrix by that reader as well, once they hold more than
+ * {@code compactionThreshold} changes or when nodes have been removed.
+ * <p>
+ * Algorithms should run on a {@link #snapshot()}, which is not affected by
+ * transactions committed during the run. The graph methods of this class
+ * delegate to the latest snapshot. Graphs loaded with several relationship
+ * types keep a layer per type through the changes. Changed weights are not
+ * reflected.
+ * <p>
+ * The handler is registered before the base graph is loaded. The load may or
+ * may not see a commit which happens while it runs, so only the nodes touched
+ * by such commits are remembered. Once the graph has been loaded, their
+ * relationships are compared with the store and the differences are applied.
+ */
+public final class IncrementalGraph implements Graph, RelationshipWeights, RelationshipTypeLayers {
+
+    public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+    private final GraphDatabaseService db;
+    private final Label label;
+    private final RelationshipType[] relationshipTypes;
+    /**
+     * the relationship types of the layers of the graph, empty for a single
+     * layer or while the base graph is loading
+     */
+    private String[] layers = new String[0];
+    private final String weightProperty;
+    private final double defaultWeight;
+    private final int compactionThreshold;
+    private final Handler handler = new Handler();
+    /**
+     * committed changes which have not been applied yet, in commit order
+     */
+    private final Queue<GraphChanges> pending = new ConcurrentLinkedQueue<>();
+    private volatile DeltaGraph current;
+    private volatile boolean registered;
+    /**
+     * guards the state of the commits which started while the base graph was loading
+     */
+    private final Object loadLock = new Object();
+    private volatile boolean loading = true;
+    private int loadingCommits;
+    private final LongHashSet loadingNodes = new LongHashSet();
+
+    private IncrementalGraph(
+            GraphDatabaseService db,
+            String label,
+            String relationshipType,
+            String weightProperty,
+            double defaultWeight,
+            int compactionThreshold) {
+        this.db = db;
+        this.label = isEmpty(label) ? null : Label.label(label);
+        this.relationshipTypes = isEmpty(relationshipType) ? null : Arrays.stream(GraphSetup.relationshipTypes(relationshipType))
+                .map(RelationshipType::withName)
+                .toArray(RelationshipType[]::new);
+        this.weightProperty = isEmpty(weightProperty) ? null : weightProperty;
+        this.defaultWeight = defaultWeight;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * start to follow the changes of the database and load the base graph
+     *
+     * @param loader loads the base graph, the changes are followed from before it is called
+     * @param label the label of the nodes or null for all nodes
+     * @param relationshipType the types of the relationships separated by '|' or null for all types
+     * @param weightProperty the property the weights have been loaded from or null
+     * @param defaultWeight the weight of relationships without the property
+     * @param compactionThreshold the number of changes after which the overlays are merged
+     */
+    public static IncrementalGraph load(
+            GraphDatabaseService db,
+            Supplier<HeavyGraph> loader,
+            String label,
+            String relationshipType,
+            String weightProperty,
+            double defaultWeight,
+            int compactionThreshold) {
+        final IncrementalGraph incrementalGraph = new IncrementalGraph(
+                db,
+                label,
+                relationshipType,
+                weightProperty,
+                defaultWeight,
+                compactionThreshold);
+        db.registerTransactionEventHandler(incrementalGraph.handler);
+        incrementalGraph.registered = true;
+        try {
+            incrementalGraph.follow(loader.get());
+        } catch (RuntimeException | Error e) {
+            incrementalGraph.release();
+            throw e;
+        }
+        return incrementalGraph;
+    }
+
+    /**
+     * take over the loaded graph, wait for the commits which started during
+     * the load and repair the nodes they touched
+     */
+    private void follow(HeavyGraph graph) {
+        layers = graph.relationshipTypes();
+        current = new DeltaGraph(graph);
+        final long[] nodeIds;
+        synchronized (loadLock) {
+            loading = false;
+            while (loadingCommits > 0) {
+                try {
+                    loadLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the commits during the load", e);
+                }
+            }
+            nodeIds = loadingNodes.toArray();
+            loadingNodes.clear();
+        }
+        if (nodeIds.length > 0) {
+            repair(nodeIds);
+        }
+    }
+
+    /**
+     * bring the relationships of the nodes in line with the store. The nodes
+     * are locked first, so every commit which touched them before is queued
+     * and applied before the comparison and every later one is queued after
+     * the repair.
+     */
+    private void repair(long[] nodeIds) {
+        Arrays.sort(nodeIds);
+        try (Transaction tx = db.beginTx()) {
+            final GraphChanges changes = new GraphChanges();
+            final List<Node> nodes = new ArrayList<>();
+            for (long nodeId : nodeIds) {
+                try {
+                    final Node node = db.getNodeById(nodeId);
+                    tx.acquireWriteLock(node);
+                    if (label == null || node.hasLabel(label)) {
+                        changes.addNode(nodeId);
+                        nodes.add(node);
+                    } else {
+                        changes.removeNode(nodeId);
+                    }
+                } catch (NotFoundException e) {
+                    changes.removeNode(nodeId);
+                }
+            }
+            synchronized (this) {
+                final DeltaGraph graph = current();
+                for (Node node : nodes) {
+                    if (graph.loaded(Direction.OUTGOING)) {
+                        compare(changes, graph, node, Direction.OUTGOING);
+                    }
+                    if (graph.loaded(Direction.INCOMING)) {
+                        compare(changes, graph, node, Direction.INCOMING);
+                    }
+                }
+                pending.add(changes);
+                applyPending();
+            }
+            tx.success();
+        }
+    }
+
+    /**
+     * add the changes which turn one side of the relationships of the node
+     * in the graph into the relationships in the store
+     */
+    private void compare(GraphChanges changes, DeltaGraph graph, Node node, Direction direction) {
+        final long nodeId = node.getId();
+        final int sides = direction == Direction.OUTGOING ? GraphChanges.OUTGOING : GraphChanges.INCOMING;
+        // relationships per layer and other node, in the store minus in the graph
+        final LongIntHashMap[] missing = new LongIntHashMap[Math.max(1, layers.length)];
+        for (int layer = 0; layer < missing.length; layer++) {
+            missing[layer] = new LongIntHashMap();
+        }
+        final List<Relationship> stored = new ArrayList<>();
+        final Iterable<Relationship> relationships = relationshipTypes != null
+                ? node.getRelationships(direction, relationshipTypes)
+                : node.getRelationships(direction);
+        for (Relationship relationship : relationships) {
+            final Node other = relationship.getOtherNode(node);
+            if (label == null || other.hasLabel(label)) {
+                stored.add(relationship);
+                missing[layer(relationship)].addTo(other.getId(), 1);
+            }
+        }
+        final int mappedId = graph.toMappedNodeId(nodeId);
+        if (mappedId != -1) {
+            for (int layer = 0; layer < missing.length; layer++) {
+                final LongIntHashMap counts = missing[layer];
+                final Graph selected = layers.length > 1 ? graph.withRelationshipTypes(layers[layer]) : graph;
+                selected.forEachRelationship(mappedId, direction, (sourceNodeId, targetNodeId, relationId) -> {
+                    counts.addTo(graph.toOriginalNodeId(targetNodeId), -1);
+                    return true;
+                });
+            }
+        }
+        for (Relationship relationship : stored) {
+            final long otherId = relationship.getOtherNode(node).getId();
+            final int layer = layer(relationship);
+            if (missing[layer].get(otherId) > 0) {
+                missing[layer].addTo(otherId, -1);
+                changes.addRelationship(
+                        relationship.getStartNode().getId(),
+                        relationship.getEndNode().getId(),
+                        layer,
+                        weight(relationship),
+                        sides);
+            }
+        }
+        for (int layer = 0; layer < missing.length; layer++) {
+            for (LongIntCursor cursor : missing[layer]) {
+                for (int i = cursor.value; i < 0; i++) {
+                    if (direction == Direction.OUTGOING) {
+                        changes.removeRelationship(nodeId, cursor.key, layer, sides);
+                    } else {
+                        changes.removeRelationship(cursor.key, nodeId, layer, sides);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * the current state of the graph, it does not change anymore.
+     * Applies the changes committed since the last snapshot.
+     */
+    public Graph snapshot() {
+        return current();
+    }
+
+    /**
+     * number of changes which have not been compacted yet
+     */
+    public int pendingChanges() {
+        return current().changes();
+    }
+
+    /**
+     * stop following the changes of the database
+     */
+    public synchronized void release() {
+        if (registered) {
+            registered = false;
+            db.unregisterTransactionEventHandler(handler);
+            pending.clear();
+        }
+    }
+
+    private DeltaGraph current() {
+        return pending.isEmpty() ? current : applyPending();
+    }
+
+    /**
+     * apply the queued changes in commit order. Changes after a removed node
+     * are only applied once it has been compacted away, its neo4j id may
+     * already belong to a new node.
+     */
+    private synchronized DeltaGraph applyPending() {
+        DeltaGraph next = current;
+        final IntHashSet removedNodes = new IntHashSet();
+        GraphChanges changes;
+        while ((changes = pending.poll()) != null) {
+            next = next.apply(changes, removedNodes);
+            if (!removedNodes.isEmpty() || next.changes() >= compactionThreshold) {
+                next = new DeltaGraph(next.compact(removedNodes));
+                removedNodes.clear();
+            }
+        }
+        current = next;
+        return next;
+    }
+
+    @Override
+    public int nodeCount() {
+        return current().nodeCount();
+    }
+
+    @Override
+    public void forEachNode(IntPredicate consumer) {
+        current().forEachNode(consumer);
+    }
+
+    @Override
+    public PrimitiveIntIterator nodeIterator() {
+        return current().nodeIterator();
+    }
+
+    @Override
+    public Collection<PrimitiveIntIterable> batchIterables(int batchSize) {
+        return current().batchIterables(batchSize);
+    }
+
+    @Override
+    public int degree(int nodeId, Direction direction) {
+        return current().degree(nodeId, direction);
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, RelationshipConsumer consumer) {
+        current().forEachRelationship(nodeId, direction, consumer);
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, WeightedRelationshipConsumer consumer) {
+        current().forEachRelationship(nodeId, direction, consumer);
+    }
+
+    @Override
+    public int toMappedNodeId(long originalNodeId) {
+        return current().toMappedNodeId(originalNodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(int mappedNodeId) {
+        return current().toOriginalNodeId(mappedNodeId);
+    }
+
+    @Override
+    public boolean contains(long nodeId) {
+        return current().contains(nodeId);
+    }
+
+    @Override
+    public double weightOf(int sourceNodeId, int targetNodeId) {
+        return current().weightOf(sourceNodeId, targetNodeId);
+    }
+
+    @Override
+    public String[] relationshipTypes() {
+        return current().relationshipTypes();
+    }
+
+    @Override
+    public Graph withRelationshipTypes(String... relationshipTypes) {
+        return current().withRelationshipTypes(relationshipTypes);
+    }
+
+    private double weight(Relationship relationship) {
+        if (weightProperty != null) {
+            final Object value = relationship.getProperty(weightProperty, null);
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+        }
+        return defaultWeight;
+    }
+
+    private int layer(Relationship relationship) {
+        final String[] layers = this.layers;
+        for (int layer = 0; layer < layers.length; layer++) {
+            if (relationship.isType(RelationshipType.withName(layers[layer]))) {
+                return layer;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    /**
+     * Collects the changes within the transaction, where deleted entities can
+     * still be inspected, and applies them once the commit succeeded. Commits
+     * which started while the base graph was loading only leave their nodes.
+     */
+    private final class Handler extends TransactionEventHandler.Adapter<GraphChanges> {
+
+        @Override
+        public GraphChanges beforeCommit(TransactionData data) throws Exception {
+            final GraphChanges changes = new GraphChanges();
+            changes.whileLoading = startCommit();
+            try {
+                collect(data, changes);
+            } catch (RuntimeException e) {
+                if (changes.whileLoading) {
+                    finishCommit(null);
+                }
+                throw e;
+            }
+            return changes;
+        }
+
+        @Override
+        public void afterCommit(TransactionData data, GraphChanges changes) {
+            if (changes.whileLoading) {
+                finishCommit(changes);
+            } else if (registered && !changes.isEmpty()) {
+                pending.add(changes);
+            }
+        }
+
+        @Override
+        public void afterRollback(TransactionData data, GraphChanges changes) {
+            if (changes != null && changes.whileLoading) {
+                finishCommit(null);
+            }
+        }
+
+        private boolean startCommit() {
+            if (!loading) {
+                return false;
+            }
+            synchronized (loadLock) {
+                if (loading) {
+                    loadingCommits++;
+                }
+                return loading;
+            }
+        }
+
+        private void finishCommit(GraphChanges changes) {
+            synchronized (loadLock) {
+                if (changes != null) {
+                    changes.nodes(loadingNodes);
+                }
+                loadingCommits--;
+                loadLock.notifyAll();
+            }
+        }
+
+        private void collect(TransactionData data, GraphChanges changes) {
+            final LongHashSet seen = new LongHashSet();
+            if (label == null) {
+                for (Node node : data.createdNodes()) {
+                    changes.addNode(node.getId());
+                }
+            } else {
+                for (LabelEntry entry : data.removedLabels()) {
+                    if (entry.label().equals(label)) {
+                        changes.removeNode(entry.node().getId());
+                    }
+                }
+            }
+            for (Node node : data.deletedNodes()) {
+                changes.removeNode(node.getId());
+            }
+            for (Relationship relationship : data.deletedRelationships()) {
+                if (matches(relationship)) {
+                    changes.removeRelationship(
+                            relationship.getStartNode().getId(),
+                            relationship.getEndNode().getId(),
+                            layer(relationship));
+                }
+            }
+            for (Relationship relationship : data.createdRelationships()) {
+                if (matches(relationship) && seen.add(relationship.getId())) {
+                    add(changes, relationship);
+                }
+            }
+            if (label != null) {
+                // existing relationships of nodes entering the projection
+                for (LabelEntry entry : data.assignedLabels()) {
+                    final Node node = entry.node();
+                    if (!entry.label().equals(label) || data.isDeleted(node)) {
+                        continue;
+                    }
+                    changes.addNode(node.getId());
+                    final Iterable<Relationship> relationships = relationshipTypes != null
+                            ? node.getRelationships(relationshipTypes)
+                            : node.getRelationships();
+                    for (Relationship relationship : relationships) {
+                        if (seen.add(relationship.getId())) {
+                            add(changes, relationship);
+                        }
+                    }
+                }
+            }
+        }
+
+        private boolean matches(Relationship relationship) {
+            if (relationshipTypes == null) {
+                return true;
+            }
+            for (RelationshipType type : relationshipTypes) {
+                if (relationship.isType(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(GraphChanges changes, Relationship relationship) {
+            changes.addRelationship(
+                    relationship.getStartNode().getId(),
+                    relationship.getEndNode().getId(),
+                    layer(relationship),
+                    weight(relationship));
+        }
+    }
+}
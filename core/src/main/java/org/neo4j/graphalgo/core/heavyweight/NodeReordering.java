@@ -0,0 +1,82 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.neo4j.graphalgo.api.NodeOrder;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Computes a new mapped id for every node of a loaded matrix. The result
+ * maps the current id of a node to its new one and is applied to the
+ * id map, the matrix and the node properties alike. Only the loaded
+ * direction(s) of the matrix are taken into account.
+ */
+final class NodeReordering {
+
+    private NodeReordering() {
+    }
+
+    /**
+     * @return the new id of each node or null if the order is kept
+     */
+    static int[] newIds(AdjacencyMatrix matrix, NodeOrder order) {
+        switch (order) {
+            case DEGREE:
+                return invert(byDegree(matrix));
+            case BFS:
+                return breadthFirst(matrix);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * node ids by descending degree, ties keep their order
+     */
+    private static int[] byDegree(AdjacencyMatrix matrix) {
+        final int nodeCount = matrix.capacity();
+        final Direction direction = matrix.loadedDirection();
+        final int[] degrees = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            degrees[node] = matrix.degree(node, direction);
+        }
+        return IndirectSort.mergesort(0, nodeCount, (a, b) -> Integer.compare(degrees[b], degrees[a]));
+    }
+
+    private static int[] breadthFirst(AdjacencyMatrix matrix) {
+        final int nodeCount = matrix.capacity();
+        final Direction direction = matrix.loadedDirection();
+        final int[] newIds = new int[nodeCount];
+        Arrays.fill(newIds, -1);
+        // the visited nodes in order of their new id, used as queue
+        final int[] queue = new int[nodeCount];
+        final int[] tail = {0};
+        for (int root : byDegree(matrix)) {
+            if (newIds[root] != -1) {
+                continue;
+            }
+            int head = tail[0];
+            newIds[root] = tail[0];
+            queue[tail[0]++] = root;
+            while (head < tail[0]) {
+                matrix.forEach(queue[head++], direction, (source, target, relationId) -> {
+                    if (newIds[target] == -1) {
+                        newIds[target] = tail[0];
+                        queue[tail[0]++] = target;
+                    }
+                    return true;
+                });
+            }
+        }
+        return newIds;
+    }
+
+    private static int[] invert(int[] order) {
+        final int[] newIds = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            newIds[order[i]] = i;
+        }
+        return newIds;
+    }
+}
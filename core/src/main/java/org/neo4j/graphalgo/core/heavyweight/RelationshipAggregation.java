@@ -0,0 +1,83 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import com.carrotsearch.hppc.LongDoubleHashMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import org.neo4j.graphalgo.core.utils.RawValues;
+
+/**
+ * Sums up the weights of parallel relationships per (source, target) pair
+ * in primitive hash tables instead of looking them up in the adjacency.
+ * <p>
+ * The pairs are split into ranges of source nodes, so the aggregations of
+ * several loaders can be reduced into one with a thread per range and each
+ * range can be written into distinct rows of an {@link AdjacencyMatrix}.
+ */
+final class RelationshipAggregation {
+
+    private final int nodeCount;
+    private final int rangeSize;
+    private final LongDoubleHashMap[] ranges;
+
+    RelationshipAggregation(int nodeCount, int rangeCount) {
+        this.nodeCount = nodeCount;
+        this.rangeSize = Math.max(1, (int) Math.ceil(nodeCount / (double) rangeCount));
+        this.ranges = new LongDoubleHashMap[Math.max(1, (int) Math.ceil(nodeCount / (double) rangeSize))];
+        for (int i = 0; i < ranges.length; i++) {
+            ranges[i] = new LongDoubleHashMap();
+        }
+    }
+
+    int rangeCount() {
+        return ranges.length;
+    }
+
+    /**
+     * number of distinct (source, target) pairs
+     */
+    long size() {
+        long size = 0L;
+        for (LongDoubleHashMap range : ranges) {
+            size += range.size();
+        }
+        return size;
+    }
+
+    void add(int source, int target, double weight) {
+        ranges[source / rangeSize].addTo(RawValues.combineIntInt(source, target), weight);
+    }
+
+    /**
+     * add the pairs of the given range of the other aggregation to this one.
+     * Different ranges can be merged concurrently.
+     */
+    void merge(RelationshipAggregation other, int range) {
+        final LongDoubleHashMap target = ranges[range];
+        for (LongDoubleCursor cursor : other.ranges[range]) {
+            target.addTo(cursor.key, cursor.value);
+        }
+    }
+
+    /**
+     * write the pairs of the given range as outgoing relationships into the
+     * matrix, the rows of the range must be empty. Different ranges can be
+     * written concurrently.
+     */
+    void writeTo(AdjacencyMatrix matrix, int range) {
+        final LongDoubleHashMap pairs = ranges[range];
+        final int start = range * rangeSize;
+        final int end = Math.min(nodeCount, start + rangeSize);
+        final int[] degrees = new int[end - start];
+        for (LongDoubleCursor cursor : pairs) {
+            degrees[RawValues.getHead(cursor.key) - start]++;
+        }
+        for (int node = start; node < end; node++) {
+            matrix.armOut(node, degrees[node - start]);
+        }
+        for (LongDoubleCursor cursor : pairs) {
+            matrix.addOutgoing(
+                    RawValues.getHead(cursor.key),
+                    RawValues.getTail(cursor.key),
+                    cursor.value);
+        }
+    }
+}
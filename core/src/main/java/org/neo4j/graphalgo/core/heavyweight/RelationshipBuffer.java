@@ -0,0 +1,107 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.neo4j.graphalgo.core.utils.RawValues;
+
+import java.util.Arrays;
+
+/**
+ * Holds the relationships of a loaded batch as packed (source, target) pairs
+ * and their weights, so its size depends on the batch and not on the number
+ * of nodes like an {@link AdjacencyMatrix}.
+ * <p>
+ * After {@link #sort()} the pairs are ordered by source node, the
+ * relationships of a range of source nodes can then be found by binary
+ * search and several buffers can be written into distinct rows of a
+ * matrix concurrently.
+ */
+final class RelationshipBuffer {
+
+    private final LongArrayList relationships;
+    private final DoubleArrayList weights;
+
+    RelationshipBuffer(int capacity, boolean withWeights) {
+        this.relationships = new LongArrayList(capacity);
+        this.weights = withWeights ? new DoubleArrayList(capacity) : null;
+    }
+
+    int size() {
+        return relationships.size();
+    }
+
+    /**
+     * add relationship with its weight, the weight is
+     * ignored if the buffer has been created without weights
+     */
+    void add(int source, int target, double weight) {
+        relationships.add(RawValues.combineIntInt(source, target));
+        if (weights != null) {
+            weights.add(weight);
+        }
+    }
+
+    /**
+     * sort the relationships by source and target node, weights are kept aligned
+     */
+    void sort() {
+        final int size = relationships.size();
+        final long[] pairs = relationships.buffer;
+        if (weights == null) {
+            Arrays.sort(pairs, 0, size);
+            return;
+        }
+        final int[] order = IndirectSort.mergesort(0, size, (a, b) -> Long.compare(pairs[a], pairs[b]));
+        final long[] sortedPairs = new long[size];
+        final double[] sortedWeights = new double[size];
+        final double[] values = weights.buffer;
+        for (int i = 0; i < size; i++) {
+            sortedPairs[i] = pairs[order[i]];
+            sortedWeights[i] = values[order[i]];
+        }
+        System.arraycopy(sortedPairs, 0, pairs, 0, size);
+        System.arraycopy(sortedWeights, 0, values, 0, size);
+    }
+
+    /**
+     * position of the first relationship with a source node of at least
+     * {@code nodeId}, the buffer must be sorted
+     */
+    int indexOf(int nodeId) {
+        // the key is the pair right before (nodeId, 0) which can't be in the buffer,
+        // so duplicates of (nodeId, 0) are not a problem
+        final int index = Arrays.binarySearch(
+                relationships.buffer,
+                0,
+                relationships.size(),
+                RawValues.combineIntInt(nodeId, 0) - 1L);
+        return -index - 1;
+    }
+
+    /**
+     * add the number of relationships per source node between the
+     * positions {@code from} and {@code to} to the degrees, which start
+     * at node {@code start}
+     */
+    void countDegrees(int from, int to, int start, int[] degrees) {
+        final long[] pairs = relationships.buffer;
+        for (int i = from; i < to; i++) {
+            degrees[RawValues.getHead(pairs[i]) - start]++;
+        }
+    }
+
+    /**
+     * add the relationships between the positions {@code from} and
+     * {@code to} as outgoing relationships to the matrix
+     */
+    void writeTo(AdjacencyMatrix matrix, int from, int to) {
+        final long[] pairs = relationships.buffer;
+        for (int i = from; i < to; i++) {
+            matrix.addOutgoing(
+                    RawValues.getHead(pairs[i]),
+                    RawValues.getTail(pairs[i]),
+                    weights != null ? weights.get(i) : 0d);
+        }
+    }
+}
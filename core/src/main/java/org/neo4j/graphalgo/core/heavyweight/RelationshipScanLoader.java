@@ -0,0 +1,277 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.StatementConstants;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.store.id.IdGeneratorFactory;
+import org.neo4j.kernel.impl.store.id.IdType;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.RelationshipItem;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * Builds the adjacency of a heavy graph by scanning the relationship store
+ * in ascending id ranges instead of following the relationship chain of
+ * every node, which turns random page cache access into sequential reads.
+ * <p>
+ * The ranges are scanned twice and in parallel if an executor is given.
+ * The first pass counts the degree of every node, the rows of the matrix
+ * are then allocated with their exact size. The second pass scatters the
+ * relationships into the rows, every relationship claims its slot by
+ * atomically counting down the degree of its node. The order within a row
+ * therefore depends on the scheduling of the ranges.
+ * <p>
+ * Every range is read in its own transaction, thus the passes may see
+ * different relationships if the store is modified during the load.
+ * Relationships which are created after their nodes were counted find no
+ * free slot and are dropped, the slots of relationships which are deleted
+ * in between stay free and are trimmed from the rows after the second pass.
+ * <p>
+ * Relationships of several types are not split into layers, thus at most
+ * one relationship type can be selected.
+ */
+final class RelationshipScanLoader {
+
+    private static final int[] EMPTY_INTS = new int[0];
+    private static final double[] EMPTY_DOUBLES = new double[0];
+
+    private final GraphDatabaseAPI api;
+    private final ThreadToStatementContextBridge contextBridge;
+    private final IdMap idMap;
+    private final int relationType;
+    private final int relWeightId;
+    private final double relDefaultWeight;
+    private final boolean loadIncoming;
+    private final boolean loadOutgoing;
+    private final TerminationFlag terminationFlag;
+
+    /**
+     * @param relationType the relationship type or {@link ReadOperations#ANY_RELATIONSHIP_TYPE}
+     * @param relWeightId the weight property key or {@link StatementConstants#NO_SUCH_PROPERTY_KEY}
+     */
+    RelationshipScanLoader(
+            GraphDatabaseAPI api,
+            IdMap idMap,
+            int relationType,
+            int relWeightId,
+            double relDefaultWeight,
+            boolean loadIncoming,
+            boolean loadOutgoing,
+            TerminationFlag terminationFlag) {
+        this.api = api;
+        this.idMap = idMap;
+        this.relationType = relationType;
+        this.relWeightId = relWeightId;
+        this.relDefaultWeight = relDefaultWeight;
+        this.loadIncoming = loadIncoming;
+        this.loadOutgoing = loadOutgoing;
+        this.terminationFlag = terminationFlag;
+        this.contextBridge = api
+                .getDependencyResolver()
+                .resolveDependency(ThreadToStatementContextBridge.class);
+    }
+
+    /**
+     * return the exclusive upper bound of relationship ids in the store
+     */
+    static long highestRelationshipId(GraphDatabaseAPI api) {
+        return api.getDependencyResolver()
+                .resolveDependency(IdGeneratorFactory.class)
+                .get(IdType.RELATIONSHIP)
+                .getHighId();
+    }
+
+    /**
+     * scan the relationship store and build the matrix
+     *
+     * @param batchSize number of relationship ids per parallel range
+     * @param executor the executor, null means single threaded evaluation
+     */
+    AdjacencyMatrix load(int batchSize, ExecutorService executor) {
+        final int nodeCount = idMap.size();
+        final long highId = highestRelationshipId(api);
+        final List<RangeScan> scans = new ArrayList<>();
+        for (long start = 0L; start < highId; start += batchSize) {
+            scans.add(new RangeScan(start, Math.min(highId, start + batchSize)));
+        }
+
+        final AtomicIntegerArray outDegrees = loadOutgoing ? new AtomicIntegerArray(nodeCount) : null;
+        final AtomicIntegerArray inDegrees = loadIncoming ? new AtomicIntegerArray(nodeCount) : null;
+        run(scans, executor, scan -> scan.countDegrees(outDegrees, inDegrees));
+
+        final boolean withWeights = relWeightId != StatementConstants.NO_SUCH_PROPERTY_KEY;
+        final Rows out = loadOutgoing ? new Rows(outDegrees, withWeights) : null;
+        final Rows in = loadIncoming ? new Rows(inDegrees, withWeights) : null;
+        run(scans, executor, scan -> scan.scatter(outDegrees, out, inDegrees, in));
+        if (out != null) {
+            out.trim(outDegrees);
+        }
+        if (in != null) {
+            in.trim(inDegrees);
+        }
+
+        return new AdjacencyMatrix(
+                out != null ? out.degrees : null,
+                in != null ? in.degrees : null,
+                out != null ? out.targets : null,
+                in != null ? in.targets : null,
+                out != null ? out.weights : null,
+                in != null ? in.weights : null);
+    }
+
+    private void run(List<RangeScan> scans, ExecutorService executor, Consumer<RangeScan> pass) {
+        final List<Runnable> tasks = new ArrayList<>(scans.size());
+        for (RangeScan scan : scans) {
+            tasks.add(() -> {
+                terminationFlag.assertRunning();
+                try (Transaction tx = api.beginTx();
+                     Statement statement = contextBridge.get()) {
+                    scan.readOp = statement.readOperations();
+                    pass.accept(scan);
+                    tx.success();
+                } finally {
+                    scan.readOp = null;
+                }
+            });
+        }
+        ParallelUtil.run(tasks, executor);
+    }
+
+    /**
+     * the rows of one direction, armed with the degree counted in the first pass
+     */
+    static final class Rows {
+        final int[] degrees;
+        final int[][] targets;
+        final double[][] weights;
+
+        Rows(AtomicIntegerArray counts, boolean withWeights) {
+            final int nodeCount = counts.length();
+            degrees = new int[nodeCount];
+            targets = new int[nodeCount][];
+            weights = withWeights ? new double[nodeCount][] : null;
+            for (int node = 0; node < nodeCount; node++) {
+                final int degree = counts.get(node);
+                degrees[node] = degree;
+                targets[node] = degree > 0 ? new int[degree] : EMPTY_INTS;
+                if (weights != null) {
+                    weights[node] = degree > 0 ? new double[degree] : EMPTY_DOUBLES;
+                }
+            }
+        }
+
+        /**
+         * put the relationship into the next free slot of the row, counting down the remaining degree.
+         * Relationships which weren't counted in the first pass have no slot and are skipped.
+         */
+        void add(AtomicIntegerArray remaining, int node, int target, double weight) {
+            final int index = remaining.decrementAndGet(node);
+            if (index < 0) {
+                return;
+            }
+            targets[node][index] = target;
+            if (weights != null) {
+                weights[node][index] = weight;
+            }
+        }
+
+        /**
+         * drop the free slots of relationships which were counted but not scattered,
+         * the rows are filled from their end so the free slots are at the start
+         */
+        void trim(AtomicIntegerArray remaining) {
+            for (int node = 0; node < degrees.length; node++) {
+                final int free = remaining.get(node);
+                if (free <= 0) {
+                    continue;
+                }
+                final int degree = degrees[node] - free;
+                degrees[node] = degree;
+                targets[node] = degree > 0
+                        ? Arrays.copyOfRange(targets[node], free, free + degree)
+                        : EMPTY_INTS;
+                if (weights != null) {
+                    weights[node] = degree > 0
+                            ? Arrays.copyOfRange(weights[node], free, free + degree)
+                            : EMPTY_DOUBLES;
+                }
+            }
+        }
+    }
+
+    private final class RangeScan {
+        private final long start;
+        private final long end;
+        private ReadOperations readOp;
+
+        private RangeScan(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * pass 1: count the relationships of each node
+         */
+        void countDegrees(AtomicIntegerArray outDegrees, AtomicIntegerArray inDegrees) {
+            forEachRelationship((rel, source, target) -> {
+                if (outDegrees != null) {
+                    outDegrees.incrementAndGet(source);
+                }
+                if (inDegrees != null) {
+                    inDegrees.incrementAndGet(target);
+                }
+            });
+        }
+
+        /**
+         * pass 2: scatter the relationships into the armed rows
+         */
+        void scatter(AtomicIntegerArray outRemaining, Rows out, AtomicIntegerArray inRemaining, Rows in) {
+            forEachRelationship((rel, source, target) -> {
+                final double weight = HeavyGraphFactory.readWeight(rel, relWeightId, relDefaultWeight);
+                if (out != null) {
+                    out.add(outRemaining, source, target, weight);
+                }
+                if (in != null) {
+                    in.add(inRemaining, target, source, weight);
+                }
+            });
+        }
+
+        private void forEachRelationship(ScannedRelationshipConsumer consumer) {
+            for (long relId = start; relId < end; relId++) {
+                try (Cursor<RelationshipItem> cursor = readOp.relationshipCursor(relId)) {
+                    if (!cursor.next()) {
+                        continue;
+                    }
+                    final RelationshipItem rel = cursor.get();
+                    if (relationType != ReadOperations.ANY_RELATIONSHIP_TYPE && rel.type() != relationType) {
+                        continue;
+                    }
+                    final int source = idMap.get(rel.startNode());
+                    final int target = idMap.get(rel.endNode());
+                    if (source == -1 || target == -1) {
+                        continue;
+                    }
+                    consumer.accept(rel, source, target);
+                }
+            }
+        }
+    }
+
+    private interface ScannedRelationshipConsumer {
+        void accept(RelationshipItem rel, int source, int target);
+    }
+}
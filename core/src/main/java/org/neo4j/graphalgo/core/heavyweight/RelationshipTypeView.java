@@ -0,0 +1,100 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipWeights;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * The nodes of a {@link HeavyGraph} with the relationships of some of its
+ * relationship type layers, see {@link HeavyGraph#withRelationshipTypes(String...)}.
+ */
+final class RelationshipTypeView implements Graph, RelationshipWeights {
+
+    private final HeavyGraph graph;
+    private final AdjacencyMatrix matrix;
+    private final double defaultWeight;
+    private final int[] layers;
+
+    RelationshipTypeView(HeavyGraph graph, int[] layers) {
+        this.graph = graph;
+        this.matrix = graph.container();
+        this.defaultWeight = graph.relationshipDefaultWeight();
+        this.layers = layers;
+    }
+
+    @Override
+    public int nodeCount() {
+        return graph.nodeCount();
+    }
+
+    @Override
+    public void forEachNode(IntPredicate consumer) {
+        graph.forEachNode(consumer);
+    }
+
+    @Override
+    public PrimitiveIntIterator nodeIterator() {
+        return graph.nodeIterator();
+    }
+
+    @Override
+    public Collection<PrimitiveIntIterable> batchIterables(int batchSize) {
+        return graph.batchIterables(batchSize);
+    }
+
+    @Override
+    public int degree(int nodeId, Direction direction) {
+        int degree = 0;
+        for (int layer : layers) {
+            degree += matrix.degree(nodeId, direction, layer);
+        }
+        return degree;
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, RelationshipConsumer consumer) {
+        for (int layer : layers) {
+            matrix.forEach(nodeId, direction, layer, consumer);
+        }
+    }
+
+    @Override
+    public void forEachRelationship(int nodeId, Direction direction, WeightedRelationshipConsumer consumer) {
+        for (int layer : layers) {
+            matrix.forEach(nodeId, direction, layer, defaultWeight, consumer);
+        }
+    }
+
+    @Override
+    public int toMappedNodeId(long originalNodeId) {
+        return graph.toMappedNodeId(originalNodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(int mappedNodeId) {
+        return graph.toOriginalNodeId(mappedNodeId);
+    }
+
+    @Override
+    public boolean contains(long nodeId) {
+        return graph.contains(nodeId);
+    }
+
+    @Override
+    public double weightOf(int sourceNodeId, int targetNodeId) {
+        for (int layer : layers) {
+            final double weight = matrix.weightOf(sourceNodeId, targetNodeId, layer, Double.NaN);
+            if (!Double.isNaN(weight)) {
+                return weight;
+            }
+        }
+        return defaultWeight;
+    }
+}
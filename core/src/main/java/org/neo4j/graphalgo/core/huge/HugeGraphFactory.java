@@ -0,0 +1,198 @@
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.BatchImportGraphFactory;
+import org.neo4j.graphalgo.core.IdMapLoader;
+import org.neo4j.graphalgo.core.NodeIdScan;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.Direction;
+import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.RelationshipItem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a {@link HugeGraphImpl}. Nothing in here is bound to int, neither
+ * the number of nodes nor the number of relationships.
+ * <p>
+ * The node ids are read by a {@link NodeIdScan} and merged into a
+ * {@link HugeIdMap} at the offsets of their batches. The relationships are
+ * loaded in the three phases of the {@link BatchImportGraphFactory}:
+ * degrees, offsets and then the targets of every node.
+ */
+public final class HugeGraphFactory extends BatchImportGraphFactory {
+
+    public HugeGraphFactory(
+            GraphDatabaseAPI api,
+            GraphSetup setup) {
+        super(api, setup);
+    }
+
+    @Override
+    public MemoryEstimate estimateMemoryUsage() {
+        final long[] relationships = relationshipCounts(labelId, relationId);
+        long bytes = HugeIdMap.estimateMemoryUsage(nodeCount, IdMapLoader.highestNodeId(api));
+        if (setup.loadIncoming) {
+            bytes += HugeLongArray.estimateMemoryUsage(nodeCount + 1)
+                    + HugeLongArray.estimateMemoryUsage(relationships[0]);
+        }
+        if (setup.loadOutgoing) {
+            bytes += HugeLongArray.estimateMemoryUsage(nodeCount + 1)
+                    + HugeLongArray.estimateMemoryUsage(relationships[1]);
+        }
+        return new MemoryEstimate(nodeCount, relationships[0] + relationships[1], bytes);
+    }
+
+    @Override
+    protected HugeGraphImpl build(int batchSize) {
+        final HugeIdMap mapping = loadIdMap(batchSize);
+        final long nodeCount = mapping.hugeNodeCount();
+
+        // we allocate one more offset in order to avoid having to
+        // check for the last element during degree access
+        final HugeLongArray inOffsets = setup.loadIncoming ? HugeLongArray.newArray(nodeCount + 1) : null;
+        final HugeLongArray outOffsets = setup.loadOutgoing ? HugeLongArray.newArray(nodeCount + 1) : null;
+
+        final List<ImportTask> tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            tasks.add(new ImportTask(
+                    mapping,
+                    start,
+                    Math.min(nodeCount, start + batchSize),
+                    inOffsets,
+                    outOffsets));
+        }
+
+        final long[] totals = computeOffsets(tasks);
+        final long inTotal = totals[0];
+        final long outTotal = totals[1];
+
+        final HugeLongArray inAdjacency;
+        final HugeLongArray outAdjacency;
+        if (inOffsets != null) {
+            inOffsets.set(nodeCount, inTotal);
+            inAdjacency = HugeLongArray.newArray(inTotal);
+        } else {
+            inAdjacency = null;
+        }
+        if (outOffsets != null) {
+            outOffsets.set(nodeCount, outTotal);
+            outAdjacency = HugeLongArray.newArray(outTotal);
+        } else {
+            outAdjacency = null;
+        }
+
+        for (ImportTask task : tasks) {
+            task.inAdjacency = inAdjacency;
+            task.outAdjacency = outAdjacency;
+        }
+        readRelationships(tasks);
+
+        return new HugeGraphImpl(
+                mapping,
+                setup.relationDefaultWeight,
+                inOffsets,
+                outOffsets,
+                inAdjacency,
+                outAdjacency
+        );
+    }
+
+    private HugeIdMap loadIdMap(int batchSize) {
+        final NodeIdScan scan = NodeIdScan.scan(api, labelId, batchSize, threadPool);
+        final HugeLongArray graphIds = HugeLongArray.newArray(scan.nodeCount);
+        final HugeLongArray nodeToGraphIds = HugeLongArray.newArray(scan.highId);
+        scan.forEachBatch(threadPool, batch -> {
+            final long[] ids = batch.ids.buffer;
+            final int size = batch.ids.size();
+            for (int i = 0; i < size; i++) {
+                final long graphId = batch.offset() + i;
+                graphIds.set(graphId, ids[i]);
+                nodeToGraphIds.set(ids[i], graphId + 1);
+            }
+        });
+        return new HugeIdMap(graphIds, nodeToGraphIds, scan.nodeCount);
+    }
+
+    private static Offsets offsets(HugeLongArray offsets) {
+        return offsets == null ? null : new Offsets() {
+            @Override
+            public long get(long nodeId) {
+                return offsets.get(nodeId);
+            }
+
+            @Override
+            public void set(long nodeId, long offset) {
+                offsets.set(nodeId, offset);
+            }
+        };
+    }
+
+    private final class ImportTask extends Batch {
+        private final HugeIdMap mapping;
+        private HugeLongArray inAdjacency;
+        private HugeLongArray outAdjacency;
+
+        private ImportTask(
+                HugeIdMap mapping,
+                long startNode,
+                long endNode,
+                HugeLongArray inOffsets,
+                HugeLongArray outOffsets) {
+            super(startNode, endNode, offsets(inOffsets), offsets(outOffsets));
+            this.mapping = mapping;
+        }
+
+        @Override
+        protected long toOriginalNodeId(long nodeId) {
+            return mapping.toOriginalNodeId(nodeId);
+        }
+
+        @Override
+        protected boolean contains(long originalNodeId) {
+            return mapping.contains(originalNodeId);
+        }
+
+        /**
+         * phase 3: write the targets of the node into its region
+         */
+        @Override
+        protected long readRelationships(
+                long nodeId,
+                NodeItem node,
+                Direction direction,
+                long offset,
+                long degree) {
+            final HugeLongArray adjacency = direction == Direction.OUTGOING ? outAdjacency : inAdjacency;
+            long position = offset;
+            final long end = offset + degree;
+            try (Cursor<RelationshipItem> rels = relationships(node, direction)) {
+                while (position < end && rels.next()) {
+                    long targetNodeId = rels.get().otherNode(node.id());
+                    long targetGraphId = mapping.toHugeMappedNodeId(targetNodeId);
+                    if (targetGraphId == -1L) {
+                        continue;
+                    }
+                    adjacency.set(position++, targetGraphId);
+                }
+            }
+            return position - offset;
+        }
+
+        @Override
+        protected void moveRelationships(
+                Direction direction,
+                long from,
+                long to,
+                long length) {
+            final HugeLongArray adjacency = direction == Direction.OUTGOING ? outAdjacency : inAdjacency;
+            for (long i = 0L; i < length; i++) {
+                adjacency.set(to + i, adjacency.get(from + i));
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * Graph with long node ids. The targets of node {@code n} are stored at
+ * {@code [offsets[n], offsets[n + 1])} of a {@link HugeLongArray}.
+ * <p>
+ * The int based {@link org.neo4j.graphalgo.api.Graph} methods are only
+ * supported if the node count fits into an int. Relationship weights are
+ * not loaded, every relationship has the default weight.
+ */
+public class HugeGraphImpl implements HugeGraph {
+
+    private final HugeIdMap idMapping;
+    private final double defaultWeight;
+    private final HugeLongArray inOffsets;
+    private final HugeLongArray outOffsets;
+    private final HugeLongArray inAdjacency;
+    private final HugeLongArray outAdjacency;
+
+    HugeGraphImpl(
+            final HugeIdMap idMapping,
+            final double defaultWeight,
+            final HugeLongArray inOffsets,
+            final HugeLongArray outOffsets,
+            final HugeLongArray inAdjacency,
+            final HugeLongArray outAdjacency) {
+        this.idMapping = idMapping;
+        this.defaultWeight = defaultWeight;
+        this.inOffsets = inOffsets;
+        this.outOffsets = outOffsets;
+        this.inAdjacency = inAdjacency;
+        this.outAdjacency = outAdjacency;
+    }
+
+    @Override
+    public long hugeNodeCount() {
+        return idMapping.hugeNodeCount();
+    }
+
+    @Override
+    public int nodeCount() {
+        return Math.toIntExact(idMapping.hugeNodeCount());
+    }
+
+    @Override
+    public PrimitiveLongIterator hugeNodeIterator() {
+        return idMapping.hugeNodeIterator();
+    }
+
+    @Override
+    public PrimitiveIntIterator nodeIterator() {
+        return new IntIdIterator(0, nodeCount());
+    }
+
+    @Override
+    public Collection<PrimitiveLongIterable> hugeBatchIterables(final int batchSize) {
+        return idMapping.hugeBatchIterables(batchSize);
+    }
+
+    @Override
+    public Collection<PrimitiveIntIterable> batchIterables(final int batchSize) {
+        final int nodeCount = nodeCount();
+        final List<PrimitiveIntIterable> iterables = new ArrayList<>();
+        for (int start = 0; start < nodeCount; start += batchSize) {
+            final int from = start;
+            final int to = (int) Math.min(nodeCount, (long) start + batchSize);
+            iterables.add(() -> new IntIdIterator(from, to));
+        }
+        return iterables;
+    }
+
+    @Override
+    public void forEachNode(LongPredicate consumer) {
+        idMapping.forEachNode(consumer);
+    }
+
+    @Override
+    public void forEachNode(IntPredicate consumer) {
+        final int nodeCount = nodeCount();
+        for (int i = 0; i < nodeCount; i++) {
+            if (!consumer.test(i)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            long nodeId,
+            Direction direction,
+            HugeRelationshipConsumer consumer) {
+        switch (direction) {
+            case INCOMING:
+                forEach(nodeId, inOffsets, inAdjacency, consumer);
+                return;
+
+            case OUTGOING:
+                forEach(nodeId, outOffsets, outAdjacency, consumer);
+                return;
+
+            case BOTH:
+                forEach(nodeId, inOffsets, inAdjacency, consumer);
+                forEach(nodeId, outOffsets, outAdjacency, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            RelationshipConsumer consumer) {
+        switch (direction) {
+            case INCOMING:
+                forEachRelationship(nodeId, Direction.INCOMING, (long s, long t) -> {
+                    consumer.accept((int) s, (int) t, RawValues.combineIntInt((int) t, (int) s));
+                    return true;
+                });
+                return;
+
+            case OUTGOING:
+                forEachRelationship(nodeId, Direction.OUTGOING, (long s, long t) -> {
+                    consumer.accept((int) s, (int) t, RawValues.combineIntInt((int) s, (int) t));
+                    return true;
+                });
+                return;
+
+            case BOTH:
+                forEachRelationship(nodeId, Direction.INCOMING, consumer);
+                forEachRelationship(nodeId, Direction.OUTGOING, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            int nodeId,
+            Direction direction,
+            WeightedRelationshipConsumer consumer) {
+        forEachRelationship(nodeId, direction, (s, t, r) -> consumer.accept(s, t, r, defaultWeight));
+    }
+
+    @Override
+    public int degree(
+            final long node,
+            final Direction direction) {
+        switch (direction) {
+            case INCOMING:
+                return degree(node, inOffsets);
+
+            case OUTGOING:
+                return degree(node, outOffsets);
+
+            case BOTH:
+                return degree(node, inOffsets) + degree(node, outOffsets);
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public int degree(
+            final int node,
+            final Direction direction) {
+        return degree((long) node, direction);
+    }
+
+    @Override
+    public long toHugeMappedNodeId(long nodeId) {
+        return idMapping.toHugeMappedNodeId(nodeId);
+    }
+
+    @Override
+    public int toMappedNodeId(long nodeId) {
+        return (int) idMapping.toHugeMappedNodeId(nodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(long nodeId) {
+        return idMapping.toOriginalNodeId(nodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(int nodeId) {
+        return idMapping.toOriginalNodeId((long) nodeId);
+    }
+
+    @Override
+    public boolean contains(final long nodeId) {
+        return idMapping.contains(nodeId);
+    }
+
+    private static int degree(long node, HugeLongArray offsets) {
+        return (int) (offsets.get(node + 1) - offsets.get(node));
+    }
+
+    private static void forEach(
+            long node,
+            HugeLongArray offsets,
+            HugeLongArray adjacency,
+            HugeRelationshipConsumer consumer) {
+        final long end = offsets.get(node + 1);
+        for (long i = offsets.get(node); i < end; i++) {
+            if (!consumer.accept(node, adjacency.get(i))) {
+                return;
+            }
+        }
+    }
+
+    private static final class IntIdIterator implements PrimitiveIntIterator {
+
+        private int current;
+        private final int limit; // exclusive upper bound
+
+        private IntIdIterator(int start, int limit) {
+            this.current = start;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < limit;
+        }
+
+        @Override
+        public int next() {
+            return current++;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeBatchNodeIterable;
+import org.neo4j.graphalgo.api.HugeIdMapping;
+import org.neo4j.graphalgo.api.HugeNodeIterator;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * Long to long mapper for graphs with more than 2B nodes.
+ * <p>
+ * Instead of a hash map, the inverse mapping is a paged array that is
+ * indexed by the neo4j node id and stores the mapped id + 1, so that a
+ * new (zeroed) array maps every node to {@code -1}. This needs 8 bytes
+ * per possible node id of the store, but no rehashing and can be filled
+ * in parallel.
+ */
+public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBatchNodeIterable {
+
+    private final HugeLongArray graphIds;
+    private final HugeLongArray nodeToGraphIds;
+    private final long nodeCount;
+
+    /**
+     * estimated heap usage of a map for nodeCount nodes of a
+     * store whose node ids are below highestNodeId
+     */
+    public static long estimateMemoryUsage(long nodeCount, long highestNodeId) {
+        return HugeLongArray.estimateMemoryUsage(nodeCount)
+                + HugeLongArray.estimateMemoryUsage(highestNodeId);
+    }
+
+    /**
+     * @param graphIds       mapped id to neo4j node id
+     * @param nodeToGraphIds neo4j node id to mapped id + 1
+     * @param nodeCount      number of mapped nodes
+     */
+    HugeIdMap(
+            HugeLongArray graphIds,
+            HugeLongArray nodeToGraphIds,
+            long nodeCount) {
+        this.graphIds = graphIds;
+        this.nodeToGraphIds = nodeToGraphIds;
+        this.nodeCount = nodeCount;
+    }
+
+    @Override
+    public long toHugeMappedNodeId(long nodeId) {
+        if (nodeId < 0 || nodeId >= nodeToGraphIds.size()) {
+            return -1L;
+        }
+        return nodeToGraphIds.get(nodeId) - 1L;
+    }
+
+    @Override
+    public long toOriginalNodeId(long nodeId) {
+        return graphIds.get(nodeId);
+    }
+
+    @Override
+    public boolean contains(final long nodeId) {
+        return toHugeMappedNodeId(nodeId) != -1L;
+    }
+
+    @Override
+    public long hugeNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public void forEachNode(LongPredicate consumer) {
+        for (long i = 0L; i < nodeCount; i++) {
+            if (!consumer.test(i)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public PrimitiveLongIterator hugeNodeIterator() {
+        return new IdIterator(0L, nodeCount);
+    }
+
+    @Override
+    public Collection<PrimitiveLongIterable> hugeBatchIterables(int batchSize) {
+        final List<PrimitiveLongIterable> iterables = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            final long from = start;
+            final long to = Math.min(nodeCount, start + batchSize);
+            iterables.add(() -> new IdIterator(from, to));
+        }
+        return iterables;
+    }
+
+    private static final class IdIterator implements PrimitiveLongIterator {
+
+        private long current;
+        private final long limit; // exclusive upper bound
+
+        private IdIterator(long start, long limit) {
+            this.current = start;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current < limit;
+        }
+
+        @Override
+        public long next() {
+            return current++;
+        }
+    }
+}
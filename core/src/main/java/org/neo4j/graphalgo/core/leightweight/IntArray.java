@@ -1,6 +1,7 @@
 package org.neo4j.graphalgo.core.leightweight;
 
 import org.apache.lucene.util.ArrayUtil;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
 
 import java.util.Arrays;
 import java.util.Iterator;
@@ -33,6 +34,13 @@ public final class IntArray implements Iterable<IntArray.Cursor> {
         return new IntArray(size);
     }
 
+    /**
+     * estimated heap usage of an array with the given length
+     */
+    public static long estimateMemoryUsage(long size) {
+        return MemoryUsage.sizeOfPagedArray(size, PAGE_SIZE, Integer.BYTES);
+    }
+
     private IntArray(long size) {
         this.size = size;
         pages = new int[numPages(size)][];
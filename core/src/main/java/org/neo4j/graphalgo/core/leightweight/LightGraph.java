@@ -5,40 +5,49 @@ import org.neo4j.collection.primitive.PrimitiveIntIterator;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.api.RelationshipCursor;
-import org.neo4j.graphalgo.api.WeightMapping;
 import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
 import org.neo4j.graphalgo.api.WeightedRelationshipCursor;
 import org.neo4j.graphalgo.core.IdMap;
 import org.neo4j.graphalgo.core.utils.IdCombiner;
 import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Collection;
 import java.util.function.IntPredicate;
 
 /**
+ * Relationship weights are stored in {@link HugeDoubleArray}s aligned to the
+ * adjacency arrays, they are {@code null} if no weights have been loaded.
+ *
  * @author phorn@avantgarde-labs.de
  */
 public class LightGraph implements Graph {
 
     private final IdMap idMapping;
-    private final WeightMapping weightMapping;
     private final IntArray inAdjacency;
     private final IntArray outAdjacency;
+    private final HugeDoubleArray inWeights;
+    private final HugeDoubleArray outWeights;
+    private final double defaultWeight;
     private final long[] inOffsets;
     private final long[] outOffsets;
 
     LightGraph(
             final IdMap idMapping,
-            final WeightMapping weightMapping,
             final IntArray inAdjacency,
             final IntArray outAdjacency,
+            final HugeDoubleArray inWeights,
+            final HugeDoubleArray outWeights,
+            final double defaultWeight,
             final long[] inOffsets,
             final long[] outOffsets) {
         this.idMapping = idMapping;
-        this.weightMapping = weightMapping;
         this.inAdjacency = inAdjacency;
         this.outAdjacency = outAdjacency;
+        this.inWeights = inWeights;
+        this.outWeights = outWeights;
+        this.defaultWeight = defaultWeight;
         this.inOffsets = inOffsets;
         this.outOffsets = outOffsets;
     }
@@ -164,14 +173,14 @@ public class LightGraph implements Graph {
             final int node,
             final WeightedRelationshipConsumer consumer) {
         IntArray.Cursor cursor = cursor(node, inOffsets, inAdjacency);
-        consumeNodes(node, cursor, RawValues.INCOMING, consumer);
+        consumeNodes(node, cursor, inOffsets[node], inWeights, RawValues.INCOMING, consumer);
     }
 
     private void forEachOutgoing(
             final int node,
             final WeightedRelationshipConsumer consumer) {
         IntArray.Cursor cursor = cursor(node, outOffsets, outAdjacency);
-        consumeNodes(node, cursor, RawValues.OUTGOING, consumer);
+        consumeNodes(node, cursor, outOffsets[node], outWeights, RawValues.OUTGOING, consumer);
     }
 
      private IntArray.Cursor cursor(int node, long[] offsets, IntArray array) {
@@ -183,10 +192,12 @@ public class LightGraph implements Graph {
     private void consumeNodes(
             int startNode,
             IntArray.Cursor cursor,
+            long weightIndex,
+            HugeDoubleArray weights,
             IdCombiner relId,
             WeightedRelationshipConsumer consumer) {
         //noinspection UnnecessaryLocalVariable – prefer access of local var in loop
-        final WeightMapping weightMap = this.weightMapping;
+        final double defaultWeight = this.defaultWeight;
         while (cursor.next()) {
             final int[] array = cursor.array;
             int offset = cursor.offset;
@@ -198,7 +209,7 @@ public class LightGraph implements Graph {
                         startNode,
                         targetNode,
                         relationId,
-                        weightMap.get(relationId)
+                        weights != null ? weights.get(weightIndex++) : defaultWeight
                 );
             }
         }
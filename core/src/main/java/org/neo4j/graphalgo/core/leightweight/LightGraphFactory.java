@@ -1,174 +1,338 @@
 package org.neo4j.graphalgo.core.leightweight;
 
-import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import com.carrotsearch.hppc.sorting.IndirectComparator;
+import com.carrotsearch.hppc.sorting.IndirectSort;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphalgo.api.Graph;
-import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
-import org.neo4j.graphalgo.api.WeightMapping;
+import org.neo4j.graphalgo.core.BatchImportGraphFactory;
 import org.neo4j.graphalgo.core.IdMap;
-import org.neo4j.graphalgo.core.NullWeightMap;
-import org.neo4j.graphalgo.core.WeightMap;
-import org.neo4j.graphalgo.core.utils.RawValues;
-import org.neo4j.kernel.api.ReadOperations;
-import org.neo4j.kernel.api.StatementConstants;
+import org.neo4j.graphalgo.core.IdMapLoader;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.storageengine.api.Direction;
 import org.neo4j.storageengine.api.NodeItem;
-import org.neo4j.storageengine.api.PropertyItem;
 import org.neo4j.storageengine.api.RelationshipItem;
 
-public final class LightGraphFactory extends GraphFactory {
-
-    private IdMap mapping;
-    private long[] inOffsets;
-    private long[] outOffsets;
-    private IntArray inAdjacency;
-    private IntArray outAdjacency;
-    private IntArray.BulkAdder inAdder;
-    private IntArray.BulkAdder outAdder;
-    private WeightMapping weights;
-    private long inAdjacencyIdx;
-    private long outAdjacencyIdx;
-    protected int nodeCount;
-    private int labelId;
-    private int[] relationId;
-    private int weightId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Loads a {@link LightGraph} in the three phases of the
+ * {@link BatchImportGraphFactory}: degrees, offsets and then the targets
+ * of every node. Relationship weights are written into arrays aligned to
+ * the adjacency arrays during the last phase.
+ * <p>
+ * If both directions are loaded only the outgoing relationships are read
+ * from the store, the incoming arrays are built from them in memory by
+ * {@link #transpose}.
+ */
+public final class LightGraphFactory extends BatchImportGraphFactory {
 
     public LightGraphFactory(
             GraphDatabaseAPI api,
             GraphSetup setup) {
         super(api, setup);
-        withReadOps(readOp -> {
-            labelId = setup.loadAnyLabel()
-                    ? ReadOperations.ANY_LABEL
-                    : readOp.labelGetForName(setup.startLabel);
-            if (!setup.loadAnyRelationshipType()) {
-                int relId = readOp.relationshipTypeGetForName(setup.relationshipType);
-                if (relId != StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
-                    relationId = new int[]{relId};
-                }
-            }
-            weightId = setup.loadDefaultRelationshipWeight()
-                    ? StatementConstants.NO_SUCH_PROPERTY_KEY
-                    : readOp.propertyKeyGetForName(setup.relationWeightPropertyName);
-            nodeCount = Math.toIntExact(readOp.countsForNode(labelId));
-        });
     }
 
     @Override
-    public Graph build() {
-        boolean loadIncoming = setup.loadIncoming;
-        boolean loadOutgoing = setup.loadOutgoing;
+    public MemoryEstimate estimateMemoryUsage() {
+        final long[] relationships = relationshipCounts(labelId, relationId);
+        final boolean loadWeights = loadsWeights();
+        long bytes = IdMap.estimateMemoryUsage(nodeCount);
+        if (setup.loadIncoming) {
+            bytes += estimateMemoryUsage(relationships[0], loadWeights);
+        }
+        if (setup.loadOutgoing) {
+            bytes += estimateMemoryUsage(relationships[1], loadWeights);
+        }
+        return new MemoryEstimate(nodeCount, relationships[0] + relationships[1], bytes);
+    }
+
+    private long estimateMemoryUsage(long relationships, boolean loadWeights) {
+        return MemoryUsage.sizeOfLongArray(nodeCount + 1)
+                + IntArray.estimateMemoryUsage(relationships)
+                + (loadWeights ? HugeDoubleArray.estimateMemoryUsage(relationships) : 0L);
+    }
+
+    @Override
+    protected Graph build(int batchSize) {
+        final IdMap mapping = IdMapLoader.load(
+                api,
+                labelId,
+                batchSize,
+                threadPool);
+        final int nodeCount = mapping.size();
 
-        mapping = new IdMap(nodeCount);
         // we allocate one more offset in order to avoid having to
         // check for the last element during degree access
-        if (loadIncoming) {
-            inOffsets = new long[nodeCount + 1];
-            inAdjacency = IntArray.newArray(nodeCount);
-            inAdder = inAdjacency.bulkAdder();
-        }
-        if (loadOutgoing) {
-            outOffsets = new long[nodeCount + 1];
-            outOffsets[nodeCount] = nodeCount;
-            outAdjacency = IntArray.newArray(nodeCount);
-            outAdder = outAdjacency.bulkAdder();
-        }
-        weights = weightId == StatementConstants.NO_SUCH_PROPERTY_KEY
-                ? new NullWeightMap(setup.relationDefaultWeight)
-                : new WeightMap(nodeCount, setup.relationDefaultWeight);
-
-        inAdjacencyIdx = 0L;
-        outAdjacencyIdx = 0L;
-
-        withReadOps(readOp -> {
-            final PrimitiveLongIterator nodeIds = labelId == ReadOperations.ANY_LABEL
-                    ? readOp.nodesGetAll()
-                    : readOp.nodesGetForLabel(labelId);
-            while (nodeIds.hasNext()) {
-                final long nextId = nodeIds.next();
-                mapping.add(nextId);
-            }
-            mapping.buildMappedIds();
+        final long[] inOffsets = setup.loadIncoming ? new long[nodeCount + 1] : null;
+        final long[] outOffsets = setup.loadOutgoing ? new long[nodeCount + 1] : null;
+        final boolean loadWeights = loadsWeights();
+        final boolean transpose = inOffsets != null && outOffsets != null;
 
-            try (Cursor<NodeItem> cursor = labelId == ReadOperations.ANY_LABEL
-                    ? readOp.nodeCursorGetAll()
-                    : readOp.nodeCursorGetForLabel(labelId)) {
-                while (cursor.next()) {
-                    readNode(cursor.get(), loadIncoming, loadOutgoing);
-                }
-            }
-        });
+        final List<ImportTask> tasks = new ArrayList<>();
+        for (int start = 0; start < nodeCount; start += batchSize) {
+            tasks.add(new ImportTask(
+                    mapping,
+                    start,
+                    Math.min(nodeCount, start + batchSize),
+                    transpose ? null : inOffsets,
+                    outOffsets));
+        }
 
-        if (inOffsets != null) {
-            inOffsets[nodeCount] = inAdjacencyIdx;
+        final long[] totals = computeOffsets(tasks);
+        final long inTotal = totals[0];
+        final long outTotal = totals[1];
+
+        IntArray inAdjacency;
+        final IntArray outAdjacency;
+        HugeDoubleArray inWeights;
+        final HugeDoubleArray outWeights;
+        if (inOffsets != null && !transpose) {
+            inOffsets[nodeCount] = inTotal;
+            inAdjacency = IntArray.newArray(inTotal);
+            inWeights = loadWeights ? HugeDoubleArray.newArray(inTotal) : null;
+        } else {
+            inAdjacency = null;
+            inWeights = null;
         }
         if (outOffsets != null) {
-            outOffsets[nodeCount] = outAdjacencyIdx;
+            outOffsets[nodeCount] = outTotal;
+            outAdjacency = IntArray.newArray(outTotal);
+            outWeights = loadWeights ? HugeDoubleArray.newArray(outTotal) : null;
+        } else {
+            outAdjacency = null;
+            outWeights = null;
+        }
+
+        for (ImportTask task : tasks) {
+            task.in = inAdjacency != null ? new Adjacency(inAdjacency, inWeights) : null;
+            task.out = outAdjacency != null ? new Adjacency(outAdjacency, outWeights) : null;
+        }
+        final long outWritten = readRelationships(tasks)[1];
+
+        if (transpose) {
+            inAdjacency = IntArray.newArray(outWritten);
+            inWeights = loadWeights ? HugeDoubleArray.newArray(outWritten) : null;
+            transpose(
+                    nodeCount,
+                    outOffsets,
+                    outAdjacency,
+                    outWeights,
+                    inOffsets,
+                    inAdjacency,
+                    inWeights,
+                    threadPool,
+                    setup.concurrency());
         }
 
         return new LightGraph(
                 mapping,
-                weights,
                 inAdjacency,
                 outAdjacency,
+                inWeights,
+                outWeights,
+                setup.relationDefaultWeight,
                 inOffsets,
                 outOffsets
         );
     }
 
-    private void readNode(
-            NodeItem node,
-            boolean loadIncoming,
-            boolean loadOutgoing) {
-        long sourceNodeId = node.id();
-        int sourceGraphId = mapping.get(sourceNodeId);
-
-        if (loadOutgoing) {
-            outAdjacencyIdx = readRelationships(
-                    sourceGraphId,
-                    node,
-                    Direction.OUTGOING,
-                    outOffsets,
-                    outAdjacency,
-                    outAdder,
-                    outAdjacencyIdx
-            );
-        }
-        if (loadIncoming) {
-            inAdjacencyIdx = readRelationships(
-                    sourceGraphId,
-                    node,
-                    Direction.INCOMING,
-                    inOffsets,
-                    inAdjacency,
-                    inAdder,
-                    inAdjacencyIdx
-            );
+    /**
+     * Build the incoming arrays from the outgoing ones with a counting sort.
+     * The sources are split into one range per task. The ranges count their
+     * relationships per target into a shared array, the counts become the
+     * incoming offsets. The ranges then write their sources into the rows,
+     * taking the counts down to find the positions, and every row is sorted
+     * by source id afterwards. The counts take an int per node, independent
+     * of the concurrency, until the transpose is done.
+     *
+     * @param inOffsets     filled with the incoming offsets, must have a length of {@code nodeCount + 1}
+     * @param inAdjacency   the incoming targets, sized to the number of outgoing relationships
+     * @param inWeights     the incoming weights or null if no weights are loaded
+     */
+    static void transpose(
+            int nodeCount,
+            long[] outOffsets,
+            IntArray outAdjacency,
+            HugeDoubleArray outWeights,
+            long[] inOffsets,
+            IntArray inAdjacency,
+            HugeDoubleArray inWeights,
+            ExecutorService executor,
+            int concurrency) {
+        final int taskCount = ParallelUtil.canRunInParallel(executor)
+                ? Math.max(1, Math.min(concurrency, nodeCount))
+                : 1;
+        final int rangeSize = Math.max(1, (int) Math.ceil(nodeCount / (double) taskCount));
+        final int rangeCount = ParallelUtil.threadSize(rangeSize, nodeCount);
+        final AtomicIntegerArray counts = new AtomicIntegerArray(nodeCount);
+
+        final List<Runnable> tasks = new ArrayList<>(rangeCount);
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> {
+                for (long i = outOffsets[from]; i < outOffsets[to]; i++) {
+                    counts.incrementAndGet(outAdjacency.get(i));
+                }
+            });
+        }
+        ParallelUtil.run(tasks, executor);
+
+        long offset = 0L;
+        for (int target = 0; target < nodeCount; target++) {
+            inOffsets[target] = offset;
+            offset += counts.get(target);
         }
+        inOffsets[nodeCount] = offset;
+
+        tasks.clear();
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> {
+                for (int source = from; source < to; source++) {
+                    for (long i = outOffsets[source]; i < outOffsets[source + 1]; i++) {
+                        final int target = outAdjacency.get(i);
+                        final long index = inOffsets[target] + counts.decrementAndGet(target);
+                        inAdjacency.set(index, source);
+                        if (inWeights != null) {
+                            inWeights.set(index, outWeights.get(i));
+                        }
+                    }
+                }
+            });
+        }
+        ParallelUtil.run(tasks, executor);
+
+        tasks.clear();
+        for (int range = 0; range < rangeCount; range++) {
+            final int from = range * rangeSize;
+            final int to = Math.min(nodeCount, from + rangeSize);
+            tasks.add(() -> sortRows(from, to, inOffsets, inAdjacency, inWeights));
+        }
+        ParallelUtil.run(tasks, executor);
     }
 
-    private long readRelationships(
-            int sourceGraphId,
-            NodeItem node,
-            Direction direction,
+    /**
+     * sort the rows of the nodes by target id, the weights are kept aligned
+     */
+    private static void sortRows(
+            int from,
+            int to,
             long[] offsets,
             IntArray adjacency,
-            IntArray.BulkAdder bulkAdder,
-            long adjacencyIdx) {
-
-        offsets[sourceGraphId] = adjacencyIdx;
-        int degree = relationId == null
-                ? node.degree(direction)
-                : node.degree(direction, relationId[0]);
-
-        if (degree > 0) {
-            adjacency.bulkAdder(adjacencyIdx, degree, bulkAdder);
-            try (Cursor<RelationshipItem> rels = relationId == null
-                    ? node.relationships(direction)
-                    : node.relationships(direction, relationId)) {
-                while (rels.next()) {
+            HugeDoubleArray weights) {
+        int[] row = new int[0];
+        double[] rowWeights = new double[0];
+        for (int node = from; node < to; node++) {
+            final long start = offsets[node];
+            final int length = (int) (offsets[node + 1] - start);
+            if (length < 2) {
+                continue;
+            }
+            if (row.length < length) {
+                row = new int[length];
+                rowWeights = weights != null ? new double[length] : rowWeights;
+            }
+            for (int i = 0; i < length; i++) {
+                row[i] = adjacency.get(start + i);
+            }
+            if (weights == null) {
+                Arrays.sort(row, 0, length);
+                for (int i = 0; i < length; i++) {
+                    adjacency.set(start + i, row[i]);
+                }
+                continue;
+            }
+            for (int i = 0; i < length; i++) {
+                rowWeights[i] = weights.get(start + i);
+            }
+            final int[] order = IndirectSort.mergesort(0, length, new IndirectComparator.AscendingIntComparator(row));
+            for (int i = 0; i < length; i++) {
+                adjacency.set(start + i, row[order[i]]);
+                weights.set(start + i, rowWeights[order[i]]);
+            }
+        }
+    }
+
+    private static Offsets offsets(long[] offsets) {
+        return offsets == null ? null : new Offsets() {
+            @Override
+            public long get(long nodeId) {
+                return offsets[(int) nodeId];
+            }
+
+            @Override
+            public void set(long nodeId, long offset) {
+                offsets[(int) nodeId] = offset;
+            }
+        };
+    }
+
+    /**
+     * the arrays of one direction and the bulk adder of a task to fill them
+     */
+    private static final class Adjacency {
+        private final IntArray targets;
+        private final HugeDoubleArray weights;
+        private final IntArray.BulkAdder bulkAdder;
+
+        private Adjacency(IntArray targets, HugeDoubleArray weights) {
+            this.targets = targets;
+            this.weights = weights;
+            this.bulkAdder = targets.bulkAdder();
+        }
+    }
+
+    private final class ImportTask extends Batch {
+        private final IdMap mapping;
+        private Adjacency in;
+        private Adjacency out;
+
+        private ImportTask(
+                IdMap mapping,
+                int startNode,
+                int endNode,
+                long[] inOffsets,
+                long[] outOffsets) {
+            super(startNode, endNode, offsets(inOffsets), offsets(outOffsets));
+            this.mapping = mapping;
+        }
+
+        @Override
+        protected long toOriginalNodeId(long nodeId) {
+            return mapping.toOriginalNodeId((int) nodeId);
+        }
+
+        @Override
+        protected boolean contains(long originalNodeId) {
+            return mapping.contains(originalNodeId);
+        }
+
+        /**
+         * phase 3: write the targets of the node, and their weights, into its region
+         */
+        @Override
+        protected long readRelationships(
+                long nodeId,
+                NodeItem node,
+                Direction direction,
+                long offset,
+                long degree) {
+            final Adjacency adjacency = direction == Direction.OUTGOING ? out : in;
+            adjacency.targets.bulkAdder(offset, degree, adjacency.bulkAdder);
+            int added = 0;
+            try (Cursor<RelationshipItem> rels = relationships(node, direction)) {
+                while (added < degree && rels.next()) {
                     RelationshipItem rel = rels.get();
 
                     long targetNodeId = rel.otherNode(node.id());
@@ -177,20 +341,30 @@ public final class LightGraphFactory extends GraphFactory {
                         continue;
                     }
 
-                    try (Cursor<PropertyItem> weights = rel.property(weightId)) {
-                        if (weights.next()) {
-                            long relId = RawValues.combineIntInt(
-                                    sourceGraphId,
-                                    targetGraphId);
-                            this.weights.set(relId, weights.get().value());
-                        }
+                    if (adjacency.weights != null) {
+                        adjacency.weights.set(offset + added, weightOf(rel));
                     }
 
-                    bulkAdder.add(targetGraphId);
-                    adjacencyIdx++;
+                    adjacency.bulkAdder.add(targetGraphId);
+                    added++;
+                }
+            }
+            return added;
+        }
+
+        @Override
+        protected void moveRelationships(
+                Direction direction,
+                long from,
+                long to,
+                long length) {
+            final Adjacency adjacency = direction == Direction.OUTGOING ? out : in;
+            for (long i = 0L; i < length; i++) {
+                adjacency.targets.set(to + i, adjacency.targets.get(from + i));
+                if (adjacency.weights != null) {
+                    adjacency.weights.set(to + i, adjacency.weights.get(from + i));
                 }
             }
         }
-        return adjacencyIdx;
     }
 }
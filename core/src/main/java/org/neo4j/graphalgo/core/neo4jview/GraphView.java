@@ -6,7 +6,9 @@ import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.cursor.Cursor;
 import org.neo4j.graphalgo.api.*;
 import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.kernel.api.ReadOperations;
@@ -26,6 +28,10 @@ import java.util.function.*;
 /**
  * A Graph implemented as View on Neo4j Kernel API
  *
+ * Every call opens its own transaction and statement unless the calling
+ * thread has bound one with {@link #bind()}, which traversals of many
+ * short calls should do once per thread.
+ *
  * @author mknobloch
  */
 public class GraphView implements Graph {
@@ -34,13 +40,27 @@ public class GraphView implements Graph {
     private final GraphDatabaseAPI db;
 
     private final double propertyDefaultWeight;
-    private int relationTypeId;
+    private int[] relationTypeIds;
     private int nodeCount;
     private int propertyKey;
     private int labelId;
     private final IdMapping idMapping;
+    private final ThreadLocal<ReadContext> boundContext = new ThreadLocal<>();
 
     public GraphView(GraphDatabaseAPI db, String label, String relation, String propertyName, double propertyDefaultWeight) {
+        this(db, label, relation, propertyName, propertyDefaultWeight, TerminationFlag.RUNNING_TRUE);
+    }
+
+    /**
+     * @param terminationFlag checked while the ids of the labeled nodes are collected
+     */
+    public GraphView(
+            GraphDatabaseAPI db,
+            String label,
+            String relation,
+            String propertyName,
+            double propertyDefaultWeight,
+            TerminationFlag terminationFlag) {
         this.db = db;
         contextBridge = db.getDependencyResolver()
                 .resolveDependency(ThreadToStatementContextBridge.class);
@@ -49,19 +69,23 @@ public class GraphView implements Graph {
         withinTransaction(read -> {
             labelId = read.labelGetForName(label);
             nodeCount = Math.toIntExact(read.countsForNode(labelId));
-            relationTypeId = read.relationshipTypeGetForName(relation);
+            relationTypeIds = GraphFactory.relationshipTypeIds(read, relation);
             propertyKey = read.propertyKeyGetForName(propertyName);
         });
-        idMapping = createIdMapping();
+        idMapping = createIdMapping(terminationFlag);
     }
 
-    private IdMapping createIdMapping() {
+    private IdMapping createIdMapping(TerminationFlag terminationFlag) {
         if (labelId == StatementConstants.NO_SUCH_LABEL) return new DirectIdMapping(nodeCount);
         IdMap idMap = new IdMap(nodeCount);
         // TODO parallelize?
         withinTransaction(read -> {
             PrimitiveLongIterator it = read.nodesGetForLabel(labelId);
+            int count = 0;
             while (it.hasNext()) {
+                if (count++ % ParallelUtil.DEFAULT_BATCH_SIZE == 0) {
+                    terminationFlag.assertRunning();
+                }
                 idMap.add(it.next());
             }
         });
@@ -129,10 +153,10 @@ public class GraphView implements Graph {
     private Cursor<RelationshipItem> relationships(
             final org.neo4j.storageengine.api.Direction d,
             final NodeItem nodeItem) {
-        if (relationTypeId == StatementConstants.NO_SUCH_RELATIONSHIP_TYPE) {
+        if (relationTypeIds == null) {
             return nodeItem.relationships(d);
         }
-        return nodeItem.relationships(d, relationTypeId);
+        return nodeItem.relationships(d, relationTypeIds);
     }
 
     @Override
@@ -197,13 +221,39 @@ public class GraphView implements Graph {
     public int degree(int nodeId, Direction direction) {
         return withinTransactionInt(read -> {
             try {
-                return read.nodeGetDegree(toOriginalNodeId(nodeId), direction, relationTypeId);
+                final long node = toOriginalNodeId(nodeId);
+                if (relationTypeIds == null) {
+                    return read.nodeGetDegree(node, direction);
+                }
+                int degree = 0;
+                for (int typeId : relationTypeIds) {
+                    degree += read.nodeGetDegree(node, direction, typeId);
+                }
+                return degree;
             } catch (EntityNotFoundException e) {
                 throw new RuntimeException(e);
             }
         });
     }
 
+    /**
+     * open a transaction and statement which are used by all calls of the
+     * current thread until the returned context is closed. The kernel reuses
+     * the node and relationship cursors of a statement once they are closed.
+     * If the thread is bound already the existing context is used and closing
+     * the returned one has no effect.
+     */
+    @Override
+    public ReadContext bind() {
+        if (boundContext.get() != null) {
+            return new ReadContext(null, null);
+        }
+        final Transaction tx = db.beginTx();
+        final ReadContext context = new ReadContext(tx, contextBridge.get());
+        boundContext.set(context);
+        return context;
+    }
+
     @Override
     public int toMappedNodeId(long nodeId) {
         return idMapping.toMappedNodeId(nodeId);
@@ -220,6 +270,10 @@ public class GraphView implements Graph {
     }
 
     private int withinTransactionInt(ToIntFunction<ReadOperations> block) {
+        final ReadContext context = boundContext.get();
+        if (context != null) {
+            return block.applyAsInt(context.statement.readOperations());
+        }
         try (final Transaction tx = db.beginTx();
              Statement statement = contextBridge.get()) {
             final int result = block.applyAsInt(statement.readOperations());
@@ -229,6 +283,10 @@ public class GraphView implements Graph {
     }
 
     private <T> T withinTransactionTyped(Function<ReadOperations, T> block) {
+        final ReadContext context = boundContext.get();
+        if (context != null) {
+            return block.apply(context.statement.readOperations());
+        }
         try (final Transaction tx = db.beginTx();
              Statement statement = contextBridge.get()) {
             final T result = block.apply(statement.readOperations());
@@ -238,6 +296,11 @@ public class GraphView implements Graph {
     }
 
     private void withinTransaction(Consumer<ReadOperations> block) {
+        final ReadContext context = boundContext.get();
+        if (context != null) {
+            block.accept(context.statement.readOperations());
+            return;
+        }
         try (final Transaction tx = db.beginTx();
              Statement statement = contextBridge.get()) {
             block.accept(statement.readOperations());
@@ -258,6 +321,32 @@ public class GraphView implements Graph {
     }
 
 
+    /**
+     * A transaction and statement bound to a thread, see {@link #bind()}
+     */
+    public final class ReadContext implements ReadBinding.Context {
+
+        private final Transaction tx;
+        private final Statement statement;
+
+        private ReadContext(Transaction tx, Statement statement) {
+            this.tx = tx;
+            this.statement = statement;
+        }
+
+        @Override
+        public void close() {
+            if (tx == null) {
+                return;
+            }
+            boundContext.remove();
+            try (Transaction transaction = tx) {
+                statement.close();
+                transaction.success();
+            }
+        }
+    }
+
     private static class NodeIterator implements PrimitiveIntIterator {
 
         private final Graph graph;
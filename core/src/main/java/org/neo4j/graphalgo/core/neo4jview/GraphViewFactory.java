@@ -20,6 +20,7 @@ public final class GraphViewFactory extends GraphFactory {
                 setup.startLabel,
                 setup.relationshipType,
                 setup.relationWeightPropertyName,
-                setup.relationDefaultWeight);
+                setup.relationDefaultWeight,
+                setup.terminationFlag);
     }
 }
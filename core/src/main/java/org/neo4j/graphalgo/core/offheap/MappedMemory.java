@@ -0,0 +1,134 @@
+package org.neo4j.graphalgo.core.offheap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A long addressable region of memory outside of the java heap.
+ * <p>
+ * The region is backed by a temporary file which is memory mapped in
+ * pages of 1GB and deleted right after mapping. The operating system
+ * keeps the mapping alive until the buffers are garbage collected, so no
+ * file remains on disk and the size is limited by the available disk
+ * space and virtual memory rather than by the heap or
+ * {@code -XX:MaxDirectMemorySize}.
+ * <p>
+ * Existing files, e.g. a snapshot, can be mapped read only as well.
+ * <p>
+ * All accessors use absolute positions, concurrent writes to disjoint
+ * positions are therefore safe. Values are aligned to their size and
+ * never span two pages.
+ */
+public final class MappedMemory {
+
+    private static final int PAGE_SHIFT = 30;
+    private static final long PAGE_SIZE = 1L << PAGE_SHIFT;
+    private static final long PAGE_MASK = PAGE_SIZE - 1L;
+
+    private final ByteBuffer[] pages;
+    private final long size;
+
+    private MappedMemory(ByteBuffer[] pages, long size) {
+        this.pages = pages;
+        this.size = size;
+    }
+
+    /**
+     * map a new, zeroed region of at least {@code bytes} bytes
+     *
+     * @param directory the directory for the temporary backing file
+     * @param bytes     the size in bytes
+     */
+    static MappedMemory allocate(File directory, long bytes) {
+        final int pageCount = (int) ((bytes + PAGE_MASK) >>> PAGE_SHIFT);
+        final ByteBuffer[] pages = new ByteBuffer[pageCount];
+        if (pageCount == 0) {
+            return new MappedMemory(pages, 0L);
+        }
+        try {
+            final File file = File.createTempFile("graph-", ".mmap", directory);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                raf.setLength(bytes);
+                for (int i = 0; i < pageCount; i++) {
+                    final long position = (long) i << PAGE_SHIFT;
+                    pages[i] = channel
+                            .map(FileChannel.MapMode.READ_WRITE, position, Math.min(PAGE_SIZE, bytes - position))
+                            .order(ByteOrder.nativeOrder());
+                }
+            } finally {
+                file.delete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new MappedMemory(pages, bytes);
+    }
+
+    /**
+     * map {@code bytes} bytes of an existing file read only, starting at
+     * {@code position}. The mapping stays valid after the channel is closed.
+     *
+     * @param channel  the channel of the file
+     * @param position the position of the region in the file, aligned to 8 bytes
+     * @param bytes    the size of the region
+     * @param order    the byte order the values have been written with
+     */
+    public static MappedMemory map(FileChannel channel, long position, long bytes, ByteOrder order) {
+        final int pageCount = (int) ((bytes + PAGE_MASK) >>> PAGE_SHIFT);
+        final ByteBuffer[] pages = new ByteBuffer[pageCount];
+        try {
+            for (int i = 0; i < pageCount; i++) {
+                final long offset = (long) i << PAGE_SHIFT;
+                pages[i] = channel
+                        .map(FileChannel.MapMode.READ_ONLY, position + offset, Math.min(PAGE_SIZE, bytes - offset))
+                        .order(order);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new MappedMemory(pages, bytes);
+    }
+
+    /**
+     * size of the region in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    public int getInt(long index) {
+        final long offset = index << 2;
+        return pages[(int) (offset >>> PAGE_SHIFT)].getInt((int) (offset & PAGE_MASK));
+    }
+
+    void putInt(long index, int value) {
+        final long offset = index << 2;
+        pages[(int) (offset >>> PAGE_SHIFT)].putInt((int) (offset & PAGE_MASK), value);
+    }
+
+    public long getLong(long index) {
+        final long offset = index << 3;
+        return pages[(int) (offset >>> PAGE_SHIFT)].getLong((int) (offset & PAGE_MASK));
+    }
+
+    void putLong(long index, long value) {
+        final long offset = index << 3;
+        pages[(int) (offset >>> PAGE_SHIFT)].putLong((int) (offset & PAGE_MASK), value);
+    }
+
+    public double getDouble(long index) {
+        final long offset = index << 3;
+        return pages[(int) (offset >>> PAGE_SHIFT)].getDouble((int) (offset & PAGE_MASK));
+    }
+
+    void putDouble(long index, double value) {
+        final long offset = index << 3;
+        pages[(int) (offset >>> PAGE_SHIFT)].putDouble((int) (offset & PAGE_MASK), value);
+    }
+}
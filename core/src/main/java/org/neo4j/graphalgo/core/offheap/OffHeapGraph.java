@@ -0,0 +1,226 @@
+package org.neo4j.graphalgo.core.offheap;
+
+import org.neo4j.collection.primitive.PrimitiveIntIterable;
+import org.neo4j.collection.primitive.PrimitiveIntIterator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.api.WeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.utils.IdCombiner;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Collection;
+import java.util.function.IntPredicate;
+
+/**
+ * Graph which keeps offsets, adjacency and weights in {@link MappedMemory}.
+ * <p>
+ * The layout equals the one of the
+ * {@link org.neo4j.graphalgo.core.leightweight.LightGraph}: the targets of
+ * node {@code n} are stored at {@code [offsets[n], offsets[n + 1])}.
+ * Weights, if loaded, are stored at the same position as their target.
+ * Only the id mapping remains on the heap.
+ * <p>
+ * The memory is either allocated by the {@link OffHeapGraphFactory} or
+ * mapped from a file like a {@link org.neo4j.graphalgo.core.snapshot.GraphSnapshot}.
+ * <p>
+ * An undirected graph holds a single list of neighbours per node which is
+ * used for every direction.
+ */
+public class OffHeapGraph implements Graph {
+
+    private final IdMap idMapping;
+    private final double defaultWeight;
+    private final Adjacency in;
+    private final Adjacency out;
+    private final boolean undirected;
+
+    public OffHeapGraph(
+            final IdMap idMapping,
+            final double defaultWeight,
+            final Adjacency in,
+            final Adjacency out) {
+        this(idMapping, defaultWeight, in, out, false);
+    }
+
+    /**
+     * an undirected graph of the given neighbours
+     */
+    public OffHeapGraph(
+            final IdMap idMapping,
+            final double defaultWeight,
+            final Adjacency neighbours) {
+        this(idMapping, defaultWeight, neighbours, neighbours, true);
+    }
+
+    private OffHeapGraph(
+            final IdMap idMapping,
+            final double defaultWeight,
+            final Adjacency in,
+            final Adjacency out,
+            final boolean undirected) {
+        this.idMapping = idMapping;
+        this.defaultWeight = defaultWeight;
+        this.in = in;
+        this.out = out;
+        this.undirected = undirected;
+    }
+
+    /**
+     * whether every direction yields the same list of neighbours
+     */
+    public boolean isUndirected() {
+        return undirected;
+    }
+
+    @Override
+    public int nodeCount() {
+        return idMapping.size();
+    }
+
+    @Override
+    public PrimitiveIntIterator nodeIterator() {
+        return idMapping.iterator();
+    }
+
+    @Override
+    public Collection<PrimitiveIntIterable> batchIterables(final int batchSize) {
+        return idMapping.batchIterables(batchSize);
+    }
+
+    @Override
+    public void forEachNode(IntPredicate consumer) {
+        idMapping.forEach(consumer);
+    }
+
+    @Override
+    public void forEachRelationship(
+            int vertexId,
+            Direction direction,
+            RelationshipConsumer consumer) {
+        switch (undirected ? Direction.OUTGOING : direction) {
+            case INCOMING:
+                in.forEach(vertexId, RawValues.INCOMING, consumer);
+                return;
+
+            case OUTGOING:
+                out.forEach(vertexId, RawValues.OUTGOING, consumer);
+                return;
+
+            case BOTH:
+                in.forEach(vertexId, RawValues.INCOMING, consumer);
+                out.forEach(vertexId, RawValues.OUTGOING, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public void forEachRelationship(
+            int vertexId,
+            Direction direction,
+            WeightedRelationshipConsumer consumer) {
+        switch (undirected ? Direction.OUTGOING : direction) {
+            case INCOMING:
+                in.forEach(vertexId, RawValues.INCOMING, defaultWeight, consumer);
+                return;
+
+            case OUTGOING:
+                out.forEach(vertexId, RawValues.OUTGOING, defaultWeight, consumer);
+                return;
+
+            case BOTH:
+                in.forEach(vertexId, RawValues.INCOMING, defaultWeight, consumer);
+                out.forEach(vertexId, RawValues.OUTGOING, defaultWeight, consumer);
+                return;
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public int degree(
+            final int node,
+            final Direction direction) {
+        switch (undirected ? Direction.OUTGOING : direction) {
+            case INCOMING:
+                return in.degree(node);
+
+            case OUTGOING:
+                return out.degree(node);
+
+            case BOTH:
+                return in.degree(node) + out.degree(node);
+
+            default:
+                throw new IllegalArgumentException(direction + "");
+        }
+    }
+
+    @Override
+    public int toMappedNodeId(long nodeId) {
+        return idMapping.get(nodeId);
+    }
+
+    @Override
+    public long toOriginalNodeId(int vertexId) {
+        return idMapping.toOriginalNodeId(vertexId);
+    }
+
+    @Override
+    public boolean contains(final long nodeId) {
+        return idMapping.contains(nodeId);
+    }
+
+    /**
+     * offsets, targets and optional weights of one direction
+     */
+    public static final class Adjacency {
+        final MappedMemory offsets;
+        final MappedMemory targets;
+        final MappedMemory weights;
+
+        /**
+         * @param offsets nodeCount + 1 longs, the targets of node n are at [offsets[n], offsets[n + 1])
+         * @param targets ints aligned to the offsets
+         * @param weights doubles aligned to the targets or null
+         */
+        public Adjacency(MappedMemory offsets, MappedMemory targets, MappedMemory weights) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+        }
+
+        int degree(int node) {
+            return (int) (offsets.getLong(node + 1) - offsets.getLong(node));
+        }
+
+        void forEach(int node, IdCombiner relId, RelationshipConsumer consumer) {
+            final long end = offsets.getLong(node + 1);
+            for (long i = offsets.getLong(node); i < end; i++) {
+                final int target = targets.getInt(i);
+                consumer.accept(node, target, relId.apply(node, target));
+            }
+        }
+
+        void forEach(
+                int node,
+                IdCombiner relId,
+                double defaultWeight,
+                WeightedRelationshipConsumer consumer) {
+            final long end = offsets.getLong(node + 1);
+            for (long i = offsets.getLong(node); i < end; i++) {
+                final int target = targets.getInt(i);
+                consumer.accept(
+                        node,
+                        target,
+                        relId.apply(node, target),
+                        weights != null ? weights.getDouble(i) : defaultWeight);
+            }
+        }
+    }
+}
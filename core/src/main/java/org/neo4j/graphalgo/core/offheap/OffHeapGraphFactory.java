@@ -0,0 +1,212 @@
+package org.neo4j.graphalgo.core.offheap;
+
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.BatchImportGraphFactory;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.IdMapLoader;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.Direction;
+import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.RelationshipItem;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads an {@link OffHeapGraph} in the same three phases as the
+ * {@link org.neo4j.graphalgo.core.leightweight.LightGraphFactory}, but
+ * writes degrees, offsets, targets and weights into {@link MappedMemory}.
+ * <p>
+ * The backing files are created in the store directory of the database
+ * if it exists on disk, otherwise in the temp directory of the JVM.
+ */
+public final class OffHeapGraphFactory extends BatchImportGraphFactory {
+
+    public OffHeapGraphFactory(
+            GraphDatabaseAPI api,
+            GraphSetup setup) {
+        super(api, setup);
+    }
+
+    /**
+     * Only the id mapping is kept on the heap, offsets, targets and
+     * weights are memory mapped and don't count.
+     */
+    @Override
+    public MemoryEstimate estimateMemoryUsage() {
+        final long[] relationships = relationshipCounts(labelId, relationId);
+        return new MemoryEstimate(
+                nodeCount,
+                relationships[0] + relationships[1],
+                IdMap.estimateMemoryUsage(nodeCount));
+    }
+
+    @Override
+    protected Graph build(int batchSize) {
+        final IdMap mapping = IdMapLoader.load(
+                api,
+                labelId,
+                batchSize,
+                threadPool);
+        final int nodeCount = mapping.size();
+        final File directory = directory();
+        final boolean loadWeights = loadsWeights();
+
+        // we allocate one more offset in order to avoid having to
+        // check for the last element during degree access
+        final MappedMemory inOffsets = setup.loadIncoming
+                ? MappedMemory.allocate(directory, (nodeCount + 1L) << 3)
+                : null;
+        final MappedMemory outOffsets = setup.loadOutgoing
+                ? MappedMemory.allocate(directory, (nodeCount + 1L) << 3)
+                : null;
+
+        final List<ImportTask> tasks = new ArrayList<>();
+        for (int start = 0; start < nodeCount; start += batchSize) {
+            tasks.add(new ImportTask(
+                    mapping,
+                    start,
+                    Math.min(nodeCount, start + batchSize),
+                    inOffsets,
+                    outOffsets));
+        }
+
+        final long[] totals = computeOffsets(tasks);
+        final long inTotal = totals[0];
+        final long outTotal = totals[1];
+
+        final OffHeapGraph.Adjacency in;
+        final OffHeapGraph.Adjacency out;
+        if (inOffsets != null) {
+            inOffsets.putLong(nodeCount, inTotal);
+            in = new OffHeapGraph.Adjacency(
+                    inOffsets,
+                    MappedMemory.allocate(directory, inTotal << 2),
+                    loadWeights ? MappedMemory.allocate(directory, inTotal << 3) : null);
+        } else {
+            in = null;
+        }
+        if (outOffsets != null) {
+            outOffsets.putLong(nodeCount, outTotal);
+            out = new OffHeapGraph.Adjacency(
+                    outOffsets,
+                    MappedMemory.allocate(directory, outTotal << 2),
+                    loadWeights ? MappedMemory.allocate(directory, outTotal << 3) : null);
+        } else {
+            out = null;
+        }
+
+        for (ImportTask task : tasks) {
+            task.in = in;
+            task.out = out;
+        }
+        readRelationships(tasks);
+
+        return new OffHeapGraph(
+                mapping,
+                setup.relationDefaultWeight,
+                in,
+                out
+        );
+    }
+
+    private File directory() {
+        final File storeDir = new File(api.getStoreDir());
+        if (storeDir.isDirectory() && storeDir.canWrite()) {
+            return storeDir;
+        }
+        return new File(System.getProperty("java.io.tmpdir"));
+    }
+
+    private static Offsets offsets(MappedMemory offsets) {
+        return offsets == null ? null : new Offsets() {
+            @Override
+            public long get(long nodeId) {
+                return offsets.getLong(nodeId);
+            }
+
+            @Override
+            public void set(long nodeId, long offset) {
+                offsets.putLong(nodeId, offset);
+            }
+        };
+    }
+
+    private final class ImportTask extends Batch {
+        private final IdMap mapping;
+        private OffHeapGraph.Adjacency in;
+        private OffHeapGraph.Adjacency out;
+
+        private ImportTask(
+                IdMap mapping,
+                int startNode,
+                int endNode,
+                MappedMemory inOffsets,
+                MappedMemory outOffsets) {
+            super(startNode, endNode, offsets(inOffsets), offsets(outOffsets));
+            this.mapping = mapping;
+        }
+
+        @Override
+        protected long toOriginalNodeId(long nodeId) {
+            return mapping.toOriginalNodeId((int) nodeId);
+        }
+
+        @Override
+        protected boolean contains(long originalNodeId) {
+            return mapping.contains(originalNodeId);
+        }
+
+        /**
+         * phase 3: write targets and weights of the node into its region
+         */
+        @Override
+        protected long readRelationships(
+                long nodeId,
+                NodeItem node,
+                Direction direction,
+                long offset,
+                long degree) {
+            final OffHeapGraph.Adjacency adjacency = direction == Direction.OUTGOING ? out : in;
+            long position = offset;
+            final long end = offset + degree;
+            try (Cursor<RelationshipItem> rels = relationships(node, direction)) {
+                while (position < end && rels.next()) {
+                    RelationshipItem rel = rels.get();
+
+                    long targetNodeId = rel.otherNode(node.id());
+                    int targetGraphId = mapping.get(targetNodeId);
+                    if (targetGraphId == -1) {
+                        continue;
+                    }
+
+                    if (adjacency.weights != null) {
+                        adjacency.weights.putDouble(position, weightOf(rel));
+                    }
+
+                    adjacency.targets.putInt(position++, targetGraphId);
+                }
+            }
+            return position - offset;
+        }
+
+        @Override
+        protected void moveRelationships(
+                Direction direction,
+                long from,
+                long to,
+                long length) {
+            final OffHeapGraph.Adjacency adjacency = direction == Direction.OUTGOING ? out : in;
+            for (long i = 0L; i < length; i++) {
+                adjacency.targets.putInt(to + i, adjacency.targets.getInt(from + i));
+                if (adjacency.weights != null) {
+                    adjacency.weights.putDouble(to + i, adjacency.weights.getDouble(from + i));
+                }
+            }
+        }
+    }
+}
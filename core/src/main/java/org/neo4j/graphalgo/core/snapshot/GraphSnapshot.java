@@ -0,0 +1,467 @@
+package org.neo4j.graphalgo.core.snapshot;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.IdMap;
+import org.neo4j.graphalgo.core.offheap.MappedMemory;
+import org.neo4j.graphalgo.core.offheap.OffHeapGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphdb.Direction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
+
+/**
+ * Binary snapshot of a loaded {@link Graph}, which can be mapped back into
+ * memory without scanning the store again.
+ * <p>
+ * The file starts with a header in big endian order:
+ * <pre>
+ * int    magic 'NGAS'
+ * int    format version
+ * byte   byte order of the sections (0 = big endian, 1 = little endian)
+ * byte   flags (1 = incoming, 2 = outgoing, 4 = weights, 8 = undirected)
+ * short  unused
+ * double default weight
+ * long   node count
+ * int    section count
+ * n *    (int kind, long position, long bytes, long crc32)
+ * long   crc32 of the header
+ * </pre>
+ * followed by the sections, each aligned to 8 bytes: the original node ids
+ * and for every direction the offsets, targets and optional weights in the
+ * layout of the {@link org.neo4j.graphalgo.core.leightweight.LightGraph}.
+ * An undirected graph is written with the outgoing sections only, which hold
+ * the single list of neighbours of every node.
+ * <p>
+ * The sections are written in parallel through the public graph API, so
+ * any int based graph can be saved. Reading maps the sections into an
+ * {@link OffHeapGraph}, only the id mapping is copied to the heap.
+ */
+public final class GraphSnapshot {
+
+    public static final int MAGIC = 0x4E474153;
+    public static final int VERSION = 1;
+
+    private static final int FLAG_INCOMING = 1;
+    private static final int FLAG_OUTGOING = 2;
+    private static final int FLAG_WEIGHTS = 4;
+    private static final int FLAG_UNDIRECTED = 8;
+
+    private static final int SECTION_ID_MAP = 1;
+    private static final int SECTION_IN_OFFSETS = 2;
+    private static final int SECTION_IN_TARGETS = 3;
+    private static final int SECTION_IN_WEIGHTS = 4;
+    private static final int SECTION_OUT_OFFSETS = 5;
+    private static final int SECTION_OUT_TARGETS = 6;
+    private static final int SECTION_OUT_WEIGHTS = 7;
+
+    private static final int HEADER_BYTES = 32;
+    private static final int SECTION_BYTES = 28;
+    private static final int CHECKSUM_BYTES = 8;
+    private static final long VERIFY_WINDOW_SIZE = 1L << 30;
+
+    private GraphSnapshot() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    /**
+     * resolve a snapshot file name against the snapshot directory, which is
+     * created if it doesn't exist
+     *
+     * @throws IllegalArgumentException if the file is not inside the directory,
+     *                                  e.g. an absolute path or one with {@code ..}
+     */
+    public static Path resolve(Path directory, String file) {
+        try {
+            Files.createDirectories(directory);
+            final Path root = directory.toRealPath();
+            final Path path = root.resolve(file).normalize();
+            if (!path.startsWith(root) || path.equals(root)
+                    || (Files.exists(path) && !path.toRealPath().startsWith(root))) {
+                throw new IllegalArgumentException(String.format(
+                        "Snapshot file '%s' is not inside the snapshot directory %s",
+                        file,
+                        root));
+            }
+            return path;
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid snapshot file '" + file + "'", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * write the relationships of a directed graph into a new snapshot file,
+     * see {@link #write(Graph, Direction, boolean, boolean, double, Path, ExecutorService)}
+     */
+    public static long write(
+            Graph graph,
+            Direction direction,
+            boolean weighted,
+            double defaultWeight,
+            Path file,
+            ExecutorService executor) {
+        return write(graph, direction, false, weighted, defaultWeight, file, executor);
+    }
+
+    /**
+     * write the relationships of the given direction into a new snapshot file,
+     * replacing an existing snapshot or empty file
+     *
+     * @param graph         the graph
+     * @param direction     the loaded direction(s) of the graph
+     * @param undirected    whether the graph holds a single list of neighbours for every direction
+     * @param weighted      whether relationship weights are written
+     * @param defaultWeight weight of relationships without one
+     * @param file          the target file
+     * @param executor      executor for the parallel section writes or null
+     * @return the size of the file in bytes
+     * @throws IllegalArgumentException if the file exists and is no snapshot
+     */
+    public static long write(
+            Graph graph,
+            Direction direction,
+            boolean undirected,
+            boolean weighted,
+            double defaultWeight,
+            Path file,
+            ExecutorService executor) {
+        if (graph instanceof HugeGraph) {
+            throw new IllegalArgumentException("Snapshots of huge graphs are not supported");
+        }
+        final boolean incoming = !undirected && (direction == Direction.INCOMING || direction == Direction.BOTH);
+        final boolean outgoing = undirected || direction == Direction.OUTGOING || direction == Direction.BOTH;
+        final int nodeCount = graph.nodeCount();
+        final ByteOrder order = ByteOrder.nativeOrder();
+
+        final List<Section> sections = new ArrayList<>();
+        sections.add(new Section(SECTION_ID_MAP, (long) nodeCount * Long.BYTES, out -> {
+            for (int node = 0; node < nodeCount; node++) {
+                out.putLong(graph.toOriginalNodeId(node));
+            }
+        }));
+        if (incoming) {
+            addAdjacency(sections, graph, Direction.INCOMING, weighted,
+                    SECTION_IN_OFFSETS, SECTION_IN_TARGETS, SECTION_IN_WEIGHTS);
+        }
+        if (outgoing) {
+            addAdjacency(sections, graph, Direction.OUTGOING, weighted,
+                    SECTION_OUT_OFFSETS, SECTION_OUT_TARGETS, SECTION_OUT_WEIGHTS);
+        }
+
+        long position = align(HEADER_BYTES + sections.size() * SECTION_BYTES + CHECKSUM_BYTES);
+        for (Section section : sections) {
+            section.position = position;
+            position = align(position + section.bytes);
+        }
+
+        checkOverwrite(file);
+        try (FileChannel channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            final List<Runnable> tasks = new ArrayList<>();
+            for (Section section : sections) {
+                tasks.add(() -> {
+                    final SectionOutput out = new SectionOutput(channel, section.position, section.bytes, order);
+                    section.writer.write(out);
+                    section.checksum = out.close();
+                });
+            }
+            ParallelUtil.run(tasks, executor);
+
+            final int flags = (incoming ? FLAG_INCOMING : 0)
+                    | (outgoing ? FLAG_OUTGOING : 0)
+                    | (weighted ? FLAG_WEIGHTS : 0)
+                    | (undirected ? FLAG_UNDIRECTED : 0);
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES + sections.size() * SECTION_BYTES + CHECKSUM_BYTES)
+                    .order(ByteOrder.BIG_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .put((byte) (order == ByteOrder.LITTLE_ENDIAN ? 1 : 0))
+                    .put((byte) flags)
+                    .putShort((short) 0)
+                    .putDouble(defaultWeight)
+                    .putLong(nodeCount)
+                    .putInt(sections.size());
+            for (Section section : sections) {
+                header.putInt(section.kind)
+                        .putLong(section.position)
+                        .putLong(section.bytes)
+                        .putLong(section.checksum);
+            }
+            header.putLong(checksum(header.array(), header.position()));
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void checkOverwrite(Path file) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() == 0L) {
+                return;
+            }
+            if (channel.size() < Integer.BYTES || readFully(channel, 0L, Integer.BYTES).getInt() != MAGIC) {
+                throw new IllegalArgumentException("Refusing to overwrite a file which is not a graph snapshot: " + file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * map a snapshot file into an {@link OffHeapGraph}
+     *
+     * @param file   the snapshot file
+     * @param verify whether the checksums of the sections are verified,
+     *               which reads the whole file once
+     * @throws IllegalArgumentException if the file is no valid snapshot
+     */
+    public static Snapshot read(Path file, boolean verify) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer head = readFully(channel, 0L, HEADER_BYTES);
+            if (head.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a graph snapshot: " + file);
+            }
+            final int version = head.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(String.format(
+                        "Unsupported snapshot version %d, expected %d",
+                        version,
+                        VERSION));
+            }
+            final ByteOrder order = head.get() == 1 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            final int flags = head.get();
+            head.getShort();
+            final double defaultWeight = head.getDouble();
+            final int nodeCount = Math.toIntExact(head.getLong());
+            final int sectionCount = head.getInt();
+
+            final ByteBuffer header = readFully(
+                    channel,
+                    0L,
+                    HEADER_BYTES + sectionCount * SECTION_BYTES + CHECKSUM_BYTES);
+            header.position(HEADER_BYTES);
+            final Section[] sections = new Section[SECTION_OUT_WEIGHTS + 1];
+            for (int i = 0; i < sectionCount; i++) {
+                final int kind = header.getInt();
+                final long position = header.getLong();
+                final Section section = new Section(kind, header.getLong(), null);
+                section.position = position;
+                section.checksum = header.getLong();
+                if (section.kind > 0 && section.kind < sections.length) {
+                    sections[section.kind] = section;
+                }
+            }
+            if (header.getLong() != checksum(header.array(), header.position() - CHECKSUM_BYTES)) {
+                throw new IllegalArgumentException("Corrupt snapshot header: " + file);
+            }
+            if (sections[SECTION_ID_MAP] == null) {
+                throw new IllegalArgumentException("Corrupt snapshot, the id map is missing: " + file);
+            }
+            if (verify) {
+                for (Section section : sections) {
+                    if (section != null) {
+                        verify(channel, section, file);
+                    }
+                }
+            }
+
+            final MappedMemory ids = map(channel, sections[SECTION_ID_MAP], order);
+            final long[] graphIds = new long[nodeCount];
+            final LongIntHashMap nodeToGraphIds = new LongIntHashMap((int) Math.ceil(nodeCount / 0.99), 0.99);
+            for (int node = 0; node < nodeCount; node++) {
+                graphIds[node] = ids.getLong(node);
+                nodeToGraphIds.put(graphIds[node], node);
+            }
+
+            final boolean undirected = (flags & FLAG_UNDIRECTED) != 0;
+            final Direction direction = undirected || (flags & FLAG_INCOMING) != 0
+                    ? undirected || (flags & FLAG_OUTGOING) != 0 ? Direction.BOTH : Direction.INCOMING
+                    : Direction.OUTGOING;
+            final IdMap idMap = new IdMap(graphIds, nodeToGraphIds);
+            final OffHeapGraph.Adjacency out =
+                    adjacency(channel, sections, SECTION_OUT_OFFSETS, SECTION_OUT_TARGETS, SECTION_OUT_WEIGHTS, order);
+            final OffHeapGraph graph = undirected
+                    ? new OffHeapGraph(idMap, defaultWeight, out)
+                    : new OffHeapGraph(
+                            idMap,
+                            defaultWeight,
+                            adjacency(channel, sections, SECTION_IN_OFFSETS, SECTION_IN_TARGETS, SECTION_IN_WEIGHTS, order),
+                            out);
+            return new Snapshot(graph, direction, undirected, (flags & FLAG_WEIGHTS) != 0, defaultWeight, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void addAdjacency(
+            List<Section> sections,
+            Graph graph,
+            Direction direction,
+            boolean weighted,
+            int offsetsKind,
+            int targetsKind,
+            int weightsKind) {
+        final int nodeCount = graph.nodeCount();
+        long relationships = 0L;
+        for (int node = 0; node < nodeCount; node++) {
+            relationships += graph.degree(node, direction);
+        }
+        sections.add(new Section(offsetsKind, (nodeCount + 1L) * Long.BYTES, out -> {
+            long offset = 0L;
+            for (int node = 0; node < nodeCount; node++) {
+                out.putLong(offset);
+                offset += graph.degree(node, direction);
+            }
+            out.putLong(offset);
+        }));
+        sections.add(new Section(targetsKind, relationships * Integer.BYTES, out -> {
+            for (int node = 0; node < nodeCount; node++) {
+                graph.forEachRelationship(node, direction, (source, target, relationId) -> {
+                    out.putInt(target);
+                    return true;
+                });
+            }
+        }));
+        if (weighted) {
+            sections.add(new Section(weightsKind, relationships * Double.BYTES, out -> {
+                for (int node = 0; node < nodeCount; node++) {
+                    graph.forEachRelationship(node, direction, (source, target, relationId, weight) -> {
+                        out.putDouble(weight);
+                        return true;
+                    });
+                }
+            }));
+        }
+    }
+
+    private static OffHeapGraph.Adjacency adjacency(
+            FileChannel channel,
+            Section[] sections,
+            int offsetsKind,
+            int targetsKind,
+            int weightsKind,
+            ByteOrder order) {
+        if (sections[offsetsKind] == null) {
+            return null;
+        }
+        return new OffHeapGraph.Adjacency(
+                map(channel, sections[offsetsKind], order),
+                map(channel, sections[targetsKind], order),
+                sections[weightsKind] != null ? map(channel, sections[weightsKind], order) : null);
+    }
+
+    private static MappedMemory map(FileChannel channel, Section section, ByteOrder order) {
+        return MappedMemory.map(channel, section.position, section.bytes, order);
+    }
+
+    private static void verify(FileChannel channel, Section section, Path file) throws IOException {
+        final CRC32 crc = new CRC32();
+        for (long offset = 0L; offset < section.bytes; offset += VERIFY_WINDOW_SIZE) {
+            final MappedByteBuffer window = channel.map(
+                    FileChannel.MapMode.READ_ONLY,
+                    section.position + offset,
+                    Math.min(VERIFY_WINDOW_SIZE, section.bytes - offset));
+            crc.update(window);
+        }
+        if (crc.getValue() != section.checksum) {
+            throw new IllegalArgumentException(String.format(
+                    "Corrupt snapshot section %d: %s",
+                    section.kind,
+                    file));
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(bytes).order(ByteOrder.BIG_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalArgumentException("Truncated snapshot");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long checksum(byte[] bytes, int length) {
+        final CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return crc.getValue();
+    }
+
+    private static long align(long position) {
+        return (position + 7L) & ~7L;
+    }
+
+    /**
+     * a mapped snapshot
+     */
+    public static final class Snapshot {
+        public final OffHeapGraph graph;
+        public final Direction direction;
+        public final boolean undirected;
+        public final boolean weighted;
+        public final double defaultWeight;
+        public final long bytes;
+
+        private Snapshot(
+                OffHeapGraph graph,
+                Direction direction,
+                boolean undirected,
+                boolean weighted,
+                double defaultWeight,
+                long bytes) {
+            this.graph = graph;
+            this.direction = direction;
+            this.undirected = undirected;
+            this.weighted = weighted;
+            this.defaultWeight = defaultWeight;
+            this.bytes = bytes;
+        }
+    }
+
+    private interface SectionWriter {
+        void write(SectionOutput out);
+    }
+
+    private static final class Section {
+        private final int kind;
+        private final long bytes;
+        private final SectionWriter writer;
+        private long position;
+        private long checksum;
+
+        private Section(int kind, long bytes, SectionWriter writer) {
+            this.kind = kind;
+            this.bytes = bytes;
+            this.writer = writer;
+        }
+    }
+}
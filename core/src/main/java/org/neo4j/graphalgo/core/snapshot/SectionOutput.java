@@ -0,0 +1,85 @@
+package org.neo4j.graphalgo.core.snapshot;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Sequential writer for one section of a snapshot file. The section is
+ * mapped in windows of at most 1GB, so that sections can be larger than
+ * 2GB. The checksum is computed over every window once it is full.
+ * <p>
+ * Sections start at a position aligned to 8 bytes and the windows are a
+ * multiple of 8 bytes, therefore no value spans two windows.
+ */
+final class SectionOutput {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+    private final ByteOrder order;
+    private final long end;
+    private final CRC32 checksum = new CRC32();
+    private long position;
+    private MappedByteBuffer window;
+
+    SectionOutput(FileChannel channel, long position, long bytes, ByteOrder order) {
+        this.channel = channel;
+        this.order = order;
+        this.position = position;
+        this.end = position + bytes;
+    }
+
+    void putInt(int value) {
+        ensureCapacity(Integer.BYTES).putInt(value);
+    }
+
+    void putLong(long value) {
+        ensureCapacity(Long.BYTES).putLong(value);
+    }
+
+    void putDouble(double value) {
+        ensureCapacity(Double.BYTES).putDouble(value);
+    }
+
+    /**
+     * flush the last window
+     *
+     * @return the CRC32 of the section
+     */
+    long close() {
+        if (window != null) {
+            finishWindow();
+        }
+        return checksum.getValue();
+    }
+
+    private MappedByteBuffer ensureCapacity(int bytes) {
+        if (window == null || window.remaining() < bytes) {
+            if (window != null) {
+                finishWindow();
+            }
+            final long size = Math.min(WINDOW_SIZE, end - position);
+            if (size < bytes) {
+                throw new IllegalStateException("Section overflow");
+            }
+            try {
+                window = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            window.order(order);
+            position += size;
+        }
+        return window;
+    }
+
+    private void finishWindow() {
+        window.flip();
+        checksum.update(window);
+        window = null;
+    }
+}
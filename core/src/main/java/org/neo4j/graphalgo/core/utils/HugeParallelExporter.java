@@ -0,0 +1,54 @@
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.collection.primitive.PrimitiveLongIterable;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.graphalgo.api.HugeBatchNodeIterable;
+import org.neo4j.kernel.api.DataWriteOperations;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Counterpart of the {@link ParallelExporter} for long node ids.
+ * Every batch of nodes is written in its own transaction.
+ */
+public abstract class HugeParallelExporter<T> extends Exporter<T> {
+
+    private final ExecutorService executor;
+    private final HugeBatchNodeIterable batchNodes;
+    private final int batchSize;
+
+    public HugeParallelExporter(
+            int batchSize,
+            GraphDatabaseAPI api,
+            HugeBatchNodeIterable batchNodes,
+            ExecutorService executor) {
+        super(api);
+        this.batchNodes = batchNodes;
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public final void write(T data) {
+        final List<Runnable> tasks = new ArrayList<>();
+        for (PrimitiveLongIterable batch : batchNodes.hugeBatchIterables(batchSize)) {
+            tasks.add(() -> writeInTransaction(ops -> {
+                final PrimitiveLongIterator nodes = batch.iterator();
+                try {
+                    while (nodes.hasNext()) {
+                        write(ops, nodes.next(), data);
+                    }
+                } catch (KernelException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        ParallelUtil.run(tasks, ParallelUtil.canRunInParallel(executor) ? executor : null);
+    }
+
+    protected abstract void write(DataWriteOperations ops, long nodeId, T data) throws KernelException;
+}
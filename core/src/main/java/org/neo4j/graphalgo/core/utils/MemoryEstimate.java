@@ -0,0 +1,20 @@
+package org.neo4j.graphalgo.core.utils;
+
+/**
+ * Expected size of a graph on the heap, derived from the counts store
+ * before anything is loaded. Node and relationship counts are upper
+ * bounds because the counts store does not know about label filters on
+ * both ends of a relationship.
+ */
+public final class MemoryEstimate {
+
+    public final long nodeCount;
+    public final long relationshipCount;
+    public final long bytes;
+
+    public MemoryEstimate(long nodeCount, long relationshipCount, long bytes) {
+        this.nodeCount = nodeCount;
+        this.relationshipCount = relationshipCount;
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,123 @@
+package org.neo4j.graphalgo.core.utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Locale;
+
+/**
+ * Sizes of the basic building blocks of the graphs and algorithms on the
+ * java heap. The values assume a 64bit VM without compressed oops and
+ * therefore slightly overestimate the real usage.
+ */
+public final class MemoryUsage {
+
+    public static final int BYTES_OBJECT_HEADER = 16;
+    public static final int BYTES_ARRAY_HEADER = 16;
+    public static final int BYTES_OBJECT_REF = 8;
+
+    private static final String[] UNITS = {"Bytes", "KiB", "MiB", "GiB", "TiB"};
+
+    private MemoryUsage() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    public static long sizeOfIntArray(long length) {
+        return alignObjectSize(BYTES_ARRAY_HEADER + length * Integer.BYTES);
+    }
+
+    public static long sizeOfLongArray(long length) {
+        return alignObjectSize(BYTES_ARRAY_HEADER + length * Long.BYTES);
+    }
+
+    public static long sizeOfDoubleArray(long length) {
+        return alignObjectSize(BYTES_ARRAY_HEADER + length * Double.BYTES);
+    }
+
+    public static long sizeOfObjectArray(long length) {
+        return alignObjectSize(BYTES_ARRAY_HEADER + length * BYTES_OBJECT_REF);
+    }
+
+    /**
+     * size of the key and value buffers of a hppc hash map which
+     * is created for the expected number of elements
+     */
+    public static long sizeOfHashMap(
+            long expectedElements,
+            double loadFactor,
+            int keyBytes,
+            int valueBytes) {
+        final long minSize = (long) Math.ceil(expectedElements / loadFactor);
+        final long bufferSize = Math.max(4L, Long.highestOneBit(Math.max(1L, minSize - 1L)) << 1) + 1L;
+        return alignObjectSize(BYTES_ARRAY_HEADER + bufferSize * keyBytes)
+                + alignObjectSize(BYTES_ARRAY_HEADER + bufferSize * valueBytes);
+    }
+
+    /**
+     * size of a paged array with the given page size in elements
+     */
+    public static long sizeOfPagedArray(long length, int pageSize, int elementBytes) {
+        final long pages = (length + pageSize - 1) / pageSize;
+        return sizeOfObjectArray(pages)
+                + pages * BYTES_ARRAY_HEADER
+                + length * elementBytes;
+    }
+
+    public static long alignObjectSize(long size) {
+        return (size + 7L) & ~7L;
+    }
+
+    /**
+     * bytes which can still be allocated before the heap reaches its maximum,
+     * assuming the garbage is collected. The used part of every heap pool is
+     * taken as it was after its last collection, pools which have not been
+     * collected yet count with their current usage. Objects which have been
+     * promoted since the last collection of the old generation aren't counted.
+     */
+    public static long freeHeap() {
+        long used = 0L;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                used += liveBytes(pool);
+            }
+        }
+        return Runtime.getRuntime().maxMemory() - used;
+    }
+
+    private static long liveBytes(MemoryPoolMXBean pool) {
+        final java.lang.management.MemoryUsage afterGc = pool.getCollectionUsage();
+        // the usage after gc is reported as uncommitted until the pool is collected
+        if (afterGc != null && afterGc.getCommitted() > 0L) {
+            return afterGc.getUsed();
+        }
+        final java.lang.management.MemoryUsage usage = pool.getUsage();
+        return usage == null ? 0L : usage.getUsed();
+    }
+
+    /**
+     * @throws IllegalStateException if the bytes exceed the heap which is
+     *                               free after garbage collection
+     */
+    public static void assertFits(String what, long bytes) {
+        final long free = freeHeap();
+        if (bytes > free) {
+            throw new IllegalStateException(String.format(
+                    "%s needs about %s but only %s of heap are available",
+                    what,
+                    humanReadable(bytes),
+                    humanReadable(free)));
+        }
+    }
+
+    public static String humanReadable(long bytes) {
+        int unit = 0;
+        double value = bytes;
+        while (value >= 1024 && unit < UNITS.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return unit == 0
+                ? bytes + " " + UNITS[0]
+                : String.format(Locale.ROOT, "%.2f %s", value, UNITS[unit]);
+    }
+}
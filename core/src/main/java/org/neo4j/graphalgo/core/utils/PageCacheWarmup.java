@@ -0,0 +1,344 @@
+package org.neo4j.graphalgo.core.utils;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.neo4j.collection.primitive.PrimitiveLongIterator;
+import org.neo4j.cursor.Cursor;
+import org.neo4j.graphalgo.core.IdMapLoader;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.pagecache.PageCache;
+import org.neo4j.io.pagecache.PageCursor;
+import org.neo4j.io.pagecache.PagedFile;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.api.Statement;
+import org.neo4j.kernel.api.StatementConstants;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.store.StoreType;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.Direction;
+import org.neo4j.storageengine.api.NodeItem;
+import org.neo4j.storageengine.api.PropertyItem;
+import org.neo4j.storageengine.api.RelationshipItem;
+import org.neo4j.storageengine.api.StorageEngine;
+import org.neo4j.storageengine.api.StoreFileMetadata;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Loads the pages of the node, relationship and property stores into the
+ * page cache, so that a following graph load doesn't wait for the disk.
+ * <p>
+ * A full warmup pins every page of the store files through their mappings
+ * in the page cache, the pages are split into ranges which are read in
+ * parallel. A warmup of a projection instead visits the nodes with a label
+ * and their relationships of the given types through the kernel, like the
+ * loaders do, and touches only the pages which the load will read. The pages
+ * of the property store are then read through the property chains but not
+ * counted.
+ */
+public final class PageCacheWarmup {
+
+    private final GraphDatabaseAPI api;
+    private final ThreadToStatementContextBridge contextBridge;
+    private final StorageEngine storageEngine;
+    private final PageCache pageCache;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final TerminationFlag terminationFlag;
+
+    /**
+     * @param executor  the executor, null means single threaded evaluation
+     * @param batchSize number of pages or node ids per parallel range
+     */
+    public PageCacheWarmup(
+            GraphDatabaseAPI api,
+            ExecutorService executor,
+            int batchSize,
+            TerminationFlag terminationFlag) {
+        this.api = api;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.terminationFlag = terminationFlag;
+        this.contextBridge = api
+                .getDependencyResolver()
+                .resolveDependency(ThreadToStatementContextBridge.class);
+        this.storageEngine = api
+                .getDependencyResolver()
+                .resolveDependency(StorageEngine.class);
+        this.pageCache = api
+                .getDependencyResolver()
+                .resolveDependency(PageCache.class);
+    }
+
+    /**
+     * @return the size of a page cache page in bytes
+     */
+    public int pageSize() {
+        return pageCache.pageSize();
+    }
+
+    /**
+     * load every page of the node and relationship stores
+     *
+     * @param properties whether the property stores are loaded as well
+     * @return the loaded pages
+     */
+    public Pages warmupStores(boolean properties) {
+        final long nodePages = touchPages(StoreType.NODE);
+        final long relationshipPages = touchPages(StoreType.RELATIONSHIP)
+                + touchPages(StoreType.RELATIONSHIP_GROUP);
+        long propertyPages = 0L;
+        if (properties) {
+            propertyPages = touchPages(StoreType.PROPERTY)
+                    + touchPages(StoreType.PROPERTY_STRING)
+                    + touchPages(StoreType.PROPERTY_ARRAY);
+        }
+        return new Pages(nodePages, relationshipPages, propertyPages);
+    }
+
+    /**
+     * load the pages of the nodes with the label and of their relationships
+     * with the given types
+     *
+     * @param label             the label or null for all nodes
+     * @param relationshipTypes the relationship types, empty for any type
+     * @param properties        whether the properties of the nodes and relationships are read
+     * @return the loaded pages of the node and relationship stores
+     */
+    public Pages warmupProjection(String label, String[] relationshipTypes, boolean properties) {
+        final int[] ids = new int[relationshipTypes.length + 1];
+        withReadOps(readOp -> {
+            ids[0] = label == null ? ReadOperations.ANY_LABEL : readOp.labelGetForName(label);
+            for (int i = 0; i < relationshipTypes.length; i++) {
+                ids[i + 1] = readOp.relationshipTypeGetForName(relationshipTypes[i]);
+            }
+        });
+        final int labelId = ids[0];
+        if (label != null && labelId == StatementConstants.NO_SUCH_LABEL) {
+            return new Pages(0L, 0L, 0L);
+        }
+        final int[] typeIds = relationshipTypes.length == 0 ? null : Arrays.copyOfRange(ids, 1, ids.length);
+
+        final PageMarks nodePages = pageMarks(StoreType.NODE);
+        final PageMarks relationshipPages = pageMarks(StoreType.RELATIONSHIP);
+        final List<Runnable> tasks = new ArrayList<>();
+        if (labelId == ReadOperations.ANY_LABEL) {
+            final long highId = IdMapLoader.highestNodeId(api);
+            for (long start = 0L; start < highId; start += batchSize) {
+                final long from = start;
+                final long to = Math.min(highId, start + batchSize);
+                tasks.add(() -> {
+                    terminationFlag.assertRunning();
+                    withReadOps(readOp -> {
+                        for (long nodeId = from; nodeId < to; nodeId++) {
+                            visit(readOp, nodeId, typeIds, properties, nodePages, relationshipPages);
+                        }
+                    });
+                });
+            }
+        } else {
+            for (long[] batch : nodesWithLabel(labelId)) {
+                tasks.add(() -> {
+                    terminationFlag.assertRunning();
+                    withReadOps(readOp -> {
+                        for (long nodeId : batch) {
+                            visit(readOp, nodeId, typeIds, properties, nodePages, relationshipPages);
+                        }
+                    });
+                });
+            }
+        }
+        ParallelUtil.run(tasks, executor);
+        return new Pages(nodePages.count(), relationshipPages.count(), 0L);
+    }
+
+    /**
+     * read the node ids of the label from the label scan store in batches
+     */
+    private List<long[]> nodesWithLabel(int labelId) {
+        final List<long[]> batches = new ArrayList<>();
+        withReadOps(readOp -> {
+            final LongArrayList batch = new LongArrayList(batchSize);
+            final PrimitiveLongIterator nodeIds = readOp.nodesGetForLabel(labelId);
+            while (nodeIds.hasNext()) {
+                batch.add(nodeIds.next());
+                if (batch.size() == batchSize) {
+                    batches.add(batch.toArray());
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(batch.toArray());
+            }
+        });
+        return batches;
+    }
+
+    private static void visit(
+            ReadOperations readOp,
+            long nodeId,
+            int[] typeIds,
+            boolean properties,
+            PageMarks nodePages,
+            PageMarks relationshipPages) {
+        try (Cursor<NodeItem> cursor = readOp.nodeCursor(nodeId)) {
+            if (!cursor.next()) {
+                return;
+            }
+            final NodeItem node = cursor.get();
+            nodePages.mark(nodeId);
+            if (properties) {
+                readProperties(node.properties());
+            }
+            try (Cursor<RelationshipItem> rels = typeIds == null
+                    ? node.relationships(Direction.BOTH)
+                    : node.relationships(Direction.BOTH, typeIds)) {
+                while (rels.next()) {
+                    final RelationshipItem rel = rels.get();
+                    relationshipPages.mark(rel.id());
+                    if (properties) {
+                        readProperties(rel.properties());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * pin every page of the store file
+     */
+    private long touchPages(StoreType type) {
+        try (PagedFile pagedFile = map(type)) {
+            final long pages = pagedFile.getLastPageId() + 1L;
+            final List<Runnable> tasks = new ArrayList<>();
+            for (long start = 0L; start < pages; start += batchSize) {
+                final long from = start;
+                final long to = Math.min(pages, start + batchSize);
+                tasks.add(() -> {
+                    terminationFlag.assertRunning();
+                    try (PageCursor cursor = pagedFile.io(from, PagedFile.PF_SHARED_READ_LOCK)) {
+                        for (long page = from; page < to; page++) {
+                            if (!cursor.next(page)) {
+                                return;
+                            }
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            ParallelUtil.run(tasks, executor);
+            return pages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private StoreFileMetadata storeFile(StoreType type) {
+        final Optional<StoreType> storeType = Optional.of(type);
+        for (StoreFileMetadata file : storageEngine.listStorageFiles()) {
+            if (storeType.equals(file.storeType())) {
+                return file;
+            }
+        }
+        throw new IllegalStateException("No store file of type " + type);
+    }
+
+    /**
+     * the mapping of the store file in the page cache which has to be closed after use
+     */
+    private PagedFile map(StoreType type) throws IOException {
+        final StoreFileMetadata file = storeFile(type);
+        return pageCache
+                .getExistingMapping(file.file())
+                .orElseThrow(() -> new IllegalStateException("The store file " + file.file() + " is not mapped"));
+    }
+
+    private static void readProperties(Cursor<PropertyItem> cursor) {
+        try (Cursor<PropertyItem> properties = cursor) {
+            while (properties.next()) {
+                properties.get().value();
+            }
+        }
+    }
+
+    private void withReadOps(Consumer<ReadOperations> block) {
+        try (Transaction tx = api.beginTx();
+             Statement statement = contextBridge.get()) {
+            block.accept(statement.readOperations());
+            tx.success();
+        }
+    }
+
+    /**
+     * the number of loaded pages per store
+     */
+    public static final class Pages {
+        public final long nodePages;
+        public final long relationshipPages;
+        public final long propertyPages;
+
+        Pages(long nodePages, long relationshipPages, long propertyPages) {
+            this.nodePages = nodePages;
+            this.relationshipPages = relationshipPages;
+            this.propertyPages = propertyPages;
+        }
+
+        public long total() {
+            return nodePages + relationshipPages + propertyPages;
+        }
+    }
+
+    private PageMarks pageMarks(StoreType type) {
+        final int recordSize = storeFile(type).recordSize();
+        try (PagedFile pagedFile = map(type)) {
+            return new PageMarks(pagedFile.pageSize() / recordSize, pagedFile.getLastPageId() + 1L);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * concurrent bitset of the touched pages of a store
+     */
+    private static final class PageMarks {
+        private final int recordsPerPage;
+        private final AtomicLongArray bits;
+
+        private PageMarks(int recordsPerPage, long pages) {
+            this.recordsPerPage = recordsPerPage;
+            this.bits = new AtomicLongArray(Math.toIntExact((pages + 63) >>> 6));
+        }
+
+        void mark(long recordId) {
+            final long page = recordId / recordsPerPage;
+            final int index = (int) (page >>> 6);
+            if (index >= bits.length()) {
+                // created after the warmup started
+                return;
+            }
+            final long bit = 1L << page;
+            long word;
+            while (((word = bits.get(index)) & bit) == 0) {
+                if (bits.compareAndSet(index, word, word | bit)) {
+                    return;
+                }
+            }
+        }
+
+        long count() {
+            long count = 0L;
+            for (int i = 0; i < bits.length(); i++) {
+                count += Long.bitCount(bits.get(i));
+            }
+            return count;
+        }
+    }
+}
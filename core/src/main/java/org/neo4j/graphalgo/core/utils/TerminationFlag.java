@@ -0,0 +1,40 @@
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.graphdb.TransactionTerminatedException;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.Status;
+
+/**
+ * Polled by loaders and algorithms between batches of work to stop early
+ * once the transaction of the calling procedure has been terminated, e.g.
+ * by {@code dbms.killQuery} or a transaction timeout.
+ */
+public interface TerminationFlag {
+
+    /**
+     * a flag which never terminates
+     */
+    TerminationFlag RUNNING_TRUE = () -> true;
+
+    /**
+     * a flag which is terminated as soon as the transaction is
+     * marked for termination or closed
+     */
+    static TerminationFlag wrap(KernelTransaction transaction) {
+        return () -> transaction.isOpen() && transaction.getReasonIfTerminated() == null;
+    }
+
+    /**
+     * @return false if the work should be stopped
+     */
+    boolean running();
+
+    /**
+     * @throws TransactionTerminatedException if the work should be stopped
+     */
+    default void assertRunning() {
+        if (!running()) {
+            throw new TransactionTerminatedException(Status.Transaction.Terminated);
+        }
+    }
+}
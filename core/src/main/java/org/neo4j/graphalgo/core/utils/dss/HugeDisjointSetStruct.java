@@ -0,0 +1,119 @@
+package org.neo4j.graphalgo.core.utils.dss;
+
+import org.neo4j.graphalgo.api.HugeIdMapping;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Counterpart of the {@link DisjointSetStruct} for more than 2B elements,
+ * backed by {@link HugeLongArray}s.
+ */
+public final class HugeDisjointSetStruct {
+
+    private final HugeLongArray parent;
+    private final HugeLongArray depth;
+    private final long capacity;
+
+    /**
+     * Initialize the struct with the given capacity.
+     * Note: the struct must be {@link HugeDisjointSetStruct#reset()} prior use!
+     * @param capacity the capacity (maximum node id)
+     */
+    public HugeDisjointSetStruct(long capacity) {
+        parent = HugeLongArray.newArray(capacity);
+        depth = HugeLongArray.newArray(capacity);
+        this.capacity = capacity;
+    }
+
+    /**
+     * reset the container
+     */
+    public HugeDisjointSetStruct reset() {
+        parent.fill(-1L);
+        depth.fill(0L);
+        return this;
+    }
+
+    /**
+     * element count
+     * @return the element count
+     */
+    public long count() {
+        return capacity;
+    }
+
+    /**
+     * find setId of element p, compresses the path to the root.
+     *
+     * @param p the element in the set we are looking for
+     * @return an id of the set it belongs to
+     */
+    public long find(long p) {
+        long root = p;
+        long next;
+        while ((next = parent.get(root)) != -1L) {
+            root = next;
+        }
+        while ((next = parent.get(p)) != -1L && next != root) {
+            parent.set(p, root);
+            p = next;
+        }
+        return root;
+    }
+
+    /**
+     * check if p and q belong to the same set
+     */
+    public boolean connected(long p, long q) {
+        return find(p) == find(q);
+    }
+
+    /**
+     * join set of p (Sp) with set of q (Sq)
+     *
+     * @param p an item of Sp
+     * @param q an item of Sq
+     */
+    public void union(long p, long q) {
+        final long pSet = find(p);
+        final long qSet = find(q);
+        if (pSet == qSet) {
+            return;
+        }
+        // weighted union rule optimization
+        long dq = depth.get(qSet);
+        long dp = depth.get(pSet);
+        if (dp < dq) {
+            // attach the smaller tree to the root of the bigger tree
+            parent.set(pSet, qSet);
+        } else if (dp > dq) {
+            parent.set(qSet, pSet);
+        } else {
+            parent.set(qSet, pSet);
+            depth.addTo(pSet, dq + 1);
+        }
+    }
+
+    /**
+     * number of sets, which equals the number of roots
+     */
+    public long getSetCount() {
+        long count = 0L;
+        for (long i = 0L; i < capacity; i++) {
+            if (parent.get(i) == -1L) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public Stream<DisjointSetStruct.Result> resultStream(HugeIdMapping idMapping) {
+        return LongStream.range(0L, idMapping.hugeNodeCount())
+                .mapToObj(mappedId ->
+                        new DisjointSetStruct.Result(
+                                idMapping.toOriginalNodeId(mappedId),
+                                find(mappedId)));
+    }
+}
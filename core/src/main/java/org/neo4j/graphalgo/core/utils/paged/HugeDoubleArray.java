@@ -0,0 +1,82 @@
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.neo4j.graphalgo.core.utils.MemoryUsage;
+
+import java.util.Arrays;
+
+/**
+ * Array of double values that is indexed by long and can contain more
+ * than 2B elements. Values are stored in pages of 16KB, a new array
+ * is filled with zeros.
+ * <p>
+ * Concurrent writes to different indices are safe, the array does
+ * not provide any further synchronization.
+ */
+public final class HugeDoubleArray {
+
+    /**
+     * Page size in bytes: 16KB
+     */
+    private static final int PAGE_SIZE_IN_BYTES = 1 << 14;
+    private static final int PAGE_SIZE = PAGE_SIZE_IN_BYTES / Double.BYTES;
+    private static final int PAGE_SHIFT = Integer.numberOfTrailingZeros(PAGE_SIZE);
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private final long size;
+    private final double[][] pages;
+
+    /**
+     * Allocate a new {@link HugeDoubleArray}.
+     * @param size the length of the array
+     */
+    public static HugeDoubleArray newArray(long size) {
+        return new HugeDoubleArray(size);
+    }
+
+    /**
+     * estimated heap usage of an array with the given length
+     */
+    public static long estimateMemoryUsage(long size) {
+        return MemoryUsage.sizeOfPagedArray(size, PAGE_SIZE, Double.BYTES);
+    }
+
+    private HugeDoubleArray(long size) {
+        this.size = size;
+        final int numPages = Math.toIntExact((size + PAGE_MASK) >>> PAGE_SHIFT);
+        pages = new double[numPages][];
+        for (int i = 0; i < numPages; i++) {
+            final long remaining = size - ((long) i << PAGE_SHIFT);
+            pages[i] = new double[(int) Math.min(remaining, PAGE_SIZE)];
+        }
+    }
+
+    /**
+     * Return the length of this array.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Get an element given its index.
+     */
+    public double get(long index) {
+        return pages[(int) (index >>> PAGE_SHIFT)][(int) (index & PAGE_MASK)];
+    }
+
+    /**
+     * Set a value at the given index.
+     */
+    public void set(long index, double value) {
+        pages[(int) (index >>> PAGE_SHIFT)][(int) (index & PAGE_MASK)] = value;
+    }
+
+    /**
+     * Set all elements to the given value.
+     */
+    public void fill(double value) {
+        for (double[] page : pages) {
+            Arrays.fill(page, value);
+        }
+    }
+}
@@ -4,10 +4,11 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
 import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.snapshot.GraphSnapshot;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.impl.PageRank;
-import org.neo4j.graphalgo.serialize.FileSerialization;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.factory.GraphDatabaseFactory;
@@ -164,7 +165,7 @@ public final class LargeishPageRanker {
             runGc("after building graph", gcRunner);
             System.out.printf("serializing Graph...");
             long t0 = System.nanoTime();
-            FileSerialization.writeGraph(graph, prepare);
+            GraphSnapshot.write(graph, Direction.OUTGOING, false, 1.0, prepare, pool);
             long t1 = System.nanoTime();
             System.out.printf(
                     " done in %.2f seconds%n",
@@ -174,8 +175,7 @@ public final class LargeishPageRanker {
             runGc("before loading graph", gcRunner);
             System.out.printf("Loading serialized Graph...");
             long t0 = System.nanoTime();
-            graph = useMultiImpl ? FileSerialization.loadHeavyGraph(graphDb) : FileSerialization
-                    .loadLightGraph(graphDb);
+            graph = GraphSnapshot.read(graphDb, true).graph;
             long t1 = System.nanoTime();
             System.out.printf(
                     " done in %.2f seconds%n",
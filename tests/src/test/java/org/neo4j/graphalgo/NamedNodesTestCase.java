@@ -0,0 +1,68 @@
+package org.neo4j.graphalgo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of tests on a small graph of {@code :Node} nodes which are
+ * identified by their {@code name} property. Subclasses create their
+ * graph with {@link #createGraph(String)} in their own
+ * {@code @BeforeClass} method.
+ */
+public abstract class NamedNodesTestCase {
+
+    public static final String LABEL = "Node";
+
+    protected static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setupDatabase() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+    }
+
+    @AfterClass
+    public static void shutdownDatabase() {
+        if (db != null) {
+            db.shutdown();
+            db = null;
+        }
+    }
+
+    protected static void createGraph(String cypher) {
+        try (Transaction tx = db.beginTx()) {
+            db.execute(cypher).close();
+            tx.success();
+        }
+    }
+
+    /**
+     * @return the mapped id of the node with the given name
+     */
+    protected static int id(Graph graph, String name) {
+        try (Transaction tx = db.beginTx()) {
+            final long id = db.findNode(Label.label(LABEL), "name", name).getId();
+            tx.success();
+            return graph.toMappedNodeId(id);
+        }
+    }
+
+    /**
+     * @return the sorted mapped ids of the nodes with the given names
+     */
+    protected static List<Integer> list(Graph graph, String... names) {
+        final List<Integer> ids = new ArrayList<>();
+        for (String name : names) {
+            ids.add(id(graph, name));
+        }
+        ids.sort(Integer::compare);
+        return ids;
+    }
+}
@@ -0,0 +1,467 @@
+package org.neo4j.graphalgo.algo;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.GraphCatalogProc;
+import org.neo4j.graphalgo.LabelPropagationProc;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.GraphCatalog;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GraphCatalogProcIntegrationTest {
+
+    private static GraphDatabaseAPI db;
+    private static Map<Long, Double> expected = new HashMap<>();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Label1 {name:\"a\"})\n" +
+            "CREATE (b:Label1 {name:\"b\"})\n" +
+            "CREATE (c:Label1 {name:\"c\"})\n" +
+            "CREATE (d:Label1 {name:\"d\"})\n" +
+            "CREATE (e:Label1 {name:\"e\"})\n" +
+            "CREATE (f:Label1 {name:\"f\"})\n" +
+            "CREATE (g:Label1 {name:\"g\"})\n" +
+            "CREATE (h:Label1 {name:\"h\"})\n" +
+            "CREATE (i:Label1 {name:\"i\"})\n" +
+            "CREATE (j:Label1 {name:\"j\"})\n" +
+            "CREATE (k:Label2 {name:\"k\"})\n" +
+            "CREATE (l:Label2 {name:\"l\"})\n" +
+            "CREATE (m:Label2 {name:\"m\"})\n" +
+            "CREATE (n:Label2 {name:\"n\"})\n" +
+            "CREATE (o:Label2 {name:\"o\"})\n" +
+            "CREATE (p:Label2 {name:\"p\"})\n" +
+            "CREATE (q:Label2 {name:\"q\"})\n" +
+            "CREATE (r:Label2 {name:\"r\"})\n" +
+            "CREATE (s:Label2 {name:\"s\"})\n" +
+            "CREATE (t:Label2 {name:\"t\"})\n" +
+            "CREATE\n" +
+            "  (b)-[:TYPE1{foo:1.0}]->(c),\n" +
+            "  (c)-[:TYPE1{foo:1.2}]->(b),\n" +
+            "  (d)-[:TYPE1{foo:1.3}]->(a),\n" +
+            "  (d)-[:TYPE1{foo:1.7}]->(b),\n" +
+            "  (e)-[:TYPE1{foo:1.1}]->(b),\n" +
+            "  (e)-[:TYPE1{foo:2.2}]->(d),\n" +
+            "  (e)-[:TYPE1{foo:1.5}]->(f),\n" +
+            "  (f)-[:TYPE1{foo:3.5}]->(b),\n" +
+            "  (f)-[:TYPE1{foo:2.9}]->(e),\n" +
+            "  (g)-[:TYPE2{foo:3.2}]->(b),\n" +
+            "  (g)-[:TYPE2{foo:5.3}]->(e),\n" +
+            "  (h)-[:TYPE2{foo:9.5}]->(b),\n" +
+            "  (h)-[:TYPE2{foo:0.3}]->(e),\n" +
+            "  (i)-[:TYPE2{foo:5.4}]->(b),\n" +
+            "  (i)-[:TYPE2{foo:3.2}]->(e),\n" +
+            "  (j)-[:TYPE2{foo:9.5}]->(e),\n" +
+            "  (k)-[:TYPE2{foo:4.2}]->(e)\n";
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (db != null) {
+            // the snapshots are written to the file system, next to the impermanent store
+            Path dir = Paths.get(db.getStoreDir());
+            FileUtils.deleteRecursively(dir.resolve(GraphCatalogProc.SNAPSHOT_DIRECTORY).toFile());
+            db.shutdown();
+            while (dir != null && Files.isDirectory(dir) && dir.toFile().list().length == 0) {
+                Files.delete(dir);
+                dir = dir.getParent();
+            }
+        }
+    }
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        db = (GraphDatabaseAPI)
+                new TestGraphDatabaseFactory()
+                        .newImpermanentDatabaseBuilder()
+                        .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+
+        final Procedures procedures = db.getDependencyResolver()
+                .resolveDependency(Procedures.class);
+        procedures.registerProcedure(GraphCatalogProc.class);
+        procedures.registerProcedure(PageRankProc.class);
+        procedures.registerProcedure(LabelPropagationProc.class);
+
+        try (Transaction tx = db.beginTx()) {
+            final Label label = Label.label("Label1");
+            expected.put(db.findNode(label, "name", "a").getId(), 0.243);
+            expected.put(db.findNode(label, "name", "b").getId(), 1.844);
+            expected.put(db.findNode(label, "name", "c").getId(), 1.777);
+            expected.put(db.findNode(label, "name", "d").getId(), 0.218);
+            expected.put(db.findNode(label, "name", "e").getId(), 0.243);
+            expected.put(db.findNode(label, "name", "f").getId(), 0.218);
+            expected.put(db.findNode(label, "name", "g").getId(), 0.150);
+            expected.put(db.findNode(label, "name", "h").getId(), 0.150);
+            expected.put(db.findNode(label, "name", "i").getId(), 0.150);
+            expected.put(db.findNode(label, "name", "j").getId(), 0.150);
+            tx.success();
+        }
+    }
+
+    @After
+    public void clearCatalog() {
+        final GraphCatalog catalog = GraphCatalog.of(db);
+        catalog.list().forEach(entry -> catalog.remove(entry.name));
+        catalog.budget(Runtime.getRuntime().maxMemory() / 2);
+    }
+
+    @Test
+    public void testLoad() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'OUTGOING'}) " +
+                "YIELD name, type, direction, nodes, relationships, bytes")
+                .accept(row -> {
+                    assertEquals("pr", row.getString("name"));
+                    assertEquals("heavy", row.getString("type"));
+                    assertEquals("OUTGOING", row.getString("direction"));
+                    assertEquals(10L, row.getNumber("nodes").longValue());
+                    assertEquals(9L, row.getNumber("relationships").longValue());
+                    assertTrue(row.getNumber("bytes").longValue() > 0L);
+                    return true;
+                });
+        assertEquals(names("pr"), listNames());
+    }
+
+    @Test
+    public void testPageRankOnNamedGraph() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        final Map<Long, Double> actual = new HashMap<>();
+        // label and relationship are ignored for a named graph
+        db.execute("CALL algo.pageRank.stream('', '', {graph:'pr'}) YIELD node, score")
+                .accept(row -> {
+                    actual.put(row.getNode("node").getId(), (Double) row.get("score"));
+                    return true;
+                });
+        assertEquals(expected.size(), actual.size());
+        expected.forEach((node, score) -> assertEquals(
+                "Node#" + node,
+                score,
+                actual.get(node),
+                0.1));
+    }
+
+    @Test
+    public void testPageRankOnNamedHugeGraph() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {graph:'huge', direction:'BOTH'})").close();
+        final Map<Long, Double> actual = new HashMap<>();
+        db.execute("CALL algo.pageRank.stream('', '', {graph:'pr'}) YIELD node, score")
+                .accept(row -> {
+                    actual.put(row.getNode("node").getId(), (Double) row.get("score"));
+                    return true;
+                });
+        assertEquals(expected.size(), actual.size());
+        expected.forEach((node, score) -> assertEquals(
+                "Node#" + node,
+                score,
+                actual.get(node),
+                0.1));
+    }
+
+    @Test
+    public void testPageRankOnNamedHugeGraphWithoutIncomingRelationships() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {graph:'huge', direction:'OUTGOING'})").close();
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.pageRank.stream('', '', {graph:'pr'})").close();
+            fail();
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("but BOTH is required"));
+        }
+    }
+
+    @Test
+    public void testPageRankOnNamedGraphWithoutOutgoingRelationships() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'INCOMING'})").close();
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.pageRank.stream('', '', {graph:'pr'})").close();
+            fail();
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("has been loaded with direction INCOMING"));
+        }
+    }
+
+    @Test
+    public void testSaveAndRestore() throws Exception {
+        final String file = "pr.snapshot";
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        db.execute("CALL algo.graph.save('pr', $file) YIELD bytes", singletonMap("file", file))
+                .accept(row -> {
+                    assertTrue(row.getNumber("bytes").longValue() > 0L);
+                    return true;
+                });
+        db.execute("CALL algo.graph.remove('pr')").close();
+
+        db.execute("CALL algo.graph.restore('restored', $file) YIELD type, direction, nodes, relationships",
+                singletonMap("file", file))
+                .accept(row -> {
+                    assertEquals("snapshot", row.getString("type"));
+                    assertEquals("OUTGOING", row.getString("direction"));
+                    assertEquals(10L, row.getNumber("nodes").longValue());
+                    assertEquals(9L, row.getNumber("relationships").longValue());
+                    return true;
+                });
+
+        final Map<Long, Double> actual = new HashMap<>();
+        db.execute("CALL algo.pageRank.stream('', '', {graph:'restored'}) YIELD node, score")
+                .accept(row -> {
+                    actual.put(row.getNode("node").getId(), (Double) row.get("score"));
+                    return true;
+                });
+        assertEquals(expected.size(), actual.size());
+        expected.forEach((node, score) -> assertEquals(
+                "Node#" + node,
+                score,
+                actual.get(node),
+                0.1));
+    }
+
+    @Test
+    public void testSaveAndRestoreUndirected() throws Exception {
+        final String file = "undirected.snapshot";
+        // 9 relationships between 7 distinct pairs of nodes, each pair is a neighbour of both nodes
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'undirected'}) " +
+                "YIELD direction, relationships")
+                .accept(row -> {
+                    assertEquals("UNDIRECTED", row.getString("direction"));
+                    assertEquals(14L, row.getNumber("relationships").longValue());
+                    return true;
+                });
+        db.execute("CALL algo.graph.save('pr', $file)", singletonMap("file", file)).close();
+
+        db.execute("CALL algo.graph.restore('restored', $file) YIELD direction, relationships",
+                singletonMap("file", file))
+                .accept(row -> {
+                    assertEquals("UNDIRECTED", row.getString("direction"));
+                    assertEquals(14L, row.getNumber("relationships").longValue());
+                    return true;
+                });
+        final Graph restored = GraphCatalog.of(db).get("restored");
+        try (Transaction tx = db.beginTx()) {
+            final int b = restored.toMappedNodeId(db.findNode(Label.label("Label1"), "name", "b").getId());
+            assertEquals(4, restored.degree(b, Direction.BOTH));
+            assertEquals(4, restored.degree(b, Direction.INCOMING));
+            assertEquals(4, restored.degree(b, Direction.OUTGOING));
+            tx.success();
+        }
+    }
+
+    @Test
+    public void testSaveOutsideOfSnapshotDirectory() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        final String absolute = folder.newFile().getAbsolutePath();
+        for (String file : new String[]{absolute, "../neostore.nodestore.db", "a/../../conf", "."}) {
+            // a failing procedure does not close its implicit transaction
+            try (Transaction tx = db.beginTx()) {
+                db.execute("CALL algo.graph.save('pr', $file)", singletonMap("file", file)).close();
+                fail("saved to " + file);
+            } catch (QueryExecutionException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("not inside the snapshot directory"));
+            }
+        }
+    }
+
+    @Test
+    public void testSaveDoesNotOverwriteOtherFiles() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        final Path file = Paths.get(db.getStoreDir())
+                .resolve(GraphCatalogProc.SNAPSHOT_DIRECTORY)
+                .resolve("other.txt");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.graph.save('pr', 'other.txt')").close();
+            fail();
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("not a graph snapshot"));
+        }
+        assertEquals("not a snapshot", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+
+        // snapshots are replaced
+        db.execute("CALL algo.graph.save('pr', 'twice.snapshot')").close();
+        db.execute("CALL algo.graph.save('pr', 'twice.snapshot')").close();
+    }
+
+    @Test
+    public void testIncremental() throws Exception {
+        write("CREATE (:Label3 {name:'x'})-[:TYPE3]->(:Label3 {name:'y'})");
+        try {
+            db.execute("CALL algo.graph.load('inc', 'Label3', 'TYPE3', {incremental:true}) YIELD type, nodes")
+                    .accept(row -> {
+                        assertEquals("incremental", row.getString("type"));
+                        assertEquals(2L, row.getNumber("nodes").longValue());
+                        return true;
+                    });
+            write("MATCH (x:Label3 {name:'x'}) CREATE (x)-[:TYPE3]->(:Label3 {name:'z'})");
+
+            final List<Long> nodes = new ArrayList<>();
+            db.execute("CALL algo.pageRank.stream('', '', {graph:'inc'}) YIELD node")
+                    .accept(row -> {
+                        nodes.add(row.getNode("node").getId());
+                        return true;
+                    });
+            assertEquals(3, nodes.size());
+        } finally {
+            write("MATCH (n:Label3) DETACH DELETE n");
+        }
+    }
+
+    @Test
+    public void testLabelPropagationOnIncremental() throws Exception {
+        write("CREATE (:Label3 {name:'x'})-[:TYPE3]->(:Label3 {name:'y'})");
+        try {
+            db.execute("CALL algo.graph.load('inc', 'Label3', 'TYPE3', " +
+                    "{incremental:true, weightProperty:'weight'})").close();
+            write("MATCH (x:Label3 {name:'x'}) CREATE (x)-[:TYPE3]->(:Label3 {name:'z'})");
+
+            // only x changes its partition, it votes for the one of y or z
+            db.execute("CALL algo.labelPropagation('', '', 'OUTGOING', {graph:'inc', write:false}) YIELD nodes")
+                    .accept(row -> {
+                        assertEquals(1L, row.getNumber("nodes").longValue());
+                        return true;
+                    });
+        } finally {
+            write("MATCH (n:Label3) DETACH DELETE n");
+        }
+    }
+
+    @Test
+    public void testLabelPropagationOnNamedGraphWithoutWeights() throws Exception {
+        db.execute("CALL algo.graph.load('lp', 'Label1', 'TYPE1')").close();
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.labelPropagation('', '', 'OUTGOING', {graph:'lp', write:false})").close();
+            fail();
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("without relationship weights"));
+        }
+    }
+
+    @Test
+    public void testLabelPropagationOnNamedGraphWithoutIncomingRelationships() throws Exception {
+        db.execute("CALL algo.graph.load('lp', 'Label1', 'TYPE1', " +
+                "{direction:'OUTGOING', weightProperty:'weight'})").close();
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.labelPropagation('', '', 'BOTH', {graph:'lp', write:false})").close();
+            fail();
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("but BOTH is required"));
+        }
+    }
+
+    @Test
+    public void testIncrementalNeedsHeavyGraph() throws Exception {
+        // a failing procedure does not close its implicit transaction
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.graph.load('inc', 'Label1', 'TYPE1', {graph:'light', incremental:true})").close();
+            fail("only heavy graphs can be incremental");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("incrementally"));
+        }
+    }
+
+    @Test
+    public void testUndirectedCantBeIncremental() throws Exception {
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.graph.load('inc', 'Label1', 'TYPE1', {direction:'undirected', incremental:true})").close();
+            fail("undirected graphs can't be incremental");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("incrementally"));
+        }
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        db.execute("CALL algo.graph.load('pr', 'Label1', 'TYPE1')").close();
+        final List<String> removed = new ArrayList<>();
+        db.execute("CALL algo.graph.remove('pr') YIELD name").accept(row -> {
+            removed.add(row.getString("name"));
+            return true;
+        });
+        assertEquals(names("pr"), removed);
+        assertEquals(names(), listNames());
+    }
+
+    @Test
+    public void testReservedName() throws Exception {
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.graph.load('light', 'Label1', 'TYPE1')").close();
+            fail("graph implementation names must not be used");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("reserved"));
+        }
+    }
+
+    @Test
+    public void testGraphExceedingTheBudgetIsNotLoaded() throws Exception {
+        GraphCatalog.of(db).budget(1L);
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CALL algo.graph.load('big', 'Label1', 'TYPE1')").close();
+            fail("the graph exceeds the budget");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("exceeds the catalog budget"));
+        }
+        assertEquals(names(), listNames());
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        db.execute("CALL algo.graph.load('first', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        final long bytes = GraphCatalog.of(db).usedBytes();
+        GraphCatalog.of(db).budget(2 * bytes);
+        db.execute("CALL algo.graph.load('second', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        // access marks the first graph as recently used
+        db.execute("CALL algo.pageRank.stream('', '', {graph:'first'})").close();
+        db.execute("CALL algo.graph.load('third', 'Label1', 'TYPE1', {direction:'OUTGOING'})").close();
+        assertEquals(names("first", "third"), listNames());
+    }
+
+    private static List<String> listNames() {
+        final List<String> names = new ArrayList<>();
+        db.execute("CALL algo.graph.list() YIELD name").accept(row -> {
+            names.add(row.getString("name"));
+            return true;
+        });
+        return names;
+    }
+
+    private static void write(String cypher) {
+        try (Transaction tx = db.beginTx()) {
+            db.execute(cypher).resultAsString();
+            tx.success();
+        }
+    }
+
+    private static List<String> names(String... names) {
+        return Arrays.asList(names);
+    }
+}
@@ -0,0 +1,130 @@
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.MemRecProc;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MemRecProcIntegrationTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Label1 {name:'a'})\n" +
+            "CREATE (b:Label1 {name:'b'})\n" +
+            "CREATE (c:Label1 {name:'c'})\n" +
+            "CREATE (d:Label2 {name:'d'})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE1]->(b),\n" +
+            "  (b)-[:TYPE1]->(c),\n" +
+            "  (c)-[:TYPE1]->(a),\n" +
+            "  (d)-[:TYPE2]->(a)";
+
+    private static GraphDatabaseAPI db;
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (db != null) db.shutdown();
+    }
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        db = (GraphDatabaseAPI)
+                new TestGraphDatabaseFactory()
+                        .newImpermanentDatabaseBuilder()
+                        .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(MemRecProc.class);
+    }
+
+    @Test
+    public void testGraphOnly() throws Exception {
+        final Map<String, Object> row = memrec("CALL algo.memrec('Label1', 'TYPE1')");
+        assertEquals(3L, row.get("nodes"));
+        // loaded in both directions by default
+        assertEquals(6L, row.get("relationships"));
+        assertTrue((Long) row.get("graphBytes") > 0L);
+        assertEquals(0L, row.get("algorithmBytes"));
+        assertEquals(row.get("graphBytes"), row.get("requiredBytes"));
+        assertEquals(true, row.get("fits"));
+    }
+
+    @Test
+    public void testPageRank() throws Exception {
+        final Map<String, Object> row = memrec("CALL algo.memrec('Label1', 'TYPE1', 'pageRank', {concurrency:4})");
+        assertEquals(3L, row.get("nodes"));
+        // PageRank loads outgoing relationships only
+        assertEquals(3L, row.get("relationships"));
+        final long algorithmBytes = (Long) row.get("algorithmBytes");
+        assertTrue(algorithmBytes > 0L);
+        assertEquals(
+                (Long) row.get("graphBytes") + algorithmBytes,
+                ((Long) row.get("requiredBytes")).longValue());
+        assertFalse(((String) row.get("requiredMemory")).isEmpty());
+    }
+
+    @Test
+    public void testMoreThreadsNeedMoreMemory() throws Exception {
+        final long one = (Long) memrec("CALL algo.memrec('', '', 'betweenness', {concurrency:1})")
+                .get("algorithmBytes");
+        final long four = (Long) memrec("CALL algo.memrec('', '', 'betweenness', {concurrency:4})")
+                .get("algorithmBytes");
+        assertTrue(four > one);
+    }
+
+    @Test
+    public void testBetweennessIsSequentialWithoutConcurrency() throws Exception {
+        final long sequential = (Long) memrec("CALL algo.memrec('', '', 'betweenness')")
+                .get("algorithmBytes");
+        final long four = (Long) memrec("CALL algo.memrec('', '', 'betweenness', {concurrency:4})")
+                .get("algorithmBytes");
+        assertTrue(sequential > 0L);
+        assertTrue(four > sequential);
+    }
+
+    @Test
+    public void testUnknownAlgorithm() throws Exception {
+        try {
+            memrec("CALL algo.memrec('Label1', 'TYPE1', 'foo')");
+            fail("unknown algorithm must fail");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("Unknown algorithm: foo"));
+        }
+    }
+
+    @Test
+    public void testCypherGraphIsNotSupported() throws Exception {
+        try {
+            memrec("CALL algo.memrec('MATCH (n) RETURN id(n) as id', " +
+                    "'MATCH (n)-->(m) RETURN id(n) as source, id(m) as target', '', {graph:'cypher'})");
+            fail("cypher graphs cannot be estimated");
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("not supported"));
+        }
+    }
+
+    private static Map<String, Object> memrec(String query) {
+        try (Transaction tx = db.beginTx()) {
+            final Map<String, Object> row = db.execute(query).next();
+            tx.success();
+            return row;
+        }
+    }
+}
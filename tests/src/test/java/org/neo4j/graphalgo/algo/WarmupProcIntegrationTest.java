@@ -0,0 +1,91 @@
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.WarmupProc;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WarmupProcIntegrationTest {
+
+    private static final String DB_CYPHER = "" +
+            "UNWIND range(0, 999) AS i\n" +
+            "CREATE (n:Node {id:i, name:'node ' + i})\n" +
+            "WITH n, i WHERE i < 10\n" +
+            "SET n:Few\n" +
+            "WITH count(*) AS ignored\n" +
+            "MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 1000\n" +
+            "CREATE (a)-[:TYPE {w:1.0}]->(b)";
+
+    private static GraphDatabaseAPI db;
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (db != null) db.shutdown();
+    }
+
+    @BeforeClass
+    public static void setup() throws KernelException {
+        db = (GraphDatabaseAPI)
+                new TestGraphDatabaseFactory()
+                        .newImpermanentDatabaseBuilder()
+                        .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(WarmupProc.class);
+    }
+
+    @Test
+    public void testFullWarmup() throws Exception {
+        final Map<String, Object> row = warmup("CALL algo.warmup('', '', {batchSize:1})");
+        final long nodePages = (long) row.get("nodePages");
+        final long relationshipPages = (long) row.get("relationshipPages");
+        final long propertyPages = (long) row.get("propertyPages");
+        assertTrue(nodePages > 0);
+        assertTrue(relationshipPages > 0);
+        assertTrue(propertyPages > 0);
+        assertEquals(nodePages + relationshipPages + propertyPages, row.get("pages"));
+        assertEquals((long) row.get("pages") * (long) row.get("pageSize"), row.get("bytes"));
+
+        final Map<String, Object> withoutProperties = warmup("CALL algo.warmup('', '', {properties:false})");
+        assertEquals(0L, withoutProperties.get("propertyPages"));
+        assertEquals(nodePages, withoutProperties.get("nodePages"));
+    }
+
+    @Test
+    public void testProjectionWarmup() throws Exception {
+        final Map<String, Object> all = warmup("CALL algo.warmup('', '')");
+        final Map<String, Object> few = warmup("CALL algo.warmup('Few', 'TYPE', {batchSize:100})");
+        // the few nodes are created first and share the first page
+        assertEquals(1L, few.get("nodePages"));
+        assertTrue((long) few.get("relationshipPages") > 0);
+        assertTrue((long) few.get("nodePages") <= (long) all.get("nodePages"));
+        assertTrue((long) few.get("relationshipPages") <= (long) all.get("relationshipPages"));
+        assertEquals(0L, few.get("propertyPages"));
+
+        final Map<String, Object> none = warmup("CALL algo.warmup('Missing', '')");
+        assertEquals(0L, none.get("pages"));
+    }
+
+    private static Map<String, Object> warmup(String query) {
+        try (Transaction tx = db.beginTx()) {
+            final Map<String, Object> row = db.execute(query).next();
+            tx.success();
+            return row;
+        }
+    }
+}
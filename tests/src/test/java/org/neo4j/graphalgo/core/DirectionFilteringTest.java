@@ -6,8 +6,11 @@ import org.junit.runners.Parameterized;
 import org.junit.runners.Parameterized.Parameters;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.compressed.CompressedGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
 import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.offheap.OffHeapGraphFactory;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Arrays;
@@ -25,7 +28,10 @@ public final class DirectionFilteringTest extends RandomGraphTestCase {
     public static Collection<Object[]> data() {
         return Arrays.asList(
                 new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
-                new Object[]{LightGraphFactory.class, "LightGraphFactory"}
+                new Object[]{LightGraphFactory.class, "LightGraphFactory"},
+                new Object[]{CompressedGraphFactory.class, "CompressedGraphFactory"},
+                new Object[]{OffHeapGraphFactory.class, "OffHeapGraphFactory"},
+                new Object[]{HugeGraphFactory.class, "HugeGraphFactory"}
         );
     }
 
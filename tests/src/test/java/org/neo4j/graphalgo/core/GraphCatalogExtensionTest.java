@@ -0,0 +1,38 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class GraphCatalogExtensionTest {
+
+    @Test
+    public void testCatalogIsDroppedOnShutdown() throws Exception {
+        final GraphDatabaseAPI db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        final GraphCatalog catalog;
+        try {
+            try (Transaction tx = db.beginTx()) {
+                db.execute("CREATE (:Node)-[:TYPE]->(:Node)").close();
+                tx.success();
+            }
+            final Graph graph = new GraphLoader(db)
+                    .withDirection(Direction.OUTGOING)
+                    .load(HeavyGraphFactory.class);
+            catalog = GraphCatalog.of(db);
+            catalog.put("g", "heavy", Direction.OUTGOING, false, graph, false, 1.0, null);
+            assertEquals(1, catalog.list().size());
+        } finally {
+            db.shutdown();
+        }
+
+        assertTrue(catalog.list().isEmpty());
+        assertEquals(0L, catalog.usedBytes());
+    }
+}
@@ -0,0 +1,107 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.api.ReadOperations;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class IdMapLoaderTest {
+
+    private static final Label LABEL = Label.label("Label");
+
+    private static GraphDatabaseAPI db;
+    private static ExecutorService pool;
+    private static long[] allIds;
+    private static long[] labeledIds;
+    private static long deletedId;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        pool = Executors.newFixedThreadPool(3);
+
+        List<Long> all = new ArrayList<>();
+        List<Long> labeled = new ArrayList<>();
+        try (Transaction tx = db.beginTx()) {
+            for (int i = 0; i < 100; i++) {
+                final Node node = i % 3 == 0 ? db.createNode(LABEL) : db.createNode();
+                all.add(node.getId());
+                if (i % 3 == 0) {
+                    labeled.add(node.getId());
+                }
+            }
+            tx.success();
+        }
+        try (Transaction tx = db.beginTx()) {
+            deletedId = all.remove(43);
+            db.getNodeById(deletedId).delete();
+            tx.success();
+        }
+        allIds = all.stream().mapToLong(Long::longValue).toArray();
+        labeledIds = labeled.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (pool != null) pool.shutdown();
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldMapAllNodesSequential() throws Exception {
+        final IdMap idMap = IdMapLoader.load(db, ReadOperations.ANY_LABEL, 7, null);
+        assertMapping(allIds, idMap);
+    }
+
+    @Test
+    public void shouldMapAllNodesInParallel() throws Exception {
+        final IdMap idMap = IdMapLoader.load(db, ReadOperations.ANY_LABEL, 7, pool);
+        assertMapping(allIds, idMap);
+        assertFalse(idMap.contains(deletedId));
+    }
+
+    @Test
+    public void shouldMapLabeledNodesInParallel() throws Exception {
+        final int labelId = labelId();
+        final IdMap idMap = IdMapLoader.load(db, labelId, 7, pool);
+        assertMapping(labeledIds, idMap);
+    }
+
+    private static void assertMapping(long[] expected, IdMap idMap) {
+        assertEquals(expected.length, idMap.size());
+        assertArrayEquals(expected, idMap.mappedIds());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i, idMap.get(expected[i]));
+            assertEquals(expected[i], idMap.toOriginalNodeId(i));
+        }
+    }
+
+    private static int labelId() {
+        try (Transaction tx = db.beginTx()) {
+            final int labelId = db.getDependencyResolver()
+                    .resolveDependency(ThreadToStatementContextBridge.class)
+                    .get()
+                    .readOperations()
+                    .labelGetForName(LABEL.name());
+            tx.success();
+            return labelId;
+        }
+    }
+}
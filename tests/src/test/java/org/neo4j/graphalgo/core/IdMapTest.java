@@ -72,6 +72,75 @@ public final class IdMapTest extends RandomizedTest {
         }
     }
 
+    @Test
+    public void shouldMapDenseSortedIdsToThemselves() throws Exception {
+        long[] ids = {0L, 1L, 2L, 3L, 4L};
+        IdMap idMap = IdMap.ofSortedIds(ids);
+
+        assertEquals(5, idMap.nodeCount());
+        assertArrayEquals(ids, idMap.mappedIds());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, idMap.get(ids[i]));
+            assertEquals(ids[i], idMap.toOriginalNodeId(i));
+        }
+        assertEquals(-1, idMap.get(5L));
+        assertEquals(-1, idMap.toMappedNodeId(-1L));
+        assertFalse(idMap.contains(5L));
+        assertEquals(3, idMap.nodeToGraphIds().get(3L));
+        assertIterables(idMap, ids, idMap.batchIterables(2));
+    }
+
+    @Test
+    public void shouldSearchSparseSortedIds() throws Exception {
+        long[] ids = {3L, 7L, 8L, 42L, 1337L};
+        IdMap idMap = IdMap.ofSortedIds(ids);
+
+        assertEquals(5, idMap.nodeCount());
+        assertArrayEquals(ids, idMap.mappedIds());
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, idMap.get(ids[i]));
+            assertEquals(ids[i], idMap.toOriginalNodeId(i));
+            assertTrue(idMap.contains(ids[i]));
+        }
+        assertEquals(-1, idMap.get(0L));
+        assertEquals(-1, idMap.toMappedNodeId(9L));
+        assertFalse(idMap.contains(2000L));
+        assertEquals(3, idMap.nodeToGraphIds().get(42L));
+
+        IdMap reordered = idMap.reorder(new int[]{4, 3, 2, 1, 0});
+        assertEquals(4, reordered.get(3L));
+        assertEquals(3L, reordered.toOriginalNodeId(4));
+    }
+
+    @Test
+    public void shouldReorderSortedIdsWithoutHashMap() throws Exception {
+        IdMap dense = IdMap.ofSortedIds(new long[]{0L, 1L, 2L, 3L});
+        assertSame(dense.mappedIds(), dense.mappedIds());
+        assertSame(dense.nodeToGraphIds(), dense.nodeToGraphIds());
+
+        IdMap reordered = IdMap.ofSortedIds(new long[]{3L, 7L, 8L, 42L})
+                .reorder(new int[]{2, 0, 3, 1})
+                .reorder(new int[]{1, 2, 3, 0});
+        assertArrayEquals(new long[]{8L, 7L, 42L, 3L}, reordered.mappedIds());
+        assertSame(reordered.mappedIds(), reordered.mappedIds());
+        assertEquals(3, reordered.get(3L));
+        assertEquals(1, reordered.get(7L));
+        assertEquals(0, reordered.get(8L));
+        assertEquals(2, reordered.get(42L));
+        assertEquals(-1, reordered.get(9L));
+        assertEquals(2, reordered.nodeToGraphIds().get(42L));
+        try {
+            reordered.add(1L);
+            fail("a reordered map of sorted ids is immutable");
+        } catch (UnsupportedOperationException expected) {
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAddToSortedIds() throws Exception {
+        IdMap.ofSortedIds(new long[]{1L, 5L}).add(7L);
+    }
+
     private void assertIterables(
             final IdMap idMap,
             final long[] ids,
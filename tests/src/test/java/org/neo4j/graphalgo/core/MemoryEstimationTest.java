@@ -0,0 +1,132 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.utils.MemoryEstimate;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Estimates are derived from the counts store.
+ *
+ *  (a:Node)-[:TYPE]->(b:Node)
+ *  (a:Node)-[:TYPE]->(c:Node)
+ *  (b:Node)-[:TYPE]->(c:Node)
+ *  (c:Node)-[:TYPE]->(d:Other)
+ *  (d:Other)-[:OTHER]->(a:Node)
+ */
+@RunWith(Parameterized.class)
+public final class MemoryEstimationTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE (d:Other {name:'d'})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE {w:1.0}]->(b),\n" +
+            "  (a)-[:TYPE {w:1.0}]->(c),\n" +
+            "  (b)-[:TYPE {w:1.0}]->(c),\n" +
+            "  (c)-[:TYPE {w:1.0}]->(d),\n" +
+            "  (d)-[:OTHER]->(a)";
+
+    private static GraphDatabaseAPI db;
+
+    @Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
+                new Object[]{LightGraphFactory.class, "LightGraphFactory"},
+                new Object[]{HugeGraphFactory.class, "HugeGraphFactory"}
+        );
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (db != null) db.shutdown();
+    }
+
+    private final Class<? extends GraphFactory> graphImpl;
+
+    public MemoryEstimationTest(
+            Class<? extends GraphFactory> graphImpl,
+            String name) {
+        this.graphImpl = graphImpl;
+    }
+
+    @Test
+    public void testCountsOfLabelAndType() throws Exception {
+        final MemoryEstimate estimate = estimate("Node", "TYPE", Direction.OUTGOING);
+        assertEquals(3L, estimate.nodeCount);
+        assertEquals(4L, estimate.relationshipCount);
+        assertTrue(estimate.bytes > 0L);
+    }
+
+    @Test
+    public void testCountsOfBothDirections() throws Exception {
+        final MemoryEstimate outgoing = estimate("Node", "TYPE", Direction.OUTGOING);
+        final MemoryEstimate both = estimate("Node", "TYPE", Direction.BOTH);
+        // (c)->(d) does not end at a :Node
+        assertEquals(7L, both.relationshipCount);
+        assertTrue(both.bytes > outgoing.bytes);
+    }
+
+    @Test
+    public void testCountsOfAnyLabelAndType() throws Exception {
+        final MemoryEstimate estimate = estimate(null, null, Direction.OUTGOING);
+        assertEquals(4L, estimate.nodeCount);
+        assertEquals(5L, estimate.relationshipCount);
+    }
+
+    @Test
+    public void testUnknownRelationshipType() throws Exception {
+        // relationships of every type are loaded for a type which does not exist
+        final MemoryEstimate estimate = estimate("Node", "UNKNOWN", Direction.BOTH);
+        final MemoryEstimate any = estimate("Node", null, Direction.BOTH);
+        assertEquals(3L, estimate.nodeCount);
+        assertEquals(8L, estimate.relationshipCount);
+        assertEquals(any.bytes, estimate.bytes);
+    }
+
+    @Test
+    public void testMoreRelationshipsNeedMoreMemory() throws Exception {
+        final MemoryEstimate type = estimate(null, "TYPE", Direction.OUTGOING);
+        final MemoryEstimate any = estimate(null, null, Direction.OUTGOING);
+        assertTrue(any.bytes > type.bytes);
+    }
+
+    private MemoryEstimate estimate(String label, String type, Direction direction) {
+        return new GraphLoader(db)
+                .withOptionalLabel(label)
+                .withOptionalRelationshipType(type)
+                .withDirection(direction)
+                .estimate(graphImpl);
+    }
+}
@@ -0,0 +1,155 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.compressed.CompressedGraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.neo4jview.GraphViewFactory;
+import org.neo4j.graphalgo.core.offheap.OffHeapGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Every implementation loads all of the types of a {@code KNOWS|FOLLOWS}
+ * selector and nothing else.
+ *
+ *  (a)-[:KNOWS]->(b)
+ *  (a)-[:FOLLOWS]->(c)
+ *  (b)-[:OTHER]->(c)       not loaded
+ *  (c)-[:KNOWS]->(a)
+ *  (d:Other)-[:FOLLOWS]->(b)
+ */
+@RunWith(Parameterized.class)
+public final class MultipleRelationshipTypesTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE (d:Other {name:'d'})\n" +
+            "CREATE\n" +
+            "  (a)-[:KNOWS]->(b),\n" +
+            "  (a)-[:FOLLOWS]->(c),\n" +
+            "  (b)-[:OTHER]->(c),\n" +
+            "  (c)-[:KNOWS]->(a),\n" +
+            "  (d)-[:FOLLOWS]->(b)";
+
+    private static GraphDatabaseAPI db;
+    private static long a, b, c, d;
+
+    @Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
+                new Object[]{LightGraphFactory.class, "LightGraphFactory"},
+                new Object[]{CompressedGraphFactory.class, "CompressedGraphFactory"},
+                new Object[]{OffHeapGraphFactory.class, "OffHeapGraphFactory"},
+                new Object[]{HugeGraphFactory.class, "HugeGraphFactory"},
+                new Object[]{GraphViewFactory.class, "GraphViewFactory"}
+        );
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+        try (Transaction tx = db.beginTx()) {
+            a = db.findNode(Label.label("Node"), "name", "a").getId();
+            b = db.findNode(Label.label("Node"), "name", "b").getId();
+            c = db.findNode(Label.label("Node"), "name", "c").getId();
+            d = db.findNode(Label.label("Other"), "name", "d").getId();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) {
+            db.shutdown();
+        }
+    }
+
+    private final Class<? extends GraphFactory> graphImpl;
+
+    @SuppressWarnings("unchecked")
+    public MultipleRelationshipTypesTest(
+            Class<?> graphImpl,
+            String nameIgnoredOnlyForTestName) {
+        this.graphImpl = (Class<? extends GraphFactory>) graphImpl;
+    }
+
+    @Test
+    public void shouldLoadAllSelectedTypesOfLabelledNodes() {
+        final Graph graph = load("Node");
+        assertEquals(3, graph.nodeCount());
+        assertNeighbours(graph, a, Direction.OUTGOING, b, c);
+        assertNeighbours(graph, b, Direction.OUTGOING);
+        assertNeighbours(graph, c, Direction.OUTGOING, a);
+        assertNeighbours(graph, a, Direction.INCOMING, c);
+        assertNeighbours(graph, c, Direction.INCOMING, a);
+    }
+
+    @Test
+    public void shouldLoadAllSelectedTypesOfAnyNode() {
+        final Graph graph = load(null);
+        assertEquals(4, graph.nodeCount());
+        assertNeighbours(graph, a, Direction.OUTGOING, b, c);
+        assertNeighbours(graph, b, Direction.OUTGOING);
+        assertNeighbours(graph, d, Direction.OUTGOING, b);
+        assertNeighbours(graph, b, Direction.INCOMING, a, d);
+        assertNeighbours(graph, c, Direction.INCOMING, a);
+    }
+
+    private Graph load(String label) {
+        return new GraphLoader(db)
+                .withOptionalLabel(label)
+                .withRelationshipType("KNOWS|FOLLOWS")
+                .withDirection(Direction.BOTH)
+                .load(graphImpl);
+    }
+
+    private static void assertNeighbours(
+            Graph graph,
+            long node,
+            Direction direction,
+            long... expected) {
+        final int nodeId = graph.toMappedNodeId(node);
+        final List<Long> actual = new ArrayList<>();
+        graph.forEachRelationship(nodeId, direction, (s, t, r) -> {
+            actual.add(graph.toOriginalNodeId(t));
+            return true;
+        });
+        final List<Long> expectedList = new ArrayList<>();
+        for (long target : expected) {
+            expectedList.add(target);
+        }
+        Collections.sort(actual);
+        Collections.sort(expectedList);
+        assertEquals(expectedList, actual);
+        assertEquals(expected.length, graph.degree(nodeId, direction));
+    }
+}
@@ -0,0 +1,108 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.compressed.CompressedGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.offheap.OffHeapGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.helpers.collection.Iterables;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public final class ParallelLoadingTest extends RandomGraphTestCase {
+
+    @Parameters(name = "{1}, batchSize={2}")
+    public static Collection<Object[]> data() {
+        final Object[][] factories = {
+                {LightGraphFactory.class, "LightGraphFactory"},
+                {CompressedGraphFactory.class, "CompressedGraphFactory"},
+                {OffHeapGraphFactory.class, "OffHeapGraphFactory"},
+                {HugeGraphFactory.class, "HugeGraphFactory"}
+        };
+        final List<Object[]> data = new ArrayList<>();
+        for (Object[] factory : factories) {
+            for (int batchSize : new int[]{7, 30, 1000}) {
+                data.add(new Object[]{factory[0], factory[1], batchSize});
+            }
+        }
+        return data;
+    }
+
+    private Graph graph;
+
+    @SuppressWarnings("unchecked")
+    public ParallelLoadingTest(
+            Class<?> graphImpl,
+            String nameIgnoredOnlyForTestName,
+            int batchSize) {
+        final ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            graph = new GraphLoader(db)
+                    .withExecutorService(pool)
+                    .withBatchSize(batchSize)
+                    .load((Class<? extends GraphFactory>) graphImpl);
+        } catch (Exception e) {
+            markFailure();
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldLoadAllNodes() throws Exception {
+        assertEquals(NODE_COUNT, graph.nodeCount());
+    }
+
+    @Test
+    public void shouldLoadAllRelationships() throws Exception {
+        try (Transaction tx = db.beginTx()) {
+            graph.forEachNode(nodeId -> {
+                testRelationships(nodeId, Direction.OUTGOING);
+                testRelationships(nodeId, Direction.INCOMING);
+                return true;
+            });
+            tx.success();
+        }
+    }
+
+    private void testRelationships(int nodeId, final Direction direction) {
+        final Node node = db.getNodeById(graph.toOriginalNodeId(nodeId));
+        final List<Integer> neighbours = Iterables
+                .stream(node.getRelationships(direction))
+                .map(rel -> graph.toMappedNodeId(rel.getOtherNode(node).getId()))
+                .collect(Collectors.toList());
+        assertEquals(neighbours.size(), graph.degree(nodeId, direction));
+        graph.forEachRelationship(
+                nodeId,
+                direction,
+                (sourceId, targetId, relationId) -> {
+                    assertEquals(nodeId, sourceId);
+                    assertTrue(
+                            "Relation that does not exist in the graph",
+                            neighbours.remove((Integer) targetId));
+                    return true;
+                });
+
+        assertTrue(
+                "Relationships that were not traversed " + neighbours,
+                neighbours.isEmpty());
+    }
+}
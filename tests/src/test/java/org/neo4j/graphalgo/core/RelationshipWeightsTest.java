@@ -0,0 +1,140 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Parallel relationships must keep their own weight in both directions.
+ *
+ *  (a)-[1.0]->(b)
+ *  (a)-[2.0]->(b)
+ *  (a)->(c)          no weight property
+ *  (c)-[4.0]->(a)
+ */
+@RunWith(Parameterized.class)
+public final class RelationshipWeightsTest {
+
+    private static final double DEFAULT_WEIGHT = 42.0;
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE {w:1.0}]->(b),\n" +
+            "  (a)-[:TYPE {w:2.0}]->(b),\n" +
+            "  (a)-[:TYPE]->(c),\n" +
+            "  (c)-[:TYPE {w:4.0}]->(a)";
+
+    private static GraphDatabaseAPI db;
+    private static long a, b, c;
+
+    @Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
+                new Object[]{HeavyCypherGraphFactory.class, "HeavyCypherGraphFactory"},
+                new Object[]{LightGraphFactory.class, "LightGraphFactory"}
+        );
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+        try (Transaction tx = db.beginTx()) {
+            a = db.findNode(Label.label("Node"), "name", "a").getId();
+            b = db.findNode(Label.label("Node"), "name", "b").getId();
+            c = db.findNode(Label.label("Node"), "name", "c").getId();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void shutdownGraph() throws Exception {
+        if (db != null) db.shutdown();
+    }
+
+    private final Class<? extends GraphFactory> graphImpl;
+
+    public RelationshipWeightsTest(
+            Class<? extends GraphFactory> graphImpl,
+            String nameIgnoredOnlyForTestName) {
+        this.graphImpl = graphImpl;
+    }
+
+    @Test
+    public void shouldKeepWeightsOfParallelRelationships() throws Exception {
+        final Graph graph = load(Direction.OUTGOING);
+        assertEquals(Arrays.asList(1.0, 2.0), weights(graph, a, b, Direction.OUTGOING));
+        assertEquals(Collections.singletonList(DEFAULT_WEIGHT), weights(graph, a, c, Direction.OUTGOING));
+        assertEquals(Collections.singletonList(4.0), weights(graph, c, a, Direction.OUTGOING));
+    }
+
+    @Test
+    public void shouldLoadIncomingWeights() throws Exception {
+        if (graphImpl == HeavyCypherGraphFactory.class) {
+            // the cypher loader only creates outgoing relationships
+            return;
+        }
+        final Graph graph = load(Direction.BOTH);
+        assertEquals(Arrays.asList(1.0, 2.0), weights(graph, b, a, Direction.INCOMING));
+        assertEquals(Collections.singletonList(DEFAULT_WEIGHT), weights(graph, c, a, Direction.INCOMING));
+        assertEquals(Collections.singletonList(4.0), weights(graph, a, c, Direction.INCOMING));
+    }
+
+    private Graph load(Direction direction) {
+        final GraphLoader loader = new GraphLoader(db)
+                .withRelationshipWeightsFromProperty("w", DEFAULT_WEIGHT)
+                .withDirection(direction);
+        if (graphImpl == HeavyCypherGraphFactory.class) {
+            loader.withLabel("MATCH (n:Node) RETURN id(n) as id")
+                    .withRelationshipType("MATCH (n:Node)-[r:TYPE]->(m:Node) " +
+                            "RETURN id(n) as source, id(m) as target, r.w as weight");
+        } else {
+            loader.withLabel("Node").withRelationshipType("TYPE");
+        }
+        return loader.load(graphImpl);
+    }
+
+    private static List<Double> weights(Graph graph, long node, long other, Direction direction) {
+        final int nodeId = graph.toMappedNodeId(node);
+        final int otherId = graph.toMappedNodeId(other);
+        final List<Double> weights = new ArrayList<>();
+        graph.forEachRelationship(nodeId, direction, (source, target, relationId, weight) -> {
+            if (target == otherId) {
+                weights.add(weight);
+            }
+            return true;
+        });
+        Collections.sort(weights);
+        return weights;
+    }
+}
@@ -0,0 +1,166 @@
+package org.neo4j.graphalgo.core;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.offheap.OffHeapGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Relationships to nodes which are not loaded must be dropped without
+ * leaving an edge behind, in every batch.
+ *
+ *  (x)-->(a)-->(b)
+ *  (a)-->(y)<--(b)
+ *  (c)-->(a), (c)-->(z), (c)-->(x)
+ *
+ * Only a, b and c are labelled, x, y and z are not. x is created first,
+ * so its slots would read as edges to the first mapped node.
+ */
+@RunWith(Parameterized.class)
+public final class UnmappedTargetsTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (x {name:'x'})\n" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (y {name:'y'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (z {name:'z'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE\n" +
+            "  (x)-[:TYPE]->(a),\n" +
+            "  (a)-[:TYPE]->(b),\n" +
+            "  (a)-[:TYPE]->(y),\n" +
+            "  (b)-[:TYPE]->(y),\n" +
+            "  (c)-[:TYPE]->(a),\n" +
+            "  (c)-[:TYPE]->(z),\n" +
+            "  (c)-[:TYPE]->(x)";
+
+    private static GraphDatabaseAPI db;
+    private static long a, b, c;
+
+    @Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
+                new Object[]{LightGraphFactory.class, "LightGraphFactory"},
+                new Object[]{OffHeapGraphFactory.class, "OffHeapGraphFactory"},
+                new Object[]{HugeGraphFactory.class, "HugeGraphFactory"}
+        );
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+        try (Transaction tx = db.beginTx()) {
+            a = db.findNode(Label.label("Node"), "name", "a").getId();
+            b = db.findNode(Label.label("Node"), "name", "b").getId();
+            c = db.findNode(Label.label("Node"), "name", "c").getId();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) {
+            db.shutdown();
+        }
+    }
+
+    private final Class<? extends GraphFactory> graphImpl;
+
+    @SuppressWarnings("unchecked")
+    public UnmappedTargetsTest(
+            Class<?> graphImpl,
+            String nameIgnoredOnlyForTestName) {
+        this.graphImpl = (Class<? extends GraphFactory>) graphImpl;
+    }
+
+    @Test
+    public void shouldSkipRelationshipsToUnlabelledNodes() {
+        final Graph graph = load(1000);
+        assertEquals(3, graph.nodeCount());
+        assertNeighbours(graph, a, Direction.OUTGOING, b);
+        assertNeighbours(graph, b, Direction.OUTGOING);
+        assertNeighbours(graph, c, Direction.OUTGOING, a);
+        assertNeighbours(graph, a, Direction.INCOMING, c);
+        assertNeighbours(graph, b, Direction.INCOMING, a);
+        assertNeighbours(graph, c, Direction.INCOMING);
+    }
+
+    @Test
+    public void shouldSkipRelationshipsToUnlabelledNodesInEveryBatch() {
+        final Graph graph = load(1);
+        assertEquals(3, graph.nodeCount());
+        assertNeighbours(graph, a, Direction.OUTGOING, b);
+        assertNeighbours(graph, b, Direction.OUTGOING);
+        assertNeighbours(graph, c, Direction.OUTGOING, a);
+        assertNeighbours(graph, a, Direction.INCOMING, c);
+        assertNeighbours(graph, b, Direction.INCOMING, a);
+        assertNeighbours(graph, c, Direction.INCOMING);
+    }
+
+    private Graph load(int batchSize) {
+        final ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            return new GraphLoader(db)
+                    .withLabel("Node")
+                    .withRelationshipType("TYPE")
+                    .withDirection(Direction.BOTH)
+                    .withExecutorService(pool)
+                    .withBatchSize(batchSize)
+                    .load(graphImpl);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assertNeighbours(
+            Graph graph,
+            long node,
+            Direction direction,
+            long... expected) {
+        final int nodeId = graph.toMappedNodeId(node);
+        final List<Long> actual = new ArrayList<>();
+        graph.forEachRelationship(nodeId, direction, (s, t, r) -> {
+            actual.add(graph.toOriginalNodeId(t));
+            return true;
+        });
+        final List<Long> expectedList = new ArrayList<>();
+        for (long target : expected) {
+            expectedList.add(target);
+        }
+        Collections.sort(actual);
+        Collections.sort(expectedList);
+        assertEquals(expectedList, actual);
+        assertEquals(expected.length, graph.degree(nodeId, direction));
+    }
+}
@@ -0,0 +1,88 @@
+package org.neo4j.graphalgo.core.compressed;
+
+import com.carrotsearch.hppc.IntArrayList;
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.RawValues;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class CompressedAdjacencyTest {
+
+    @Test
+    public void shouldEncodeLargeDeltasAcrossPages() throws Exception {
+        final int nodeCount = 200;
+        final Random random = new Random(42L);
+        final int[][] expected = new int[nodeCount][];
+        final long[] offsets = new long[nodeCount];
+
+        // two batches to exercise the relocation of the second one
+        final CompressedAdjacency.Builder first = new CompressedAdjacency.Builder(offsets);
+        final CompressedAdjacency.Builder second = new CompressedAdjacency.Builder(offsets);
+        for (int node = 0; node < nodeCount; node++) {
+            final int degree = node % 7 == 0 ? 0 : random.nextInt(2000);
+            final int[] targets = new int[degree];
+            for (int i = 0; i < degree; i++) {
+                targets[i] = random.nextInt(Integer.MAX_VALUE);
+            }
+            (node < nodeCount / 2 ? first : second).add(node, targets, degree);
+            Arrays.sort(targets);
+            expected[node] = targets;
+        }
+
+        final int firstPages = first.pageCount();
+        final byte[][] pages = new byte[firstPages + second.pageCount()][];
+        first.relocate(0, nodeCount / 2, 0);
+        first.transferPages(pages, 0);
+        second.relocate(nodeCount / 2, nodeCount / 2, firstPages);
+        second.transferPages(pages, firstPages);
+
+        final CompressedAdjacency adjacency = new CompressedAdjacency(pages, offsets);
+        for (int node = 0; node < nodeCount; node++) {
+            assertEquals(expected[node].length, adjacency.degree(node));
+            final IntArrayList actual = new IntArrayList();
+            final int source = node;
+            adjacency.forEach(node, RawValues.OUTGOING, (s, t, r) -> {
+                assertEquals(source, s);
+                assertEquals(RawValues.combineIntInt(s, t), r);
+                actual.add(t);
+                return true;
+            });
+            assertArrayEquals(expected[node], actual.toArray());
+        }
+    }
+
+    @Test
+    public void shouldIterateWeightsAlignedToTheTargets() throws Exception {
+        final long[] offsets = CompressedAdjacency.emptyOffsets(3);
+        final long[] weightOffsets = {0L, 3L, 3L, 5L};
+        final HugeDoubleArray weights = HugeDoubleArray.newArray(5L);
+        final double[] values = {1.0, 2.0, 3.0, 4.0, 5.0};
+        for (int i = 0; i < values.length; i++) {
+            weights.set(i, values[i]);
+        }
+
+        final CompressedAdjacency.Builder builder = new CompressedAdjacency.Builder(offsets);
+        builder.add(0, new int[]{0, 1, 2}, 3);
+        builder.add(2, new int[]{0, 1}, 2);
+        final byte[][] pages = new byte[builder.pageCount()][];
+        builder.relocate(0, 3, 0);
+        builder.transferPages(pages, 0);
+
+        final CompressedAdjacency adjacency = new CompressedAdjacency(pages, offsets, weights, weightOffsets);
+        final double[] actual = new double[values.length];
+        final int[] index = {0};
+        for (int node = 0; node < 3; node++) {
+            adjacency.forEach(node, RawValues.OUTGOING, 42.0, (s, t, r, w) -> {
+                actual[index[0]++] = w;
+                return true;
+            });
+        }
+        assertArrayEquals(values, actual, 0.0);
+        assertEquals(0, adjacency.degree(1));
+    }
+}
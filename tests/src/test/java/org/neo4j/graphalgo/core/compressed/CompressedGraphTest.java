@@ -0,0 +1,17 @@
+package org.neo4j.graphalgo.core.compressed;
+
+import org.junit.BeforeClass;
+import org.neo4j.graphalgo.SimpleGraphTestCase;
+import org.neo4j.graphalgo.SimpleGraphSetup;
+
+public class CompressedGraphTest extends SimpleGraphTestCase {
+
+    @BeforeClass
+    public static void setupGraph() {
+        final SimpleGraphSetup setup = new SimpleGraphSetup();
+        graph = setup.build(CompressedGraphFactory.class);
+        v0 = setup.getV0();
+        v1 = setup.getV1();
+        v2 = setup.getV2();
+    }
+}
@@ -0,0 +1,123 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Direction.BOTH;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+public class AdjacencyMatrixSortTest {
+
+    @Test
+    public void testSortKeepsWeightsAligned() throws Exception {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(4, true, true, true);
+        matrix.armOut(0, 3);
+        matrix.addOutgoing(0, 3, 3.0);
+        matrix.addOutgoing(0, 1, 1.0);
+        matrix.addOutgoing(0, 2, 2.0);
+        matrix.armIn(1, 2);
+        matrix.addIncoming(3, 1, 3.0);
+        matrix.addIncoming(0, 1, 1.0);
+        assertFalse(matrix.isSorted());
+
+        matrix.sort(null, 1);
+
+        assertTrue(matrix.isSorted());
+        assertArrayEquals(new int[]{1, 2, 3}, targets(matrix, 0, OUTGOING));
+        assertArrayEquals(new int[]{0, 3}, targets(matrix, 1, INCOMING));
+        assertArrayEquals(new double[]{1.0, 2.0, 3.0}, weights(matrix, 0, OUTGOING), 0.0);
+        assertEquals(2.0, matrix.weightOf(0, 2, 0.0), 0.0);
+        assertEquals(0.0, matrix.weightOf(0, 0, 0.0), 0.0);
+    }
+
+    @Test
+    public void testBinarySearchLookups() throws Exception {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(100, false, true, true);
+        matrix.armOut(0, 50);
+        for (int i = 49; i >= 0; i--) {
+            // only even targets, duplicates of 10 with different weights
+            matrix.addOutgoing(0, i * 2, i);
+        }
+        matrix.addOutgoing(0, 10, 42.0);
+        matrix.sort(null, 1);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0, matrix.hasOutgoing(0, i));
+            assertEquals(i % 2 == 0, matrix.exists(0, i, OUTGOING));
+            // incoming is not loaded, the outgoing relations are used instead
+            assertEquals(i % 2 == 0, matrix.exists(i, 0, INCOMING));
+            assertEquals(i % 2 == 0, matrix.exists(i, 0, BOTH));
+        }
+        assertEquals(5.0, matrix.weightOf(0, 10, 0.0), 0.0);
+        assertEquals(-1, matrix.outgoingIndex(0, 11));
+    }
+
+    @Test
+    public void testParallelSort() throws Exception {
+        final int nodeCount = 1000;
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount, true, true);
+        for (int node = 0; node < nodeCount; node++) {
+            matrix.armOut(node, 10);
+            for (int i = 10; i > 0; i--) {
+                final int target = (node + i * 7) % nodeCount;
+                matrix.addOutgoing(node, target);
+                matrix.addIncoming(node, target);
+            }
+        }
+        matrix.sort(Pools.DEFAULT, 4);
+
+        for (int node = 0; node < nodeCount; node++) {
+            assertSorted(targets(matrix, node, OUTGOING));
+            assertSorted(targets(matrix, node, INCOMING));
+            assertEquals(10, matrix.degree(node, OUTGOING));
+        }
+    }
+
+    @Test
+    public void testAddResetsSorted() throws Exception {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(3);
+        matrix.armOut(0, 2);
+        matrix.addOutgoing(0, 2);
+        matrix.sort(null, 1);
+        assertTrue(matrix.isSorted());
+
+        matrix.addOutgoing(0, 1);
+        assertFalse(matrix.isSorted());
+        assertTrue(matrix.hasOutgoing(0, 1));
+        assertTrue(matrix.hasOutgoing(0, 2));
+    }
+
+    private static void assertSorted(int[] targets) {
+        final int[] sorted = targets.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(sorted, targets);
+    }
+
+    private static int[] targets(AdjacencyMatrix matrix, int node, Direction direction) {
+        final List<Integer> targets = new ArrayList<>();
+        matrix.forEach(node, direction, (s, t, r) -> {
+            targets.add(t);
+            return true;
+        });
+        return targets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double[] weights(AdjacencyMatrix matrix, int node, Direction direction) {
+        final List<Double> weights = new ArrayList<>();
+        matrix.forEach(node, direction, 0.0, (s, t, r, w) -> {
+            weights.add(w);
+            return true;
+        });
+        return weights.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
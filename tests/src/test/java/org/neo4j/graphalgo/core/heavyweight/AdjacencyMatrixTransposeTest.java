@@ -0,0 +1,152 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Direction.INCOMING;
+
+public class AdjacencyMatrixTransposeTest {
+
+    @Test
+    public void testTransposeWithWeights() throws Exception {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(4, true, true, true);
+        matrix.armOut(0, 2);
+        matrix.addOutgoing(0, 2, 1.0);
+        matrix.addOutgoing(0, 1, 2.0);
+        matrix.armOut(2, 2);
+        matrix.addOutgoing(2, 1, 3.0);
+        matrix.addOutgoing(2, 2, 4.0);
+        matrix.armOut(3, 1);
+        matrix.addOutgoing(3, 1, 5.0);
+
+        matrix.transpose(null, 1);
+
+        assertArrayEquals(new int[0], targets(matrix, 0, INCOMING));
+        assertArrayEquals(new int[]{0, 2, 3}, targets(matrix, 1, INCOMING));
+        assertArrayEquals(new int[]{0, 2}, targets(matrix, 2, INCOMING));
+        assertArrayEquals(new double[]{2.0, 3.0, 5.0}, weights(matrix, 1, INCOMING), 0.0);
+        assertArrayEquals(new double[]{1.0, 4.0}, weights(matrix, 2, INCOMING), 0.0);
+        assertEquals(3, matrix.degree(1, INCOMING));
+        assertEquals(0, matrix.degree(3, INCOMING));
+    }
+
+    @Test
+    public void testTransposeLayers() throws Exception {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(3, true, true, false, 2);
+        matrix.armOut(0, 2);
+        matrix.addOutgoing(0, 1);
+        matrix.finishLayer(0, 0, Direction.OUTGOING);
+        matrix.addOutgoing(0, 2);
+        matrix.finishLayer(0, 1, Direction.OUTGOING);
+        matrix.armOut(1, 1);
+        matrix.finishLayer(1, 0, Direction.OUTGOING);
+        matrix.addOutgoing(1, 2);
+        matrix.finishLayer(1, 1, Direction.OUTGOING);
+        matrix.armOut(2, 1);
+        matrix.addOutgoing(2, 1);
+        matrix.finishLayer(2, 0, Direction.OUTGOING);
+        matrix.finishLayer(2, 1, Direction.OUTGOING);
+
+        matrix.transpose(null, 1);
+
+        assertArrayEquals(new int[]{0, 2}, targets(matrix, 1, INCOMING, 0));
+        assertArrayEquals(new int[0], targets(matrix, 1, INCOMING, 1));
+        assertArrayEquals(new int[0], targets(matrix, 2, INCOMING, 0));
+        assertArrayEquals(new int[]{0, 1}, targets(matrix, 2, INCOMING, 1));
+        assertEquals(2, matrix.degree(2, INCOMING, 1));
+    }
+
+    @Test
+    public void testParallelTransposeMatchesLoadedIncoming() throws Exception {
+        final int nodeCount = 1000;
+        final AdjacencyMatrix expected = new AdjacencyMatrix(nodeCount, true, true);
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount, true, true);
+        for (int node = 0; node < nodeCount; node++) {
+            expected.armOut(node, 10);
+            matrix.armOut(node, 10);
+            for (int i = 10; i > 0; i--) {
+                final int target = (node * 31 + i * 7) % nodeCount;
+                expected.addOutgoing(node, target);
+                expected.addIncoming(node, target);
+                matrix.addOutgoing(node, target);
+            }
+        }
+        expected.sort(null, 1);
+        matrix.transpose(Pools.DEFAULT, 4);
+
+        for (int node = 0; node < nodeCount; node++) {
+            assertArrayEquals(targets(expected, node, INCOMING), targets(matrix, node, INCOMING));
+        }
+    }
+
+    @Test
+    public void testParallelTransposeOfWeightedLayers() throws Exception {
+        final int nodeCount = 500;
+        final AdjacencyMatrix serial = layeredMatrix(nodeCount);
+        final AdjacencyMatrix parallel = layeredMatrix(nodeCount);
+        serial.transpose(null, 1);
+        parallel.transpose(Pools.DEFAULT, 3);
+
+        for (int node = 0; node < nodeCount; node++) {
+            assertEquals(serial.degree(node, INCOMING), parallel.degree(node, INCOMING));
+            assertArrayEquals(weights(serial, node, INCOMING), weights(parallel, node, INCOMING), 0.0);
+            for (int layer = 0; layer < 2; layer++) {
+                final int[] targets = targets(parallel, node, INCOMING, layer);
+                assertArrayEquals(targets(serial, node, INCOMING, layer), targets);
+                for (int i = 1; i < targets.length; i++) {
+                    assertTrue(targets[i - 1] <= targets[i]);
+                }
+            }
+        }
+    }
+
+    private static AdjacencyMatrix layeredMatrix(int nodeCount) {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(nodeCount, true, true, true, 2);
+        for (int node = 0; node < nodeCount; node++) {
+            matrix.armOut(node, 5 + node % 3);
+            for (int i = 0; i < 5; i++) {
+                matrix.addOutgoing(node, (node * 17 + i * 13) % nodeCount, node + i / 10.0);
+            }
+            matrix.finishLayer(node, 0, Direction.OUTGOING);
+            for (int i = 0; i < node % 3; i++) {
+                matrix.addOutgoing(node, (node + i + 1) % nodeCount, -node - i / 10.0);
+            }
+            matrix.finishLayer(node, 1, Direction.OUTGOING);
+        }
+        return matrix;
+    }
+
+    private static int[] targets(AdjacencyMatrix matrix, int node, Direction direction) {
+        final List<Integer> targets = new ArrayList<>();
+        matrix.forEach(node, direction, (s, t, r) -> {
+            targets.add(t);
+            return true;
+        });
+        return targets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] targets(AdjacencyMatrix matrix, int node, Direction direction, int layer) {
+        final List<Integer> targets = new ArrayList<>();
+        matrix.forEach(node, direction, layer, (s, t, r) -> {
+            targets.add(t);
+            return true;
+        });
+        return targets.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static double[] weights(AdjacencyMatrix matrix, int node, Direction direction) {
+        final List<Double> weights = new ArrayList<>();
+        matrix.forEach(node, direction, 0.0, (s, t, r, w) -> {
+            weights.add(w);
+            return true;
+        });
+        return weights.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+}
@@ -70,6 +70,31 @@ public class HeavyCypherGraphParallelFactoryTest {
         loadAndTestGraph(nodeStatement, relStatement, true);
     }
 
+    @Test
+    public void testLoadRelationshipsAccumulateWeightSingleQueryCypher() throws Exception {
+        String nodeStatement = "MATCH (n) RETURN id(n) as id";
+        String relStatement =
+                "MATCH (n)-[r:REL]->(m) RETURN id(n) as source, id(m) as target, r.prop/2.0 as weight " +
+                "UNION ALL "+
+                "MATCH (n)-[r:REL]->(m) RETURN id(n) as source, id(m) as target, r.prop/2.0 as weight ";
+
+        loadAndTestGraph(nodeStatement, relStatement, true);
+    }
+
+    @Test
+    public void testLoadRelationshipsAccumulateWeightCypher() throws Exception {
+        // both halves of a relationship are COUNT rows apart, so with a batch
+        // size of 1000 they are always loaded by different batches and have
+        // to be summed in the reduction
+        String nodeStatement = "MATCH (n) RETURN id(n) as id";
+        String relStatement =
+                "UNWIND [1, 2] AS copy MATCH (n)-[r:REL]->(m) " +
+                "WITH copy, n, r, m ORDER BY copy, id(r) SKIP {skip} LIMIT {limit} " +
+                "RETURN id(n) as source, id(m) as target, r.prop/2.0 as weight";
+
+        loadAndTestGraph(nodeStatement, relStatement, true);
+    }
+
     @Test
     public void testLoadCypherBothParallel() throws Exception {
         String nodeStatement = "MATCH (n) WITH n SKIP {skip} LIMIT {limit} RETURN id(n) as id";
@@ -78,6 +103,40 @@ public class HeavyCypherGraphParallelFactoryTest {
         loadAndTestGraph(nodeStatement, relStatement, false);
     }
 
+    @Test
+    public void testLoadIdRangesParallelCypher() throws Exception {
+        String nodeStatement = "MATCH (n) WHERE id(n) >= $lowId AND id(n) < $highId RETURN id(n) as id";
+        String relStatement = "MATCH (n)-[r:REL]->(m) WHERE id(n) >= {lowId} AND id(n) < {highId} " +
+                "RETURN id(n) as source, id(m) as target, r.prop as weight";
+
+        loadAndTestGraph(nodeStatement, relStatement, false);
+    }
+
+    @Test
+    public void testLoadIdRangesParallelAccumulateWeightCypher() throws Exception {
+        String nodeStatement = "MATCH (n) WHERE id(n) >= $lowId AND id(n) < $highId RETURN id(n) as id";
+        String relStatement =
+                "MATCH (n)-[r:REL]->(m) WHERE id(n) >= $lowId AND id(n) < $highId " +
+                "RETURN id(n) as source, id(m) as target, r.prop/2.0 as weight " +
+                "UNION ALL " +
+                "MATCH (n)-[r:REL]->(m) WHERE id(n) >= $lowId AND id(n) < $highId " +
+                "RETURN id(n) as source, id(m) as target, r.prop/2.0 as weight";
+
+        loadAndTestGraph(nodeStatement, relStatement, true);
+    }
+
+    @Test
+    public void testLoadIdRangesWithoutExecutor() throws Exception {
+        final Graph graph = new GraphLoader((GraphDatabaseAPI) db)
+                .withBatchSize(1000)
+                .withLabel("MATCH (n) WHERE id(n) >= $lowId AND id(n) < $highId RETURN id(n) as id")
+                .withRelationshipType("MATCH (n)-[r:REL]->(m) WHERE id(n) >= $lowId AND id(n) < $highId " +
+                        "RETURN id(n) as source, id(m) as target")
+                .load(HeavyCypherGraphFactory.class);
+
+        assertEquals(COUNT, graph.nodeCount());
+    }
+
     protected void loadAndTestGraph(String nodeStatement, String relStatement, boolean accumulateWeights) {
         final Graph graph = new GraphLoader((GraphDatabaseAPI) db)
                 .withExecutorService(Pools.DEFAULT)
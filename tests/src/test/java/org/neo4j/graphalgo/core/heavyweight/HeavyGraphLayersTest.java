@@ -0,0 +1,121 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import algo.Pools;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.NamedNodesTestCase;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.RelationshipWeights;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Several relationship types loaded in one pass as layers.
+ *
+ *  (a)-[KNOWS 1.0]->(b)
+ *  (a)-[FOLLOWS 2.0]->(c)
+ *  (a)-[FOLLOWS 3.0]->(b)
+ *  (b)-[KNOWS 4.0]->(c)
+ *  (c)-[OTHER]->(a)       not loaded
+ */
+public final class HeavyGraphLayersTest extends NamedNodesTestCase {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE\n" +
+            "  (a)-[:KNOWS {w:1.0}]->(b),\n" +
+            "  (a)-[:FOLLOWS {w:2.0}]->(c),\n" +
+            "  (a)-[:FOLLOWS {w:3.0}]->(b),\n" +
+            "  (b)-[:KNOWS {w:4.0}]->(c),\n" +
+            "  (c)-[:OTHER {w:5.0}]->(a)";
+
+    @BeforeClass
+    public static void setupGraph() {
+        createGraph(DB_CYPHER);
+    }
+
+    @Test
+    public void testLayers() throws Exception {
+        final HeavyGraph graph = load("KNOWS|FOLLOWS|MISSING", false);
+
+        assertArrayEquals(new String[]{"KNOWS", "FOLLOWS"}, graph.relationshipTypes());
+        final int a = id(graph, "a");
+        assertEquals(3, graph.degree(a, Direction.OUTGOING));
+        assertEquals(1, graph.degree(a, Direction.OUTGOING, "KNOWS"));
+        assertEquals(2, graph.degree(a, Direction.OUTGOING, "FOLLOWS"));
+        assertEquals(0, graph.degree(a, Direction.INCOMING));
+        assertEquals(list(graph, "b"), targets(graph, "a", "KNOWS", Direction.OUTGOING));
+        assertEquals(list(graph, "b", "c"), targets(graph, "a", "FOLLOWS", Direction.OUTGOING));
+        assertEquals(list(graph, "a", "b"), targets(graph, "c", "FOLLOWS|KNOWS", Direction.INCOMING));
+        assertEquals(list(graph, "b"), targets(graph, "c", "KNOWS", Direction.INCOMING));
+        assertEquals(2.0, graph.weightOf(a, id(graph, "c")), 0.0);
+    }
+
+    @Test
+    public void testSortedLayers() throws Exception {
+        final HeavyGraph graph = load("KNOWS|FOLLOWS", true);
+        final int a = id(graph, "a");
+        final int b = id(graph, "b");
+
+        assertEquals(1, graph.degree(a, Direction.OUTGOING, "KNOWS"));
+        assertEquals(1.0, graph.weightOf(a, b), 0.0);
+        final RelationshipWeights follows = (RelationshipWeights) graph.withRelationshipTypes("FOLLOWS");
+        assertEquals(3.0, follows.weightOf(a, b), 0.0);
+        assertEquals(0.0, follows.weightOf(b, id(graph, "c")), 0.0);
+    }
+
+    @Test
+    public void testSelectTypes() throws Exception {
+        final HeavyGraph graph = load("KNOWS|FOLLOWS", false);
+        assertSame(graph, graph.withRelationshipTypes("FOLLOWS", "KNOWS"));
+
+        final Graph knows = graph.withRelationshipTypes("KNOWS");
+        assertEquals(3, knows.nodeCount());
+        assertEquals(1, knows.degree(id(graph, "a"), Direction.BOTH));
+        assertEquals(2, knows.degree(id(graph, "b"), Direction.BOTH));
+        final List<Integer> targets = new ArrayList<>();
+        knows.forEachRelationship(id(graph, "b"), Direction.BOTH, (s, t, r) -> targets.add(t));
+        targets.sort(Integer::compare);
+        assertEquals(list(graph, "a", "c"), targets);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownType() throws Exception {
+        load("KNOWS|FOLLOWS", false).withRelationshipTypes("OTHER");
+    }
+
+    @Test
+    public void testSingleTypeHasNoLayers() throws Exception {
+        final HeavyGraph graph = load(":KNOWS", false);
+        assertEquals(0, graph.relationshipTypes().length);
+        assertEquals(1, graph.degree(id(graph, "a"), Direction.OUTGOING));
+    }
+
+    private static HeavyGraph load(String relationshipType, boolean sort) {
+        return (HeavyGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType(relationshipType)
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withExecutorService(Pools.DEFAULT)
+                .withSort(sort)
+                .load(HeavyGraphFactory.class);
+    }
+
+    private static List<Integer> targets(HeavyGraph graph, String name, String types, Direction direction) {
+        final List<Integer> targets = new ArrayList<>();
+        for (String type : types.split("\\|")) {
+            graph.forEachRelationship(id(graph, name), direction, type, (s, t, r) -> targets.add(t));
+        }
+        targets.sort(Integer::compare);
+        return targets;
+    }
+}
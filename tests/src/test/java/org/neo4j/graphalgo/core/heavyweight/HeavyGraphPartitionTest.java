@@ -0,0 +1,203 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import algo.Pools;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphPartition;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.NodeOrder;
+import org.neo4j.graphalgo.api.RelationshipIterator;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public final class HeavyGraphPartitionTest {
+
+    private static final String DB_CYPHER = "" +
+            "UNWIND range(0, 99) AS i\n" +
+            "CREATE (:Node {id:i})\n" +
+            "WITH count(*) AS ignored\n" +
+            "MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 100 OR b.id = (a.id * 7) % 100\n" +
+            "CREATE (a)-[:TYPE]->(b)";
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    public void testPartitionsOfEveryBatch() throws Exception {
+        final Collection<Snapshot> snapshots = new ConcurrentLinkedQueue<>();
+        final Collection<Boolean> incomingFailed = new ConcurrentLinkedQueue<>();
+        final Graph graph = new HeavyGraphFactory(db, setup(Direction.BOTH))
+                .build(10, partition -> {
+                    snapshots.add(new Snapshot(partition, Direction.OUTGOING));
+                    // incoming relationships are transposed after the import
+                    try {
+                        partition.degree(partition.startNode(), Direction.INCOMING);
+                    } catch (UnsupportedOperationException expected) {
+                        incomingFailed.add(true);
+                    }
+                });
+
+        assertEquals(10, snapshots.size());
+        assertEquals(10, incomingFailed.size());
+        assertCovered(graph, snapshots, Direction.OUTGOING);
+    }
+
+    @Test
+    public void testIncomingPartitions() throws Exception {
+        final Collection<Snapshot> snapshots = new ConcurrentLinkedQueue<>();
+        final Graph graph = new HeavyGraphFactory(db, setup(Direction.INCOMING))
+                .build(30, collect(snapshots, Direction.INCOMING));
+
+        assertEquals(4, snapshots.size());
+        assertCovered(graph, snapshots, Direction.INCOMING);
+    }
+
+    @Test
+    public void testReorderedGraphIsPublishedAsWhole() throws Exception {
+        final Collection<Snapshot> snapshots = new ConcurrentLinkedQueue<>();
+        final Graph graph = new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withNodeOrder(NodeOrder.DEGREE)
+                .withExecutorService(Pools.DEFAULT)
+                .load(HeavyGraphFactory.class, collect(snapshots, Direction.BOTH));
+
+        assertEquals(1, snapshots.size());
+        assertCovered(graph, snapshots, Direction.BOTH);
+    }
+
+    @Test
+    public void testPartitionsAreConsumedBeforeTheRowsAreSorted() throws Exception {
+        final Collection<Snapshot> snapshots = new ConcurrentLinkedQueue<>();
+        final Graph graph = new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(Direction.OUTGOING)
+                .withSort(true)
+                .withExecutorService(Pools.DEFAULT)
+                .load(HeavyGraphFactory.class, collect(snapshots, Direction.OUTGOING));
+
+        assertCovered(graph, snapshots, Direction.OUTGOING);
+        graph.forEachNode(node -> {
+            final int[] last = {-1};
+            graph.forEachRelationship(node, Direction.OUTGOING, (s, t, r) -> {
+                assertEquals(true, last[0] <= t);
+                last[0] = t;
+                return true;
+            });
+            return true;
+        });
+    }
+
+    @Test
+    public void testPartitionIsReleasedAfterTheConsumer() throws Exception {
+        final Collection<GraphPartition> partitions = new ConcurrentLinkedQueue<>();
+        new HeavyGraphFactory(db, setup(Direction.OUTGOING)).build(30, partitions::add);
+        new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withNodeOrder(NodeOrder.DEGREE)
+                .load(HeavyGraphFactory.class, partitions::add);
+
+        assertEquals(5, partitions.size());
+        for (GraphPartition partition : partitions) {
+            final int node = partition.startNode();
+            try {
+                partition.degree(node, Direction.OUTGOING);
+                fail("a released partition must not be queried");
+            } catch (IllegalStateException expected) {
+            }
+            try {
+                partition.forEachRelationship(node, Direction.OUTGOING, (s, t, r) -> true);
+                fail("a released partition must not be queried");
+            } catch (IllegalStateException expected) {
+            }
+        }
+    }
+
+    private static GraphSetup setup(Direction direction) {
+        return new GraphSetup(
+                "Node", null, "TYPE", direction,
+                null, 1.0, null, 0.0, null, 0.0,
+                Pools.DEFAULT, -1, false);
+    }
+
+    private static Consumer<GraphPartition> collect(Collection<Snapshot> snapshots, Direction direction) {
+        return partition -> snapshots.add(new Snapshot(partition, direction));
+    }
+
+    private static void assertCovered(Graph graph, Collection<Snapshot> snapshots, Direction direction) {
+        final boolean[] seen = new boolean[graph.nodeCount()];
+        for (Snapshot snapshot : snapshots) {
+            for (int i = 0; i < snapshot.nodeCount; i++) {
+                final int node = snapshot.startNode + i;
+                assertEquals(false, seen[node]);
+                seen[node] = true;
+                assertEquals(graph.degree(node, direction), snapshot.degrees[i]);
+                assertEquals(relationships(graph, node, direction), snapshot.relationships.get(i));
+            }
+        }
+        for (boolean covered : seen) {
+            assertEquals(true, covered);
+        }
+    }
+
+    private static List<Long> relationships(RelationshipIterator iterator, int node, Direction direction) {
+        final List<Long> relationships = new ArrayList<>();
+        iterator.forEachRelationship(node, direction, (s, t, r) -> {
+            assertEquals(node, s);
+            relationships.add(r);
+            return true;
+        });
+        relationships.sort(Long::compare);
+        return relationships;
+    }
+
+    /**
+     * the content of a partition, read while it is handed to the consumer
+     */
+    private static final class Snapshot {
+        private final int startNode;
+        private final int nodeCount;
+        private final int[] degrees;
+        private final List<List<Long>> relationships;
+
+        private Snapshot(GraphPartition partition, Direction direction) {
+            startNode = partition.startNode();
+            nodeCount = partition.nodeCount();
+            degrees = new int[nodeCount];
+            relationships = new ArrayList<>(nodeCount);
+            for (int i = 0; i < nodeCount; i++) {
+                degrees[i] = partition.degree(startNode + i, direction);
+                relationships.add(HeavyGraphPartitionTest.relationships(partition, startNode + i, direction));
+            }
+        }
+    }
+}
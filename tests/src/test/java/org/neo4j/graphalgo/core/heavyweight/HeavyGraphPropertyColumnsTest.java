@@ -0,0 +1,87 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import algo.Pools;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.NamedNodesTestCase;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Transaction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Several node properties loaded as columns in one pass.
+ */
+public final class HeavyGraphPropertyColumnsTest extends NamedNodesTestCase {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a', x:1.0, y:2, z:'3.5'})\n" +
+            "CREATE (b:Node {name:'b', x:4.0, z:true})\n" +
+            "CREATE (c:Node {name:'c', y:5, w:6.0})\n" +
+            "CREATE (d:Node {name:'d', x:7.0, y:8, z:9.0, w:10.0})\n" +
+            "CREATE (a)-[:TYPE]->(b), (c)-[:TYPE]->(d)";
+
+    @BeforeClass
+    public static void setupGraph() {
+        createGraph(DB_CYPHER);
+    }
+
+    @Test
+    public void testColumns() throws Exception {
+        final HeavyGraph graph = (HeavyGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withNodeWeightsFromProperty("w", -1.0)
+                .withNodePropertyColumn("x", 0.0)
+                .withNodePropertyColumn("y", -1.0)
+                .withNodePropertyColumn("z", 0.0)
+                .withNodePropertyColumn("missing", 42.0)
+                .withExecutorService(Pools.DEFAULT)
+                .load(HeavyGraphFactory.class);
+
+        assertArrayEquals(new String[]{"x", "y", "z", "missing"}, graph.propertyKeys());
+        final int x = graph.column("x");
+        final int y = graph.column("y");
+        final int z = graph.column("z");
+        assertEquals(-1, graph.column("w"));
+
+        assertEquals(1.0, graph.columnValue(x, id(graph, "a")), 0.0);
+        assertEquals(2.0, graph.columnValue(y, id(graph, "a")), 0.0);
+        assertEquals(3.5, graph.columnValue(z, id(graph, "a")), 0.0);
+        assertEquals(-1.0, graph.columnValue(y, id(graph, "b")), 0.0);
+        assertEquals(1.0, graph.columnValue(z, id(graph, "b")), 0.0);
+        assertEquals(0.0, graph.columnValue(x, id(graph, "c")), 0.0);
+        assertEquals(42.0, graph.columnValue(graph.column("missing"), id(graph, "d")), 0.0);
+        // node weights are read in the same pass
+        assertEquals(6.0, graph.weightOf(id(graph, "c")), 0.0);
+        assertEquals(-1.0, graph.weightOf(id(graph, "a")), 0.0);
+    }
+
+    @Test
+    public void testColumnsOfSeveralBatches() throws Exception {
+        final GraphSetup setup = GraphSetup.builder()
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(Direction.OUTGOING)
+                .withNodeWeightsFromProperty("w", 0.0)
+                .withNodePropertyColumns(new String[]{"x", "y"}, new double[]{0.0, 0.0})
+                .build();
+        final HeavyGraph graph = (HeavyGraph) new HeavyGraphFactory(db, setup).build(1);
+
+        for (String name : new String[]{"a", "b", "c", "d"}) {
+            try (Transaction tx = db.beginTx()) {
+                final Node node = db.findNode(Label.label("Node"), "name", name);
+                final int nodeId = graph.toMappedNodeId(node.getId());
+                assertEquals(name, ((Number) node.getProperty("x", 0.0)).doubleValue(), graph.columnValue(0, nodeId), 0.0);
+                assertEquals(name, ((Number) node.getProperty("y", 0.0)).doubleValue(), graph.columnValue(1, nodeId), 0.0);
+                assertEquals(name, ((Number) node.getProperty("w", 0.0)).doubleValue(), graph.weightOf(nodeId), 0.0);
+                tx.success();
+            }
+        }
+    }
+}
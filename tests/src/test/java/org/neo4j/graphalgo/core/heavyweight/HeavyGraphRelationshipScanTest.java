@@ -0,0 +1,157 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import algo.Pools;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * compares graphs loaded by a scan of the relationship store
+ * to those loaded by following the relationship chains
+ */
+public final class HeavyGraphRelationshipScanTest {
+
+    private static final String DB_CYPHER = "" +
+            "UNWIND range(0, 99) AS i\n" +
+            "CREATE (n:Node {id:i})\n" +
+            "WITH n, i WHERE i % 10 = 0\n" +
+            "SET n:Other\n" +
+            "WITH count(*) AS ignored\n" +
+            "MATCH (a), (b) WHERE b.id = (a.id + 1) % 100 OR b.id = (a.id * 7) % 100\n" +
+            "CREATE (a)-[:TYPE {w:a.id}]->(b)\n" +
+            "CREATE (b)-[:OTHER {w:b.id}]->(a)";
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+        // leave holes in the relationship store
+        try (Transaction tx = db.beginTx()) {
+            db.execute("MATCH (a)-[r]->() WHERE a.id % 3 = 0 DELETE r").close();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    public void testWholeGraph() throws Exception {
+        assertSameGraph(null, null, Direction.BOTH);
+    }
+
+    @Test
+    public void testOutgoing() throws Exception {
+        assertSameGraph(null, null, Direction.OUTGOING);
+    }
+
+    @Test
+    public void testIncoming() throws Exception {
+        assertSameGraph(null, null, Direction.INCOMING);
+    }
+
+    @Test
+    public void testLabelAndType() throws Exception {
+        assertSameGraph("Other", "TYPE", Direction.BOTH);
+        assertSameGraph("Node", "OTHER", Direction.BOTH);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSeveralTypesAreRejected() throws Exception {
+        load(null, "TYPE|OTHER", Direction.OUTGOING, true);
+    }
+
+    @Test
+    public void testRowsOfConcurrentlyModifiedStore() throws Exception {
+        // counted: node 0 has two relationships, node 1 one and node 2 none
+        final AtomicIntegerArray remaining = new AtomicIntegerArray(new int[]{2, 1, 0});
+        final RelationshipScanLoader.Rows rows = new RelationshipScanLoader.Rows(remaining, true);
+        // scattered: a third one of node 0 was created, the one of node 1 deleted
+        rows.add(remaining, 0, 1, 1.0);
+        rows.add(remaining, 0, 2, 2.0);
+        rows.add(remaining, 0, 3, 3.0);
+        rows.add(remaining, 2, 0, 4.0);
+        rows.trim(remaining);
+
+        assertArrayEquals(new int[]{2, 0, 0}, rows.degrees);
+        assertArrayEquals(new int[]{2, 1}, rows.targets[0]);
+        assertArrayEquals(new double[]{2.0, 1.0}, rows.weights[0], 0.0);
+        assertEquals(0, rows.targets[1].length);
+        assertEquals(0, rows.weights[1].length);
+        assertEquals(0, rows.targets[2].length);
+    }
+
+    @Test
+    public void testNodeWeightsWithScan() throws Exception {
+        final GraphSetup setup = GraphSetup.builder()
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(Direction.OUTGOING)
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withNodeWeightsFromProperty("id", 0.0)
+                .withExecutorService(Pools.DEFAULT)
+                .withRelationshipScan(true)
+                .build();
+        final HeavyGraph graph = (HeavyGraph) new HeavyGraphFactory(db, setup).build(10);
+        try (Transaction tx = db.beginTx()) {
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                final Object id = db.getNodeById(graph.toOriginalNodeId(node)).getProperty("id");
+                assertEquals(((Number) id).doubleValue(), graph.weightOf(node), 0.0);
+            }
+            tx.success();
+        }
+    }
+
+    private static void assertSameGraph(String label, String type, Direction direction) {
+        final Graph expected = load(label, type, direction, false);
+        final Graph actual = load(label, type, direction, true);
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertEquals(expected.toOriginalNodeId(node), actual.toOriginalNodeId(node));
+            assertEquals(expected.degree(node, direction), actual.degree(node, direction));
+            assertEquals(relationships(expected, node, direction), relationships(actual, node, direction));
+        }
+    }
+
+    private static List<String> relationships(Graph graph, int node, Direction direction) {
+        final List<String> relationships = new ArrayList<>();
+        graph.forEachRelationship(node, direction, (s, t, r, w) -> {
+            relationships.add(s + "-" + t + ":" + w);
+            return true;
+        });
+        relationships.sort(String::compareTo);
+        return relationships;
+    }
+
+    private static Graph load(String label, String type, Direction direction, boolean scan) {
+        final GraphSetup setup = GraphSetup.builder()
+                .withLabel(label)
+                .withRelationshipType(type)
+                .withDirection(direction)
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withExecutorService(Pools.DEFAULT)
+                .withRelationshipScan(scan)
+                .build();
+        return new HeavyGraphFactory(db, setup).build(10);
+    }
+}
@@ -0,0 +1,142 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import algo.Pools;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.NamedNodesTestCase;
+import org.neo4j.graphalgo.api.NodeOrder;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *  (x)-->(y)-->(z)             a chain
+ *  (a)-->(h), (b)-->(h) ...    a star around the hub h
+ */
+public final class HeavyGraphReorderTest extends NamedNodesTestCase {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (x:Node {name:'x', p:1.0})\n" +
+            "CREATE (y:Node {name:'y', p:2.0})\n" +
+            "CREATE (z:Node {name:'z', p:3.0})\n" +
+            "CREATE (a:Node {name:'a', p:4.0})\n" +
+            "CREATE (b:Node {name:'b', p:5.0})\n" +
+            "CREATE (c:Node {name:'c', p:6.0})\n" +
+            "CREATE (h:Node {name:'h', p:7.0})\n" +
+            "CREATE\n" +
+            "  (x)-[:TYPE {w:1.0}]->(y),\n" +
+            "  (y)-[:TYPE {w:2.0}]->(z),\n" +
+            "  (a)-[:TYPE {w:3.0}]->(h),\n" +
+            "  (b)-[:TYPE {w:4.0}]->(h),\n" +
+            "  (c)-[:TYPE {w:5.0}]->(h),\n" +
+            "  (h)-[:TYPE {w:6.0}]->(x)";
+
+    @BeforeClass
+    public static void setupGraph() {
+        createGraph(DB_CYPHER);
+    }
+
+    @Test
+    public void testDegreeOrder() throws Exception {
+        final HeavyGraph graph = load(NodeOrder.DEGREE);
+        assertEquals(0, id(graph, "h"));
+        for (int node = 1; node < graph.nodeCount(); node++) {
+            assertTrue(graph.degree(node - 1, Direction.BOTH) >= graph.degree(node, Direction.BOTH));
+        }
+        assertSameGraph(graph);
+    }
+
+    @Test
+    public void testBreadthFirstOrder() throws Exception {
+        final HeavyGraph graph = load(NodeOrder.BFS);
+        assertEquals(0, id(graph, "h"));
+        // the neighbours of the hub follow it
+        final Set<Integer> neighbours = new HashSet<>();
+        graph.forEachRelationship(0, Direction.BOTH, (s, t, r) -> neighbours.add(t));
+        for (int node = 1; node <= 4; node++) {
+            assertTrue(neighbours.contains(node));
+        }
+        assertSameGraph(graph);
+    }
+
+    @Test
+    public void testDegreeOrderOfOutgoingGraph() throws Exception {
+        final HeavyGraph graph = load(NodeOrder.DEGREE, Direction.OUTGOING);
+        // x, y and h have one outgoing relationship each, in that order
+        assertEquals(0, id(graph, "x"));
+        assertEquals(1, id(graph, "y"));
+        for (int node = 1; node < graph.nodeCount(); node++) {
+            assertTrue(graph.degree(node - 1, Direction.OUTGOING) >= graph.degree(node, Direction.OUTGOING));
+        }
+        assertSameGraph(graph, Direction.OUTGOING);
+    }
+
+    @Test
+    public void testBreadthFirstOrderOfOutgoingGraph() throws Exception {
+        final HeavyGraph graph = load(NodeOrder.BFS, Direction.OUTGOING);
+        // x -> y -> z, then a -> h
+        assertEquals(0, id(graph, "x"));
+        assertEquals(1, id(graph, "y"));
+        assertEquals(2, id(graph, "z"));
+        assertEquals(3, id(graph, "a"));
+        assertEquals(4, id(graph, "h"));
+        assertSameGraph(graph, Direction.OUTGOING);
+    }
+
+    private static void assertSameGraph(HeavyGraph graph) {
+        assertSameGraph(graph, Direction.BOTH);
+    }
+
+    private static void assertSameGraph(HeavyGraph graph, Direction direction) {
+        assertEquals(7, graph.nodeCount());
+        final int column = graph.column("p");
+        try (Transaction tx = db.beginTx()) {
+            for (Node node : db.getAllNodes()) {
+                final int nodeId = graph.toMappedNodeId(node.getId());
+                assertEquals(node.getId(), graph.toOriginalNodeId(nodeId));
+                assertEquals((double) node.getProperty("p"), graph.weightOf(nodeId), 0.0);
+                assertEquals((double) node.getProperty("p"), graph.columnValue(column, nodeId), 0.0);
+                if (direction == Direction.BOTH) {
+                    assertEquals(node.getDegree(), graph.degree(nodeId, Direction.BOTH));
+                } else {
+                    assertEquals(node.getDegree(Direction.OUTGOING), graph.degree(nodeId, Direction.OUTGOING));
+                }
+            }
+            for (Relationship rel : db.getAllRelationships()) {
+                final int source = graph.toMappedNodeId(rel.getStartNode().getId());
+                final int target = graph.toMappedNodeId(rel.getEndNode().getId());
+                assertTrue(graph.exists(source, target, Direction.OUTGOING));
+                if (direction == Direction.BOTH) {
+                    assertTrue(graph.exists(target, source, Direction.INCOMING));
+                }
+                assertEquals((double) rel.getProperty("w"), graph.weightOf(source, target), 0.0);
+            }
+            tx.success();
+        }
+    }
+
+    private static HeavyGraph load(NodeOrder order) {
+        return load(order, Direction.BOTH);
+    }
+
+    private static HeavyGraph load(NodeOrder order, Direction direction) {
+        return (HeavyGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withNodeWeightsFromProperty("p", 0.0)
+                .withNodePropertyColumn("p", 0.0)
+                .withNodeOrder(order)
+                .withDirection(direction)
+                .withExecutorService(Pools.DEFAULT)
+                .load(HeavyGraphFactory.class);
+    }
+}
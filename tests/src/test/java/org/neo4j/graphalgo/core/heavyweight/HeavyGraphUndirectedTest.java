@@ -0,0 +1,104 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import algo.Pools;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.NamedNodesTestCase;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Incoming and outgoing relationships merged into one list per node.
+ *
+ *  (a)-[1.0]->(b)
+ *  (b)-[2.0]->(a)    reciprocal, kept once
+ *  (a)-[3.0]->(c)
+ *  (c)-[4.0]->(c)    self loop
+ *  (d)
+ */
+public final class HeavyGraphUndirectedTest extends NamedNodesTestCase {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE (d:Node {name:'d'})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE {w:1.0}]->(b),\n" +
+            "  (b)-[:TYPE {w:2.0}]->(a),\n" +
+            "  (a)-[:TYPE {w:3.0}]->(c),\n" +
+            "  (c)-[:TYPE {w:4.0}]->(c)";
+
+    private static HeavyGraph graph;
+
+    @BeforeClass
+    public static void setupGraph() {
+        createGraph(DB_CYPHER);
+        graph = (HeavyGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withDirection(Direction.OUTGOING)
+                .withUndirected(true)
+                .withExecutorService(Pools.DEFAULT)
+                .load(HeavyGraphFactory.class);
+    }
+
+    @Test
+    public void testNeighbours() throws Exception {
+        assertTrue(graph.isSorted());
+        for (Direction direction : Direction.values()) {
+            assertEquals(list("b", "c"), targets("a", direction));
+            assertEquals(list("a"), targets("b", direction));
+            assertEquals(list("a", "c"), targets("c", direction));
+            assertEquals(list(), targets("d", direction));
+        }
+    }
+
+    @Test
+    public void testDegrees() throws Exception {
+        for (Direction direction : Direction.values()) {
+            assertEquals(2, graph.degree(id("a"), direction));
+            assertEquals(1, graph.degree(id("b"), direction));
+            assertEquals(2, graph.degree(id("c"), direction));
+            assertEquals(0, graph.degree(id("d"), direction));
+        }
+    }
+
+    @Test
+    public void testWeights() throws Exception {
+        // the weight of the outgoing relationship is kept
+        assertEquals(1.0, graph.weightOf(id("a"), id("b")), 0.0);
+        assertEquals(2.0, graph.weightOf(id("b"), id("a")), 0.0);
+        assertEquals(3.0, graph.weightOf(id("c"), id("a")), 0.0);
+        assertEquals(4.0, graph.weightOf(id("c"), id("c")), 0.0);
+    }
+
+    @Test
+    public void testExists() throws Exception {
+        assertTrue(graph.exists(id("c"), id("a"), Direction.OUTGOING));
+        assertTrue(graph.exists(id("a"), id("c"), Direction.INCOMING));
+        assertFalse(graph.exists(id("b"), id("c"), Direction.BOTH));
+    }
+
+    private static int id(String name) {
+        return id(graph, name);
+    }
+
+    private static List<Integer> list(String... names) {
+        return list(graph, names);
+    }
+
+    private static List<Integer> targets(String name, Direction direction) {
+        final List<Integer> targets = new ArrayList<>();
+        graph.forEachRelationship(id(name), direction, (s, t, r) -> targets.add(t));
+        return targets;
+    }
+}
@@ -0,0 +1,367 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.NodeWeights;
+import org.neo4j.graphalgo.api.RelationshipTypeLayers;
+import org.neo4j.graphalgo.api.RelationshipWeights;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Changes of the database must show up in the incremental graph.
+ *
+ *  (a)-[1.0]->(b)       a has a size of 2.0
+ *  (b)-[2.0]->(c)
+ *  (x)                  not part of the projection
+ */
+public final class IncrementalGraphTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a', size:2.0})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE (x:Other {name:'x'})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE {w:1.0}]->(b),\n" +
+            "  (b)-[:TYPE {w:2.0}]->(c),\n" +
+            "  (x)-[:TYPE {w:3.0}]->(a)";
+
+    private GraphDatabaseAPI db;
+    private IncrementalGraph graph;
+
+    @Before
+    public void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        run(DB_CYPHER);
+    }
+
+    @After
+    public void shutdown() {
+        if (graph != null) {
+            graph.release();
+        }
+        db.shutdown();
+    }
+
+    @Test
+    public void testCreatedRelationship() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        final Graph before = graph.snapshot();
+        run("MATCH (c:Node {name:'c'}), (a:Node {name:'a'}) CREATE (c)-[:TYPE {w:4.0}]->(a)");
+
+        final Graph after = graph.snapshot();
+        assertEquals(list(after, "a"), targets(after, "c", Direction.OUTGOING));
+        assertEquals(list(after, "c"), targets(after, "a", Direction.INCOMING));
+        assertEquals(4.0, ((RelationshipWeights) after).weightOf(id(after, "c"), id(after, "a")), 0.0);
+        assertEquals(1, graph.pendingChanges());
+        // a snapshot taken before the commit does not change
+        assertEquals(list(before), targets(before, "c", Direction.OUTGOING));
+    }
+
+    @Test
+    public void testIgnoresOtherTypesAndLabels() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("MATCH (c:Node {name:'c'}), (a:Node {name:'a'}), (x:Other) " +
+                "CREATE (c)-[:OTHER]->(a), (a)-[:TYPE]->(x), (:Other)");
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(0, graph.degree(id(graph, "c"), Direction.OUTGOING));
+        assertEquals(1, graph.degree(id(graph, "a"), Direction.OUTGOING));
+        assertEquals(0, graph.pendingChanges());
+    }
+
+    @Test
+    public void testDeletedRelationship() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("MATCH (:Node {name:'a'})-[r:TYPE]->(:Node {name:'b'}) DELETE r");
+
+        assertEquals(0, graph.degree(id(graph, "a"), Direction.OUTGOING));
+        assertEquals(list(graph, "c"), targets(graph, "b", Direction.BOTH));
+        assertEquals(1, graph.pendingChanges());
+    }
+
+    @Test
+    public void testCreatedNode() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("MATCH (c:Node {name:'c'}) CREATE (c)-[:TYPE {w:5.0}]->(:Node {name:'d'})");
+
+        assertEquals(4, graph.nodeCount());
+        assertEquals(3, id(graph, "d"));
+        assertTrue(graph.contains(nodeId("d")));
+        assertEquals(nodeId("d"), graph.toOriginalNodeId(3));
+        assertEquals(list(graph, "b", "d"), targets(graph, "c", Direction.BOTH));
+        assertEquals(list(graph, "c"), targets(graph, "d", Direction.INCOMING));
+        assertEquals(5.0, graph.weightOf(id(graph, "c"), id(graph, "d")), 0.0);
+    }
+
+    @Test
+    public void testAssignedLabel() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("MATCH (x:Other) SET x:Node");
+
+        assertEquals(4, graph.nodeCount());
+        assertEquals(list(graph, "x"), targets(graph, "a", Direction.INCOMING));
+        assertEquals(3.0, graph.weightOf(id(graph, "x"), id(graph, "a")), 0.0);
+    }
+
+    @Test
+    public void testDeletedNodeIsCompacted() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        final long b = nodeId("b");
+        run("MATCH (b:Node {name:'b'}) DETACH DELETE b");
+
+        assertEquals(2, graph.nodeCount());
+        assertFalse(graph.contains(b));
+        assertEquals(0, graph.pendingChanges());
+        assertEquals(0, graph.degree(id(graph, "a"), Direction.BOTH));
+        assertEquals(0, graph.degree(id(graph, "c"), Direction.BOTH));
+    }
+
+    @Test
+    public void testQueuedCommitsKeepSnapshots() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("MATCH (c:Node {name:'c'}), (a:Node {name:'a'}) CREATE (c)-[:TYPE {w:4.0}]->(a)");
+        final Graph first = graph.snapshot();
+        // several commits are applied at once by the next snapshot
+        run("MATCH (a:Node {name:'a'}), (c:Node {name:'c'}) CREATE (a)-[:TYPE {w:5.0}]->(c)");
+        run("MATCH (:Node {name:'b'})-[r:TYPE]->(:Node {name:'c'}) DELETE r");
+        run("MATCH (c:Node {name:'c'}) CREATE (c)-[:TYPE {w:6.0}]->(:Node {name:'d'})");
+        final Graph second = graph.snapshot();
+
+        assertEquals(3, first.nodeCount());
+        assertEquals(list(first, "a"), targets(first, "c", Direction.OUTGOING));
+        assertEquals(list(first, "b"), targets(first, "a", Direction.OUTGOING));
+        assertEquals(list(first, "a", "b"), targets(first, "c", Direction.BOTH));
+
+        assertEquals(4, second.nodeCount());
+        assertEquals(list(second, "a", "d"), targets(second, "c", Direction.OUTGOING));
+        assertEquals(list(second, "b", "c"), targets(second, "a", Direction.OUTGOING));
+        assertEquals(list(second, "a", "a", "d"), targets(second, "c", Direction.BOTH));
+        assertEquals(5, graph.pendingChanges());
+    }
+
+    @Test
+    public void testCreatedNodeAfterQueuedDeletion() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("MATCH (b:Node {name:'b'}) DETACH DELETE b");
+        run("MATCH (a:Node {name:'a'}) CREATE (a)-[:TYPE {w:7.0}]->(:Node {name:'e'})");
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(list(graph, "e"), targets(graph, "a", Direction.BOTH));
+        assertEquals(7.0, graph.weightOf(id(graph, "a"), id(graph, "e")), 0.0);
+        assertEquals(nodeId("e"), graph.toOriginalNodeId(id(graph, "e")));
+    }
+
+    @Test
+    public void testManyCreatedNodes() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        run("UNWIND range(1, 1500) AS i CREATE (:Node {name:'n' + i})");
+        final Graph first = graph.snapshot();
+        run("MATCH (a:Node {name:'a'}), (n:Node {name:'n1500'}) CREATE (n)-[:TYPE {w:8.0}]->(a)");
+
+        assertEquals(1503, first.nodeCount());
+        assertEquals(1503, graph.nodeCount());
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            assertEquals(node, graph.toMappedNodeId(graph.toOriginalNodeId(node)));
+        }
+        assertEquals(list(graph, "n1500"), targets(graph, "a", Direction.INCOMING));
+        assertEquals(list(first), targets(first, "a", Direction.INCOMING));
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        register(2);
+        run("MATCH (c:Node {name:'c'}), (a:Node {name:'a'}) CREATE (c)-[:TYPE {w:4.0}]->(a)");
+        assertEquals(1, graph.pendingChanges());
+        run("MATCH (a:Node {name:'a'})-[r:TYPE]->(b:Node {name:'b'}) DELETE r CREATE (a)-[:TYPE {w:6.0}]->(b)");
+
+        assertEquals(0, graph.pendingChanges());
+        assertEquals(3, graph.nodeCount());
+        assertEquals(list(graph, "b"), targets(graph, "a", Direction.OUTGOING));
+        assertEquals(list(graph, "a", "b"), targets(graph, "c", Direction.BOTH));
+        assertEquals(6.0, graph.weightOf(id(graph, "a"), id(graph, "b")), 0.0);
+        assertEquals(4.0, graph.weightOf(id(graph, "c"), id(graph, "a")), 0.0);
+    }
+
+    @Test
+    public void testLayersAndNodeWeightsSurviveCompaction() throws Exception {
+        graph = IncrementalGraph.load(db, () -> (HeavyGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE|OTHER")
+                .withRelationshipWeightsFromProperty("w", 1.0)
+                .withNodeWeightsFromProperty("size", 1.0)
+                .load(HeavyGraphFactory.class), "Node", "TYPE|OTHER", "w", 1.0, 2);
+        run("MATCH (c:Node {name:'c'}), (a:Node {name:'a'}) CREATE (c)-[:OTHER {w:4.0}]->(a)");
+
+        final Graph overlaid = graph.snapshot();
+        assertEquals(1, graph.pendingChanges());
+        assertEquals(list(overlaid, "a"), targets(select(overlaid, "OTHER"), "c", Direction.OUTGOING));
+        assertEquals(list(overlaid), targets(select(overlaid, "TYPE"), "c", Direction.OUTGOING));
+        assertEquals(list(overlaid, "b"), targets(select(overlaid, "TYPE"), "a", Direction.BOTH));
+
+        run("MATCH (a:Node {name:'a'})-[r:TYPE]->(b:Node {name:'b'}) DELETE r CREATE (a)-[:OTHER {w:6.0}]->(b)");
+
+        final Graph compacted = graph.snapshot();
+        assertEquals(0, graph.pendingChanges());
+        assertEquals(list(compacted, "a"), targets(select(compacted, "OTHER"), "c", Direction.OUTGOING));
+        assertEquals(list(compacted, "b"), targets(select(compacted, "OTHER"), "a", Direction.OUTGOING));
+        assertEquals(list(compacted), targets(select(compacted, "TYPE"), "a", Direction.OUTGOING));
+        assertEquals(list(compacted, "c"), targets(select(compacted, "TYPE"), "b", Direction.OUTGOING));
+        assertEquals(list(compacted, "b", "c"), targets(compacted, "a", Direction.BOTH));
+        assertEquals(6.0, ((RelationshipWeights) select(compacted, "OTHER"))
+                .weightOf(id(compacted, "a"), id(compacted, "b")), 0.0);
+        assertEquals(2.0, ((NodeWeights) compacted).weightOf(id(compacted, "a")), 0.0);
+        assertEquals(1.0, ((NodeWeights) compacted).weightOf(id(compacted, "b")), 0.0);
+    }
+
+    @Test
+    public void testCommitsWhileLoading() throws Exception {
+        graph = IncrementalGraph.load(db, () -> {
+            // seen by the load
+            run("MATCH (c:Node {name:'c'}), (a:Node {name:'a'}) CREATE (c)-[:TYPE {w:4.0}]->(a)");
+            final HeavyGraph loaded = load();
+            // committed after the store has been read
+            run("MATCH (:Node {name:'a'})-[r:TYPE]->(:Node {name:'b'}) DELETE r");
+            run("MATCH (c:Node {name:'c'}) CREATE (c)-[:TYPE {w:5.0}]->(:Node {name:'d'})");
+            run("MATCH (x:Other) SET x:Node");
+            return loaded;
+        }, "Node", "TYPE", "w", 1.0, IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+
+        assertEquals(5, graph.nodeCount());
+        assertEquals(list(graph, "a", "d"), targets(graph, "c", Direction.OUTGOING));
+        assertEquals(list(graph, "c", "x"), targets(graph, "a", Direction.INCOMING));
+        assertEquals(list(graph), targets(graph, "a", Direction.OUTGOING));
+        assertEquals(list(graph, "c"), targets(graph, "b", Direction.BOTH));
+        assertEquals(4.0, graph.weightOf(id(graph, "c"), id(graph, "a")), 0.0);
+        assertEquals(5.0, graph.weightOf(id(graph, "c"), id(graph, "d")), 0.0);
+        assertEquals(3.0, graph.weightOf(id(graph, "x"), id(graph, "a")), 0.0);
+
+        run("MATCH (a:Node {name:'a'}), (d:Node {name:'d'}) CREATE (a)-[:TYPE {w:6.0}]->(d)");
+        assertEquals(list(graph, "d"), targets(graph, "a", Direction.OUTGOING));
+    }
+
+    @Test
+    public void testConcurrentCommitsWhileLoading() throws Exception {
+        run("UNWIND range(1, 100) AS i CREATE (:Node {name:'n' + i})");
+        final Thread writer = new Thread(() -> {
+            for (int i = 1; i <= 100; i++) {
+                run("MATCH (a:Node {name:'a'}), (n:Node {name:'n" + i + "'}) " +
+                        "CREATE (a)-[:TYPE]->(n), (n)-[:TYPE]->(a)");
+                if (i % 10 == 0) {
+                    run("MATCH (:Node {name:'a'})-[r:TYPE]->(:Node {name:'n" + (i - 5) + "'}) DELETE r");
+                }
+            }
+        });
+        graph = IncrementalGraph.load(db, () -> {
+            writer.start();
+            return load();
+        }, "Node", "TYPE", "w", 1.0, IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        writer.join();
+
+        final HeavyGraph expected = load();
+        assertEquals(expected.nodeCount(), graph.nodeCount());
+        for (String name : new String[]{"a", "b", "c", "n5", "n50", "n95", "n100"}) {
+            assertEquals(name, originalTargets(expected, name, Direction.OUTGOING),
+                    originalTargets(graph, name, Direction.OUTGOING));
+            assertEquals(name, originalTargets(expected, name, Direction.INCOMING),
+                    originalTargets(graph, name, Direction.INCOMING));
+        }
+    }
+
+    @Test
+    public void testRollbackAndRelease() throws Exception {
+        register(IncrementalGraph.DEFAULT_COMPACTION_THRESHOLD);
+        try (Transaction tx = db.beginTx()) {
+            db.execute("CREATE (:Node {name:'d'})").close();
+            tx.failure();
+        }
+        assertEquals(3, graph.nodeCount());
+
+        graph.release();
+        run("CREATE (:Node {name:'e'})");
+        assertEquals(3, graph.nodeCount());
+    }
+
+    private void register(int compactionThreshold) {
+        graph = IncrementalGraph.load(db, this::load, "Node", "TYPE", "w", 1.0, compactionThreshold);
+    }
+
+    private HeavyGraph load() {
+        return (HeavyGraph) new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withRelationshipWeightsFromProperty("w", 1.0)
+                .load(HeavyGraphFactory.class);
+    }
+
+    private static Graph select(Graph graph, String relationshipType) {
+        return ((RelationshipTypeLayers) graph).withRelationshipTypes(relationshipType);
+    }
+
+    private void run(String cypher) {
+        try (Transaction tx = db.beginTx()) {
+            db.execute(cypher).resultAsString();
+            tx.success();
+        }
+    }
+
+    private long nodeId(String name) {
+        try (Transaction tx = db.beginTx()) {
+            final long id = db.execute("MATCH (n {name:$name}) RETURN id(n) AS id",
+                    singletonMap("name", name))
+                    .<Long>columnAs("id")
+                    .next();
+            tx.success();
+            return id;
+        }
+    }
+
+    private int id(Graph graph, String name) {
+        return graph.toMappedNodeId(nodeId(name));
+    }
+
+    private List<Integer> list(Graph graph, String... names) {
+        final List<Integer> ids = new ArrayList<>();
+        for (String name : names) {
+            ids.add(id(graph, name));
+        }
+        ids.sort(Integer::compare);
+        return ids;
+    }
+
+    private List<Integer> targets(Graph graph, String name, Direction direction) {
+        final List<Integer> targets = new ArrayList<>();
+        graph.forEachRelationship(id(graph, name), direction, (source, target, relationId) -> {
+            targets.add(target);
+            return true;
+        });
+        targets.sort(Integer::compare);
+        assertEquals(targets.size(), graph.degree(id(graph, name), direction));
+        return targets;
+    }
+
+    private List<Long> originalTargets(Graph graph, String name, Direction direction) {
+        final List<Long> targets = new ArrayList<>();
+        for (int target : targets(graph, name, direction)) {
+            targets.add(graph.toOriginalNodeId(target));
+        }
+        targets.sort(Long::compare);
+        return targets;
+    }
+}
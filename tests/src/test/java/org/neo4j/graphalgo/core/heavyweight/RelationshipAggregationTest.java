@@ -0,0 +1,61 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.graphdb.Direction.INCOMING;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+public class RelationshipAggregationTest {
+
+    @Test
+    public void testSumsParallelRelationships() throws Exception {
+        final RelationshipAggregation aggregation = new RelationshipAggregation(5, 2);
+        aggregation.add(0, 1, 1.0);
+        aggregation.add(0, 1, 2.0);
+        aggregation.add(0, 0, 4.0);
+        aggregation.add(4, 0, 3.0);
+        assertEquals(2, aggregation.rangeCount());
+        assertEquals(3, aggregation.size());
+
+        final AdjacencyMatrix matrix = write(aggregation);
+        assertEquals(2, matrix.degree(0, OUTGOING));
+        assertEquals(3.0, matrix.weightOf(0, 1, 0.0), 0.0);
+        assertEquals(4.0, matrix.weightOf(0, 0, 0.0), 0.0);
+        assertEquals(3.0, matrix.weightOf(4, 0, 0.0), 0.0);
+        assertEquals(0, matrix.degree(1, OUTGOING));
+        assertEquals(0, matrix.degree(0, INCOMING));
+    }
+
+    @Test
+    public void testMergeByRange() throws Exception {
+        final RelationshipAggregation first = new RelationshipAggregation(4, 2);
+        first.add(0, 3, 1.0);
+        first.add(3, 0, 1.0);
+        final RelationshipAggregation second = new RelationshipAggregation(4, 2);
+        second.add(0, 3, 2.0);
+        second.add(2, 1, 5.0);
+
+        // only the first range
+        first.merge(second, 0);
+        AdjacencyMatrix matrix = write(first);
+        assertEquals(3.0, matrix.weightOf(0, 3, 0.0), 0.0);
+        assertFalse(matrix.hasOutgoing(2, 1));
+
+        first.merge(second, 1);
+        matrix = write(first);
+        assertTrue(matrix.hasOutgoing(2, 1));
+        assertEquals(5.0, matrix.weightOf(2, 1, 0.0), 0.0);
+        assertEquals(3, first.size());
+    }
+
+    private static AdjacencyMatrix write(RelationshipAggregation aggregation) {
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(5, true, true, true);
+        for (int range = 0; range < aggregation.rangeCount(); range++) {
+            aggregation.writeTo(matrix, range);
+        }
+        return matrix;
+    }
+}
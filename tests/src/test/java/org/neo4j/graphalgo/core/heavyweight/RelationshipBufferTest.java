@@ -0,0 +1,54 @@
+package org.neo4j.graphalgo.core.heavyweight;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.neo4j.graphdb.Direction.OUTGOING;
+
+public class RelationshipBufferTest {
+
+    @Test
+    public void testSortKeepsWeightsAligned() throws Exception {
+        final RelationshipBuffer buffer = new RelationshipBuffer(4, true);
+        buffer.add(2, 0, 3.0);
+        buffer.add(0, 2, 2.0);
+        buffer.add(0, 1, 1.0);
+        buffer.add(1, 0, 4.0);
+        buffer.sort();
+
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(3, true, true, true);
+        buffer.writeTo(matrix, 0, buffer.size());
+        assertEquals(1.0, matrix.weightOf(0, 1, 0.0), 0.0);
+        assertEquals(2.0, matrix.weightOf(0, 2, 0.0), 0.0);
+        assertEquals(4.0, matrix.weightOf(1, 0, 0.0), 0.0);
+        assertEquals(3.0, matrix.weightOf(2, 0, 0.0), 0.0);
+    }
+
+    @Test
+    public void testRanges() throws Exception {
+        final RelationshipBuffer buffer = new RelationshipBuffer(8, false);
+        buffer.add(3, 0, 0.0);
+        buffer.add(1, 0, 0.0);
+        buffer.add(1, 0, 0.0);
+        buffer.add(1, 2, 0.0);
+        buffer.add(4, 4, 0.0);
+        buffer.sort();
+
+        assertEquals(0, buffer.indexOf(0));
+        assertEquals(0, buffer.indexOf(1));
+        assertEquals(3, buffer.indexOf(2));
+        assertEquals(3, buffer.indexOf(3));
+        assertEquals(4, buffer.indexOf(4));
+        assertEquals(5, buffer.indexOf(5));
+
+        final int[] degrees = new int[3];
+        buffer.countDegrees(buffer.indexOf(1), buffer.indexOf(4), 1, degrees);
+        assertArrayEquals(new int[]{3, 0, 1}, degrees);
+
+        final AdjacencyMatrix matrix = new AdjacencyMatrix(5, false, true);
+        buffer.writeTo(matrix, buffer.indexOf(1), buffer.indexOf(2));
+        assertEquals(3, matrix.degree(1, OUTGOING));
+        assertEquals(0, matrix.degree(3, OUTGOING));
+    }
+}
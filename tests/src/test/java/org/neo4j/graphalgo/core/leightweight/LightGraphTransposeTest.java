@@ -0,0 +1,101 @@
+package org.neo4j.graphalgo.core.leightweight;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The incoming relationships of a graph loaded in both directions are
+ * built from the outgoing ones, they must match those read from the store.
+ */
+public class LightGraphTransposeTest {
+
+    private static final int COUNT = 500;
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute("UNWIND range(0, " + (COUNT - 1) + ") AS id CREATE (:Node {id:id})").close();
+            db.execute("MATCH (n:Node), (m:Node) " +
+                    "WHERE (n.id * 31 + m.id * 7) % 97 = 0 " +
+                    "CREATE (n)-[:TYPE {w:n.id + m.id / 1000.0}]->(m)").close();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    public void testTransposedIncomingMatchesLoadedIncoming() throws Exception {
+        final Graph both = load(Direction.BOTH);
+        final Graph incoming = load(Direction.INCOMING);
+
+        assertEquals(incoming.nodeCount(), both.nodeCount());
+        for (int node = 0; node < both.nodeCount(); node++) {
+            final long original = both.toOriginalNodeId(node);
+            final int other = incoming.toMappedNodeId(original);
+            assertEquals(incoming.degree(other, Direction.INCOMING), both.degree(node, Direction.INCOMING));
+            assertEquals(sources(incoming, other), sources(both, node));
+        }
+    }
+
+    @Test
+    public void testTransposedIncomingIsSortedBySource() throws Exception {
+        final Graph both = load(Direction.BOTH);
+        for (int node = 0; node < both.nodeCount(); node++) {
+            final int[] previous = {-1};
+            both.forEachRelationship(node, Direction.INCOMING, (s, t, r) -> {
+                assertTrue(previous[0] <= t);
+                previous[0] = t;
+                return true;
+            });
+        }
+    }
+
+    private static Graph load(Direction direction) {
+        return new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withRelationshipWeightsFromProperty("w", 0.0)
+                .withDirection(direction)
+                .withExecutorService(Pools.DEFAULT)
+                .withBatchSize(100)
+                .load(LightGraphFactory.class);
+    }
+
+    /**
+     * the original ids and weights of the incoming relationships, sorted
+     */
+    private static List<String> sources(Graph graph, int node) {
+        final List<String> sources = new ArrayList<>();
+        graph.forEachRelationship(node, Direction.INCOMING, (s, t, r, w) -> {
+            sources.add(graph.toOriginalNodeId(t) + ":" + w);
+            return true;
+        });
+        sources.sort(null);
+        return sources;
+    }
+}
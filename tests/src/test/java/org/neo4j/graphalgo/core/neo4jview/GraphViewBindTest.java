@@ -0,0 +1,102 @@
+package org.neo4j.graphalgo.core.neo4jview;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.ReadBinding;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public final class GraphViewBindTest {
+
+    private static final String DB_CYPHER = "" +
+            "UNWIND range(0, 99) AS i\n" +
+            "CREATE (:Node {id:i})\n" +
+            "WITH count(*) AS ignored\n" +
+            "MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 100 OR b.id = (a.id * 7) % 100\n" +
+            "CREATE (a)-[:TYPE {w:1.0}]->(b)";
+
+    private static GraphDatabaseAPI db;
+    private static GraphView graph;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+        graph = new GraphView(db, "Node", "TYPE", "w", 0.0);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    public void testBoundCallsMatchUnbound() throws Exception {
+        final List<Integer> expected = targets();
+        final List<Integer> actual;
+        try (GraphView.ReadContext context = graph.bind()) {
+            try (GraphView.ReadContext nested = graph.bind()) {
+                assertEquals(expected, targets());
+            }
+            // closing the nested context keeps the thread bound
+            actual = targets();
+        }
+        assertEquals(expected, actual);
+        assertEquals(expected, targets());
+    }
+
+    @Test
+    public void testBindPerThread() throws Exception {
+        final int expected = targets().size();
+        final AtomicInteger count = new AtomicInteger();
+        final List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            tasks.add(() -> {
+                // through the graph api, as the algorithms bind
+                final Graph api = graph;
+                try (ReadBinding.Context context = api.bind()) {
+                    count.addAndGet(targets().size());
+                }
+            });
+        }
+        ParallelUtil.run(tasks, Pools.DEFAULT);
+        assertEquals(4 * expected, count.get());
+    }
+
+    private static List<Integer> targets() {
+        final List<Integer> targets = new ArrayList<>();
+        graph.forEachNode(node -> {
+            assertEquals(graph.degree(node, Direction.OUTGOING), countOutgoing(node));
+            graph.forEachRelationship(node, Direction.OUTGOING, (s, t, r, w) -> {
+                targets.add(t);
+                return true;
+            });
+            return true;
+        });
+        return targets;
+    }
+
+    private static int countOutgoing(int node) {
+        final int[] count = {0};
+        graph.forEachRelationship(node, Direction.OUTGOING, (s, t, r) -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+}
@@ -0,0 +1,207 @@
+package org.neo4j.graphalgo.core.snapshot;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * A snapshot must map back to the same graph.
+ *
+ *  (a)-[1.0]->(b)
+ *  (a)-[2.0]->(c)
+ *  (b)-[3.0]->(c)
+ *  (c)-->(a)          no weight property
+ *  (d)                no relationships
+ */
+@RunWith(Parameterized.class)
+public final class GraphSnapshotTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE (d:Node {name:'d'})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE {w:1.0}]->(b),\n" +
+            "  (a)-[:TYPE {w:2.0}]->(c),\n" +
+            "  (b)-[:TYPE {w:3.0}]->(c),\n" +
+            "  (c)-[:TYPE]->(a)";
+
+    private static GraphDatabaseAPI db;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
+                new Object[]{LightGraphFactory.class, "LightGraphFactory"}
+        );
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (db != null) db.shutdown();
+    }
+
+    private final Class<? extends GraphFactory> graphImpl;
+
+    public GraphSnapshotTest(
+            Class<? extends GraphFactory> graphImpl,
+            String name) {
+        this.graphImpl = graphImpl;
+    }
+
+    @Test
+    public void testWeightedBothDirections() throws Exception {
+        final Graph graph = load(Direction.BOTH, true);
+        final Path file = folder.newFile().toPath();
+        final long bytes = GraphSnapshot.write(graph, Direction.BOTH, true, 42.0, file, Pools.DEFAULT);
+        assertEquals(file.toFile().length(), bytes);
+
+        final GraphSnapshot.Snapshot snapshot = GraphSnapshot.read(file, true);
+        assertEquals(Direction.BOTH, snapshot.direction);
+        assertTrue(snapshot.weighted);
+        assertSameGraph(graph, snapshot.graph, Direction.INCOMING);
+        assertSameGraph(graph, snapshot.graph, Direction.OUTGOING);
+    }
+
+    @Test
+    public void testUnweightedOutgoing() throws Exception {
+        final Graph graph = load(Direction.OUTGOING, false);
+        final Path file = folder.newFile().toPath();
+        GraphSnapshot.write(graph, Direction.OUTGOING, false, 42.0, file, null);
+
+        final GraphSnapshot.Snapshot snapshot = GraphSnapshot.read(file, true);
+        assertEquals(Direction.OUTGOING, snapshot.direction);
+        assertEquals(42.0, snapshot.defaultWeight, 0.0);
+        assertSameGraph(graph, snapshot.graph, Direction.OUTGOING);
+        snapshot.graph.forEachRelationship(0, Direction.OUTGOING, (s, t, r, w) -> {
+            assertEquals(42.0, w, 0.0);
+            return true;
+        });
+    }
+
+    @Test
+    public void testCorruptSection() throws Exception {
+        final Path file = folder.newFile().toPath();
+        GraphSnapshot.write(load(Direction.OUTGOING, true), Direction.OUTGOING, true, 0.0, file, null);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            final long last = raf.length() - 1;
+            raf.seek(last);
+            final int value = raf.read();
+            raf.seek(last);
+            raf.write(value ^ 0xFF);
+        }
+        // without verification the corruption goes unnoticed
+        GraphSnapshot.read(file, false);
+        try {
+            GraphSnapshot.read(file, true);
+            fail("corrupt section must be detected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Corrupt snapshot section"));
+        }
+    }
+
+    @Test
+    public void testUnsupportedVersion() throws Exception {
+        final Path file = folder.newFile().toPath();
+        GraphSnapshot.write(load(Direction.OUTGOING, false), Direction.OUTGOING, false, 0.0, file, null);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(Integer.BYTES);
+            raf.writeInt(GraphSnapshot.VERSION + 1);
+        }
+        try {
+            GraphSnapshot.read(file, true);
+            fail("unknown version must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Unsupported snapshot version"));
+        }
+    }
+
+    @Test
+    public void testNoSnapshot() throws Exception {
+        final Path file = folder.newFile().toPath();
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.write(new byte[64]);
+        }
+        try {
+            GraphSnapshot.read(file, true);
+            fail("file without magic must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Not a graph snapshot"));
+        }
+    }
+
+    private Graph load(Direction direction, boolean weighted) {
+        final GraphLoader loader = new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(direction)
+                .withExecutorService(Pools.DEFAULT);
+        if (weighted) {
+            loader.withRelationshipWeightsFromProperty("w", 42.0);
+        } else {
+            loader.withDefaultRelationshipWeight(42.0);
+        }
+        return loader.load(graphImpl);
+    }
+
+    private static void assertSameGraph(Graph expected, Graph actual, Direction direction) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            final long nodeId = expected.toOriginalNodeId(node);
+            assertEquals(nodeId, actual.toOriginalNodeId(node));
+            assertEquals(node, actual.toMappedNodeId(nodeId));
+            assertEquals(expected.degree(node, direction), actual.degree(node, direction));
+            assertEquals(relationships(expected, node, direction), relationships(actual, node, direction));
+        }
+    }
+
+    private static List<String> relationships(Graph graph, int node, Direction direction) {
+        final List<String> relationships = new ArrayList<>();
+        graph.forEachRelationship(node, direction, (source, target, relationId, weight) -> {
+            relationships.add(source + "->" + target + ":" + weight);
+            return true;
+        });
+        return relationships;
+    }
+}
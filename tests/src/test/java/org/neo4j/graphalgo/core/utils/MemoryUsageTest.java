@@ -0,0 +1,33 @@
+package org.neo4j.graphalgo.core.utils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertTrue;
+
+public class MemoryUsageTest {
+
+    @Test
+    public void testGarbageIsNotCountedAsUsed() throws Exception {
+        long garbage = 0L;
+        for (int i = 0; i < 64; i++) {
+            garbage += new long[1 << 16].length;
+        }
+        final Runtime runtime = Runtime.getRuntime();
+        final long withGarbage = runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory());
+        final long free = MemoryUsage.freeHeap();
+        assertTrue(garbage > 0L);
+        assertTrue(free >= withGarbage);
+        assertTrue(free <= runtime.maxMemory());
+    }
+
+    @Test
+    public void testAssertFits() throws Exception {
+        MemoryUsage.assertFits("Nothing", 0L);
+        try {
+            MemoryUsage.assertFits("Everything", Runtime.getRuntime().maxMemory() + 1L);
+            throw new AssertionError("more than the maximum heap must not fit");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().startsWith("Everything needs about"));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.neo4j.graphalgo.core.utils;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.leightweight.LightGraphFactory;
+import org.neo4j.graphalgo.core.neo4jview.GraphViewFactory;
+import org.neo4j.graphalgo.impl.AllShortestPaths;
+import org.neo4j.graphalgo.impl.HugePageRank;
+import org.neo4j.graphalgo.impl.PageRank;
+import org.neo4j.graphalgo.impl.ParallelBetweennessCentrality;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransactionTerminatedException;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.Status;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class TerminationFlagTest {
+
+    private static final String DB_CYPHER = "" +
+            "UNWIND range(0, 99) AS i\n" +
+            "CREATE (:Node {id:i})\n" +
+            "WITH count(*) AS ignored\n" +
+            "MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 100 OR b.id = (a.id * 7) % 100\n" +
+            "CREATE (a)-[:TYPE]->(b)";
+
+    private static final TerminationFlag TERMINATED = () -> false;
+
+    private static GraphDatabaseAPI db;
+    private static Graph graph;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+        graph = loader().load(HeavyGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    public void testTransactionFlag() throws Exception {
+        try (Transaction tx = db.beginTx()) {
+            final KernelTransaction transaction = db.getDependencyResolver()
+                    .resolveDependency(ThreadToStatementContextBridge.class)
+                    .getKernelTransactionBoundToThisThread(true);
+            final TerminationFlag flag = TerminationFlag.wrap(transaction);
+            assertTrue(flag.running());
+            transaction.markForTermination(Status.Transaction.Terminated);
+            assertFalse(flag.running());
+        }
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedLoad() throws Exception {
+        loader().withTerminationFlag(TERMINATED).load(HeavyGraphFactory.class);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedLightLoad() throws Exception {
+        loader().withTerminationFlag(TERMINATED).load(LightGraphFactory.class);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedHugeLoad() throws Exception {
+        loader().withTerminationFlag(TERMINATED).load(HugeGraphFactory.class);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedGraphView() throws Exception {
+        loader().withTerminationFlag(TERMINATED).load(GraphViewFactory.class);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedCypherLoad() throws Exception {
+        new GraphLoader(db)
+                .withLabel("MATCH (n:Node) RETURN id(n) AS id")
+                .withRelationshipType("MATCH (a:Node)-[:TYPE]->(b:Node) RETURN id(a) AS source, id(b) AS target")
+                .withExecutorService(Pools.DEFAULT)
+                .withTerminationFlag(TERMINATED)
+                .load(HeavyCypherGraphFactory.class);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedPageRank() throws Exception {
+        new PageRank(Pools.DEFAULT, 4, 10, graph, graph, graph, graph, 0.85)
+                .withTerminationFlag(terminatedAfter(3))
+                .compute(20);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedHugePageRank() throws Exception {
+        final HugeGraph hugeGraph = (HugeGraph) loader().load(HugeGraphFactory.class);
+        new HugePageRank(Pools.DEFAULT, 4, 10, hugeGraph, 0.85)
+                .withTerminationFlag(terminatedAfter(3))
+                .compute(20);
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedBetweenness() throws Exception {
+        new ParallelBetweennessCentrality(graph, 100_000, Pools.DEFAULT, 4)
+                .withTerminationFlag(terminatedAfter(10))
+                .compute();
+    }
+
+    @Test(expected = TransactionTerminatedException.class)
+    public void testTerminatedAllShortestPaths() throws Exception {
+        // the workers stop and the stream fails instead of waiting for the missing results
+        final long results = new AllShortestPaths(graph, Pools.DEFAULT, 4)
+                .withTerminationFlag(TERMINATED)
+                .resultStream()
+                .count();
+        assertEquals(0, results);
+    }
+
+    private static TerminationFlag terminatedAfter(int polls) {
+        final AtomicInteger remaining = new AtomicInteger(polls);
+        return () -> remaining.getAndDecrement() > 0;
+    }
+
+    private static GraphLoader loader() {
+        return new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withExecutorService(Pools.DEFAULT);
+    }
+}
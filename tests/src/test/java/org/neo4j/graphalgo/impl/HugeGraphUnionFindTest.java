@@ -0,0 +1,86 @@
+package org.neo4j.graphalgo.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.Neo4JTestCase;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.dss.HugeDisjointSetStruct;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ *          A---D   F
+ *         / \   \
+ *        B--C    E
+ */
+public class HugeGraphUnionFindTest extends Neo4JTestCase {
+
+    private static HugeGraph graph;
+    private static long a, b, c, d, e, f;
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (db != null) db.shutdown();
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        final int n1 = newNode();
+        final int n2 = newNode();
+        final int n3 = newNode();
+        final int n4 = newNode();
+        final int n5 = newNode();
+        final int n6 = newNode();
+
+        newRelation(n1, n2, 3d);
+        newRelation(n2, n3, 3d);
+        newRelation(n3, n1, 3d);
+        newRelation(n4, n5, 3d);
+        newRelation(n1, n4, 1d);
+
+        graph = (HugeGraph) new GraphLoader((GraphDatabaseAPI) db)
+                .withAnyLabel()
+                .withRelationshipType(RELATION)
+                .withDirection(Direction.OUTGOING)
+                .load(HugeGraphFactory.class);
+
+        a = graph.toHugeMappedNodeId(n1);
+        b = graph.toHugeMappedNodeId(n2);
+        c = graph.toHugeMappedNodeId(n3);
+        d = graph.toHugeMappedNodeId(n4);
+        e = graph.toHugeMappedNodeId(n5);
+        f = graph.toHugeMappedNodeId(n6);
+    }
+
+    @Test
+    public void test() throws Exception {
+        final HugeDisjointSetStruct struct = new HugeGraphUnionFind(graph).compute();
+        assertEquals(2L, struct.getSetCount());
+        assertSameSet(struct, a, b, c, d, e);
+        assertNotSameSet(struct, f, a, b, c, d, e);
+    }
+
+    private static void assertSameSet(HugeDisjointSetStruct dss, long needle, long... elements) {
+        final long setId = dss.find(needle);
+        for (long element : elements) {
+            assertEquals("element " + element + " does not belong to set " + setId,
+                    setId,
+                    dss.find(element));
+        }
+    }
+
+    private static void assertNotSameSet(HugeDisjointSetStruct dss, long needle, long... elements) {
+        final long setId = dss.find(needle);
+        for (long element : elements) {
+            assertNotEquals("element " + element + " belongs to set " + setId + " but should not",
+                    setId,
+                    dss.find(element));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.neo4j.graphalgo.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.HugeDoubleArray;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+public final class HugePageRankTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (_:Label0 {name:\"_\"})\n" +
+            "CREATE (a:Label1 {name:\"a\"})\n" +
+            "CREATE (b:Label1 {name:\"b\"})\n" +
+            "CREATE (c:Label1 {name:\"c\"})\n" +
+            "CREATE (d:Label1 {name:\"d\"})\n" +
+            "CREATE (e:Label1 {name:\"e\"})\n" +
+            "CREATE (f:Label1 {name:\"f\"})\n" +
+            "CREATE (g:Label1 {name:\"g\"})\n" +
+            "CREATE (h:Label1 {name:\"h\"})\n" +
+            "CREATE (i:Label1 {name:\"i\"})\n" +
+            "CREATE (j:Label1 {name:\"j\"})\n" +
+            "CREATE (k:Label2 {name:\"k\"})\n" +
+            "CREATE (l:Label2 {name:\"l\"})\n" +
+            "CREATE (m:Label2 {name:\"m\"})\n" +
+            "CREATE (n:Label2 {name:\"n\"})\n" +
+            "CREATE (o:Label2 {name:\"o\"})\n" +
+            "CREATE (p:Label2 {name:\"p\"})\n" +
+            "CREATE (q:Label2 {name:\"q\"})\n" +
+            "CREATE (r:Label2 {name:\"r\"})\n" +
+            "CREATE (s:Label2 {name:\"s\"})\n" +
+            "CREATE (t:Label2 {name:\"t\"})\n" +
+            "CREATE\n" +
+            "  (b)-[:TYPE1]->(c),\n" +
+            "  (c)-[:TYPE1]->(b),\n" +
+            "  (d)-[:TYPE1]->(a),\n" +
+            "  (d)-[:TYPE1]->(b),\n" +
+            "  (e)-[:TYPE1]->(b),\n" +
+            "  (e)-[:TYPE1]->(d),\n" +
+            "  (e)-[:TYPE1]->(f),\n" +
+            "  (f)-[:TYPE1]->(b),\n" +
+            "  (f)-[:TYPE1]->(e),\n" +
+            "  (g)-[:TYPE2]->(b),\n" +
+            "  (g)-[:TYPE2]->(e),\n" +
+            "  (h)-[:TYPE2]->(b),\n" +
+            "  (h)-[:TYPE2]->(e),\n" +
+            "  (i)-[:TYPE2]->(b),\n" +
+            "  (i)-[:TYPE2]->(e),\n" +
+            "  (j)-[:TYPE2]->(e),\n" +
+            "  (k)-[:TYPE2]->(e)\n";
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = (GraphDatabaseAPI)
+                new TestGraphDatabaseFactory()
+                        .newImpermanentDatabaseBuilder()
+                        .newGraphDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void shutdownGraph() throws Exception {
+        db.shutdown();
+    }
+
+    @Test
+    public void test() throws Exception {
+        final HugeGraph graph = loadGraph();
+        assertRanks(graph, new HugePageRank(null, 1, 10_000, graph, 0.85).compute(40).getPageRank());
+    }
+
+    @Test
+    public void testParallel() throws Exception {
+        final HugeGraph graph = loadGraph();
+        assertRanks(graph, new HugePageRank(Pools.DEFAULT, 4, 1, graph, 0.85).compute(40).getPageRank());
+    }
+
+    private HugeGraph loadGraph() {
+        return (HugeGraph) new GraphLoader(db)
+                .withLabel("Label1")
+                .withRelationshipType("TYPE1")
+                .withDirection(Direction.BOTH)
+                .load(HugeGraphFactory.class);
+    }
+
+    private void assertRanks(HugeGraph graph, HugeDoubleArray ranks) {
+        final Label label = Label.label("Label1");
+        final Map<Long, Double> expected = new HashMap<>();
+
+        try (Transaction tx = db.beginTx()) {
+            expected.put(db.findNode(label, "name", "a").getId(), 0.243);
+            expected.put(db.findNode(label, "name", "b").getId(), 1.915);
+            expected.put(db.findNode(label, "name", "c").getId(), 1.777);
+            expected.put(db.findNode(label, "name", "d").getId(), 0.218);
+            expected.put(db.findNode(label, "name", "e").getId(), 0.243);
+            expected.put(db.findNode(label, "name", "f").getId(), 0.218);
+            expected.put(db.findNode(label, "name", "g").getId(), 0.150);
+            expected.put(db.findNode(label, "name", "h").getId(), 0.150);
+            expected.put(db.findNode(label, "name", "i").getId(), 0.150);
+            expected.put(db.findNode(label, "name", "j").getId(), 0.150);
+            tx.close();
+        }
+
+        assertEquals(expected.size(), ranks.size());
+        for (long i = 0L; i < ranks.size(); i++) {
+            final long nodeId = graph.toOriginalNodeId(i);
+            assertEquals("Node#" + nodeId, expected.get(nodeId), ranks.get(i), 1e-3);
+        }
+    }
+}
@@ -4,11 +4,10 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.neo4j.graphalgo.Neo4JTestCase;
+import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
-import org.neo4j.graphalgo.core.sources.BothRelationshipAdapter;
-import org.neo4j.graphalgo.core.sources.BufferedWeightMap;
-import org.neo4j.graphalgo.core.sources.LazyIdMapper;
-import org.neo4j.graphalgo.core.utils.container.RelationshipContainer;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
@@ -35,9 +34,7 @@ import static org.junit.Assert.assertTrue;
 public class MSTPrimTest extends Neo4JTestCase {
 
     private static int a, b, c, d, e;
-    private static LazyIdMapper idMapper;
-    private static BufferedWeightMap weightMap;
-    private static BothRelationshipAdapter bothRelationshipAdapter;
+    private static Graph graph;
 
     @AfterClass
     public static void tearDown() throws Exception {
@@ -59,56 +56,53 @@ public class MSTPrimTest extends Neo4JTestCase {
         newRelation(c, e, 5);
         newRelation(d, e, 6);
 
-        idMapper = new LazyIdMapper(5);
-
-        weightMap = BufferedWeightMap.importer((GraphDatabaseAPI) db)
-                .withIdMapping(idMapper)
-                .withAnyDirection(true)
+        graph = new GraphLoader((GraphDatabaseAPI) db)
                 .withLabel(LABEL)
                 .withRelationshipType(RELATION)
-                .withWeightsFromProperty(WEIGHT_PROPERTY, 0.0)
-                .build();
-
-        RelationshipContainer relationshipContainer = RelationshipContainer.importer((GraphDatabaseAPI) db)
-                .withIdMapping(idMapper)
+                .withRelationshipWeightsFromProperty(WEIGHT_PROPERTY, 0.0)
                 .withDirection(Direction.BOTH)
-                .withLabel(LABEL)
-                .withRelationshipType(RELATION)
-                .withWeightsFromProperty(WEIGHT_PROPERTY, 0.0)
-                .build();
+                .load(HeavyGraphFactory.class);
 
-        bothRelationshipAdapter = new BothRelationshipAdapter(relationshipContainer);
-
-        a = idMapper.toMappedNodeId(a);
-        b = idMapper.toMappedNodeId(b);
-        c = idMapper.toMappedNodeId(c);
-        d = idMapper.toMappedNodeId(d);
-        e = idMapper.toMappedNodeId(e);
+        a = graph.toMappedNodeId(a);
+        b = graph.toMappedNodeId(b);
+        c = graph.toMappedNodeId(c);
+        d = graph.toMappedNodeId(d);
+        e = graph.toMappedNodeId(e);
     }
 
     @Test
     public void testMstFromA() throws Exception {
-        verifyMst(new MSTPrim(idMapper, bothRelationshipAdapter, weightMap).compute(a).getMinimumSpanningTree());
+        verifyMst(new MSTPrim(graph, graph).compute(a).getMinimumSpanningTree());
     }
 
     @Test
     public void testMstFromB() throws Exception {
-        verifyMst(new MSTPrim(idMapper, bothRelationshipAdapter, weightMap).compute(b).getMinimumSpanningTree());
+        verifyMst(new MSTPrim(graph, graph).compute(b).getMinimumSpanningTree());
     }
 
     @Test
     public void testMstFromC() throws Exception {
-        verifyMst(new MSTPrim(idMapper, bothRelationshipAdapter, weightMap).compute(c).getMinimumSpanningTree());
+        verifyMst(new MSTPrim(graph, graph).compute(c).getMinimumSpanningTree());
     }
 
     @Test
     public void testMstFromD() throws Exception {
-        verifyMst(new MSTPrim(idMapper, bothRelationshipAdapter, weightMap).compute(d).getMinimumSpanningTree());
+        verifyMst(new MSTPrim(graph, graph).compute(d).getMinimumSpanningTree());
     }
 
     @Test
     public void testMstFromE() throws Exception {
-        verifyMst(new MSTPrim(idMapper, bothRelationshipAdapter, weightMap).compute(d).getMinimumSpanningTree());
+        verifyMst(new MSTPrim(graph, graph).compute(d).getMinimumSpanningTree());
+    }
+
+    @Test
+    public void testAggregate() throws Exception {
+        final MSTPrim.MinimumSpanningTree.Aggregator aggregator =
+                new MSTPrim(graph, graph).compute(c).getMinimumSpanningTree().aggregate();
+        assertEquals(12.0, aggregator.getSum(), 0.01);
+        assertEquals(1.0, aggregator.getMin(), 0.01);
+        assertEquals(5.0, aggregator.getMax(), 0.01);
+        assertEquals(4, aggregator.getCount());
     }
 
     private void verifyMst(MSTPrim.MinimumSpanningTree mst) {